@@ -0,0 +1,75 @@
+package io.nuvalence.user.management.api.service.cerbos;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.nuvalence.user.management.api.service.cerbos.models.CheckResourceSetRequest;
+import io.nuvalence.user.management.api.service.cerbos.models.CheckResourceSetResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Benchmarks the per-request work {@link CerbosClient} does around a call to Cerbos: normalizing the resource
+ * name, building the check request and parsing the response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CerbosClientBenchmark {
+    private static final String[] ACTIONS = { "Read", "Write", "Delete" };
+
+    @Param({ "Dsgov-App 01", "dsgov_app_01" })
+    private String resourceName;
+
+    @Param({ "1", "50" })
+    private int instanceCount;
+
+    private List<String> roleNames;
+    private Set<String> instanceIds;
+    private ObjectMapper objectMapper;
+    private String checkResponseJson;
+
+    /**
+     * Builds the principal, the instances to check and a Cerbos response that allows the first action and denies
+     * the others on every instance.
+     */
+    @Setup
+    public void setUp() {
+        roleNames = List.of("ROLE_ADMIN", "ROLE_USER", "ROLE_AUDITOR");
+        instanceIds = IntStream.range(0, instanceCount).mapToObj(i -> "user" + i).collect(Collectors.toSet());
+        objectMapper = new ObjectMapper();
+
+        String instances = instanceIds.stream()
+                .map(instanceId -> "\"" + instanceId + "\":{\"actions\":{\"read\":\"EFFECT_ALLOW\","
+                        + "\"write\":\"EFFECT_DENY\",\"delete\":\"EFFECT_DENY\"}}")
+                .collect(Collectors.joining(","));
+        checkResponseJson = "{\"requestId\":\"5a8b2c1d\",\"resourceInstances\":{" + instances + "}}";
+    }
+
+    @Benchmark
+    public String ensureResourceNameIsInitialized() {
+        return CerbosClient.ensureResourceNameIsInitialized(resourceName);
+    }
+
+    @Benchmark
+    public CheckResourceSetRequest buildCheckRequest() {
+        return CerbosClient.buildCheckRequest(CerbosClient.ensureResourceNameIsInitialized(resourceName),
+                roleNames, instanceIds, ACTIONS);
+    }
+
+    @Benchmark
+    public CheckResourceSetResponse parseCheckResourceSetResponse() throws JsonProcessingException {
+        return objectMapper.readValue(checkResponseJson, CheckResourceSetResponse.class);
+    }
+}
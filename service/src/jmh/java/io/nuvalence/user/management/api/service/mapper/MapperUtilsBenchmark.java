@@ -0,0 +1,156 @@
+package io.nuvalence.user.management.api.service.mapper;
+
+import io.nuvalence.user.management.api.service.entity.ApplicationEntity;
+import io.nuvalence.user.management.api.service.entity.CustomFieldDataTypeEntity;
+import io.nuvalence.user.management.api.service.entity.CustomFieldEntity;
+import io.nuvalence.user.management.api.service.entity.CustomFieldOptionEntity;
+import io.nuvalence.user.management.api.service.entity.CustomFieldTypeEntity;
+import io.nuvalence.user.management.api.service.entity.RoleEntity;
+import io.nuvalence.user.management.api.service.entity.UserCustomFieldEntity;
+import io.nuvalence.user.management.api.service.entity.UserPreferenceEntity;
+import io.nuvalence.user.management.api.service.entity.UserPreferenceOptionEntity;
+import io.nuvalence.user.management.api.service.entity.UserPreferenceTypeEntity;
+import io.nuvalence.user.management.api.service.generated.models.RoleDTO;
+import io.nuvalence.user.management.api.service.generated.models.UserCustomFieldDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Benchmarks the {@link MapperUtils} mappings that run once per role, preference or custom field of a response.
+ * Only the role mapping depends on the number of roles and applications, so it has its own parameterized state.
+ */
+@SuppressWarnings("checkstyle:ClassDataAbstractionCoupling")
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MapperUtilsBenchmark {
+
+    /**
+     * Roles and applications, with every role holding permissions on every other application.
+     */
+    @State(Scope.Benchmark)
+    public static class Roles {
+        @Param({ "10", "100" })
+        private int roleCount;
+
+        @Param({ "5", "25" })
+        private int applicationCount;
+
+        private List<RoleEntity> roles;
+        private List<ApplicationEntity> applications;
+        private Map<String, Map<String, String[]>> applicationRolePermissionMappings;
+
+        /**
+         * Builds the roles and applications and their permission mappings.
+         */
+        @Setup
+        public void setUp() {
+            roles = IntStream.range(0, roleCount)
+                    .mapToObj(i -> new RoleEntity(UUID.randomUUID(), "ROLE_" + i, "Role " + i, null, null))
+                    .collect(Collectors.toList());
+            applications = IntStream.range(0, applicationCount)
+                    .mapToObj(i -> new ApplicationEntity(UUID.randomUUID(), "App " + i, null, "app_" + i, null))
+                    .collect(Collectors.toList());
+
+            applicationRolePermissionMappings = new HashMap<>();
+            for (int i = 0; i < applicationCount; i++) {
+                Map<String, String[]> rolePermissions = new HashMap<>();
+                for (int j = i % 2; j < roleCount; j += 2) {
+                    rolePermissions.put("ROLE_" + j, new String[] { "read", "write" });
+                }
+                applicationRolePermissionMappings.put("app_" + i, rolePermissions);
+            }
+        }
+    }
+
+    /**
+     * A set of user preferences, half of which are overridden per application, and two custom field values.
+     */
+    @State(Scope.Benchmark)
+    public static class Fields {
+        private List<UserPreferenceEntity> userPreferences;
+        private List<UserPreferenceEntity> applicationPreferences;
+        private UserCustomFieldEntity stringCustomField;
+        private UserCustomFieldEntity dropDownCustomField;
+
+        /**
+         * Builds the preferences and the custom field values.
+         */
+        @Setup
+        public void setUp() {
+            userPreferences = new ArrayList<>();
+            applicationPreferences = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                UserPreferenceTypeEntity type = new UserPreferenceTypeEntity(UUID.randomUUID(), "pref" + i, null);
+                userPreferences.add(preference(type, "user"));
+                if (i % 2 == 0) {
+                    applicationPreferences.add(preference(type, "app"));
+                }
+            }
+
+            stringCustomField = customField("text_field", "string", null);
+            stringCustomField.setCustomFieldValueString("value");
+            dropDownCustomField = customField("drop_down_list", "string", List.of(
+                    new CustomFieldOptionEntity(UUID.randomUUID(), null, "red", "Red"),
+                    new CustomFieldOptionEntity(UUID.randomUUID(), null, "green", "Green"),
+                    new CustomFieldOptionEntity(UUID.randomUUID(), null, "blue", "Blue")));
+            dropDownCustomField.setCustomFieldValueString("green");
+        }
+    }
+
+    @Benchmark
+    public List<RoleDTO> mapRoleEntitiesToRoleList(Roles state) {
+        return MapperUtils.mapRoleEntitiesToRoleList(state.roles, state.applicationRolePermissionMappings,
+                state.applications);
+    }
+
+    @Benchmark
+    public List<UserPreferenceEntity> overlapPreferenceEntities(Fields state) {
+        return MapperUtils.overlapPreferenceEntities(state.userPreferences, state.applicationPreferences);
+    }
+
+    @Benchmark
+    public UserCustomFieldDTO mapStringCustomFieldEntityToDto(Fields state) {
+        return MapperUtils.mapUserCustomFieldEntityToDto(state.stringCustomField);
+    }
+
+    @Benchmark
+    public UserCustomFieldDTO mapDropDownCustomFieldEntityToDto(Fields state) {
+        return MapperUtils.mapUserCustomFieldEntityToDto(state.dropDownCustomField);
+    }
+
+    private static UserPreferenceEntity preference(UserPreferenceTypeEntity type, String value) {
+        UserPreferenceOptionEntity option = new UserPreferenceOptionEntity(UUID.randomUUID(), value, type);
+        return new UserPreferenceEntity(UUID.randomUUID(), null, type, option, null);
+    }
+
+    private static UserCustomFieldEntity customField(String type, String dataType,
+                                                     List<CustomFieldOptionEntity> options) {
+        CustomFieldEntity customField = CustomFieldEntity.builder()
+                .id(UUID.randomUUID())
+                .name("field")
+                .displayText("Field")
+                .type(new CustomFieldTypeEntity(UUID.randomUUID(), type))
+                .dataType(new CustomFieldDataTypeEntity(UUID.randomUUID(), dataType))
+                .options(options)
+                .build();
+        return UserCustomFieldEntity.builder()
+                .id(UUID.randomUUID())
+                .customField(customField)
+                .build();
+    }
+}
@@ -0,0 +1,181 @@
+package io.nuvalence.user.management.api.service.repository;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares reading and binding uuid columns as text, the way the {@code uuid-char} mappings did, with binding
+ * them natively, on a full read of a user table and on a join filtered by a role id. Divide a score by
+ * {@code userCount} for the cost per row. Runs on an in-memory H2 database unless {@code jdbcUrl} is set,
+ * e.g. to {@code jdbc:postgresql://localhost:5432/bench?user=postgres&password=postgres}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class UuidBindingBenchmark {
+    private static final String FIND_ALL = "SELECT id, display_name FROM uuid_bench_user";
+    private static final String FIND_BY_ROLE = "SELECT u.id, u.display_name, ur.id FROM uuid_bench_user u "
+            + "JOIN uuid_bench_user_role ur ON ur.user_id = u.id WHERE ur.role_id = ";
+    private static final int ROLE_COUNT = 4;
+
+    @Param({ "jdbc:h2:mem:uuid-bench;DB_CLOSE_DELAY=-1" })
+    private String jdbcUrl;
+
+    @Param({ "1000", "10000" })
+    private int userCount;
+
+    private Connection connection;
+    private UUID roleId;
+
+    /**
+     * Creates the tables and gives every user one of {@value #ROLE_COUNT} roles.
+     *
+     * @throws SQLException if the database can't be reached or set up
+     */
+    @Setup
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(jdbcUrl);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS uuid_bench_user_role");
+            statement.execute("DROP TABLE IF EXISTS uuid_bench_user");
+            statement.execute("CREATE TABLE uuid_bench_user (id uuid PRIMARY KEY, display_name varchar(255))");
+            statement.execute("CREATE TABLE uuid_bench_user_role (id uuid PRIMARY KEY, "
+                    + "user_id uuid REFERENCES uuid_bench_user (id), role_id uuid)");
+            statement.execute("CREATE INDEX uuid_bench_user_role_role_id ON uuid_bench_user_role (role_id)");
+        }
+
+        List<UUID> roleIds = new ArrayList<>();
+        for (int i = 0; i < ROLE_COUNT; i++) {
+            roleIds.add(UUID.randomUUID());
+        }
+        roleId = roleIds.get(0);
+
+        try (PreparedStatement user = connection.prepareStatement("INSERT INTO uuid_bench_user VALUES (?, ?)");
+             PreparedStatement userRole = connection.prepareStatement(
+                     "INSERT INTO uuid_bench_user_role VALUES (?, ?, ?)")) {
+            for (int i = 0; i < userCount; i++) {
+                UUID userId = UUID.randomUUID();
+                user.setObject(1, userId);
+                user.setString(2, "user" + i);
+                user.addBatch();
+                userRole.setObject(1, UUID.randomUUID());
+                userRole.setObject(2, userId);
+                userRole.setObject(3, roleIds.get(i % ROLE_COUNT));
+                userRole.addBatch();
+            }
+            user.executeBatch();
+            userRole.executeBatch();
+        }
+    }
+
+    /**
+     * Drops the tables.
+     *
+     * @throws SQLException if the tables can't be dropped
+     */
+    @TearDown
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE uuid_bench_user_role");
+            statement.execute("DROP TABLE uuid_bench_user");
+        }
+        connection.close();
+    }
+
+    /**
+     * Reads every user id as text and parses it.
+     *
+     * @return the ids
+     * @throws SQLException if the query fails
+     */
+    @Benchmark
+    public List<UUID> findAllAsText() throws SQLException {
+        List<UUID> ids = new ArrayList<>(userCount);
+        try (PreparedStatement statement = connection.prepareStatement(FIND_ALL);
+             ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                ids.add(UUID.fromString(resultSet.getString(1)));
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Reads every user id as a uuid.
+     *
+     * @return the ids
+     * @throws SQLException if the query fails
+     */
+    @Benchmark
+    public List<UUID> findAllNative() throws SQLException {
+        List<UUID> ids = new ArrayList<>(userCount);
+        try (PreparedStatement statement = connection.prepareStatement(FIND_ALL);
+             ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                ids.add(resultSet.getObject(1, UUID.class));
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Reads the users and user roles of a role, binding and reading the ids as text.
+     *
+     * @return the user and user role ids
+     * @throws SQLException if the query fails
+     */
+    @Benchmark
+    public List<UUID> findByRoleAsText() throws SQLException {
+        // a text parameter has to be cast for the uuid column's index to be used
+        List<UUID> ids = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(FIND_BY_ROLE + "CAST(? AS uuid)")) {
+            statement.setString(1, roleId.toString());
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    ids.add(UUID.fromString(resultSet.getString(1)));
+                    ids.add(UUID.fromString(resultSet.getString(3)));
+                }
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Reads the users and user roles of a role, binding and reading the ids as uuids.
+     *
+     * @return the user and user role ids
+     * @throws SQLException if the query fails
+     */
+    @Benchmark
+    public List<UUID> findByRoleNative() throws SQLException {
+        List<UUID> ids = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(FIND_BY_ROLE + "?")) {
+            statement.setObject(1, roleId);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    ids.add(resultSet.getObject(1, UUID.class));
+                    ids.add(resultSet.getObject(3, UUID.class));
+                }
+            }
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,181 @@
+package io.nuvalence.user.management.api.service.repository;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import io.nuvalence.user.management.api.service.entity.RoleEntity;
+import io.nuvalence.user.management.api.service.entity.UserEntity;
+import io.nuvalence.user.management.api.service.entity.UserRoleEntity;
+import liquibase.integration.spring.SpringLiquibase;
+import org.hibernate.jpa.boot.spi.TypeContributorList;
+import org.hibernate.type.UUIDCharType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.data.repository.core.support.RepositoryComposition.RepositoryFragments;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Runs the user reads of the repositories with the entities' default UUID mapping, which binds the ids natively,
+ * and with the {@code uuid-char} mapping the entities used to have, which binds them as text. The schema is the
+ * one of the Liquibase changelog, and the seeded rows are deleted afterwards. Divide a score by {@code userCount}
+ * for the cost per user. Runs on an in-memory H2 database unless {@code jdbcUrl} is set to a scratch database,
+ * e.g. to {@code jdbc:postgresql://localhost:5432/bench?stringtype=unspecified&user=postgres&password=postgres};
+ * like the deployments' urls, it needs {@code stringtype=unspecified} for the text binding.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@SuppressWarnings({"checkstyle:ClassFanOutComplexity", "checkstyle:ClassDataAbstractionCoupling"})
+public class UuidRepositoryBenchmark {
+    private static final int ROLE_COUNT = 4;
+    private static final String ROLE_NAME_PREFIX = "UUID_BENCH_";
+
+    // the same database as the test profile's
+    @Param({ "jdbc:h2:mem:uuid-repository-bench;DB_CLOSE_DELAY=-1;"
+            + "INIT=CREATE TYPE IF NOT EXISTS \"JSONB\" AS text" })
+    private String jdbcUrl;
+
+    @Param({ "native", "text" })
+    private String uuidBinding;
+
+    @Param({ "1000" })
+    private int userCount;
+
+    private LocalContainerEntityManagerFactoryBean entityManagerFactoryBean;
+    private UserRepository userRepository;
+    private UserRoleRepository userRoleRepository;
+    private RoleRepository roleRepository;
+    private TransactionTemplate transactionTemplate;
+    private UUID roleId;
+
+    /**
+     * Creates the schema and the repositories, and gives every user one of {@value #ROLE_COUNT} roles.
+     *
+     * @throws Exception if the database can't be set up
+     */
+    @Setup
+    public void setUp() throws Exception {
+        // without Spring Boot's logging setup, logback logs every statement and row at debug level
+        ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(jdbcUrl);
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(dataSource);
+        liquibase.setChangeLog("classpath:db/liquibase-changelog.xml");
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        liquibase.afterPropertiesSet();
+
+        // the JPA properties of application.yml
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("hibernate.jdbc.batch_size", 100);
+        properties.put("hibernate.order_inserts", true);
+        properties.put("hibernate.order_updates", true);
+        properties.put("hibernate.default_batch_fetch_size", 100);
+        properties.put("hibernate.batch_fetch_style", "dynamic");
+        if ("text".equals(uuidBinding)) {
+            TypeContributorList uuidAsText = () -> List.of((typeContributions, serviceRegistry) ->
+                    typeContributions.contributeType(UUIDCharType.INSTANCE, UUID.class.getName()));
+            properties.put("hibernate.type_contributors", uuidAsText);
+        }
+        entityManagerFactoryBean = new LocalContainerEntityManagerFactoryBean();
+        entityManagerFactoryBean.setDataSource(dataSource);
+        entityManagerFactoryBean.setPackagesToScan(UserEntity.class.getPackageName());
+        entityManagerFactoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        entityManagerFactoryBean.setJpaPropertyMap(properties);
+        entityManagerFactoryBean.afterPropertiesSet();
+        EntityManagerFactory entityManagerFactory = entityManagerFactoryBean.getObject();
+
+        // every read gets a new persistence context, like a request does
+        EntityManager entityManager = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory);
+        JpaRepositoryFactory repositoryFactory = new JpaRepositoryFactory(entityManager);
+        userRepository = repositoryFactory.getRepository(UserRepository.class,
+                RepositoryFragments.just(new UserUpsertRepositoryImpl(entityManager)));
+        userRoleRepository = repositoryFactory.getRepository(UserRoleRepository.class);
+        roleRepository = repositoryFactory.getRepository(RoleRepository.class);
+
+        transactionTemplate = new TransactionTemplate(new JpaTransactionManager(entityManagerFactory));
+        transactionTemplate.executeWithoutResult(status -> {
+            List<RoleEntity> roles = new ArrayList<>();
+            for (int i = 0; i < ROLE_COUNT; i++) {
+                RoleEntity role = new RoleEntity();
+                role.setRoleName(ROLE_NAME_PREFIX + i);
+                role.setDisplayName("Uuid Bench " + i);
+                roles.add(roleRepository.save(role));
+            }
+            roleId = roles.get(0).getId();
+
+            List<UserEntity> users = new ArrayList<>();
+            List<UserRoleEntity> userRoles = new ArrayList<>();
+            for (int i = 0; i < userCount; i++) {
+                UserEntity user = new UserEntity();
+                user.setDisplayName("user" + i);
+                user.setEmail("user" + i + "@example.com");
+                user.setCreatedAt(LocalDateTime.now());
+                users.add(user);
+                userRoles.add(new UserRoleEntity(null, user, roles.get(i % ROLE_COUNT)));
+            }
+            userRepository.saveAll(users);
+            userRoleRepository.saveAll(userRoles);
+        });
+    }
+
+    /**
+     * Deletes the seeded rows and closes the entity manager factory.
+     */
+    @TearDown
+    public void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> {
+            userRoleRepository.deleteAllInBatch();
+            userRepository.deleteAllInBatch();
+            roleRepository.deleteAllInBatch(roleRepository.findAll().stream()
+                    .filter(role -> role.getRoleName().startsWith(ROLE_NAME_PREFIX))
+                    .collect(Collectors.toList()));
+        });
+        entityManagerFactoryBean.destroy();
+    }
+
+    /**
+     * Reads every user.
+     *
+     * @return the users
+     */
+    @Benchmark
+    public List<UserEntity> findAll() {
+        return userRepository.findAll();
+    }
+
+    /**
+     * Reads the members of a role with all their roles, the join that lists a role's users.
+     *
+     * @return the role assignments of the role's members, with their roles
+     */
+    @Benchmark
+    public List<UserRoleEntity> findAllWithRoleOfRoleMembers() {
+        return userRoleRepository.findAllWithRoleOfRoleMembers(roleId);
+    }
+}
@@ -0,0 +1,77 @@
+package io.nuvalence.user.management.api.service.cerbos;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import io.nuvalence.user.management.api.service.interfaces.AsyncPermissionable;
+import io.nuvalence.user.management.api.service.interfaces.Permissionable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import javax.annotation.PreDestroy;
+
+/**
+ * Runs the calls of the configured {@link Permissionable} on a dedicated executor. The executor is bounded in
+ * threads and queue size; once both are full the calling thread runs the call itself, which throttles callers
+ * instead of failing them. Policy changes are handed to the {@link CerbosPolicyWriteCoalescer}.
+ */
+@Component
+public class AsyncPermissionableClient implements AsyncPermissionable {
+    private final Permissionable client;
+    private final CerbosPolicyWriteCoalescer writeCoalescer;
+    private final ThreadPoolTaskExecutor executor;
+
+    /**
+     * Creates the client and its executor, and publishes the executor's metrics under the "cerbos" name.
+     *
+     * @param client the permission client to run calls on
+     * @param writeCoalescer the coalescer that policy changes are queued on
+     * @param meterRegistry the registry to publish executor metrics to
+     * @param coreSize the number of threads kept in the pool
+     * @param maxSize the maximum number of threads in the pool
+     * @param queueCapacity how many calls can wait for a thread
+     */
+    public AsyncPermissionableClient(Permissionable client, CerbosPolicyWriteCoalescer writeCoalescer,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${cerbos.executor.core-size:8}") int coreSize,
+                                     @Value("${cerbos.executor.max-size:16}") int maxSize,
+                                     @Value("${cerbos.executor.queue-capacity:200}") int queueCapacity) {
+        this.client = client;
+        this.writeCoalescer = writeCoalescer;
+        this.executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("cerbos-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+
+        new ExecutorServiceMetrics(executor.getThreadPoolExecutor(), "cerbos", Collections.emptyList())
+                .bindTo(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @Override
+    public CompletableFuture<Boolean> updateRolePermissionMappingsAsync(String resourceName, String roleName,
+                                                                        String[] permissions) {
+        return writeCoalescer.submit(resourceName, roleName, permissions);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> removeRoleAsync(String resourceName, String roleName) {
+        return writeCoalescer.submit(resourceName, roleName, new String[] { });
+    }
+
+    @Override
+    public CompletableFuture<Map<String, String[]>> getRolePermissionMappingsAsync(String resourceName) {
+        return CompletableFuture.supplyAsync(() -> client.getRolePermissionMappings(resourceName), executor);
+    }
+}
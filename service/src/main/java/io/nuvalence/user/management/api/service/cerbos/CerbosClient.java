@@ -1,5 +1,6 @@
 package io.nuvalence.user.management.api.service.cerbos;
 
+import io.nuvalence.user.management.api.service.cerbos.CerbosDecisionCache.DecisionKey;
 import io.nuvalence.user.management.api.service.cerbos.models.AddOrUpdatePolicyRequest;
 import io.nuvalence.user.management.api.service.cerbos.models.AddOrUpdatePolicyResponse;
 import io.nuvalence.user.management.api.service.cerbos.models.AttributesMap;
@@ -16,6 +17,8 @@ import io.nuvalence.user.management.api.service.cerbos.models.ResourceSet;
 import io.nuvalence.user.management.api.service.entity.UserEntity;
 import io.nuvalence.user.management.api.service.interfaces.Permissionable;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
@@ -29,11 +32,15 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 /**
  * Cerbos client.
@@ -41,6 +48,7 @@ import java.util.UUID;
 
 @Component
 @Slf4j
+@SuppressWarnings({"checkstyle:ClassFanOutComplexity"})
 public class CerbosClient implements Permissionable {
 
     @Value("${cerbos.baseUrl}")
@@ -52,10 +60,38 @@ public class CerbosClient implements Permissionable {
     @Value("${cerbos.password}")
     private String password;
 
+    private final CerbosDecisionCache decisionCache;
+
+    private final CerbosPolicyMirror policyMirror;
+
+    private final CerbosResilience resilience;
+
+    private final CerbosFallback fallback;
+
+    private final ObjectProvider<CerbosPolicyWriteCoalescer> writeCoalescer;
+
     private RestTemplate httpClient;
 
-    public CerbosClient() {
-        httpClient = new RestTemplate();
+    /**
+     * Creates the Cerbos client.
+     *
+     * @param decisionCache cache of check decisions
+     * @param policyMirror local copy of the resource policies
+     * @param resilience circuit breaker and bulkhead that all calls go through
+     * @param fallback decides checks while Cerbos is unavailable
+     * @param writeCoalescer the coalescer that all policy writes are queued on
+     * @param cerbosRestTemplate pooled, instrumented RestTemplate (see {@link CerbosHttpClientConfig})
+     */
+    public CerbosClient(CerbosDecisionCache decisionCache, CerbosPolicyMirror policyMirror,
+                        CerbosResilience resilience, CerbosFallback fallback,
+                        ObjectProvider<CerbosPolicyWriteCoalescer> writeCoalescer,
+                        @Qualifier("cerbosRestTemplate") RestTemplate cerbosRestTemplate) {
+        this.decisionCache = decisionCache;
+        this.policyMirror = policyMirror;
+        this.resilience = resilience;
+        this.fallback = fallback;
+        this.writeCoalescer = writeCoalescer;
+        this.httpClient = cerbosRestTemplate;
     }
 
     /**
@@ -72,41 +108,112 @@ public class CerbosClient implements Permissionable {
      * @param resourceName is the type of resource to check
      * @param userEntity is the user the check permissions against
      * @param permissionsToCheck is the list of permissions to check
-     * @return whether the check is valid or not
+     * @return whether the check is valid or not; decided by the fallback if Cerbos is unavailable
      */
     @Override
     public Boolean check(String resourceName, UserEntity userEntity, String... permissionsToCheck) {
+        return checkPrincipal(resourceName, userEntity.getDisplayName(), getRoleNames(userEntity),
+                permissionsToCheck);
+    }
+
+    /**
+     * Checks if a principal with the provided roles has any of the provided permissions.
+     *
+     * @param resourceName is the type of resource to check
+     * @param userName is the name of the user the principal stands for
+     * @param roleNames are the roles of the principal
+     * @param permissionsToCheck is the list of permissions to check
+     * @return whether the check is valid or not; decided by the fallback if Cerbos is unavailable
+     */
+    @Override
+    public Boolean checkPrincipal(String resourceName, String userName, List<String> roleNames,
+                                  String... permissionsToCheck) {
+        resourceName = ensureResourceNameIsInitialized(resourceName);
         try {
-            resourceName = ensureResourceNameIsInitialized(resourceName);
+            DecisionKey decisionKey = CerbosDecisionCache.key(resourceName, roleNames, permissionsToCheck);
+            Optional<Boolean> cachedDecision = decisionCache.get(decisionKey);
+            if (cachedDecision.isPresent()) {
+                return cachedDecision.get();
+            }
 
-            CheckResourceSetRequest request = buildCheckRequest(resourceName, userEntity, permissionsToCheck);
+            CheckResourceSetRequest request = buildCheckRequest(resourceName, roleNames, Set.of(userName),
+                    permissionsToCheck);
             ResponseEntity<CheckResourceSetResponse> response = postJson("/api/check", request,
                     CheckResourceSetResponse.class, false);
 
-            if (response.getStatusCode().is2xxSuccessful()) {
-                CheckResourceSetResponse responseBody = response.getBody();
-                if ((responseBody != null ? responseBody.getResourceInstances() : null) != null) {
-                    for (Map.Entry<String, CheckResourceSetResponseActionEffectMap> user :
-                            responseBody.getResourceInstances().entrySet()) {
-                        if (user.getValue().getActions() != null) {
-                            for (Map.Entry<String, Effect> action : user.getValue().getActions().entrySet()) {
-                                if (Arrays.stream(permissionsToCheck)
-                                        .anyMatch(p -> p.equalsIgnoreCase(action.getKey())
-                                                && action.getValue() == Effect.EFFECT_ALLOW)) {
-                                    return true;
-                                }
-                            }
-                        }
-                    }
-                }
+            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
+                boolean allowed = isAnyPermissionAllowed(response.getBody(), permissionsToCheck);
+                decisionCache.put(decisionKey, allowed);
+                return allowed;
             }
         } catch (Exception e) {
             log.error("check ex : {}",e.getMessage());
+            return fallback.decide(resourceName, roleNames, permissionsToCheck);
         }
 
         return false;
     }
 
+    /**
+     * Checks a set of permissions for a set of resource instances with a single Cerbos call.
+     * Decisions already in the decision cache are not sent to Cerbos. If Cerbos is unavailable, the
+     * remaining actions are decided by the fallback; anything else that could not be decided is denied.
+     *
+     * @param resourceName is the type of resource to check
+     * @param roleNames are the roles of the principal
+     * @param instanceIds are the resource instances to check
+     * @param permissionsToCheck are the permissions (actions) to check
+     * @return for each instance id, whether each (lowercased) permission is allowed
+     */
+    @Override
+    public Map<String, Map<String, Boolean>> checkResourceSet(String resourceName, List<String> roleNames,
+                                                              Set<String> instanceIds,
+                                                              Set<String> permissionsToCheck) {
+        String normalizedResourceName = ensureResourceNameIsInitialized(resourceName);
+        Set<String> actions = permissionsToCheck.stream().map(String::toLowerCase)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+
+        Map<String, Map<String, Boolean>> decisions = new HashMap<>();
+        instanceIds.forEach(instanceId -> decisions.put(instanceId, new HashMap<>()));
+
+        // answer whatever the decision cache already knows about
+        List<String> uncachedActions = new ArrayList<>();
+        for (String action : actions) {
+            Optional<Boolean> cachedDecision = decisionCache.get(
+                    CerbosDecisionCache.key(normalizedResourceName, roleNames, action));
+            if (cachedDecision.isPresent()) {
+                decisions.values().forEach(instanceDecisions -> instanceDecisions.put(action, cachedDecision.get()));
+            } else {
+                uncachedActions.add(action);
+            }
+        }
+
+        if (!uncachedActions.isEmpty() && !instanceIds.isEmpty()) {
+            try {
+                CheckResourceSetRequest request = buildCheckRequest(normalizedResourceName, roleNames, instanceIds,
+                        uncachedActions.toArray(String[]::new));
+                ResponseEntity<CheckResourceSetResponse> response = postJson("/api/check", request,
+                        CheckResourceSetResponse.class, false);
+
+                if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
+                    cacheAndCollectDecisions(normalizedResourceName, roleNames, uncachedActions,
+                            response.getBody(), decisions);
+                }
+            } catch (Exception e) {
+                log.error("checkResourceSet ex : {}", e.getMessage());
+                for (String action : uncachedActions) {
+                    boolean allowed = fallback.decide(normalizedResourceName, roleNames, action);
+                    decisions.values().forEach(instanceDecisions -> instanceDecisions.put(action, allowed));
+                }
+            }
+        }
+
+        // deny anything we were not able to decide
+        decisions.values().forEach(instanceDecisions ->
+                actions.forEach(action -> instanceDecisions.putIfAbsent(action, false)));
+        return decisions;
+    }
+
     /**
      * Adds/updates role-permission mappings.
      *
@@ -116,18 +223,49 @@ public class CerbosClient implements Permissionable {
      * @return whether the role-permission mapping was successful or not
      */
     public Boolean updateRolePermissionMappings(String resourceName, String roleName, String[] permissions) {
+        return updateRolePermissionMappings(resourceName, Collections.singletonMap(roleName, permissions));
+    }
+
+    /**
+     * Adds/updates/removes the role-permission mappings of several roles. The changes are queued on the
+     * {@link CerbosPolicyWriteCoalescer} like any other, and this waits for the policy write that includes them.
+     *
+     * @param resourceName The name of the resource
+     * @param permissionsByRole The permissions for each role; roles without permissions are removed
+     * @return whether the role-permission mappings were successfully written or not
+     */
+    @Override
+    public Boolean updateRolePermissionMappings(String resourceName, Map<String, String[]> permissionsByRole) {
+        return writeCoalescer.getObject().submit(resourceName, permissionsByRole).join();
+    }
+
+    /**
+     * Writes the role-permission mappings of several roles with a single policy write: reads the policy, merges
+     * the changes into it and posts it back. Only the {@link CerbosPolicyWriteCoalescer} calls this, so that
+     * writes to the same resource never overlap.
+     *
+     * @param resourceName The name of the resource
+     * @param permissionsByRole The permissions for each role; roles without permissions are removed
+     * @return whether the role-permission mappings were successfully written or not
+     */
+    Boolean writeRolePermissionMappings(String resourceName, Map<String, String[]> permissionsByRole) {
         try {
             resourceName = ensureResourceNameIsInitialized(resourceName);
 
             // find the policy in Cerbos (may not exist yet)
             Optional<Policy> foundPolicy = getPolicyByResourceName(resourceName);
 
-            AddOrUpdatePolicyRequest request = buildAddOrUpdatePolicyRequest(resourceName, roleName, permissions,
+            AddOrUpdatePolicyRequest request = buildAddOrUpdatePolicyRequest(resourceName, permissionsByRole,
                     foundPolicy);
             ResponseEntity<AddOrUpdatePolicyResponse> response = postJson("/admin/policy", request,
                     AddOrUpdatePolicyResponse.class, true);
+            decisionCache.invalidateResource(resourceName);
 
-            return Objects.requireNonNull(response.getBody()).getSuccess() != null;
+            boolean success = Objects.requireNonNull(response.getBody()).getSuccess() != null;
+            if (success) {
+                policyMirror.put(resourceName, Optional.of(request.getPolicies()[0]));
+            }
+            return success;
         } catch (Exception e) {
             log.error("update ex : {}",e.getMessage());
         }
@@ -143,55 +281,62 @@ public class CerbosClient implements Permissionable {
      * @return whether the role was successfully removed or not
      */
     public Boolean removeRole(String resourceName, String roleName) {
-        try {
-            resourceName = ensureResourceNameIsInitialized(resourceName);
-
-            // find the policy in Cerbos (may not exist yet)
-            Optional<Policy> foundPolicy = getPolicyByResourceName(resourceName);
-
-            AddOrUpdatePolicyRequest request = buildAddOrUpdatePolicyRequest(resourceName, roleName, new String[] { },
-                    foundPolicy);
-            ResponseEntity<AddOrUpdatePolicyResponse> response = postJson("/admin/policy", request,
-                    AddOrUpdatePolicyResponse.class, true);
-
-            return Objects.requireNonNull(response.getBody()).getSuccess() != null;
-        } catch (Exception e) {
-            log.error("removeRole ex : {}",e.getMessage());
-        }
-
-        return false;
+        return updateRolePermissionMappings(resourceName, Collections.singletonMap(roleName, new String[] { }));
     }
 
     /**
-     * Get the role-permission mappings for the provided resource.
+     * Get the role-permission mappings for the provided resource. These are served from the local policy
+     * mirror, and only read from Cerbos if the resource is not mirrored yet or its copy has gone stale.
      *
      * @param resourceName The name of the resource
      * @return The role-permission mappings and status
      */
     public Map<String, String[]> getRolePermissionMappings(String resourceName) {
+        resourceName = ensureResourceNameIsInitialized(resourceName);
         try {
-            resourceName = ensureResourceNameIsInitialized(resourceName);
-
-            Optional<Policy> foundPolicy = getPolicyByResourceName(resourceName);
-            if (foundPolicy.isEmpty()) {
-                return Collections.emptyMap();
-            }
-
-            Map<String, String[]> rolePermissionMap = new HashMap<>();
-
-            for (ResourceRule rule : foundPolicy.get().getResourcePolicy().getRules()) {
-                rolePermissionMap.put(rule.getRoles()[0], lowerCaseStringArray(rule.getActions()));
-            }
-
-            return rolePermissionMap;
+            Optional<CerbosPolicyMirror.MirroredPolicy> mirroredPolicy = policyMirror.get(resourceName);
+            return toRolePermissionMap(mirroredPolicy.isPresent()
+                    ? mirroredPolicy.get().getPolicy()
+                    : fetchPolicy(resourceName));
         } catch (Exception e) {
             log.error("getRolePermissionMappings ex : {}", e.getMessage());
+            return toRolePermissionMap(fallback.getPolicy(resourceName));
         }
+    }
 
-        return Collections.emptyMap();
+    /**
+     * Re-reads the policy of a resource from Cerbos into the local policy mirror. If Cerbos can't be
+     * reached, or a policy was written for the resource while it was read, the mirror keeps its copy.
+     *
+     * @param resourceName The name of the resource
+     * @return whether the policy was refreshed
+     */
+    public boolean refreshPolicy(String resourceName) {
+        try {
+            fetchPolicy(ensureResourceNameIsInitialized(resourceName));
+            policyMirror.recordRefresh(true);
+            return true;
+        } catch (Exception e) {
+            log.error("refreshPolicy ex : {}", e.getMessage());
+            policyMirror.recordRefresh(false);
+        }
+
+        return false;
+    }
+
+    private Optional<Policy> fetchPolicy(String resourceName) {
+        // a policy we post while this one is read is newer, and is kept
+        long version = policyMirror.getVersion(resourceName);
+        return policyMirror.putIfUnchanged(resourceName, version, getPolicyByResourceName(resourceName));
     }
 
-    private String ensureResourceNameIsInitialized(String resourceName) {
+    /**
+     * Turns a resource name into the resource kind its Cerbos policy is stored under.
+     *
+     * @param resourceName The name of the resource, as passed by the caller
+     * @return the lowercased name with non-alphanumeric characters replaced, or {@code default_resource} if empty
+     */
+    public static String ensureResourceNameIsInitialized(String resourceName) {
         if (resourceName == null || resourceName.length() == 0) {
             return "default_resource";
         }
@@ -218,12 +363,13 @@ public class CerbosClient implements Permissionable {
         HttpHeaders headers = getHeaders(isAdminCall);
         HttpEntity<TInput> requestEntity = new HttpEntity<>(requestBody, headers);
 
-        return httpClient.postForEntity(baseUrl + endpoint, requestEntity, responseType);
+        return resilience.execute(() -> httpClient.postForEntity(baseUrl + endpoint, requestEntity, responseType));
     }
 
     private <T> ResponseEntity<T> getJson(String endpoint, Class<T> responseType, Boolean isAdminCall) {
         HttpEntity<Void> headers = new HttpEntity<>(getHeaders(isAdminCall));
-        return httpClient.exchange(baseUrl + endpoint, HttpMethod.GET, headers, responseType);
+        return resilience.execute(() -> httpClient.exchange(baseUrl + endpoint, HttpMethod.GET, headers,
+                responseType));
     }
 
     private Optional<Policy> getPolicyByResourceName(String resourceName) {
@@ -241,42 +387,99 @@ public class CerbosClient implements Permissionable {
         return Optional.empty();
     }
 
-    private CheckResourceSetRequest buildCheckRequest(String resourceName, UserEntity userEntity,
-                                                      String... permissionsToCheck) {
+    private boolean isAnyPermissionAllowed(CheckResourceSetResponse responseBody, String... permissionsToCheck) {
+        if (responseBody.getResourceInstances() == null) {
+            return false;
+        }
+
+        for (Map.Entry<String, CheckResourceSetResponseActionEffectMap> user :
+                responseBody.getResourceInstances().entrySet()) {
+            if (user.getValue().getActions() != null) {
+                for (Map.Entry<String, Effect> action : user.getValue().getActions().entrySet()) {
+                    if (Arrays.stream(permissionsToCheck)
+                            .anyMatch(p -> p.equalsIgnoreCase(action.getKey())
+                                    && action.getValue() == Effect.EFFECT_ALLOW)) {
+                        return true;
+                    }
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private void cacheAndCollectDecisions(String resourceName, List<String> roleNames, List<String> actions,
+                                          CheckResourceSetResponse responseBody,
+                                          Map<String, Map<String, Boolean>> decisions) {
+        Map<String, CheckResourceSetResponseActionEffectMap> resourceInstances =
+                responseBody.getResourceInstances() != null ? responseBody.getResourceInstances() : Map.of();
+
+        for (String action : actions) {
+            Set<Boolean> outcomes = new HashSet<>();
+            for (Map.Entry<String, Map<String, Boolean>> instanceDecisions : decisions.entrySet()) {
+                CheckResourceSetResponseActionEffectMap effects = resourceInstances.get(instanceDecisions.getKey());
+                boolean allowed = effects != null && effects.getActions() != null
+                        && effects.getActions().entrySet().stream().anyMatch(e ->
+                                e.getKey().equalsIgnoreCase(action) && e.getValue() == Effect.EFFECT_ALLOW);
+                instanceDecisions.getValue().put(action, allowed);
+                outcomes.add(allowed);
+            }
+
+            // only cache decisions that do not depend on the instance
+            if (outcomes.size() == 1) {
+                decisionCache.put(CerbosDecisionCache.key(resourceName, roleNames, action),
+                        outcomes.iterator().next());
+            }
+        }
+    }
+
+    private List<String> getRoleNames(UserEntity userEntity) {
+        return userEntity.getUserRoleEntities().stream()
+                .map(ur -> ur.getRole().getRoleName())
+                .collect(Collectors.toList());
+    }
+
+    static CheckResourceSetRequest buildCheckRequest(String resourceName, List<String> roleNames,
+                                                     Set<String> instanceIds, String... permissionsToCheck) {
+        Map<String, AttributesMap> instances = new HashMap<>();
+        instanceIds.forEach(instanceId -> instances.put(instanceId, new AttributesMap()));
+
         // TODO: Populate "123" from elsewhere (will most likely be username or some other unique user identifier)
         return CheckResourceSetRequest.builder()
                 .requestId(UUID.randomUUID().toString())
                 .principal(Principal.builder()
                         .id("123")
-                        .roles(userEntity.getUserRoleEntities().stream()
-                                .map(ur -> ur.getRole().getRoleName()).toArray(String[]::new))
+                        .roles(roleNames.toArray(String[]::new))
                         .build())
                 .resource(ResourceSet.builder()
                         .kind(resourceName)
-                        .instances(Map.of(userEntity.getDisplayName(), new AttributesMap()))
+                        .instances(instances)
                         .build())
                 .actions(lowerCaseStringArray(permissionsToCheck))
                 .build();
     }
 
-    private AddOrUpdatePolicyRequest buildAddOrUpdatePolicyRequest(String resourceName, String roleName,
-                                                                   String[] permissions, Optional<Policy> policy) {
+    private AddOrUpdatePolicyRequest buildAddOrUpdatePolicyRequest(String resourceName,
+                                                                   Map<String, String[]> permissionsByRole,
+                                                                   Optional<Policy> policy) {
         ArrayList<ResourceRule> rules = new ArrayList<>();
 
         // add the existing rules to the list
         policy.ifPresent(value -> rules.addAll(List.of(value.getResourcePolicy().getRules())));
 
-        // remove the rule with the matching role name
-        rules.removeIf(rule -> Arrays.stream(rule.getRoles()).anyMatch(role -> role.equalsIgnoreCase(roleName)));
-
-        // only add the role as a rule if permissions (actions) are being passed in as well
-        if (permissions != null && permissions.length > 0) {
-            rules.add(ResourceRule.builder()
-                    .roles(new String[] { roleName })
-                    .actions(lowerCaseStringArray(permissions))
-                    .effect(Effect.EFFECT_ALLOW)
-                    .build());
-        }
+        permissionsByRole.forEach((roleName, permissions) -> {
+            // remove the rule with the matching role name
+            rules.removeIf(rule -> Arrays.stream(rule.getRoles()).anyMatch(role -> role.equalsIgnoreCase(roleName)));
+
+            // only add the role as a rule if permissions (actions) are being passed in as well
+            if (permissions != null && permissions.length > 0) {
+                rules.add(ResourceRule.builder()
+                        .roles(new String[] { roleName })
+                        .actions(lowerCaseStringArray(permissions))
+                        .effect(Effect.EFFECT_ALLOW)
+                        .build());
+            }
+        });
 
         return AddOrUpdatePolicyRequest.builder()
                 .policies(new Policy[] {
@@ -291,7 +494,22 @@ public class CerbosClient implements Permissionable {
                 }).build();
     }
 
-    private String[] lowerCaseStringArray(String[] strAry) {
+    private Map<String, String[]> toRolePermissionMap(Optional<Policy> policy) {
+        if (policy.isEmpty() || policy.get().getResourcePolicy() == null
+                || policy.get().getResourcePolicy().getRules() == null) {
+            return Collections.emptyMap();
+        }
+
+        Map<String, String[]> rolePermissionMap = new HashMap<>();
+
+        for (ResourceRule rule : policy.get().getResourcePolicy().getRules()) {
+            rolePermissionMap.put(rule.getRoles()[0], lowerCaseStringArray(rule.getActions()));
+        }
+
+        return rolePermissionMap;
+    }
+
+    private static String[] lowerCaseStringArray(String[] strAry) {
         if (strAry == null || strAry.length == 0) {
             return new String[] { };
         }
@@ -0,0 +1,130 @@
+package io.nuvalence.user.management.api.service.cerbos;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Bounded, TTL-based cache of Cerbos check decisions, keyed on resource, role set and actions.
+ *
+ * <p>Besides the fresh decisions, the last known decision of every key is kept for up to the fallback max
+ * staleness, so it can still be served while Cerbos is unavailable.</p>
+ */
+@Component
+public class CerbosDecisionCache {
+
+    private final Cache<DecisionKey, Boolean> decisions;
+    private final Cache<DecisionKey, Boolean> lastKnownDecisions;
+
+    /**
+     * Creates the decision cache and registers its hit/miss/eviction metrics.
+     *
+     * @param meterRegistry the registry to publish cache metrics to
+     * @param maxSize the maximum number of decisions to keep
+     * @param ttl how long a decision stays valid after it was fetched from Cerbos
+     * @param maxStaleness how long a decision can be used as a fallback while Cerbos is unavailable
+     */
+    public CerbosDecisionCache(MeterRegistry meterRegistry,
+                               @Value("${cerbos.decision-cache.max-size:10000}") long maxSize,
+                               @Value("${cerbos.decision-cache.ttl:PT1M}") Duration ttl,
+                               @Value("${cerbos.fallback.max-staleness:PT15M}") Duration maxStaleness) {
+        this.decisions = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.lastKnownDecisions = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(maxStaleness)
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, decisions, "cerbos.decisions");
+    }
+
+    /**
+     * Builds the cache key for a check.
+     *
+     * @param resourceName the normalized resource name
+     * @param roleNames the principal's role names, in any order
+     * @param actions the actions being checked, in any order or case
+     * @return the cache key
+     */
+    public static DecisionKey key(String resourceName, Collection<String> roleNames, String... actions) {
+        List<String> sortedRoles = roleNames.stream()
+                .filter(Objects::nonNull)
+                .sorted()
+                .distinct()
+                .collect(Collectors.toUnmodifiableList());
+        List<String> sortedActions = Arrays.stream(actions)
+                .filter(Objects::nonNull)
+                .map(String::toLowerCase)
+                .sorted()
+                .distinct()
+                .collect(Collectors.toUnmodifiableList());
+        return new DecisionKey(resourceName, sortedRoles, sortedActions);
+    }
+
+    public Optional<Boolean> get(DecisionKey key) {
+        return Optional.ofNullable(decisions.getIfPresent(key));
+    }
+
+    public void put(DecisionKey key, boolean allowed) {
+        decisions.put(key, allowed);
+        lastKnownDecisions.put(key, allowed);
+    }
+
+    /**
+     * Returns the last decision fetched for a key, even if it is no longer fresh, as long as it is within
+     * the max staleness.
+     *
+     * @param key the cache key
+     * @return the last known decision, if any
+     */
+    public Optional<Boolean> getLastKnown(DecisionKey key) {
+        return Optional.ofNullable(lastKnownDecisions.getIfPresent(key));
+    }
+
+    /**
+     * Drops every cached decision for a resource, e.g. after its policy has been changed.
+     *
+     * @param resourceName the normalized resource name
+     */
+    public void invalidateResource(String resourceName) {
+        decisions.asMap().keySet().removeIf(key -> key.getResourceName().equals(resourceName));
+        lastKnownDecisions.asMap().keySet().removeIf(key -> key.getResourceName().equals(resourceName));
+    }
+
+    public void invalidateAll() {
+        decisions.invalidateAll();
+        lastKnownDecisions.invalidateAll();
+    }
+
+    /**
+     * Key of a cached decision.
+     */
+    @Getter
+    @EqualsAndHashCode
+    public static final class DecisionKey {
+        private final String resourceName;
+        private final List<String> roleNames;
+        private final List<String> actions;
+
+        private DecisionKey(String resourceName, List<String> roleNames, List<String> actions) {
+            this.resourceName = resourceName;
+            this.roleNames = roleNames;
+            this.actions = actions;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package io.nuvalence.user.management.api.service.cerbos;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.nuvalence.user.management.api.service.cerbos.models.Policy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Answers permission checks while Cerbos is unavailable.
+ *
+ * <p>In "deny" mode every check that can't reach Cerbos is denied. In "stale" mode the last decision Cerbos gave
+ * for the same check is served, or failing that the check is evaluated against the mirrored policy, as long as
+ * either is no older than the max staleness.</p>
+ */
+@Component
+public class CerbosFallback {
+    private final boolean serveStale;
+    private final Duration maxStaleness;
+    private final CerbosDecisionCache decisionCache;
+    private final CerbosPolicyMirror policyMirror;
+    private final Counter staleDecisions;
+    private final Counter stalePolicies;
+    private final Counter denials;
+
+    /**
+     * Creates the fallback.
+     *
+     * @param decisionCache the cache holding the last known decisions
+     * @param policyMirror the local copy of the resource policies
+     * @param meterRegistry the registry to publish fallback counts to
+     * @param mode "deny" or "stale"
+     * @param maxStaleness the maximum age of a decision or policy served in "stale" mode
+     */
+    public CerbosFallback(CerbosDecisionCache decisionCache, CerbosPolicyMirror policyMirror,
+                          MeterRegistry meterRegistry,
+                          @Value("${cerbos.fallback.mode:deny}") String mode,
+                          @Value("${cerbos.fallback.max-staleness:PT15M}") Duration maxStaleness) {
+        if (!"deny".equalsIgnoreCase(mode) && !"stale".equalsIgnoreCase(mode)) {
+            throw new IllegalArgumentException("cerbos.fallback.mode must be 'deny' or 'stale', not '" + mode + "'");
+        }
+        this.serveStale = "stale".equalsIgnoreCase(mode);
+        this.maxStaleness = maxStaleness;
+        this.decisionCache = decisionCache;
+        this.policyMirror = policyMirror;
+        this.staleDecisions = Counter.builder("cerbos.fallbacks").tag("source", "decision").register(meterRegistry);
+        this.stalePolicies = Counter.builder("cerbos.fallbacks").tag("source", "policy").register(meterRegistry);
+        this.denials = Counter.builder("cerbos.fallbacks").tag("source", "deny").register(meterRegistry);
+    }
+
+    /**
+     * Decides a check that could not be sent to Cerbos.
+     *
+     * @param resourceName the normalized resource name
+     * @param roleNames the principal's roles
+     * @param actions the actions, any of which being allowed allows the check
+     * @return whether the check is allowed
+     */
+    public boolean decide(String resourceName, List<String> roleNames, String... actions) {
+        if (serveStale) {
+            Optional<Boolean> lastKnownDecision =
+                    decisionCache.getLastKnown(CerbosDecisionCache.key(resourceName, roleNames, actions));
+            if (lastKnownDecision.isPresent()) {
+                staleDecisions.increment();
+                return lastKnownDecision.get();
+            }
+
+            Optional<CompiledPolicy> compiledPolicy = policyMirror.get(resourceName, maxStaleness)
+                    .map(mirroredPolicy -> CompiledPolicy.compile(mirroredPolicy.getPolicy().orElse(null)))
+                    .filter(CompiledPolicy::isEvaluable);
+            if (compiledPolicy.isPresent()) {
+                stalePolicies.increment();
+                return Arrays.stream(actions).anyMatch(action ->
+                        action != null && compiledPolicy.get().isAllowed(roleNames, action.toLowerCase()));
+            }
+        }
+
+        denials.increment();
+        return false;
+    }
+
+    /**
+     * Returns the policy of a resource that could not be read from Cerbos.
+     *
+     * @param resourceName the normalized resource name
+     * @return the mirrored policy in "stale" mode, if it is within the max staleness
+     */
+    public Optional<Policy> getPolicy(String resourceName) {
+        if (!serveStale) {
+            return Optional.empty();
+        }
+        return policyMirror.get(resourceName, maxStaleness).flatMap(CerbosPolicyMirror.MirroredPolicy::getPolicy);
+    }
+}
@@ -0,0 +1,46 @@
+package io.nuvalence.user.management.api.service.cerbos;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports the state of the Cerbos circuit breaker: up while closed, unknown while probing (half-open),
+ * and down while open or disabled.
+ */
+@Component
+@RequiredArgsConstructor
+public class CerbosHealthIndicator implements HealthIndicator {
+    private final CerbosResilience resilience;
+
+    @Override
+    public Health health() {
+        CircuitBreaker circuitBreaker = resilience.getCircuitBreaker();
+        CircuitBreaker.Metrics metrics = circuitBreaker.getMetrics();
+        Bulkhead.Metrics bulkheadMetrics = resilience.getBulkhead().getMetrics();
+
+        Health.Builder builder;
+        switch (circuitBreaker.getState()) {
+            case CLOSED:
+                builder = Health.up();
+                break;
+            case HALF_OPEN:
+                builder = Health.unknown();
+                break;
+            default:
+                builder = Health.down();
+                break;
+        }
+
+        return builder
+                .withDetail("circuitBreakerState", circuitBreaker.getState())
+                .withDetail("failureRate", metrics.getFailureRate())
+                .withDetail("slowCallRate", metrics.getSlowCallRate())
+                .withDetail("notPermittedCalls", metrics.getNumberOfNotPermittedCalls())
+                .withDetail("availableConcurrentCalls", bulkheadMetrics.getAvailableConcurrentCalls())
+                .build();
+    }
+}
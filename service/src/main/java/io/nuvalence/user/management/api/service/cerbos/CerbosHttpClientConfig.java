@@ -0,0 +1,94 @@
+package io.nuvalence.user.management.api.service.cerbos;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP transport used to talk to Cerbos: a pooled, keep-alive connection manager with bounded
+ * connect, read and pool-acquire timeouts, instrumented with per-endpoint latency metrics.
+ */
+@Configuration
+public class CerbosHttpClientConfig {
+
+    @Value("${cerbos.http.max-connections:50}")
+    private int maxConnections;
+
+    @Value("${cerbos.http.max-connections-per-route:50}")
+    private int maxConnectionsPerRoute;
+
+    @Value("${cerbos.http.connect-timeout:PT1S}")
+    private Duration connectTimeout;
+
+    @Value("${cerbos.http.read-timeout:PT2S}")
+    private Duration readTimeout;
+
+    @Value("${cerbos.http.connection-request-timeout:PT0.5S}")
+    private Duration connectionRequestTimeout;
+
+    @Value("${cerbos.http.keep-alive:PT30S}")
+    private Duration keepAlive;
+
+    @Value("${cerbos.http.idle-eviction:PT30S}")
+    private Duration idleEviction;
+
+    /**
+     * Pooled Apache HTTP client for Cerbos. Idle and expired connections are evicted in the background,
+     * and connections are kept alive for the server-provided duration, capped at cerbos.http.keep-alive.
+     *
+     * @return the HTTP client
+     */
+    @Bean
+    public CloseableHttpClient cerbosHttpClient() {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout((int) connectTimeout.toMillis())
+                .setSocketTimeout((int) readTimeout.toMillis())
+                .setConnectionRequestTimeout((int) connectionRequestTimeout.toMillis())
+                .build();
+
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy((response, context) -> {
+                    long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE
+                            .getKeepAliveDuration(response, context);
+                    return serverKeepAlive > 0
+                            ? Math.min(serverKeepAlive, keepAlive.toMillis())
+                            : keepAlive.toMillis();
+                })
+                .evictExpiredConnections()
+                .evictIdleConnections(idleEviction.toMillis(), TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    /**
+     * RestTemplate used by {@link CerbosClient}.
+     *
+     * @param cerbosHttpClient the pooled HTTP client
+     * @param meterRegistry the registry to publish request latencies to
+     * @return the RestTemplate
+     */
+    @Bean
+    public RestTemplate cerbosRestTemplate(@Qualifier("cerbosHttpClient") CloseableHttpClient cerbosHttpClient,
+                                           MeterRegistry meterRegistry) {
+        RestTemplate restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(cerbosHttpClient));
+        restTemplate.getInterceptors().add(new CerbosRequestMetricsInterceptor(meterRegistry));
+        return restTemplate;
+    }
+}
@@ -0,0 +1,169 @@
+package io.nuvalence.user.management.api.service.cerbos;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.nuvalence.user.management.api.service.cerbos.models.Policy;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory copy of the Cerbos resource policies, one per resource. Entries are written when a policy is
+ * fetched from Cerbos or posted to it, and are only served while they are younger than the configured max age.
+ * Every entry has a version, so that a policy read from Cerbos does not replace one posted while it was read.
+ */
+@Component
+public class CerbosPolicyMirror {
+
+    private final Map<String, MirroredPolicy> policies = new ConcurrentHashMap<>();
+    private final AtomicLong versions = new AtomicLong();
+    private final Duration maxAge;
+    private final Clock clock;
+    private final Counter refreshSuccesses;
+    private final Counter refreshFailures;
+
+    /**
+     * Creates the mirror and registers its size, staleness and refresh metrics.
+     *
+     * @param meterRegistry the registry to publish metrics to
+     * @param maxAge how long a mirrored policy may be served without being refreshed
+     */
+    @Autowired
+    public CerbosPolicyMirror(MeterRegistry meterRegistry,
+                              @Value("${cerbos.policy-mirror.max-age:PT5M}") Duration maxAge) {
+        this(meterRegistry, maxAge, Clock.systemUTC());
+    }
+
+    /**
+     * Creates the mirror with a specific clock.
+     *
+     * @param meterRegistry the registry to publish metrics to
+     * @param maxAge how long a mirrored policy may be served without being refreshed
+     * @param clock the clock used to timestamp and age entries
+     */
+    public CerbosPolicyMirror(MeterRegistry meterRegistry, Duration maxAge, Clock clock) {
+        this.maxAge = maxAge;
+        this.clock = clock;
+        this.refreshSuccesses = Counter.builder("cerbos.policy.mirror.refreshes")
+                .tag("result", "success")
+                .register(meterRegistry);
+        this.refreshFailures = Counter.builder("cerbos.policy.mirror.refreshes")
+                .tag("result", "failure")
+                .register(meterRegistry);
+        Gauge.builder("cerbos.policy.mirror.size", policies, Map::size)
+                .description("Number of resource policies in the mirror")
+                .register(meterRegistry);
+        Gauge.builder("cerbos.policy.mirror.staleness", this, CerbosPolicyMirror::getMaxStalenessSeconds)
+                .description("Age in seconds of the oldest resource policy in the mirror")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the mirrored policy for a resource if it is fresh enough to be served.
+     *
+     * @param resourceName the normalized resource name
+     * @return the mirrored entry, whose policy is empty if the resource has no policy in Cerbos
+     */
+    public Optional<MirroredPolicy> get(String resourceName) {
+        return get(resourceName, maxAge);
+    }
+
+    /**
+     * Returns the mirrored policy for a resource if it is younger than the given age.
+     *
+     * @param resourceName the normalized resource name
+     * @param maxAge the maximum age of the mirrored policy
+     * @return the mirrored entry, whose policy is empty if the resource has no policy in Cerbos
+     */
+    public Optional<MirroredPolicy> get(String resourceName, Duration maxAge) {
+        MirroredPolicy mirroredPolicy = policies.get(resourceName);
+        if (mirroredPolicy == null || mirroredPolicy.getFetchedAt().plus(maxAge).isBefore(clock.instant())) {
+            return Optional.empty();
+        }
+        return Optional.of(mirroredPolicy);
+    }
+
+    /**
+     * Stores the current policy of a resource.
+     *
+     * @param resourceName the normalized resource name
+     * @param policy the policy, or empty if the resource has no policy in Cerbos
+     */
+    public void put(String resourceName, Optional<Policy> policy) {
+        policies.put(resourceName, newEntry(policy));
+    }
+
+    /**
+     * Returns the version of the mirrored policy for a resource, whatever its age.
+     *
+     * @param resourceName the normalized resource name
+     * @return the version, or 0 if the resource is not mirrored
+     */
+    public long getVersion(String resourceName) {
+        MirroredPolicy mirroredPolicy = policies.get(resourceName);
+        return mirroredPolicy == null ? 0 : mirroredPolicy.getVersion();
+    }
+
+    /**
+     * Stores the policy of a resource read from Cerbos, unless the mirrored policy has changed since the read
+     * started, in which case the newer mirrored policy is kept.
+     *
+     * @param resourceName the normalized resource name
+     * @param version the version of the mirrored policy when the read started, see {@link #getVersion(String)}
+     * @param policy the policy read, or empty if the resource has no policy in Cerbos
+     * @return the policy now in the mirror
+     */
+    public Optional<Policy> putIfUnchanged(String resourceName, long version, Optional<Policy> policy) {
+        return policies.compute(resourceName, (name, current) ->
+                (current == null ? 0 : current.getVersion()) == version ? newEntry(policy) : current
+        ).getPolicy();
+    }
+
+    public void recordRefresh(boolean success) {
+        (success ? refreshSuccesses : refreshFailures).increment();
+    }
+
+    public void clear() {
+        policies.clear();
+    }
+
+    private MirroredPolicy newEntry(Optional<Policy> policy) {
+        return new MirroredPolicy(policy.orElse(null), clock.instant(), versions.incrementAndGet());
+    }
+
+    private double getMaxStalenessSeconds() {
+        Instant now = clock.instant();
+        return policies.values().stream()
+                .mapToLong(mirroredPolicy -> Duration.between(mirroredPolicy.getFetchedAt(), now).toSeconds())
+                .max()
+                .orElse(0);
+    }
+
+    /**
+     * A mirrored policy and when it was last read from or written to Cerbos.
+     */
+    @AllArgsConstructor
+    public static final class MirroredPolicy {
+        private final Policy policy;
+        @Getter
+        private final Instant fetchedAt;
+        @Getter
+        private final long version;
+
+        public Optional<Policy> getPolicy() {
+            return Optional.ofNullable(policy);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package io.nuvalence.user.management.api.service.cerbos;
+
+import io.nuvalence.user.management.api.service.entity.ApplicationEntity;
+import io.nuvalence.user.management.api.service.repository.ApplicationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the {@link CerbosPolicyMirror} warm: loads the policy of every application at startup and then
+ * re-reads them on a fixed schedule. Each resource is refreshed on its own, so one failing resource
+ * does not throw away the mirrored copies of the others. Mirrored resources that are not applications
+ * are left to expire and are re-read on their next use.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(value = "cerbos.policy-mirror.refresh.enabled", havingValue = "true", matchIfMissing = true)
+public class CerbosPolicyMirrorRefresher {
+    private final CerbosClient client;
+    private final ApplicationRepository applicationRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadPolicies() {
+        refreshPolicies();
+    }
+
+    /**
+     * Refreshes the policies of all applications.
+     */
+    @Scheduled(initialDelayString = "${cerbos.policy-mirror.refresh.interval:PT1M}",
+            fixedDelayString = "${cerbos.policy-mirror.refresh.interval:PT1M}")
+    public void refreshPolicies() {
+        Set<String> resourceNames = applicationRepository.findAll().stream()
+                .map(ApplicationEntity::getName)
+                .collect(Collectors.toCollection(TreeSet::new));
+
+        long failures = resourceNames.stream().filter(resourceName -> !client.refreshPolicy(resourceName)).count();
+        if (failures > 0) {
+            log.warn("Failed to refresh {} of {} Cerbos policies", failures, resourceNames.size());
+        }
+    }
+}
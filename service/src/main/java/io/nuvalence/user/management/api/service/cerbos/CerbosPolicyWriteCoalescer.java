@@ -0,0 +1,151 @@
+package io.nuvalence.user.management.api.service.cerbos;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PreDestroy;
+
+/**
+ * Coalesces role-permission changes into as few Cerbos policy writes as possible.
+ *
+ * <p>Changes are queued per resource. The first change for a resource schedules a write after a short window,
+ * and every change for that resource that arrives before the write starts is merged into it (the latest
+ * change of a role wins). Writes to the same resource never overlap, so concurrent edits can't overwrite
+ * each other; writes to different resources run in parallel. The synchronous writes of {@link CerbosClient}
+ * are queued here too, and wait for their result.</p>
+ */
+@Component
+@Slf4j
+public class CerbosPolicyWriteCoalescer {
+    private final CerbosClient client;
+    private final Duration window;
+    private final ScheduledExecutorService scheduler;
+    private final Map<String, ResourceQueue> queues = new ConcurrentHashMap<>();
+    private final DistributionSummary batchSizes;
+
+    /**
+     * Creates the coalescer.
+     *
+     * @param client the Cerbos client that performs the policy writes
+     * @param meterRegistry the registry to publish batch sizes to
+     * @param window how long changes to a resource are collected before they are written
+     * @param threads how many policy writes can run at once
+     */
+    public CerbosPolicyWriteCoalescer(CerbosClient client, MeterRegistry meterRegistry,
+                                      @Value("${cerbos.policy-writes.coalesce-window:PT0.05S}") Duration window,
+                                      @Value("${cerbos.policy-writes.threads:4}") int threads) {
+        this.client = client;
+        this.window = window;
+        this.scheduler = Executors.newScheduledThreadPool(threads, new CustomizableThreadFactory("cerbos-writes-"));
+        this.batchSizes = DistributionSummary.builder("cerbos.policy.writes.batch.size")
+                .description("Number of role changes merged into a single Cerbos policy write")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdown();
+    }
+
+    /**
+     * Queues a change to the permissions of a role on a resource.
+     *
+     * @param resourceName The name of the resource
+     * @param roleName The name of the role
+     * @param permissions The permissions for the role; empty to remove the role
+     * @return completes with whether the policy write including this change succeeded
+     */
+    public CompletableFuture<Boolean> submit(String resourceName, String roleName, String[] permissions) {
+        return submit(resourceName, Collections.singletonMap(roleName, permissions));
+    }
+
+    /**
+     * Queues changes to the permissions of several roles on a resource. They all go out in the same write.
+     *
+     * @param resourceName The name of the resource
+     * @param permissionsByRole The permissions for each role; roles without permissions are removed
+     * @return completes with whether the policy write including these changes succeeded
+     */
+    public CompletableFuture<Boolean> submit(String resourceName, Map<String, String[]> permissionsByRole) {
+        String normalizedResourceName = CerbosClient.ensureResourceNameIsInitialized(resourceName);
+        ResourceQueue queue = queues.computeIfAbsent(normalizedResourceName, ResourceQueue::new);
+
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        synchronized (queue) {
+            permissionsByRole.forEach((roleName, permissions) ->
+                    queue.pendingChanges.put(roleName, permissions != null ? permissions : new String[] { }));
+            queue.pendingResults.add(result);
+            if (!queue.writeScheduled && !queue.writing) {
+                schedule(queue);
+            }
+        }
+        return result;
+    }
+
+    private void schedule(ResourceQueue queue) {
+        queue.writeScheduled = true;
+        scheduler.schedule(() -> write(queue), window.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void write(ResourceQueue queue) {
+        Map<String, String[]> changes;
+        List<CompletableFuture<Boolean>> results;
+        synchronized (queue) {
+            changes = queue.pendingChanges;
+            results = queue.pendingResults;
+            queue.pendingChanges = new LinkedHashMap<>();
+            queue.pendingResults = new ArrayList<>();
+            queue.writeScheduled = false;
+            queue.writing = true;
+        }
+
+        boolean success = false;
+        try {
+            batchSizes.record(changes.size());
+            success = Boolean.TRUE.equals(client.writeRolePermissionMappings(queue.resourceName, changes));
+        } catch (Exception e) {
+            log.error("coalesced write ex : {}", e.getMessage());
+        } finally {
+            boolean written = success;
+            results.forEach(result -> result.complete(written));
+
+            synchronized (queue) {
+                queue.writing = false;
+                // changes that arrived while writing go out in the next write
+                if (!queue.pendingChanges.isEmpty()) {
+                    schedule(queue);
+                }
+            }
+        }
+    }
+
+    /**
+     * The changes waiting to be written to a resource's policy.
+     */
+    private static final class ResourceQueue {
+        private final String resourceName;
+        private Map<String, String[]> pendingChanges = new LinkedHashMap<>();
+        private List<CompletableFuture<Boolean>> pendingResults = new ArrayList<>();
+        private boolean writeScheduled;
+        private boolean writing;
+
+        private ResourceQueue(String resourceName) {
+            this.resourceName = resourceName;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package io.nuvalence.user.management.api.service.cerbos;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+
+/**
+ * Records the latency of every Cerbos call as a histogram, tagged by endpoint path, method and status.
+ */
+public class CerbosRequestMetricsInterceptor implements ClientHttpRequestInterceptor {
+
+    static final String METRIC_NAME = "cerbos.client.requests";
+
+    private final MeterRegistry meterRegistry;
+
+    public CerbosRequestMetricsInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String status = "IO_ERROR";
+        try {
+            ClientHttpResponse response = execution.execute(request, body);
+            status = String.valueOf(response.getRawStatusCode());
+            return response;
+        } finally {
+            // the path only, so that e.g. policy ids in the query string don't become tags
+            sample.stop(Timer.builder(METRIC_NAME)
+                    .description("Latency of requests to Cerbos")
+                    .tag("endpoint", request.getURI().getPath())
+                    .tag("method", request.getMethodValue())
+                    .tag("status", status)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+}
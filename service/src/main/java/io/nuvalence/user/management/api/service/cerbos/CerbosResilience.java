@@ -0,0 +1,105 @@
+package io.nuvalence.user.management.api.service.cerbos;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker and concurrency bulkhead that every call to Cerbos goes through.
+ *
+ * <p>The breaker opens when too many calls fail or are slow, rejects calls while open, and lets a few probe
+ * calls through once half-open. The bulkhead caps how many request threads can be waiting on Cerbos at once.
+ * Client errors (4xx) are answers from a healthy Cerbos and don't count as failures.</p>
+ */
+@Component
+@Slf4j
+public class CerbosResilience {
+    static final String NAME = "cerbos";
+
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+
+    /**
+     * Creates the circuit breaker and bulkhead, and registers their metrics.
+     *
+     * @param meterRegistry the registry to publish state, call and rejection metrics to
+     * @param failureRateThreshold failure percentage that opens the breaker
+     * @param slowCallRateThreshold slow call percentage that opens the breaker
+     * @param slowCallDuration how long a call may take before it counts as slow
+     * @param slidingWindowSize how many of the most recent calls the rates are computed over
+     * @param minimumNumberOfCalls how many calls are needed before the rates are computed
+     * @param waitDurationInOpenState how long the breaker stays open before it lets probe calls through
+     * @param permittedCallsInHalfOpenState how many probe calls decide whether the breaker closes again
+     * @param maxConcurrentCalls how many calls to Cerbos can be in flight at once
+     * @param maxWaitDuration how long a call may wait for the bulkhead before it is rejected
+     */
+    public CerbosResilience(
+            MeterRegistry meterRegistry,
+            @Value("${cerbos.circuit-breaker.failure-rate-threshold:50}") float failureRateThreshold,
+            @Value("${cerbos.circuit-breaker.slow-call-rate-threshold:50}") float slowCallRateThreshold,
+            @Value("${cerbos.circuit-breaker.slow-call-duration:PT1S}") Duration slowCallDuration,
+            @Value("${cerbos.circuit-breaker.sliding-window-size:20}") int slidingWindowSize,
+            @Value("${cerbos.circuit-breaker.minimum-number-of-calls:10}") int minimumNumberOfCalls,
+            @Value("${cerbos.circuit-breaker.wait-duration-in-open-state:PT30S}") Duration waitDurationInOpenState,
+            @Value("${cerbos.circuit-breaker.permitted-calls-in-half-open-state:3}") int permittedCallsInHalfOpenState,
+            @Value("${cerbos.bulkhead.max-concurrent-calls:50}") int maxConcurrentCalls,
+            @Value("${cerbos.bulkhead.max-wait-duration:PT0S}") Duration maxWaitDuration) {
+        CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .failureRateThreshold(failureRateThreshold)
+                .slowCallRateThreshold(slowCallRateThreshold)
+                .slowCallDurationThreshold(slowCallDuration)
+                .slidingWindowSize(slidingWindowSize)
+                .minimumNumberOfCalls(minimumNumberOfCalls)
+                .waitDurationInOpenState(waitDurationInOpenState)
+                .permittedNumberOfCallsInHalfOpenState(permittedCallsInHalfOpenState)
+                .automaticTransitionFromOpenToHalfOpenEnabled(true)
+                .ignoreExceptions(HttpClientErrorException.class)
+                .build());
+        BulkheadRegistry bulkheadRegistry = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcurrentCalls)
+                .maxWaitDuration(maxWaitDuration)
+                .build());
+
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(NAME);
+        this.bulkhead = bulkheadRegistry.bulkhead(NAME);
+        circuitBreaker.getEventPublisher().onStateTransition(event ->
+                log.warn("Cerbos circuit breaker: {}", event.getStateTransition()));
+
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakerRegistry).bindTo(meterRegistry);
+        TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheadRegistry).bindTo(meterRegistry);
+    }
+
+    /**
+     * Runs a call to Cerbos through the bulkhead and circuit breaker.
+     *
+     * @param call the call
+     * @param <T> the type of the call's result
+     * @return the call's result
+     * @throws io.github.resilience4j.circuitbreaker.CallNotPermittedException if the breaker is open
+     * @throws io.github.resilience4j.bulkhead.BulkheadFullException if too many calls are in flight
+     */
+    public <T> T execute(Supplier<T> call) {
+        return Bulkhead.decorateSupplier(bulkhead, CircuitBreaker.decorateSupplier(circuitBreaker, call)).get();
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public Bulkhead getBulkhead() {
+        return bulkhead;
+    }
+}
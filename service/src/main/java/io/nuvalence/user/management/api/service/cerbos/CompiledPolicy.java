@@ -0,0 +1,114 @@
+package io.nuvalence.user.management.api.service.cerbos;
+
+import io.nuvalence.user.management.api.service.cerbos.models.Effect;
+import io.nuvalence.user.management.api.service.cerbos.models.Policy;
+import io.nuvalence.user.management.api.service.cerbos.models.ResourcePolicy;
+import io.nuvalence.user.management.api.service.cerbos.models.ResourceRule;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A resource policy compiled to a role-to-actions table.
+ */
+final class CompiledPolicy {
+    private static final String WILDCARD = "*";
+
+    private final Policy source;
+    private final boolean evaluable;
+    private final Map<String, Set<String>> actionsByRole;
+
+    private CompiledPolicy(Policy source, boolean evaluable, Map<String, Set<String>> actionsByRole) {
+        this.source = source;
+        this.evaluable = evaluable;
+        this.actionsByRole = actionsByRole;
+    }
+
+    /**
+     * Compiles a policy. A missing policy denies everything, as it does in Cerbos.
+     *
+     * @param policy the policy, or null if the resource has no policy
+     * @return the compiled policy
+     */
+    static CompiledPolicy compile(Policy policy) {
+        if (policy == null) {
+            return new CompiledPolicy(null, true, Map.of());
+        }
+        if (!canEvaluate(policy)) {
+            return new CompiledPolicy(policy, false, Map.of());
+        }
+
+        Map<String, Set<String>> actionsByRole = new HashMap<>();
+        ResourceRule[] rules = policy.getResourcePolicy().getRules();
+        if (rules != null) {
+            for (ResourceRule rule : rules) {
+                for (String role : rule.getRoles()) {
+                    actionsByRole.computeIfAbsent(role, r -> new HashSet<>()).addAll(List.of(rule.getActions()));
+                }
+            }
+        }
+        return new CompiledPolicy(policy, true, actionsByRole);
+    }
+
+    /**
+     * Whether any of the roles is allowed the (lowercased) action.
+     *
+     * @param roleNames the principal's roles
+     * @param action the action
+     * @return whether the action is allowed
+     */
+    boolean isAllowed(Collection<String> roleNames, String action) {
+        return isAllowedForRole(WILDCARD, action)
+                || roleNames.stream().anyMatch(roleName -> isAllowedForRole(roleName, action));
+    }
+
+    Policy getSource() {
+        return source;
+    }
+
+    boolean isEvaluable() {
+        return evaluable;
+    }
+
+    private boolean isAllowedForRole(String roleName, String action) {
+        Set<String> actions = actionsByRole.get(roleName);
+        return actions != null && (actions.contains(action) || actions.contains(WILDCARD));
+    }
+
+    private static boolean canEvaluate(Policy policy) {
+        ResourcePolicy resourcePolicy = policy.getResourcePolicy();
+        if (Boolean.TRUE.equals(policy.getDisabled()) || resourcePolicy == null
+                || resourcePolicy.getScope() != null || resourcePolicy.getSchemas() != null
+                || isNotEmpty(resourcePolicy.getImportDerivedRoles())) {
+            return false;
+        }
+
+        return resourcePolicy.getRules() == null
+                || Arrays.stream(resourcePolicy.getRules()).allMatch(CompiledPolicy::canEvaluate);
+    }
+
+    private static boolean canEvaluate(ResourceRule rule) {
+        return rule.getEffect() == Effect.EFFECT_ALLOW && rule.getCondition() == null
+                && !isNotEmpty(rule.getDerivedRoles()) && rule.getRoles() != null && rule.getActions() != null
+                && !hasPartialWildcard(rule.getRoles()) && !hasPartialWildcard(rule.getActions());
+    }
+
+    private static boolean isNotEmpty(String[] values) {
+        return values != null && values.length > 0;
+    }
+
+    // only a bare "*" is supported, anything like "view:*" is left to Cerbos
+    private static boolean hasPartialWildcard(String[] values) {
+        for (String value : values) {
+            if (value == null || (value.contains(WILDCARD) && !WILDCARD.equals(value))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,157 @@
+package io.nuvalence.user.management.api.service.cerbos;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.nuvalence.user.management.api.service.cerbos.models.Policy;
+import io.nuvalence.user.management.api.service.entity.UserEntity;
+import io.nuvalence.user.management.api.service.interfaces.Permissionable;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Evaluates permission checks in-process against the policies in the {@link CerbosPolicyMirror}.
+ *
+ * <p>Policies made only of unconditional role/action ALLOW rules (the kind this service writes) are compiled
+ * into role-to-action tables. Anything else, e.g. conditions, derived roles or deny rules, is checked by
+ * the remote {@link CerbosClient}. Policy changes still go through the remote client, and so through its
+ * {@link CerbosPolicyWriteCoalescer}.</p>
+ */
+@Component
+@Primary
+@ConditionalOnProperty(value = "cerbos.evaluator", havingValue = "embedded")
+public class EmbeddedPolicyEvaluator implements Permissionable {
+    private final CerbosClient client;
+    private final CerbosPolicyMirror policyMirror;
+    private final Map<String, CompiledPolicy> compiledPolicies = new ConcurrentHashMap<>();
+    private final Counter embeddedChecks;
+    private final Counter remoteChecks;
+
+    /**
+     * Creates the evaluator.
+     *
+     * @param client the remote Cerbos client, used for policy changes and for checks that can't be evaluated here
+     * @param policyMirror the local copy of the resource policies
+     * @param meterRegistry the registry to publish evaluation counts to
+     */
+    public EmbeddedPolicyEvaluator(CerbosClient client, CerbosPolicyMirror policyMirror,
+                                   MeterRegistry meterRegistry) {
+        this.client = client;
+        this.policyMirror = policyMirror;
+        this.embeddedChecks = Counter.builder("cerbos.evaluations").tag("evaluator", "embedded")
+                .register(meterRegistry);
+        this.remoteChecks = Counter.builder("cerbos.evaluations").tag("evaluator", "remote")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Boolean check(String resourceName, UserEntity userEntity, String... permissionsToCheck) {
+        Optional<CompiledPolicy> compiledPolicy = getCompiledPolicy(resourceName);
+        if (compiledPolicy.isEmpty()) {
+            remoteChecks.increment();
+            return client.check(resourceName, userEntity, permissionsToCheck);
+        }
+
+        List<String> roleNames = userEntity.getUserRoleEntities().stream()
+                .map(userRole -> userRole.getRole().getRoleName())
+                .collect(Collectors.toList());
+        return isAnyAllowed(compiledPolicy.get(), roleNames, permissionsToCheck);
+    }
+
+    @Override
+    public Boolean checkPrincipal(String resourceName, String userName, List<String> roleNames,
+                                  String... permissionsToCheck) {
+        Optional<CompiledPolicy> compiledPolicy = getCompiledPolicy(resourceName);
+        if (compiledPolicy.isEmpty()) {
+            remoteChecks.increment();
+            return client.checkPrincipal(resourceName, userName, roleNames, permissionsToCheck);
+        }
+
+        return isAnyAllowed(compiledPolicy.get(), roleNames, permissionsToCheck);
+    }
+
+    @Override
+    public Map<String, Map<String, Boolean>> checkResourceSet(String resourceName, List<String> roleNames,
+                                                              Set<String> instanceIds,
+                                                              Set<String> permissionsToCheck) {
+        Optional<CompiledPolicy> compiledPolicy = getCompiledPolicy(resourceName);
+        if (compiledPolicy.isEmpty()) {
+            remoteChecks.increment();
+            return client.checkResourceSet(resourceName, roleNames, instanceIds, permissionsToCheck);
+        }
+
+        // without conditions, the decision does not depend on the instance
+        embeddedChecks.increment();
+        Map<String, Boolean> actionDecisions = new HashMap<>();
+        permissionsToCheck.forEach(permission -> actionDecisions.put(permission.toLowerCase(),
+                compiledPolicy.get().isAllowed(roleNames, permission.toLowerCase())));
+
+        Map<String, Map<String, Boolean>> decisions = new HashMap<>();
+        instanceIds.forEach(instanceId -> decisions.put(instanceId, new HashMap<>(actionDecisions)));
+        return decisions;
+    }
+
+    @Override
+    public Boolean updateRolePermissionMappings(String resourceName, String roleName, String[] permissions) {
+        return client.updateRolePermissionMappings(resourceName, roleName, permissions);
+    }
+
+    @Override
+    public Boolean updateRolePermissionMappings(String resourceName, Map<String, String[]> permissionsByRole) {
+        return client.updateRolePermissionMappings(resourceName, permissionsByRole);
+    }
+
+    @Override
+    public Boolean removeRole(String resourceName, String roleName) {
+        return client.removeRole(resourceName, roleName);
+    }
+
+    @Override
+    public Map<String, String[]> getRolePermissionMappings(String resourceName) {
+        return client.getRolePermissionMappings(resourceName);
+    }
+
+    private boolean isAnyAllowed(CompiledPolicy compiledPolicy, List<String> roleNames,
+                                 String... permissionsToCheck) {
+        embeddedChecks.increment();
+        for (String permission : permissionsToCheck) {
+            if (permission != null && compiledPolicy.isAllowed(roleNames, permission.toLowerCase())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the compiled form of a resource's policy, reading the policy from Cerbos if it is not mirrored.
+     * Empty if the policy can't be evaluated here.
+     */
+    private Optional<CompiledPolicy> getCompiledPolicy(String resourceName) {
+        String normalizedResourceName = CerbosClient.ensureResourceNameIsInitialized(resourceName);
+
+        Optional<CerbosPolicyMirror.MirroredPolicy> mirroredPolicy = policyMirror.get(normalizedResourceName);
+        if (mirroredPolicy.isEmpty() && client.refreshPolicy(normalizedResourceName)) {
+            mirroredPolicy = policyMirror.get(normalizedResourceName);
+        }
+        if (mirroredPolicy.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Policy policy = mirroredPolicy.get().getPolicy().orElse(null);
+        CompiledPolicy compiledPolicy = compiledPolicies.get(normalizedResourceName);
+        if (compiledPolicy == null || compiledPolicy.getSource() != policy) {
+            compiledPolicy = CompiledPolicy.compile(policy);
+            compiledPolicies.put(normalizedResourceName, compiledPolicy);
+        }
+
+        return compiledPolicy.isEvaluable() ? Optional.of(compiledPolicy) : Optional.empty();
+    }
+}
@@ -0,0 +1,13 @@
+package io.nuvalence.user.management.api.service.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables the {@code @Scheduled} refreshes of the in-memory caches. Each refresher can be turned off with its
+ * own {@code refresh.enabled} property, e.g. in tests that count queries.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -2,13 +2,16 @@ package io.nuvalence.user.management.api.service.controller;
 
 import io.nuvalence.user.management.api.service.generated.controllers.CloudTaskApiDelegate;
 import io.nuvalence.user.management.api.service.generated.models.UserCreationRequest;
+import io.nuvalence.user.management.api.service.generated.models.UserCreationResult;
 import io.nuvalence.user.management.api.service.generated.models.UserDTO;
 import io.nuvalence.user.management.api.service.generated.models.UserUpdateRequest;
+import io.nuvalence.user.management.api.service.generated.models.UserUpsertResult;
 import io.nuvalence.user.management.api.service.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -22,8 +25,16 @@ public class CloudTaskDelegateApiImpl implements CloudTaskApiDelegate {
     private final UserService userService;
 
     @Override
-    public ResponseEntity<Void> addUser(UserCreationRequest body) {
-        return userService.createUser(body);
+    public ResponseEntity<UserUpsertResult> addUser(UserCreationRequest body, Boolean upsert) {
+        if (Boolean.TRUE.equals(upsert)) {
+            return userService.upsertUser(body);
+        }
+        return ResponseEntity.status(userService.createUser(body).getStatusCode()).build();
+    }
+
+    @Override
+    public ResponseEntity<List<UserCreationResult>> addUsers(List<UserCreationRequest> body) {
+        return userService.createUsers(body);
     }
 
     @Override
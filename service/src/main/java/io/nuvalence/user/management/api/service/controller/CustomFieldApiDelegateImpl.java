@@ -1,6 +1,7 @@
 package io.nuvalence.user.management.api.service.controller;
 
 import io.nuvalence.user.management.api.service.generated.controllers.CustomFieldsApiDelegate;
+import io.nuvalence.user.management.api.service.generated.models.BackgroundJobDTO;
 import io.nuvalence.user.management.api.service.generated.models.CreateCustomFieldDTO;
 import io.nuvalence.user.management.api.service.generated.models.CreateOrUpdateCustomFieldOptionDTO;
 import io.nuvalence.user.management.api.service.generated.models.CustomFieldDTO;
@@ -51,7 +52,7 @@ public class CustomFieldApiDelegateImpl implements CustomFieldsApiDelegate {
     }
 
     @Override
-    public ResponseEntity<Void> deleteCustomField(UUID id) {
+    public ResponseEntity<BackgroundJobDTO> deleteCustomField(UUID id) {
         return customFieldService.deleteCustomField(id);
     }
 
@@ -0,0 +1,32 @@
+package io.nuvalence.user.management.api.service.controller;
+
+import io.nuvalence.user.management.api.service.generated.controllers.JobsApiDelegate;
+import io.nuvalence.user.management.api.service.generated.models.BackgroundJobDTO;
+import io.nuvalence.user.management.api.service.service.BackgroundJobService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.NativeWebRequest;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Controller for Jobs API.
+ */
+
+@Service
+@RequiredArgsConstructor
+public class JobsApiDelegateImpl implements JobsApiDelegate {
+    private final BackgroundJobService backgroundJobService;
+
+    @Override
+    public Optional<NativeWebRequest> getRequest() {
+        return JobsApiDelegate.super.getRequest();
+    }
+
+    @Override
+    public ResponseEntity<BackgroundJobDTO> getJob(UUID id) {
+        return backgroundJobService.getJob(id);
+    }
+}
@@ -4,8 +4,11 @@ import io.nuvalence.user.management.api.service.generated.controllers.UserApiDel
 import io.nuvalence.user.management.api.service.generated.models.CreateOrUpdateUserCustomFieldDTO;
 import io.nuvalence.user.management.api.service.generated.models.RoleDTO;
 import io.nuvalence.user.management.api.service.generated.models.UserDTO;
+import io.nuvalence.user.management.api.service.generated.models.UserPreferenceBatchUpdateRequest;
+import io.nuvalence.user.management.api.service.generated.models.UserPreferenceBatchUpdateResult;
 import io.nuvalence.user.management.api.service.generated.models.UserPreferenceDTO;
 import io.nuvalence.user.management.api.service.generated.models.UserRoleDTO;
+import io.nuvalence.user.management.api.service.service.UserExportService;
 import io.nuvalence.user.management.api.service.service.UserPreferenceService;
 import io.nuvalence.user.management.api.service.service.UserService;
 import lombok.RequiredArgsConstructor;
@@ -13,6 +16,7 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
@@ -29,6 +33,7 @@ public class UserApiDelegateImpl implements UserApiDelegate {
 
     private final UserService userService;
     private final UserPreferenceService userPreferenceService;
+    private final UserExportService userExportService;
 
     @Override
     public Optional<NativeWebRequest> getRequest() {
@@ -46,8 +51,13 @@ public class UserApiDelegateImpl implements UserApiDelegate {
     }
 
     @Override
-    public ResponseEntity<List<UserDTO>> getUserList() {
-        return userService.getUserList();
+    public ResponseEntity<List<UserDTO>> getUserList(Integer limit, String cursor) {
+        return userService.getUserList(limit, cursor);
+    }
+
+    @Override
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
+        return userExportService.exportUsers();
     }
 
     @Override
@@ -92,6 +102,13 @@ public class UserApiDelegateImpl implements UserApiDelegate {
         return ResponseEntity.ok().build();
     }
 
+    @Override
+    public ResponseEntity<UserPreferenceBatchUpdateResult> batchUpdatePreferences(
+            UserPreferenceBatchUpdateRequest request) {
+        UserPreferenceBatchUpdateResult result = userPreferenceService.batchUpdatePreferences(request);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(result);
+    }
+
     @Override
     public ResponseEntity<Void> updateUserCustomFieldValue(UUID id, CreateOrUpdateUserCustomFieldDTO customField) {
         return userService.updateCustomField(id, customField);
@@ -0,0 +1,27 @@
+package io.nuvalence.user.management.api.service.controller;
+
+import io.nuvalence.user.management.api.service.generated.controllers.UserbatchGetApiDelegate;
+import io.nuvalence.user.management.api.service.generated.models.UserBatchGetRequest;
+import io.nuvalence.user.management.api.service.generated.models.UserBatchGetResult;
+import io.nuvalence.user.management.api.service.service.UserService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Controller for the user multi-get API.
+ */
+
+@Service
+@RequiredArgsConstructor
+public class UserBatchGetApiDelegateImpl implements UserbatchGetApiDelegate {
+
+    private final UserService userService;
+
+    @Override
+    public ResponseEntity<List<UserBatchGetResult>> batchGetUsers(UserBatchGetRequest request) {
+        return userService.batchGetUsers(request);
+    }
+}
@@ -1,6 +1,8 @@
 package io.nuvalence.user.management.api.service.controller;
 
 import io.nuvalence.user.management.api.service.generated.controllers.ValidateApiDelegate;
+import io.nuvalence.user.management.api.service.generated.models.ValidatePermissionBatchRequest;
+import io.nuvalence.user.management.api.service.generated.models.ValidatePermissionBatchResponse;
 import io.nuvalence.user.management.api.service.generated.models.ValidatePermissionDTO;
 import io.nuvalence.user.management.api.service.service.ValidateService;
 import lombok.RequiredArgsConstructor;
@@ -28,4 +30,10 @@ public class ValidateApiDelegateImpl implements ValidateApiDelegate {
     public ResponseEntity<ValidatePermissionDTO> validateUserPermission(String userName, String role, String resource) {
         return validateService.validateUserPermission(userName, role, resource);
     }
+
+    @Override
+    public ResponseEntity<ValidatePermissionBatchResponse> validateUserPermissions(
+            ValidatePermissionBatchRequest body) {
+        return validateService.validateUserPermissions(body);
+    }
 }
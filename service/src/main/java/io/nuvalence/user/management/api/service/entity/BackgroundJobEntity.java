@@ -0,0 +1,66 @@
+package io.nuvalence.user.management.api.service.entity;
+
+import io.nuvalence.user.management.api.service.enums.BackgroundJobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.GenericGenerator;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+/**
+ * Represents a long-running operation, e.g. a large delete, and its progress.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "background_job")
+public class BackgroundJobEntity {
+    @Id
+    @GeneratedValue(generator = "uuid2")
+    @GenericGenerator(name = "uuid2", strategy = "org.hibernate.id.UUIDGenerator")
+    @Column(name = "id", length = 36, updatable = false, nullable = false)
+    private UUID id;
+
+    @Column(name = "type", nullable = false)
+    private String type;
+
+    @Column(name = "target_id", length = 36)
+    private UUID targetId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private BackgroundJobStatus status;
+
+    @Column(name = "processed", nullable = false)
+    private long processed;
+
+    @Column(name = "total")
+    private Long total;
+
+    @Column(name = "error", length = 1024)
+    private String error;
+
+    @Column(name = "owner", length = 64)
+    private String owner;
+
+    @Column(name = "lease_expires_at")
+    private OffsetDateTime leaseExpiresAt;
+
+    @Column(name = "created_at", nullable = false)
+    private OffsetDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private OffsetDateTime updatedAt;
+}
@@ -4,7 +4,6 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
-import org.hibernate.annotations.Type;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -13,6 +12,9 @@ import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
+import javax.persistence.NamedAttributeNode;
+import javax.persistence.NamedEntityGraph;
+import javax.persistence.NamedSubgraph;
 import javax.persistence.OneToMany;
 import javax.persistence.Table;
 
@@ -26,10 +28,17 @@ import javax.persistence.Table;
 @NoArgsConstructor
 @Entity
 @Table(name = "user_table")
+@NamedEntityGraph(name = UserEntity.WITH_ROLES,
+        attributeNodes = @NamedAttributeNode(value = "userRoleEntities", subgraph = "userRole"),
+        subgraphs = @NamedSubgraph(name = "userRole", attributeNodes = @NamedAttributeNode("role")))
 public class UserEntity {
+    /**
+     * Entity graph that loads a user's roles along with the user.
+     */
+    public static final String WITH_ROLES = "UserEntity.withRoles";
+
     @Id
     @GeneratedValue(generator = "uuid2")
-    @Type(type = "uuid-char")
     @Column(name = "id", updatable = false, nullable = false)
     private UUID id;
 
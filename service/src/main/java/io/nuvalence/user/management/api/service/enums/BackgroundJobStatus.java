@@ -0,0 +1,11 @@
+package io.nuvalence.user.management.api.service.enums;
+
+/**
+ * Represents the states of a background job.
+ */
+public enum BackgroundJobStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,26 @@
+package io.nuvalence.user.management.api.service.interfaces;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking variant of {@link Permissionable}, for callers that need to issue several permission calls
+ * (e.g. one per application) concurrently.
+ */
+
+public interface AsyncPermissionable {
+    /**
+     * Queues a change to the permissions of a role. Changes to the same resource may be merged into one write.
+     *
+     * @param resourceName The name of the resource
+     * @param roleName The name of the role
+     * @param permissions The permissions for the role
+     * @return completes with whether the change was written
+     */
+    CompletableFuture<Boolean> updateRolePermissionMappingsAsync(String resourceName, String roleName,
+                                                                 String[] permissions);
+
+    CompletableFuture<Boolean> removeRoleAsync(String resourceName, String roleName);
+
+    CompletableFuture<Map<String, String[]>> getRolePermissionMappingsAsync(String resourceName);
+}
@@ -0,0 +1,33 @@
+package io.nuvalence.user.management.api.service.interfaces;
+
+import java.util.UUID;
+
+/**
+ * Does the work of one type of background job. A job is only recorded by its type and target, so an instance
+ * that restarts can resume the jobs it was running; both methods must therefore be safe to run again.
+ */
+
+public interface BackgroundJobHandler {
+    /**
+     * Returns the type of the jobs this handler runs, e.g. "delete-custom-field".
+     *
+     * @return the job type
+     */
+    String getType();
+
+    /**
+     * Processes up to the given number of rows.
+     *
+     * @param targetId the id of the entity the job works on
+     * @param chunkSize how many rows to process at most
+     * @return how many rows were processed; 0 once none are left
+     */
+    int processChunk(UUID targetId, int chunkSize);
+
+    /**
+     * Finishes the job, after the last chunk.
+     *
+     * @param targetId the id of the entity the job works on
+     */
+    void complete(UUID targetId);
+}
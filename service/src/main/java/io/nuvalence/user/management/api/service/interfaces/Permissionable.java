@@ -2,7 +2,9 @@ package io.nuvalence.user.management.api.service.interfaces;
 
 import io.nuvalence.user.management.api.service.entity.UserEntity;
 
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Interface for classes that will implement permission checks.
@@ -11,8 +13,42 @@ import java.util.Map;
 public interface Permissionable {
     Boolean check(String resourceName, UserEntity userEntity, String... permissionsToCheck);
 
+    /**
+     * Checks if a principal with the provided roles has any of the provided permissions, without needing the
+     * user entity.
+     *
+     * @param resourceName is the type of resource to check
+     * @param userName is the name of the user the principal stands for
+     * @param roleNames are the roles of the principal
+     * @param permissionsToCheck is the list of permissions to check
+     * @return whether any of the permissions is allowed
+     */
+    Boolean checkPrincipal(String resourceName, String userName, List<String> roleNames,
+                           String... permissionsToCheck);
+
+    /**
+     * Checks a set of actions for a set of resource instances on behalf of a single principal.
+     *
+     * @param resourceName is the type of resource to check
+     * @param roleNames are the roles of the principal
+     * @param instanceIds are the resource instances to check
+     * @param permissionsToCheck are the permissions (actions) to check
+     * @return for each instance id, whether each (lowercased) permission is allowed
+     */
+    Map<String, Map<String, Boolean>> checkResourceSet(String resourceName, List<String> roleNames,
+                                                       Set<String> instanceIds, Set<String> permissionsToCheck);
+
     Boolean updateRolePermissionMappings(String resourceName, String roleName, String[] permissions);
 
+    /**
+     * Adds, updates and removes the permissions of several roles on a resource in a single policy write.
+     *
+     * @param resourceName The name of the resource
+     * @param permissionsByRole The permissions for each role; roles without permissions are removed
+     * @return whether the policy was successfully written or not
+     */
+    Boolean updateRolePermissionMappings(String resourceName, Map<String, String[]> permissionsByRole);
+
     Boolean removeRole(String resourceName, String roleName);
 
     Map<String, String[]> getRolePermissionMappings(String resourceName);
@@ -0,0 +1,24 @@
+package io.nuvalence.user.management.api.service.mapper;
+
+import io.nuvalence.user.management.api.service.entity.BackgroundJobEntity;
+import io.nuvalence.user.management.api.service.generated.models.BackgroundJobDTO;
+import org.mapstruct.Mapper;
+import org.mapstruct.factory.Mappers;
+
+/**
+ * Maps between BackgroundJobEntity and BackgroundJobDTO.
+ */
+
+@Mapper
+public interface BackgroundJobMapper {
+    BackgroundJobMapper INSTANCE = Mappers.getMapper(BackgroundJobMapper.class);
+
+    /**
+     * Maps {@link BackgroundJobEntity} to
+     * {@link BackgroundJobDTO}.
+     *
+     * @param entity a background job entity
+     * @return background job model
+     */
+    BackgroundJobDTO convertEntityToDto(BackgroundJobEntity entity);
+}
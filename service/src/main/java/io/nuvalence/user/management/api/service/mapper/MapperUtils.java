@@ -12,6 +12,7 @@ import io.nuvalence.user.management.api.service.entity.UserPreferenceTypeEntity;
 import io.nuvalence.user.management.api.service.entity.UserRoleEntity;
 import io.nuvalence.user.management.api.service.enums.CustomFieldType;
 import io.nuvalence.user.management.api.service.generated.models.AssignedRoleDTO;
+import io.nuvalence.user.management.api.service.generated.models.CustomFieldDTO;
 import io.nuvalence.user.management.api.service.generated.models.CustomFieldDataType;
 import io.nuvalence.user.management.api.service.generated.models.PermissionDTO;
 import io.nuvalence.user.management.api.service.generated.models.RoleApplicationDTO;
@@ -186,19 +187,29 @@ public class MapperUtils {
      * @return a dto version of the user custom field.
      */
     public static UserCustomFieldDTO mapUserCustomFieldEntityToDto(UserCustomFieldEntity userCustomField) {
+        return mapUserCustomFieldEntityToDto(userCustomField,
+                CustomFieldMapper.INSTANCE.convertEntityToDto(userCustomField.getCustomField()));
+    }
+
+    /**
+     * Maps between {@link UserCustomFieldEntity} and {@link UserCustomFieldDTO}, taking the definition of the
+     * custom field from an already mapped {@link CustomFieldDTO} rather than from the entity.
+     *
+     * @param userCustomField the user custom field.
+     * @param customField the custom field the value is for, with its options.
+     * @return a dto version of the user custom field.
+     */
+    public static UserCustomFieldDTO mapUserCustomFieldEntityToDto(UserCustomFieldEntity userCustomField,
+                                                                   CustomFieldDTO customField) {
         UserCustomFieldDTO dto = new UserCustomFieldDTO();
         dto.setId(userCustomField.getId());
-        dto.setCustomFieldId(userCustomField.getCustomField().getId());
-        dto.setType(UserCustomFieldDTO.TypeEnum.fromValue(
-                userCustomField.getCustomField().getType().getType()
-        ));
-        dto.setDataType(UserCustomFieldDTO.DataTypeEnum.fromValue(
-                userCustomField.getCustomField().getDataType().getType()
-        ));
-        dto.setName(userCustomField.getCustomField().getName());
-        dto.setDisplayText(userCustomField.getCustomField().getDisplayText());
+        dto.setCustomFieldId(customField.getId());
+        dto.setType(UserCustomFieldDTO.TypeEnum.fromValue(customField.getType().getValue()));
+        dto.setDataType(UserCustomFieldDTO.DataTypeEnum.fromValue(customField.getDataType().getValue()));
+        dto.setName(customField.getName());
+        dto.setDisplayText(customField.getDisplayText());
 
-        switch (CustomFieldDataType.fromValue(userCustomField.getCustomField().getDataType().getType())) {
+        switch (CustomFieldDataType.fromValue(customField.getDataType().getValue())) {
             case INT:
                 dto.setValue(userCustomField.getCustomFieldValueInt());
                 break;
@@ -224,14 +235,10 @@ public class MapperUtils {
         }
 
         // only populate options if type is drop-down list
-        if (CustomFieldType.fromText(userCustomField.getCustomField().getType().getType())
-                == CustomFieldType.DROP_DOWN_LIST
-                && userCustomField.getCustomField().getOptions() != null
-                && userCustomField.getCustomField().getOptions().size() > 0) {
-            dto.setOptions(userCustomField.getCustomField().getOptions()
-                    .stream().map(CustomFieldMapper.INSTANCE::convertOptionEntityToOptionDto)
-                    .collect(Collectors.toList())
-            );
+        if (CustomFieldType.fromText(customField.getType().getValue()) == CustomFieldType.DROP_DOWN_LIST
+                && customField.getOptions() != null
+                && customField.getOptions().size() > 0) {
+            dto.setOptions(customField.getOptions());
         }
 
         return dto;
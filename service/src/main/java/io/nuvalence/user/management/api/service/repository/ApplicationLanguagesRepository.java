@@ -2,6 +2,8 @@ package io.nuvalence.user.management.api.service.repository;
 
 import io.nuvalence.user.management.api.service.entity.ApplicationLanguageEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -13,6 +15,7 @@ import java.util.UUID;
 @Repository
 public interface ApplicationLanguagesRepository extends JpaRepository<ApplicationLanguageEntity, UUID> {
 
-    List<ApplicationLanguageEntity> findLanguagesByApplicationId(UUID applicationId);
+    @Query("SELECT al FROM ApplicationLanguageEntity al WHERE al.application.id = :applicationId")
+    List<ApplicationLanguageEntity> findLanguagesByApplicationId(@Param("applicationId") UUID applicationId);
 
 }
@@ -14,6 +14,6 @@ import java.util.UUID;
  */
 @Repository
 public interface ApplicationRepository extends JpaRepository<ApplicationEntity, UUID> {
-    @Query(value = "SELECT * FROM application WHERE app_name = :name", nativeQuery = true)
+    @Query(value = "SELECT * FROM application WHERE name = :name", nativeQuery = true)
     Optional<ApplicationEntity> getApplicationByName(@Param("name") String name);
 }
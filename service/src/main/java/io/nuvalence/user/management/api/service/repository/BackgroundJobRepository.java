@@ -0,0 +1,57 @@
+package io.nuvalence.user.management.api.service.repository;
+
+import io.nuvalence.user.management.api.service.entity.BackgroundJobEntity;
+import io.nuvalence.user.management.api.service.enums.BackgroundJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import javax.persistence.LockModeType;
+
+/**
+ * Repository for BackgroundJob.
+ */
+
+@Repository
+public interface BackgroundJobRepository extends JpaRepository<BackgroundJobEntity, UUID> {
+
+    @Query("SELECT j FROM BackgroundJobEntity j WHERE j.status IN (:statuses) "
+            + "AND (j.owner IS NULL OR j.leaseExpiresAt < :now)")
+    List<BackgroundJobEntity> findAllClaimable(@Param("statuses") Collection<BackgroundJobStatus> statuses,
+                                               @Param("now") OffsetDateTime now);
+
+    /**
+     * Makes an instance the owner of a job, unless another instance holds a lease on it that hasn't expired.
+     *
+     * @param id the id of the job
+     * @param owner the instance claiming the job
+     * @param leaseExpiresAt when the new lease expires, unless it is renewed
+     * @param now the current time
+     * @param statuses the statuses a job can be claimed in
+     * @return 1 if the job was claimed, 0 otherwise
+     */
+    @Modifying
+    @Query("UPDATE BackgroundJobEntity j SET j.owner = :owner, j.leaseExpiresAt = :leaseExpiresAt "
+            + "WHERE j.id = :id AND j.status IN (:statuses) AND (j.owner IS NULL OR j.leaseExpiresAt < :now)")
+    int claim(@Param("id") UUID id, @Param("owner") String owner,
+              @Param("leaseExpiresAt") OffsetDateTime leaseExpiresAt, @Param("now") OffsetDateTime now,
+              @Param("statuses") Collection<BackgroundJobStatus> statuses);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT j FROM BackgroundJobEntity j WHERE j.id = :id")
+    Optional<BackgroundJobEntity> findByIdForUpdate(@Param("id") UUID id);
+
+    @Query("SELECT j FROM BackgroundJobEntity j WHERE j.targetId = :targetId AND j.type = :type "
+            + "AND j.status IN (:statuses)")
+    List<BackgroundJobEntity> findAllByTypeAndTargetIdAndStatusIn(
+            @Param("type") String type, @Param("targetId") UUID targetId,
+            @Param("statuses") Collection<BackgroundJobStatus> statuses);
+}
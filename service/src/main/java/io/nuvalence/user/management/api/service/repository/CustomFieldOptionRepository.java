@@ -2,6 +2,7 @@ package io.nuvalence.user.management.api.service.repository;
 
 import io.nuvalence.user.management.api.service.entity.CustomFieldOptionEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -17,4 +18,8 @@ import java.util.UUID;
 public interface CustomFieldOptionRepository extends JpaRepository<CustomFieldOptionEntity, UUID> {
     @Query(value = "SELECT * FROM custom_field_option WHERE custom_field_id = :customFieldId", nativeQuery = true)
     List<CustomFieldOptionEntity> findByCustomField(@Param("customFieldId") UUID customFieldId);
+
+    @Modifying
+    @Query(value = "DELETE FROM custom_field_option WHERE custom_field_id = :customFieldId", nativeQuery = true)
+    int deleteAllByCustomField(@Param("customFieldId") UUID customFieldId);
 }
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -21,4 +22,8 @@ public interface CustomFieldRepository extends JpaRepository<CustomFieldEntity,
     @Query(value = "SELECT * FROM custom_field WHERE name = :name AND id <> :customFieldId", nativeQuery = true)
     Optional<CustomFieldEntity> findFirstByNameAndIdNot(@Param("name") String name,
                                                         @Param("customFieldId") UUID customFieldId);
+
+    @Query("SELECT DISTINCT cf FROM CustomFieldEntity cf JOIN FETCH cf.type LEFT JOIN FETCH cf.dataType "
+            + "LEFT JOIN FETCH cf.options ORDER BY cf.name")
+    List<CustomFieldEntity> findAllWithOptions();
 }
@@ -2,10 +2,12 @@ package io.nuvalence.user.management.api.service.repository;
 
 import io.nuvalence.user.management.api.service.entity.UserCustomFieldEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -26,4 +28,31 @@ public interface UserCustomFieldRepository extends JpaRepository<UserCustomField
             nativeQuery = true)
     Optional<UserCustomFieldEntity> findFirstByUserAndCustomField(@Param("userId") UUID userId,
                                                                   @Param("customFieldId") UUID customFieldId);
+
+    @Query(value = "SELECT COUNT(*) FROM user_custom_field WHERE custom_field_id = :customFieldId",
+            nativeQuery = true)
+    long countByCustomField(@Param("customFieldId") UUID customFieldId);
+
+    /**
+     * Deletes up to a given number of the values of a custom field.
+     *
+     * @param customFieldId the id of the custom field
+     * @param limit the maximum number of values to delete
+     * @return the number of values deleted; 0 once none are left
+     */
+    @Modifying
+    @Query(value = "DELETE FROM user_custom_field WHERE id IN (SELECT id FROM user_custom_field "
+            + "WHERE custom_field_id = :customFieldId LIMIT :limit)", nativeQuery = true)
+    int deleteChunkByCustomField(@Param("customFieldId") UUID customFieldId, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "DELETE FROM user_custom_field WHERE custom_field_id = :customFieldId", nativeQuery = true)
+    int deleteAllByCustomField(@Param("customFieldId") UUID customFieldId);
+
+    @Modifying
+    @Query(value = "DELETE FROM user_custom_field WHERE user_id = :userId", nativeQuery = true)
+    int deleteAllByUserId(@Param("userId") UUID userId);
+
+    @Query("SELECT ucf FROM UserCustomFieldEntity ucf WHERE ucf.user.id IN (:userIds)")
+    List<UserCustomFieldEntity> findAllByUserIdIn(@Param("userIds") Collection<UUID> userIds);
 }
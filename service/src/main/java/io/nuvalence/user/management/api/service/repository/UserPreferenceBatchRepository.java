@@ -0,0 +1,33 @@
+package io.nuvalence.user.management.api.service.repository;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Sets a preference for many users at once, with set-based statements instead of loading and saving each
+ * preference.
+ */
+public interface UserPreferenceBatchRepository {
+
+    /**
+     * Changes the option of the users' preferences of a type, where it is set to another option.
+     *
+     * @param userIds the ids of the users
+     * @param applicationId the id of the application, or null for the users' own preferences
+     * @param typeId the id of the preference type
+     * @param optionId the id of the option to set
+     * @return the number of preferences changed
+     */
+    int updateOption(Collection<UUID> userIds, UUID applicationId, UUID typeId, UUID optionId);
+
+    /**
+     * Sets a preference of a type for the users that don't have one. Ids that aren't users are ignored.
+     *
+     * @param userIds the ids of the users
+     * @param applicationId the id of the application, or null for the users' own preferences
+     * @param typeId the id of the preference type
+     * @param optionId the id of the option to set
+     * @return the number of preferences inserted
+     */
+    int insertMissing(Collection<UUID> userIds, UUID applicationId, UUID typeId, UUID optionId);
+}
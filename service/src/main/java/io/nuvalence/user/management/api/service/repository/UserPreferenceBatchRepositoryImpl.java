@@ -0,0 +1,66 @@
+package io.nuvalence.user.management.api.service.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.dialect.PostgreSQL82Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import java.util.Collection;
+import java.util.UUID;
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+
+/**
+ * Updates and inserts the preferences of many users with one statement each. Preferences have no unique
+ * constraint to insert {@code ON CONFLICT} against, so missing preferences are inserted where none exists,
+ * with ids generated by the database: {@code gen_random_uuid()} on Postgres, {@code RANDOM_UUID()} on H2.
+ * The statements bypass the persistence context, so preferences already loaded in it are stale.
+ */
+@RequiredArgsConstructor
+public class UserPreferenceBatchRepositoryImpl implements UserPreferenceBatchRepository {
+    private static final String UPDATE_OPTION =
+            "UPDATE user_preference SET user_preference_option_id = :optionId "
+                    + "WHERE user_id IN (:userIds) AND user_preference_type_id = :typeId AND %s "
+                    + "AND user_preference_option_id <> :optionId";
+    private static final String INSERT_MISSING =
+            "INSERT INTO user_preference "
+                    + "(id, user_id, application_id, user_preference_type_id, user_preference_option_id) "
+                    + "SELECT %s, u.id, %s, :typeId, :optionId FROM user_table u WHERE u.id IN (:userIds) "
+                    + "AND NOT EXISTS (SELECT 1 FROM user_preference WHERE user_id = u.id "
+                    + "AND user_preference_type_id = :typeId AND %s)";
+
+    private final EntityManager entityManager;
+
+    @Override
+    public int updateOption(Collection<UUID> userIds, UUID applicationId, UUID typeId, UUID optionId) {
+        String sql = String.format(UPDATE_OPTION, applicationCondition(applicationId));
+        return bind(entityManager.createNativeQuery(sql), userIds, applicationId, typeId, optionId).executeUpdate();
+    }
+
+    @Override
+    public int insertMissing(Collection<UUID> userIds, UUID applicationId, UUID typeId, UUID optionId) {
+        String sql = String.format(INSERT_MISSING, isPostgres() ? "gen_random_uuid()" : "RANDOM_UUID()",
+                applicationId == null ? "NULL" : ":applicationId", applicationCondition(applicationId));
+        return bind(entityManager.createNativeQuery(sql), userIds, applicationId, typeId, optionId).executeUpdate();
+    }
+
+    private static String applicationCondition(UUID applicationId) {
+        // two statements rather than one binding a null uuid
+        return applicationId == null ? "application_id IS NULL" : "application_id = :applicationId";
+    }
+
+    private static Query bind(Query query, Collection<UUID> userIds, UUID applicationId, UUID typeId,
+                              UUID optionId) {
+        query.setParameter("userIds", userIds)
+                .setParameter("typeId", typeId)
+                .setParameter("optionId", optionId);
+        if (applicationId != null) {
+            query.setParameter("applicationId", applicationId);
+        }
+        return query;
+    }
+
+    private boolean isPostgres() {
+        return entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect() instanceof PostgreSQL82Dialect;
+    }
+}
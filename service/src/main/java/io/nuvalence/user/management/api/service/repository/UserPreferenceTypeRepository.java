@@ -3,7 +3,6 @@ package io.nuvalence.user.management.api.service.repository;
 import io.nuvalence.user.management.api.service.entity.UserPreferenceTypeEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -15,6 +14,12 @@ import java.util.UUID;
 
 @Repository
 public interface UserPreferenceTypeRepository extends JpaRepository<UserPreferenceTypeEntity, UUID> {
-    @Query(value = "SELECT * FROM user_preference_type WHERE name IN (:names)", nativeQuery = true)
-    List<UserPreferenceTypeEntity> findAllByNames(@Param("names") List<String> names);
+    /**
+     * Reads every preference type, with its options.
+     *
+     * @return the preference types, by name
+     */
+    @Query("SELECT DISTINCT t FROM UserPreferenceTypeEntity t LEFT JOIN FETCH t.userPreferenceOptionEntities "
+            + "ORDER BY t.name")
+    List<UserPreferenceTypeEntity> findAllWithOptions();
 }
@@ -2,6 +2,7 @@ package io.nuvalence.user.management.api.service.repository;
 
 import io.nuvalence.user.management.api.service.entity.UserPreferenceEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -13,7 +14,8 @@ import java.util.UUID;
  * User Preferences Repository.
  */
 @Repository
-public interface UserPreferencesRepository extends JpaRepository<UserPreferenceEntity, UUID> {
+public interface UserPreferencesRepository extends JpaRepository<UserPreferenceEntity, UUID>,
+        UserPreferenceBatchRepository {
 
     @Query(value = "select * from user_preference where user_id = :userId and application_id is null",
             nativeQuery = true)
@@ -23,4 +25,43 @@ public interface UserPreferencesRepository extends JpaRepository<UserPreferenceE
             true)
     List<UserPreferenceEntity> findUserApplicationPreferences(@Param("userId") UUID userId,
                                                               @Param("appId") UUID appId);
+
+    /**
+     * Reads the names and values of a user's own preferences, without loading the preferences.
+     *
+     * @param userId the id of the user
+     * @return one row per preference type
+     */
+    @Query("SELECT t.name AS typeName, o.value AS optionValue FROM UserPreferenceEntity p "
+            + "JOIN p.type t JOIN p.option o WHERE p.user.id = :userId AND p.application IS NULL")
+    List<EffectivePreference> findEffectivePreferences(@Param("userId") UUID userId);
+
+    /**
+     * Reads the names and values of a user's preferences for an application, without loading the preferences:
+     * the application's preferences, and the user's own preferences for the types the application doesn't
+     * override.
+     *
+     * @param userId the id of the user
+     * @param appId the id of the application
+     * @return one row per preference type
+     */
+    @Query("SELECT t.name AS typeName, o.value AS optionValue FROM UserPreferenceEntity p "
+            + "JOIN p.type t JOIN p.option o WHERE p.user.id = :userId AND (p.application.id = :appId "
+            + "OR (p.application IS NULL AND NOT EXISTS (SELECT a.id FROM UserPreferenceEntity a "
+            + "WHERE a.user.id = :userId AND a.application.id = :appId AND a.type = p.type)))")
+    List<EffectivePreference> findEffectiveApplicationPreferences(@Param("userId") UUID userId,
+                                                                  @Param("appId") UUID appId);
+
+    @Modifying
+    @Query(value = "DELETE FROM user_preference WHERE user_id = :userId", nativeQuery = true)
+    int deleteAllByUserId(@Param("userId") UUID userId);
+
+    /**
+     * The value of a preference, by type name.
+     */
+    interface EffectivePreference {
+        String getTypeName();
+
+        String getOptionValue();
+    }
 }
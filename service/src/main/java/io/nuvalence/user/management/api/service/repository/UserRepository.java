@@ -1,20 +1,32 @@
 package io.nuvalence.user.management.api.service.repository;
 
 import io.nuvalence.user.management.api.service.entity.UserEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_PASS_DISTINCT_THROUGH;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 /**
  * Repository for User.
  */
 
 @Repository
-public interface UserRepository extends JpaRepository<UserEntity, UUID> {
+public interface UserRepository extends JpaRepository<UserEntity, UUID>, UserUpsertRepository {
 
     Optional<UserEntity> findById(UUID id);
 
@@ -24,6 +36,106 @@ public interface UserRepository extends JpaRepository<UserEntity, UUID> {
     @Query(value = "SELECT * FROM user_table WHERE email = :email", nativeQuery = true)
     Optional<UserEntity> findUserEntityByEmail(@Param("email") String email);
 
-    @Query(value = "SELECT * FROM user_table WHERE display_name = :name", nativeQuery = true)
-    Optional<UserEntity> findUserEntityByDisplayName(@Param("name") String displayName);
+    @Query(value = "SELECT * FROM user_table WHERE email IN (:emails)", nativeQuery = true)
+    List<UserEntity> findAllByEmailIn(@Param("emails") Collection<String> emails);
+
+    @Query(value = "SELECT * FROM user_table WHERE external_id IN (:externalIds)", nativeQuery = true)
+    List<UserEntity> findAllByExternalIdIn(@Param("externalIds") Collection<String> externalIds);
+
+    @Query("SELECT u.id FROM UserEntity u WHERE u.id IN (:ids)")
+    List<UUID> findIdsByIdIn(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Reads the users whose email or external id match; at most two, since both are unique.
+     *
+     * @param email the email to match
+     * @param externalId the external id to match
+     * @return the matching users
+     */
+    @Query(value = "SELECT * FROM user_table WHERE email = :email "
+            + "UNION SELECT * FROM user_table WHERE external_id = :externalId", nativeQuery = true)
+    List<UserEntity> findAllByEmailOrExternalId(@Param("email") String email,
+                                                @Param("externalId") String externalId);
+
+    /**
+     * Reads a user and its roles with one query.
+     *
+     * @param id the id of the user
+     * @return the user, with its roles loaded
+     */
+    @EntityGraph(UserEntity.WITH_ROLES)
+    @QueryHints(@QueryHint(name = HINT_PASS_DISTINCT_THROUGH, value = "false"))
+    @Query("SELECT DISTINCT u FROM UserEntity u WHERE u.id = :id")
+    Optional<UserEntity> findWithRolesById(@Param("id") UUID id);
+
+    /**
+     * Reads a user and its roles with one query.
+     *
+     * @param email the email of the user
+     * @return the user, with its roles loaded
+     */
+    @EntityGraph(UserEntity.WITH_ROLES)
+    @QueryHints(@QueryHint(name = HINT_PASS_DISTINCT_THROUGH, value = "false"))
+    @Query("SELECT DISTINCT u FROM UserEntity u WHERE u.email = :email")
+    Optional<UserEntity> findWithRolesByEmail(@Param("email") String email);
+
+    /**
+     * Reads the users that have a role, without their roles; see
+     * {@link UserRoleRepository#findAllWithRoleOfRoleMembers(UUID)}.
+     *
+     * @param roleId the id of the role
+     * @return the role's members, in (created at, id) order
+     */
+    @Query("SELECT u FROM UserEntity u WHERE u.id IN "
+            + "(SELECT ur.user.id FROM UserRoleEntity ur WHERE ur.role.id = :roleId) ORDER BY u.createdAt, u.id")
+    List<UserEntity> findAllByRoleId(@Param("roleId") UUID roleId);
+
+    @Query("SELECT u FROM UserEntity u ORDER BY u.createdAt, u.id")
+    List<UserEntity> findFirstPage(Pageable pageable);
+
+    /**
+     * Streams all users, in the same order as the pages, through a forward-only cursor. Must be read inside
+     * a transaction and closed afterwards.
+     *
+     * @return the users, in (created at, id) order
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    @Query("SELECT u FROM UserEntity u ORDER BY u.createdAt, u.id")
+    Stream<UserEntity> streamAll();
+
+    /**
+     * Reads the users that come after a position in the (created at, id) order.
+     *
+     * @param createdAt the creation time of the last user read
+     * @param id the id of the last user read
+     * @param pageable the page size
+     * @return the users after the position, in order
+     */
+    @Query("SELECT u FROM UserEntity u WHERE u.createdAt >= :createdAt AND (u.createdAt > :createdAt OR u.id > :id) "
+            + "ORDER BY u.createdAt, u.id")
+    List<UserEntity> findPageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") UUID id,
+                                   Pageable pageable);
+
+    /**
+     * Reads the role names of users without loading the users or their roles. Users without roles are
+     * returned once, with a null role name.
+     *
+     * @param displayNames the users' display names
+     * @return one row per user and role
+     */
+    @Query("SELECT u.displayName AS userName, r.roleName AS roleName FROM UserEntity u "
+            + "LEFT JOIN u.userRoleEntities ur LEFT JOIN ur.role r WHERE u.displayName IN (:names)")
+    List<PrincipalRole> findPrincipalRolesByDisplayNameIn(@Param("names") Collection<String> displayNames);
+
+    /**
+     * A role of a user, by name.
+     */
+    interface PrincipalRole {
+        String getUserName();
+
+        String getRoleName();
+    }
 }
@@ -4,8 +4,12 @@ import io.nuvalence.user.management.api.service.entity.RoleEntity;
 import io.nuvalence.user.management.api.service.entity.UserEntity;
 import io.nuvalence.user.management.api.service.entity.UserRoleEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -16,10 +20,32 @@ import java.util.UUID;
 @Repository
 public interface UserRoleRepository extends JpaRepository<UserRoleEntity, UUID> {
 
-    List<UserRoleEntity> findAllByUserId(UUID userId);
+    @Query("SELECT ur FROM UserRoleEntity ur WHERE ur.user.id = :userId")
+    List<UserRoleEntity> findAllByUserId(@Param("userId") UUID userId);
 
-    List<UserRoleEntity> findAllByRoleId(UUID roleId);
+    @Query("SELECT ur FROM UserRoleEntity ur WHERE ur.role.id = :roleId")
+    List<UserRoleEntity> findAllByRoleId(@Param("roleId") UUID roleId);
 
     UserRoleEntity findByUserAndRole(UserEntity user, RoleEntity role);
 
+    @Modifying
+    @Query(value = "DELETE FROM user_role WHERE user_id = :userId", nativeQuery = true)
+    int deleteAllByUserId(@Param("userId") UUID userId);
+
+    @Query("SELECT ur FROM UserRoleEntity ur JOIN FETCH ur.role WHERE ur.user.id IN (:userIds)")
+    List<UserRoleEntity> findAllWithRoleByUserIdIn(@Param("userIds") Collection<UUID> userIds);
+
+    /**
+     * Reads all the roles of the users that have a role, whatever the number of users.
+     *
+     * @param roleId the id of the role
+     * @return every role assignment of the role's members, with the role loaded
+     */
+    @Query("SELECT ur FROM UserRoleEntity ur JOIN FETCH ur.role WHERE ur.user.id IN "
+            + "(SELECT m.user.id FROM UserRoleEntity m WHERE m.role.id = :roleId)")
+    List<UserRoleEntity> findAllWithRoleOfRoleMembers(@Param("roleId") UUID roleId);
+
+    @Query("SELECT ur.user.id FROM UserRoleEntity ur WHERE ur.role.id = :roleId")
+    List<UUID> findUserIdsByRoleId(@Param("roleId") UUID roleId);
+
 }
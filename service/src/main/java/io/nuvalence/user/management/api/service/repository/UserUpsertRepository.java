@@ -0,0 +1,19 @@
+package io.nuvalence.user.management.api.service.repository;
+
+import io.nuvalence.user.management.api.service.entity.UserEntity;
+
+/**
+ * Inserts users without checking for taken emails and external ids first, relying on their unique
+ * constraints instead.
+ */
+public interface UserUpsertRepository {
+
+    /**
+     * Inserts a user with one statement, unless its email or external id is already taken. The user is not
+     * attached to the persistence context.
+     *
+     * @param user the user to insert; an id is assigned if it has none
+     * @return whether the user was inserted
+     */
+    boolean insertIfAbsent(UserEntity user);
+}
@@ -0,0 +1,47 @@
+package io.nuvalence.user.management.api.service.repository;
+
+import io.nuvalence.user.management.api.service.entity.UserEntity;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.dialect.PostgreSQL82Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import java.util.UUID;
+import javax.persistence.EntityManager;
+
+/**
+ * Inserts users with {@code INSERT ... ON CONFLICT DO NOTHING} on Postgres. Other databases, i.e. H2 in
+ * tests, don't support it and insert the user only if no user has its email or external id; a concurrent
+ * insert of the same user then fails on the unique constraints instead of being skipped.
+ */
+@RequiredArgsConstructor
+public class UserUpsertRepositoryImpl implements UserUpsertRepository {
+    private static final String INSERT_ON_CONFLICT_DO_NOTHING =
+            "INSERT INTO user_table (id, external_id, display_name, email, created_at) "
+                    + "VALUES (:id, :externalId, :displayName, :email, :createdAt) ON CONFLICT DO NOTHING";
+    private static final String INSERT_WHERE_NOT_EXISTS =
+            "INSERT INTO user_table (id, external_id, display_name, email, created_at) "
+                    + "SELECT :id, :externalId, :displayName, :email, :createdAt WHERE NOT EXISTS "
+                    + "(SELECT 1 FROM user_table WHERE email = :email OR external_id = :externalId)";
+
+    private final EntityManager entityManager;
+
+    @Override
+    public boolean insertIfAbsent(UserEntity user) {
+        if (user.getId() == null) {
+            user.setId(UUID.randomUUID());
+        }
+
+        return entityManager.createNativeQuery(isPostgres() ? INSERT_ON_CONFLICT_DO_NOTHING : INSERT_WHERE_NOT_EXISTS)
+                .setParameter("id", user.getId())
+                .setParameter("externalId", user.getExternalId())
+                .setParameter("displayName", user.getDisplayName())
+                .setParameter("email", user.getEmail())
+                .setParameter("createdAt", user.getCreatedAt())
+                .executeUpdate() > 0;
+    }
+
+    private boolean isPostgres() {
+        return entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect() instanceof PostgreSQL82Dialect;
+    }
+}
@@ -0,0 +1,53 @@
+package io.nuvalence.user.management.api.service.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Runs actions once the current transaction has committed.
+ *
+ * <p>In-memory state derived from the database, e.g. a cache, is invalidated with
+ * {@link #runNowAndAgain(Runnable)}: straight away, and again after commit. Until the transaction commits, a
+ * concurrent read still sees the old rows and may cache them again; the second invalidation drops what it
+ * cached.</p>
+ */
+final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    /**
+     * Runs an action after the current transaction commits, or now if there is no transaction. The action is
+     * dropped if the transaction rolls back.
+     *
+     * @param action the action
+     */
+    static void run(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            register(action);
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Runs an action now, and again after the current transaction commits if there is one.
+     *
+     * @param action the action; must be safe to run twice
+     */
+    static void runNowAndAgain(Runnable action) {
+        action.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            register(action);
+        }
+    }
+
+    private static void register(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,22 @@
+package io.nuvalence.user.management.api.service.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Looks for interrupted background jobs on a fixed schedule, starting when the application does, and resumes
+ * them with {@link BackgroundJobService#resumeInterruptedJobs()}.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(value = "jobs.resume.enabled", havingValue = "true", matchIfMissing = true)
+public class BackgroundJobResumer {
+    private final BackgroundJobService backgroundJobService;
+
+    @Scheduled(fixedDelayString = "${jobs.resume.interval:PT1M}")
+    public void resumeInterruptedJobs() {
+        backgroundJobService.resumeInterruptedJobs();
+    }
+}
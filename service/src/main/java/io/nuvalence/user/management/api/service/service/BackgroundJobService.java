@@ -0,0 +1,266 @@
+package io.nuvalence.user.management.api.service.service;
+
+import io.nuvalence.user.management.api.service.config.exception.ResourceNotFoundException;
+import io.nuvalence.user.management.api.service.entity.BackgroundJobEntity;
+import io.nuvalence.user.management.api.service.enums.BackgroundJobStatus;
+import io.nuvalence.user.management.api.service.generated.models.BackgroundJobDTO;
+import io.nuvalence.user.management.api.service.interfaces.BackgroundJobHandler;
+import io.nuvalence.user.management.api.service.mapper.BackgroundJobMapper;
+import io.nuvalence.user.management.api.service.repository.BackgroundJobRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import javax.annotation.PreDestroy;
+
+/**
+ * Runs long operations, e.g. deletes that fan out to millions of rows, outside of the request that started
+ * them, and records their progress in the background_job table so any instance can report it.
+ *
+ * <p>A job works in chunks: each chunk runs in its own transaction, together with the update of the job's
+ * progress, so a failure only rolls back the current chunk and the progress always matches what has been
+ * done.</p>
+ *
+ * <p>The work of each type of job is done by a {@link BackgroundJobHandler}. The instance running a job holds a
+ * lease on it, renewed with every chunk. A job whose lease has expired, because its instance stopped, is
+ * claimed and resumed by {@link #resumeInterruptedJobs()} on another instance; an instance that finds its job
+ * claimed by another one rolls back its chunk and stops.</p>
+ */
+@Service
+@Slf4j
+@SuppressWarnings("checkstyle:ClassFanOutComplexity")
+public class BackgroundJobService {
+    private static final int MAX_ERROR_LENGTH = 1024;
+    private static final List<BackgroundJobStatus> ACTIVE_STATUSES =
+            List.of(BackgroundJobStatus.PENDING, BackgroundJobStatus.RUNNING);
+
+    private final BackgroundJobRepository backgroundJobRepository;
+    private final Map<String, BackgroundJobHandler> handlers;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService executor;
+    private final int chunkSize;
+    private final Duration lease;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    /**
+     * Creates the service and its worker threads.
+     *
+     * @param backgroundJobRepository the repository the jobs are recorded in
+     * @param handlers the handlers of each type of job
+     * @param transactionManager the transaction manager each chunk's transaction is started with
+     * @param threads how many jobs can run at once
+     * @param chunkSize how many rows a job processes per transaction
+     * @param lease how long a job stays with its instance without progress before another one may resume it
+     */
+    @Autowired
+    public BackgroundJobService(BackgroundJobRepository backgroundJobRepository,
+                                List<BackgroundJobHandler> handlers,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${jobs.threads:2}") int threads,
+                                @Value("${jobs.chunk-size:1000}") int chunkSize,
+                                @Value("${jobs.lease:PT5M}") Duration lease) {
+        this(backgroundJobRepository, handlers, transactionManager,
+                Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("background-jobs-")), chunkSize,
+                lease);
+    }
+
+    /**
+     * Creates the service with a specific executor.
+     *
+     * @param backgroundJobRepository the repository the jobs are recorded in
+     * @param handlers the handlers of each type of job
+     * @param transactionManager the transaction manager each chunk's transaction is started with
+     * @param executor the executor the jobs run on
+     * @param chunkSize how many rows a job processes per transaction
+     * @param lease how long a job stays with its instance without progress before another one may resume it
+     */
+    public BackgroundJobService(BackgroundJobRepository backgroundJobRepository,
+                                List<BackgroundJobHandler> handlers,
+                                PlatformTransactionManager transactionManager,
+                                ExecutorService executor, int chunkSize, Duration lease) {
+        this.backgroundJobRepository = backgroundJobRepository;
+        this.handlers = handlers.stream()
+                .collect(Collectors.toMap(BackgroundJobHandler::getType, Function.identity()));
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.executor = executor;
+        this.chunkSize = chunkSize;
+        this.lease = lease;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Records and starts a job, unless one of the same type is already pending or running for the target. The
+     * job is recorded in a transaction of its own, and starts straight away; a unique index on the active jobs
+     * keeps two concurrent submits from both recording one.
+     *
+     * @param type the type of the job, as returned by its {@link BackgroundJobHandler}
+     * @param targetId the id of the entity the job works on
+     * @param total how many rows the job is expected to process, or null if unknown
+     * @return the new job, still pending, or the job that was already active
+     */
+    public BackgroundJobDTO submit(String type, UUID targetId, Long total) {
+        BackgroundJobHandler handler = getHandler(type);
+        Optional<BackgroundJobEntity> activeJob = findActiveJob(type, targetId);
+        if (activeJob.isPresent()) {
+            return BackgroundJobMapper.INSTANCE.convertEntityToDto(activeJob.get());
+        }
+
+        OffsetDateTime now = OffsetDateTime.now();
+        BackgroundJobEntity job = new BackgroundJobEntity(null, type, targetId, BackgroundJobStatus.PENDING,
+                0, total, null, instanceId, now.plus(lease), now, now);
+        BackgroundJobEntity savedJob;
+        try {
+            savedJob = transactionTemplate.execute(status -> backgroundJobRepository.saveAndFlush(job));
+        } catch (DataIntegrityViolationException e) {
+            // another request submitted the same job between the lookup and the insert
+            return findActiveJob(type, targetId).map(BackgroundJobMapper.INSTANCE::convertEntityToDto)
+                    .orElseThrow(() -> e);
+        }
+
+        BackgroundJobDTO submittedJob = BackgroundJobMapper.INSTANCE.convertEntityToDto(savedJob);
+        executor.execute(() -> run(savedJob.getId(), handler, targetId));
+        return submittedJob;
+    }
+
+    /**
+     * Claims and resumes the pending or running jobs whose lease has expired, because the instance running them
+     * stopped. Their processed count is kept, and they carry on from the rows that are left. Jobs that another
+     * instance claims first are left to it.
+     */
+    public void resumeInterruptedJobs() {
+        for (BackgroundJobEntity job : backgroundJobRepository.findAllClaimable(ACTIVE_STATUSES,
+                OffsetDateTime.now())) {
+            if (!claim(job.getId())) {
+                continue;
+            }
+
+            BackgroundJobHandler handler = handlers.get(job.getType());
+            if (handler == null) {
+                log.error("Background job {} has an unknown type: {}", job.getId(), job.getType());
+                transactionTemplate.executeWithoutResult(status -> updateOwnJob(job.getId(), failed -> {
+                    failed.setStatus(BackgroundJobStatus.FAILED);
+                    failed.setError("Unknown job type: " + job.getType());
+                }));
+                continue;
+            }
+
+            log.info("Resuming background job {} of type {}", job.getId(), job.getType());
+            executor.execute(() -> run(job.getId(), handler, job.getTargetId()));
+        }
+    }
+
+    /**
+     * Gets a job and its progress.
+     *
+     * @param jobId the id of the job
+     * @return the job
+     */
+    public ResponseEntity<BackgroundJobDTO> getJob(UUID jobId) {
+        BackgroundJobEntity job = backgroundJobRepository.findById(jobId)
+                .orElseThrow(() -> new ResourceNotFoundException("Job not found!"));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON)
+                .body(BackgroundJobMapper.INSTANCE.convertEntityToDto(job));
+    }
+
+    private Optional<BackgroundJobEntity> findActiveJob(String type, UUID targetId) {
+        return backgroundJobRepository.findAllByTypeAndTargetIdAndStatusIn(type, targetId, ACTIVE_STATUSES).stream()
+                .findFirst();
+    }
+
+    private BackgroundJobHandler getHandler(String type) {
+        BackgroundJobHandler handler = handlers.get(type);
+        if (handler == null) {
+            throw new IllegalArgumentException("Unknown job type: " + type);
+        }
+        return handler;
+    }
+
+    private boolean claim(UUID jobId) {
+        OffsetDateTime now = OffsetDateTime.now();
+        Integer claimed = transactionTemplate.execute(status ->
+                backgroundJobRepository.claim(jobId, instanceId, now.plus(lease), now, ACTIVE_STATUSES));
+        return claimed != null && claimed == 1;
+    }
+
+    private void run(UUID jobId, BackgroundJobHandler handler, UUID targetId) {
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    updateOwnJob(jobId, job -> job.setStatus(BackgroundJobStatus.RUNNING)));
+
+            int processed;
+            do {
+                processed = transactionTemplate.execute(status -> {
+                    int count = handler.processChunk(targetId, chunkSize);
+                    updateOwnJob(jobId, job -> job.setProcessed(job.getProcessed() + count));
+                    return count;
+                });
+            } while (processed > 0);
+
+            transactionTemplate.executeWithoutResult(status -> {
+                handler.complete(targetId);
+                updateOwnJob(jobId, job -> job.setStatus(BackgroundJobStatus.COMPLETED));
+            });
+        } catch (LeaseLostException e) {
+            log.warn("Background job {} was claimed by another instance", jobId);
+        } catch (RuntimeException e) {
+            log.error("Background job {} failed", jobId, e);
+            recordFailure(jobId, e);
+        }
+    }
+
+    private void recordFailure(UUID jobId, RuntimeException failure) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> updateOwnJob(jobId, job -> {
+                job.setStatus(BackgroundJobStatus.FAILED);
+                job.setError(StringUtils.abbreviate(failure.getMessage(), MAX_ERROR_LENGTH));
+            }));
+        } catch (LeaseLostException e) {
+            log.warn("Background job {} was claimed by another instance", jobId);
+        }
+    }
+
+    /**
+     * Updates a job and renews its lease, with the job's row locked until the transaction ends. Fails with a
+     * {@link LeaseLostException}, rolling back the transaction's work, if another instance has claimed the job.
+     */
+    private void updateOwnJob(UUID jobId, Consumer<BackgroundJobEntity> update) {
+        BackgroundJobEntity job = backgroundJobRepository.findByIdForUpdate(jobId)
+                .orElseThrow(() -> new ResourceNotFoundException("Job not found!"));
+        if (!instanceId.equals(job.getOwner())) {
+            throw new LeaseLostException();
+        }
+        update.accept(job);
+        OffsetDateTime now = OffsetDateTime.now();
+        job.setLeaseExpiresAt(now.plus(lease));
+        job.setUpdatedAt(now);
+        backgroundJobRepository.save(job);
+    }
+
+    private static class LeaseLostException extends RuntimeException {
+    }
+}
@@ -0,0 +1,177 @@
+package io.nuvalence.user.management.api.service.service;
+
+import io.nuvalence.user.management.api.service.entity.CustomFieldEntity;
+import io.nuvalence.user.management.api.service.enums.CustomFieldDataType;
+import io.nuvalence.user.management.api.service.enums.CustomFieldType;
+import io.nuvalence.user.management.api.service.generated.models.CustomFieldDTO;
+import io.nuvalence.user.management.api.service.mapper.CustomFieldMapper;
+import io.nuvalence.user.management.api.service.repository.CustomFieldRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Holds the custom field definitions in memory, as an immutable snapshot of their DTOs with the options
+ * already mapped. The snapshot is loaded on first use and dropped whenever a custom field is changed; it is also
+ * re-read on a fixed schedule by the {@link CustomFieldCatalogRefresher}.
+ *
+ * <p>The snapshot is dropped with {@link AfterCommit#runNowAndAgain(Runnable)}, and a snapshot that was being
+ * loaded while a custom field changed is never published.</p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CustomFieldCatalog {
+    private final CustomFieldRepository customFieldRepository;
+    private final AtomicLong invalidations = new AtomicLong();
+    private volatile Snapshot snapshot;
+    private long version;
+
+    /**
+     * Re-reads the catalog, and publishes it as a new version if it has changed.
+     */
+    public void refresh() {
+        load(true);
+    }
+
+    /**
+     * Returns the current snapshot, loading it if there isn't one.
+     *
+     * @return the current snapshot
+     */
+    public Snapshot getSnapshot() {
+        Snapshot current = snapshot;
+        return current != null ? current : load(false);
+    }
+
+    /**
+     * Drops the current snapshot; the next read loads a new one. Must be called by anything that changes a
+     * custom field or its options.
+     */
+    public void invalidate() {
+        Runnable invalidation = () -> {
+            invalidations.incrementAndGet();
+            snapshot = null;
+        };
+        AfterCommit.runNowAndAgain(invalidation);
+    }
+
+    private synchronized Snapshot load(boolean reload) {
+        Snapshot current = snapshot;
+        if (current != null && !reload) {
+            return current;
+        }
+
+        long loadedAfter = invalidations.get();
+        Snapshot latest = Snapshot.build(version + 1, customFieldRepository.findAllWithOptions());
+        if (current != null && current.hasSameContent(latest)) {
+            return current;
+        }
+
+        version = latest.getVersion();
+        // a change made while loading may be missing from this version, so it is only handed to this caller
+        if (invalidations.get() == loadedAfter) {
+            snapshot = latest;
+            log.info("Loaded version {} of the custom field catalog, with {} custom fields", version,
+                    latest.getCustomFields().size());
+        }
+        return latest;
+    }
+
+    /**
+     * A version of the catalog. The custom fields are shared and must not be modified.
+     */
+    public static final class Snapshot {
+        private final long version;
+        private final Map<UUID, CustomFieldDTO> customFieldsById;
+        private final List<CustomFieldDTO> customFields;
+
+        private Snapshot(long version, Map<UUID, CustomFieldDTO> customFieldsById, List<CustomFieldDTO> customFields) {
+            this.version = version;
+            this.customFieldsById = customFieldsById;
+            this.customFields = customFields;
+        }
+
+        /**
+         * Builds a snapshot of custom fields, with their types and options loaded.
+         *
+         * @param version the version of the snapshot
+         * @param customFields the custom fields
+         * @return the snapshot
+         */
+        static Snapshot build(long version, Collection<CustomFieldEntity> customFields) {
+            Map<UUID, CustomFieldDTO> customFieldsById = new HashMap<>();
+            for (CustomFieldEntity customField : customFields) {
+                CustomFieldDTO customFieldDto = CustomFieldMapper.INSTANCE.convertEntityToDto(customField);
+                customFieldDto.setOptions(customFieldDto.getOptions() == null
+                        ? List.of() : List.copyOf(customFieldDto.getOptions()));
+                customFieldsById.put(customField.getId(), customFieldDto);
+            }
+
+            List<CustomFieldDTO> sortedCustomFields = customFieldsById.values().stream()
+                    .sorted(Comparator.comparing(CustomFieldDTO::getDisplayText,
+                            Comparator.nullsLast(Comparator.naturalOrder())))
+                    .collect(Collectors.toUnmodifiableList());
+            return new Snapshot(version, Map.copyOf(customFieldsById), sortedCustomFields);
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        /**
+         * Returns all the custom fields, as served by the API, by display text.
+         *
+         * @return the custom fields
+         */
+        public List<CustomFieldDTO> getCustomFields() {
+            return customFields;
+        }
+
+        /**
+         * Finds a custom field by id.
+         *
+         * @param id the id of the custom field
+         * @return the custom field, with its options, if there is one
+         */
+        public Optional<CustomFieldDTO> findCustomField(UUID id) {
+            return id == null ? Optional.empty() : Optional.ofNullable(customFieldsById.get(id));
+        }
+
+        private boolean hasSameContent(Snapshot other) {
+            return customFields.equals(other.customFields);
+        }
+    }
+
+    /**
+     * Tells whether a custom field is a drop-down list.
+     *
+     * @param customField the custom field
+     * @return true if its values are picked from its options
+     */
+    public static boolean isDropDownList(CustomFieldDTO customField) {
+        return customField.getType() != null
+                && CustomFieldType.fromText(customField.getType().getValue()) == CustomFieldType.DROP_DOWN_LIST;
+    }
+
+    /**
+     * Returns the data type of a custom field; custom fields without one hold strings.
+     *
+     * @param customField the custom field
+     * @return the data type of its values
+     */
+    public static CustomFieldDataType getDataType(CustomFieldDTO customField) {
+        return CustomFieldDataType.fromText(customField.getDataType() == null
+                ? null : customField.getDataType().getValue());
+    }
+}
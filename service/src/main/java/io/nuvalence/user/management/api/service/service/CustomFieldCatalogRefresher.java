@@ -0,0 +1,23 @@
+package io.nuvalence.user.management.api.service.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Re-reads the {@link CustomFieldCatalog} on a fixed schedule, to pick up changes made by other instances.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(value = "user.custom-field-catalog.refresh.enabled", havingValue = "true",
+        matchIfMissing = true)
+public class CustomFieldCatalogRefresher {
+    private final CustomFieldCatalog customFieldCatalog;
+
+    @Scheduled(initialDelayString = "${user.custom-field-catalog.refresh.interval:PT1M}",
+            fixedDelayString = "${user.custom-field-catalog.refresh.interval:PT1M}")
+    public void refreshCatalog() {
+        customFieldCatalog.refresh();
+    }
+}
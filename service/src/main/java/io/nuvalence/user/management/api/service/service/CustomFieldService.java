@@ -6,8 +6,8 @@ import io.nuvalence.user.management.api.service.entity.CustomFieldDataTypeEntity
 import io.nuvalence.user.management.api.service.entity.CustomFieldEntity;
 import io.nuvalence.user.management.api.service.entity.CustomFieldOptionEntity;
 import io.nuvalence.user.management.api.service.entity.CustomFieldTypeEntity;
-import io.nuvalence.user.management.api.service.entity.UserCustomFieldEntity;
 import io.nuvalence.user.management.api.service.enums.CustomFieldType;
+import io.nuvalence.user.management.api.service.generated.models.BackgroundJobDTO;
 import io.nuvalence.user.management.api.service.generated.models.CreateCustomFieldDTO;
 import io.nuvalence.user.management.api.service.generated.models.CreateOrUpdateCustomFieldOptionDTO;
 import io.nuvalence.user.management.api.service.generated.models.CustomFieldDTO;
@@ -21,12 +21,13 @@ import io.nuvalence.user.management.api.service.repository.CustomFieldTypeReposi
 import io.nuvalence.user.management.api.service.repository.UserCustomFieldRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Sort;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.net.URI;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -40,69 +41,62 @@ import java.util.stream.Collectors;
 @Transactional
 @RequiredArgsConstructor
 @Slf4j
+@SuppressWarnings("checkstyle:ClassFanOutComplexity")
 public class CustomFieldService {
     private final UserCustomFieldRepository userCustomFieldRepository;
     private final CustomFieldDataTypeRepository customFieldDataTypeRepository;
     private final CustomFieldTypeRepository customFieldTypeRepository;
     private final CustomFieldRepository customFieldRepository;
     private final CustomFieldOptionRepository customFieldOptionRepository;
+    private final BackgroundJobService backgroundJobService;
+    private final DeleteCustomFieldJob deleteCustomFieldJob;
+    private final CustomFieldCatalog customFieldCatalog;
+
+    @Value("${jobs.delete-custom-field.inline-limit:1000}")
+    private long inlineDeleteLimit;
 
     /**
-     * Gets all custom fields.
+     * Gets all custom fields, from the catalog.
      *
      * @return A list of custom fields.
      */
     public ResponseEntity<List<CustomFieldDTO>> getAllCustomFields() {
-        List<CustomFieldEntity> allCustomFields = customFieldRepository.findAll(
-                Sort.by(Sort.Direction.ASC, "displayText")
-        );
-        if (allCustomFields.isEmpty()) {
+        List<CustomFieldDTO> customFields = customFieldCatalog.getSnapshot().getCustomFields();
+        if (customFields.isEmpty()) {
             throw new ResourceNotFoundException("No custom fields found.");
         }
 
-        List<CustomFieldDTO> customFields = allCustomFields.stream()
-                .map(CustomFieldMapper.INSTANCE::convertEntityToDto)
-                .collect(Collectors.toList());
-
         return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(customFields);
     }
 
     /**
-     * Gets a custom field by its id.
+     * Gets a custom field by its id, from the catalog.
      *
      * @param id the id of the custom field to retrieve.
      * @return a custom field.
      */
     public ResponseEntity<CustomFieldDTO> getCustomFieldById(UUID id) {
-        Optional<CustomFieldEntity> customFieldEntity = customFieldRepository.findById(id);
-        if (customFieldEntity.isEmpty()) {
-            throw new ResourceNotFoundException("Custom field not found!");
-        }
+        CustomFieldDTO customField = customFieldCatalog.getSnapshot().findCustomField(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Custom field not found!"));
 
-        CustomFieldDTO customField = CustomFieldMapper.INSTANCE.convertEntityToDto(customFieldEntity.get());
         return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(customField);
     }
 
     /**
-     * Gets the options for a custom field.
+     * Gets the options for a custom field, from the catalog.
      *
      * @param customFieldId the id of the custom field.
      * @return a list of custom field options.
      */
     public ResponseEntity<List<CustomFieldOptionDTO>> getOptionsForCustomField(UUID customFieldId) {
-        Optional<CustomFieldEntity> customField = customFieldRepository.findById(customFieldId);
-        if (customField.isEmpty()) {
-            throw new ResourceNotFoundException("Custom field not found!");
-        }
+        CustomFieldDTO customField = customFieldCatalog.getSnapshot().findCustomField(customFieldId)
+                .orElseThrow(() -> new ResourceNotFoundException("Custom field not found!"));
 
-        if (!isDropDownListType(customField.get())) {
+        if (!CustomFieldCatalog.isDropDownList(customField)) {
             throw new BusinessLogicException("The custom field is not a drop-down type.");
         }
 
-        List<CustomFieldOptionDTO> options = customField.get().getOptions()
-                .stream().map(CustomFieldMapper.INSTANCE::convertOptionEntityToOptionDto)
-                .collect(Collectors.toList());
-
+        List<CustomFieldOptionDTO> options = customField.getOptions();
         return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(options);
     }
 
@@ -148,6 +142,7 @@ public class CustomFieldService {
             customFieldOptionRepository.saveAll(options);
         }
 
+        customFieldCatalog.invalidate();
         return ResponseEntity.ok().build();
     }
 
@@ -184,27 +179,34 @@ public class CustomFieldService {
             customFieldOptionRepository.saveAll(options);
         }
 
+        customFieldCatalog.invalidate();
         return ResponseEntity.ok().build();
     }
 
     /**
-     * Deletes an existing custom field.
+     * Deletes an existing custom field. A field with at most {@code jobs.delete-custom-field.inline-limit} values
+     * is deleted straight away; one with more is deleted by a {@link DeleteCustomFieldJob}. If the custom field is
+     * already being deleted, the job that is deleting it is returned.
      *
      * @param customFieldId the id of the custom field.
-     * @return a status code.
+     * @return 200 once the field is deleted, or 202 with the job deleting it.
      */
-    public ResponseEntity<Void> deleteCustomField(UUID customFieldId) {
+    public ResponseEntity<BackgroundJobDTO> deleteCustomField(UUID customFieldId) {
         Optional<CustomFieldEntity> foundCustomField = customFieldRepository.findById(customFieldId);
         if (foundCustomField.isEmpty()) {
             throw new ResourceNotFoundException("Custom field not found!");
         }
 
-        List<UserCustomFieldEntity> userCustomFields = userCustomFieldRepository.findAllByCustomField(customFieldId);
-        userCustomFieldRepository.deleteAll(userCustomFields);
-        customFieldOptionRepository.deleteAll(foundCustomField.get().getOptions());
-        customFieldRepository.delete(foundCustomField.get());
+        long values = userCustomFieldRepository.countByCustomField(customFieldId);
+        if (values <= inlineDeleteLimit) {
+            deleteCustomFieldJob.complete(customFieldId);
+            return ResponseEntity.ok().build();
+        }
 
-        return ResponseEntity.ok().build();
+        BackgroundJobDTO job = backgroundJobService.submit(DeleteCustomFieldJob.TYPE, customFieldId, values);
+
+        return ResponseEntity.accepted().location(URI.create("/api/v2/jobs/" + job.getId()))
+                .contentType(MediaType.APPLICATION_JSON).body(job);
     }
 
     /**
@@ -237,6 +239,7 @@ public class CustomFieldService {
         customFieldOptionRepository.deleteAll(customField.get().getOptions());
         customFieldOptionRepository.saveAll(optionEntities);
 
+        customFieldCatalog.invalidate();
         return ResponseEntity.ok().build();
     }
 
@@ -0,0 +1,45 @@
+package io.nuvalence.user.management.api.service.service;
+
+import io.nuvalence.user.management.api.service.interfaces.BackgroundJobHandler;
+import io.nuvalence.user.management.api.service.repository.CustomFieldOptionRepository;
+import io.nuvalence.user.management.api.service.repository.CustomFieldRepository;
+import io.nuvalence.user.management.api.service.repository.UserCustomFieldRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Deletes a custom field: its values a chunk at a time, then its options and the field itself, together with
+ * any values written since the last chunk.
+ */
+@Component
+@RequiredArgsConstructor
+public class DeleteCustomFieldJob implements BackgroundJobHandler {
+    static final String TYPE = "delete-custom-field";
+
+    private final UserCustomFieldRepository userCustomFieldRepository;
+    private final CustomFieldRepository customFieldRepository;
+    private final CustomFieldOptionRepository customFieldOptionRepository;
+    private final CustomFieldCatalog customFieldCatalog;
+
+    @Override
+    public String getType() {
+        return TYPE;
+    }
+
+    @Override
+    public int processChunk(UUID customFieldId, int chunkSize) {
+        return userCustomFieldRepository.deleteChunkByCustomField(customFieldId, chunkSize);
+    }
+
+    @Override
+    public void complete(UUID customFieldId) {
+        userCustomFieldRepository.deleteAllByCustomField(customFieldId);
+        customFieldOptionRepository.deleteAllByCustomField(customFieldId);
+        if (customFieldRepository.existsById(customFieldId)) {
+            customFieldRepository.deleteById(customFieldId);
+        }
+        customFieldCatalog.invalidate();
+    }
+}
@@ -0,0 +1,109 @@
+package io.nuvalence.user.management.api.service.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.nuvalence.user.management.api.service.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Resolves user names to the role names used as their Cerbos principal, with a single query per lookup,
+ * and caches the results. Unknown users are not cached.
+ *
+ * <p>Anything that changes a user's name or roles, or a role's name, must invalidate the affected entries.
+ * Entries are invalidated with {@link AfterCommit#runNowAndAgain(Runnable)}.</p>
+ */
+@Component
+public class PrincipalRoleCache {
+    private final UserRepository userRepository;
+    private final Cache<String, List<String>> roleNamesByUserName;
+
+    /**
+     * Creates the cache and registers its hit/miss/eviction metrics.
+     *
+     * @param userRepository the repository the role names are read from
+     * @param meterRegistry the registry to publish cache metrics to
+     * @param maxSize the maximum number of users to keep
+     * @param ttl how long the role names of a user are kept
+     */
+    public PrincipalRoleCache(UserRepository userRepository, MeterRegistry meterRegistry,
+                              @Value("${validate.principal-cache.max-size:10000}") long maxSize,
+                              @Value("${validate.principal-cache.ttl:PT5M}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.roleNamesByUserName = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, roleNamesByUserName, "validate.principals");
+    }
+
+    /**
+     * Returns the role names of a user.
+     *
+     * @param userName the user's display name
+     * @return the user's role names, sorted; empty if there is no such user
+     */
+    public Optional<List<String>> getRoleNames(String userName) {
+        return Optional.ofNullable(getRoleNames(Set.of(userName)).get(userName));
+    }
+
+    /**
+     * Returns the role names of several users.
+     *
+     * @param userNames the users' display names
+     * @return the role names of each user that exists, sorted
+     */
+    public Map<String, List<String>> getRoleNames(Collection<String> userNames) {
+        return roleNamesByUserName.getAll(userNames, this::loadRoleNames);
+    }
+
+    /**
+     * Drops the cached role names of some users, e.g. after their roles or names have changed.
+     *
+     * @param userNames the users' display names
+     */
+    public void invalidate(String... userNames) {
+        List<String> keys = Arrays.asList(userNames);
+        AfterCommit.runNowAndAgain(() -> roleNamesByUserName.invalidateAll(keys));
+    }
+
+    /**
+     * Drops all cached role names, e.g. after a role has been renamed or deleted.
+     */
+    public void invalidateAll() {
+        AfterCommit.runNowAndAgain(roleNamesByUserName::invalidateAll);
+    }
+
+    private Map<String, List<String>> loadRoleNames(Iterable<? extends String> userNames) {
+        List<String> names = new ArrayList<>();
+        userNames.forEach(names::add);
+
+        Map<String, List<String>> roleNames = new HashMap<>();
+        userRepository.findPrincipalRolesByDisplayNameIn(names).forEach(row -> {
+            List<String> userRoleNames = roleNames.computeIfAbsent(row.getUserName(), u -> new ArrayList<>());
+            if (row.getRoleName() != null) {
+                userRoleNames.add(row.getRoleName());
+            }
+        });
+
+        // sort so that users with the same roles share a principal
+        Map<String, List<String>> sortedRoleNames = new HashMap<>();
+        roleNames.forEach((userName, userRoleNames) -> sortedRoleNames.put(userName,
+                userRoleNames.stream().sorted().collect(Collectors.toUnmodifiableList())));
+        return sortedRoleNames;
+    }
+}
@@ -1,17 +1,19 @@
 package io.nuvalence.user.management.api.service.service;
 
-import io.nuvalence.user.management.api.service.cerbos.CerbosClient;
 import io.nuvalence.user.management.api.service.config.exception.BusinessLogicException;
 import io.nuvalence.user.management.api.service.config.exception.ResourceNotFoundException;
 import io.nuvalence.user.management.api.service.entity.ApplicationEntity;
 import io.nuvalence.user.management.api.service.entity.ApplicationPermissionEntity;
 import io.nuvalence.user.management.api.service.entity.PermissionEntity;
 import io.nuvalence.user.management.api.service.entity.RoleEntity;
+import io.nuvalence.user.management.api.service.entity.UserEntity;
+import io.nuvalence.user.management.api.service.entity.UserRoleEntity;
 import io.nuvalence.user.management.api.service.generated.models.RoleApplicationDTO;
 import io.nuvalence.user.management.api.service.generated.models.RoleCreationRequest;
 import io.nuvalence.user.management.api.service.generated.models.RoleDTO;
 import io.nuvalence.user.management.api.service.generated.models.RoleUpdateRequest;
 import io.nuvalence.user.management.api.service.generated.models.UserDTO;
+import io.nuvalence.user.management.api.service.interfaces.AsyncPermissionable;
 import io.nuvalence.user.management.api.service.mapper.MapperUtils;
 import io.nuvalence.user.management.api.service.mapper.RoleEntityMapper;
 import io.nuvalence.user.management.api.service.mapper.UserEntityMapper;
@@ -19,6 +21,7 @@ import io.nuvalence.user.management.api.service.repository.ApplicationPermission
 import io.nuvalence.user.management.api.service.repository.ApplicationRepository;
 import io.nuvalence.user.management.api.service.repository.PermissionRepository;
 import io.nuvalence.user.management.api.service.repository.RoleRepository;
+import io.nuvalence.user.management.api.service.repository.UserRepository;
 import io.nuvalence.user.management.api.service.repository.UserRoleRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -29,10 +32,12 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 /**
@@ -51,7 +56,9 @@ public class RoleService {
     private final PermissionRepository permissionRepository;
     private final ApplicationPermissionRepository applicationPermissionRepository;
     private final UserRoleRepository userRoleRepository;
-    private final CerbosClient client;
+    private final UserRepository userRepository;
+    private final AsyncPermissionable asyncClient;
+    private final PrincipalRoleCache principalRoleCache;
 
     /**
      * Adds a role to the database.
@@ -99,6 +106,7 @@ public class RoleService {
         if (roleUpdateRequest.getRoleName() != null) {
             // Ensures uppercase on submission
             role.setRoleName(roleUpdateRequest.getRoleName().toUpperCase());
+            principalRoleCache.invalidateAll();
         }
 
         // Update the role display name if applicable
@@ -153,10 +161,16 @@ public class RoleService {
             roleEntities = roleRepository.findAll();
         }
 
-        Map<String, Map<String, String[]>> applicationRolePermissionMappings = new HashMap<>();
+        // fetch the mappings of all applications concurrently
+        Map<String, CompletableFuture<Map<String, String[]>>> mappingFutures = new HashMap<>();
         for (ApplicationEntity app : applicationEntities) {
-            applicationRolePermissionMappings.put(app.getName(), client.getRolePermissionMappings(app.getName()));
+            mappingFutures.put(app.getName(), asyncClient.getRolePermissionMappingsAsync(app.getName()));
         }
+        CompletableFuture.allOf(mappingFutures.values().toArray(CompletableFuture[]::new)).join();
+
+        Map<String, Map<String, String[]>> applicationRolePermissionMappings = new HashMap<>();
+        mappingFutures.forEach((appName, mappings) ->
+            applicationRolePermissionMappings.put(appName, mappings.join()));
         return MapperUtils.mapRoleEntitiesToRoleList(roleEntities,
             applicationRolePermissionMappings, applicationEntities);
     }
@@ -174,13 +188,15 @@ public class RoleService {
             throw new ResourceNotFoundException("There is no role that exists with this id.");
         }
         roleRepository.delete(roleEntity.get());
+        principalRoleCache.invalidateAll();
 
-        client.removeRole(resourceName, roleEntity.get().getRoleName());
+        asyncClient.removeRoleAsync(resourceName, roleEntity.get().getRoleName()).join();
         return ResponseEntity.ok().build();
     }
 
     /**
-     * Returns a list of users that contain the checked role.
+     * Returns a list of users that contain the checked role, with all their roles. Reads the users and
+     * their roles with two queries however many users there are.
      *
      * @param roleId describes a role id.
      * @return a list of userDTOs that have that role.
@@ -191,15 +207,21 @@ public class RoleService {
             throw new ResourceNotFoundException("There is no role with this id");
         }
 
-        List<UserDTO> users = userRoleRepository.findAllByRoleId(roleId).stream().map(userRole -> {
-            UserDTO user = UserEntityMapper.INSTANCE.convertUserEntityToUserModel(userRole.getUser());
-            user.setAssignedRoles(MapperUtils.mapUserEntityToAssignedRoleList(userRole.getUser()));
-            return user;
-        }).collect(Collectors.toList());
-
-        if (users.isEmpty()) {
+        List<UserEntity> members = userRepository.findAllByRoleId(roleId);
+        if (members.isEmpty()) {
             throw new BusinessLogicException("There are no users with this role");
         }
+
+        // read after the members, whose entities then resolve each assignment's user without a query
+        Map<UUID, List<RoleEntity>> rolesByUserId = userRoleRepository.findAllWithRoleOfRoleMembers(roleId)
+                .stream().collect(Collectors.groupingBy(userRole -> userRole.getUser().getId(),
+                        Collectors.mapping(UserRoleEntity::getRole, Collectors.toList())));
+        List<UserDTO> users = members.stream().map(member -> {
+            UserDTO user = UserEntityMapper.INSTANCE.convertUserEntityToUserModel(member);
+            user.setAssignedRoles(MapperUtils.mapRoleEntitiesToAssignedRoleList(
+                    rolesByUserId.getOrDefault(member.getId(), List.of())));
+            return user;
+        }).collect(Collectors.toList());
         return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(users);
     }
 
@@ -268,16 +290,20 @@ public class RoleService {
     private void saveApplicationPermissions(List<RoleApplicationDTO> roleApplicationDTOs,
                                             Map<UUID, ApplicationEntity> applicationEntityMap,
                                             String roleName) {
+        // only the last entry for an application counts, as it would if they were saved one after another
+        Map<String, String[]> permissionsByApplication = new LinkedHashMap<>();
         for (RoleApplicationDTO raDTO : roleApplicationDTOs) {
             ApplicationEntity app = applicationEntityMap.get(raDTO.getApplicationId());
 
             if (app != null) {
-                client.updateRolePermissionMappings(
-                    app.getName(),
-                    roleName,
-                    raDTO.getPermissions().toArray(String[]::new)
-                );
+                permissionsByApplication.put(app.getName(), raDTO.getPermissions().toArray(String[]::new));
             }
         }
+
+        // each application is its own Cerbos policy, so they can be updated concurrently; changes to the same
+        // application from concurrent requests are merged into a single policy write
+        CompletableFuture.allOf(permissionsByApplication.entrySet().stream()
+            .map(entry -> asyncClient.updateRolePermissionMappingsAsync(entry.getKey(), roleName, entry.getValue()))
+            .toArray(CompletableFuture[]::new)).join();
     }
 }
@@ -0,0 +1,147 @@
+package io.nuvalence.user.management.api.service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.nuvalence.user.management.api.service.entity.RoleEntity;
+import io.nuvalence.user.management.api.service.entity.UserCustomFieldEntity;
+import io.nuvalence.user.management.api.service.entity.UserEntity;
+import io.nuvalence.user.management.api.service.entity.UserRoleEntity;
+import io.nuvalence.user.management.api.service.generated.models.UserCustomFieldDTO;
+import io.nuvalence.user.management.api.service.generated.models.UserDTO;
+import io.nuvalence.user.management.api.service.mapper.MapperUtils;
+import io.nuvalence.user.management.api.service.mapper.UserEntityMapper;
+import io.nuvalence.user.management.api.service.repository.UserCustomFieldRepository;
+import io.nuvalence.user.management.api.service.repository.UserRepository;
+import io.nuvalence.user.management.api.service.repository.UserRoleRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
+
+/**
+ * Streams every user as newline-delimited JSON.
+ *
+ * <p>Users are read through a forward-only cursor and written in batches: the roles and custom fields of a
+ * batch are read with one query each, the batch is written and flushed, and the persistence context is
+ * cleared before the next one. Memory use depends on the batch size, not on the number of users. The custom
+ * field definitions and their options come from the {@link CustomFieldCatalog}, as of the start of the
+ * export.</p>
+ */
+@Service
+@SuppressWarnings("checkstyle:ClassFanOutComplexity")
+public class UserExportService {
+    public static final MediaType NDJSON = MediaType.valueOf("application/x-ndjson");
+    private static final byte[] NEWLINE = { '\n' };
+
+    private final UserRepository userRepository;
+    private final UserRoleRepository userRoleRepository;
+    private final UserCustomFieldRepository userCustomFieldRepository;
+    private final CustomFieldCatalog customFieldCatalog;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+
+    /**
+     * Creates the export service.
+     *
+     * @param userRepository the repository the users are streamed from
+     * @param userRoleRepository the repository the roles of each batch are read from
+     * @param userCustomFieldRepository the repository the custom fields of each batch are read from
+     * @param customFieldCatalog the catalog the custom field definitions are taken from
+     * @param entityManager the entity manager that is cleared after each batch
+     * @param transactionManager the transaction manager the export's read-only transaction is started with
+     * @param objectMapper the mapper that writes each user
+     * @param batchSize how many users are read, written and flushed at a time
+     */
+    public UserExportService(UserRepository userRepository, UserRoleRepository userRoleRepository,
+                             UserCustomFieldRepository userCustomFieldRepository,
+                             CustomFieldCatalog customFieldCatalog, EntityManager entityManager,
+                             PlatformTransactionManager transactionManager, ObjectMapper objectMapper,
+                             @Value("${user.export.batch-size:500}") int batchSize) {
+        this.userRepository = userRepository;
+        this.userRoleRepository = userRoleRepository;
+        this.userCustomFieldRepository = userCustomFieldRepository;
+        this.customFieldCatalog = customFieldCatalog;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Exports all users, with their roles and custom fields. Nothing is read until the response body is
+     * written, which happens outside the request thread.
+     *
+     * @return the streamed response
+     */
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
+        StreamingResponseBody body = outputStream ->
+                transactionTemplate.executeWithoutResult(status -> writeUsers(outputStream));
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+
+    private void writeUsers(OutputStream outputStream) {
+        CustomFieldCatalog.Snapshot customFields = customFieldCatalog.getSnapshot();
+        try (Stream<UserEntity> users = userRepository.streamAll()) {
+            Iterator<UserEntity> iterator = users.iterator();
+            List<UserEntity> batch = new ArrayList<>(batchSize);
+            while (iterator.hasNext()) {
+                batch.add(iterator.next());
+                if (batch.size() == batchSize || !iterator.hasNext()) {
+                    writeBatch(batch, customFields, outputStream);
+                    batch.clear();
+                    // the users of the batch are written; don't keep them or their roles and fields around
+                    entityManager.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeBatch(List<UserEntity> batch, CustomFieldCatalog.Snapshot customFields,
+                            OutputStream outputStream) throws IOException {
+        List<UUID> userIds = batch.stream().map(UserEntity::getId).collect(Collectors.toList());
+        Map<UUID, List<RoleEntity>> rolesByUserId = userRoleRepository.findAllWithRoleByUserIdIn(userIds)
+                .stream().collect(Collectors.groupingBy(userRole -> userRole.getUser().getId(),
+                        Collectors.mapping(UserRoleEntity::getRole, Collectors.toList())));
+        Map<UUID, List<UserCustomFieldDTO>> customFieldsByUserId = userCustomFieldRepository
+                .findAllByUserIdIn(userIds)
+                .stream().collect(Collectors.groupingBy(customField -> customField.getUser().getId(),
+                        Collectors.mapping(value -> mapCustomField(value, customFields), Collectors.toList())));
+
+        for (UserEntity userEntity : batch) {
+            UserDTO user = UserEntityMapper.INSTANCE.convertUserEntityToUserModel(userEntity);
+            user.setAssignedRoles(MapperUtils.mapRoleEntitiesToAssignedRoleList(
+                    rolesByUserId.getOrDefault(userEntity.getId(), List.of())));
+            user.setCustomFields(customFieldsByUserId.getOrDefault(userEntity.getId(), List.of()));
+            outputStream.write(objectMapper.writeValueAsBytes(user));
+            outputStream.write(NEWLINE);
+        }
+        outputStream.flush();
+    }
+
+    private static UserCustomFieldDTO mapCustomField(UserCustomFieldEntity value,
+                                                     CustomFieldCatalog.Snapshot customFields) {
+        // a custom field created since the export started is read along with its value
+        return customFields.findCustomField(value.getCustomField().getId())
+                .map(customField -> MapperUtils.mapUserCustomFieldEntityToDto(value, customField))
+                .orElseGet(() -> MapperUtils.mapUserCustomFieldEntityToDto(value));
+    }
+}
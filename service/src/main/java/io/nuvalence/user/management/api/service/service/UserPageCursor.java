@@ -0,0 +1,55 @@
+package io.nuvalence.user.management.api.service.service;
+
+import io.nuvalence.user.management.api.service.entity.UserEntity;
+import lombok.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in the user list, which is ordered by creation time and then id. Encoded as an opaque,
+ * URL-safe string so that clients can't depend on its content.
+ */
+@Value
+public class UserPageCursor {
+    private static final String SEPARATOR = "|";
+
+    LocalDateTime createdAt;
+    UUID id;
+
+    /**
+     * Creates the cursor pointing right after a user.
+     *
+     * @param user the last user of a page
+     * @return the cursor of the next page
+     */
+    public static UserPageCursor after(UserEntity user) {
+        return new UserPageCursor(user.getCreatedAt(), user.getId());
+    }
+
+    /**
+     * Decodes a cursor.
+     *
+     * @param cursor a cursor produced by {@link #encode()}
+     * @return the decoded cursor
+     * @throws IllegalArgumentException if the cursor is not valid
+     */
+    public static UserPageCursor decode(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(SEPARATOR);
+            return new UserPageCursor(LocalDateTime.parse(decoded.substring(0, separator)),
+                    UUID.fromString(decoded.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor.", e);
+        }
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((createdAt + SEPARATOR + id).getBytes(StandardCharsets.UTF_8));
+    }
+}
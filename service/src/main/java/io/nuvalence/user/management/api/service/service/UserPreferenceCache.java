@@ -0,0 +1,108 @@
+package io.nuvalence.user.management.api.service.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.nuvalence.user.management.api.service.generated.models.UserPreferenceDTO;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Caches the resolved preferences of a user, as returned for the user alone or for one of its applications.
+ * Users without preferences are not cached. The cache keeps its own copy of the preferences, and every caller
+ * gets a copy of it, so callers may modify what they are given.
+ *
+ * <p>Anything that changes a user's preferences must invalidate the affected entries: a change to the user's
+ * own preferences affects every application's. Entries are invalidated with
+ * {@link AfterCommit#runNowAndAgain(Runnable)}.</p>
+ */
+@Component
+public class UserPreferenceCache {
+    private final Cache<PreferenceKey, UserPreferenceDTO> preferences;
+
+    /**
+     * Creates the cache and registers its hit/miss/eviction metrics.
+     *
+     * @param meterRegistry the registry to publish cache metrics to
+     * @param maxSize the maximum number of (user, application) preferences to keep
+     * @param ttl how long resolved preferences are kept
+     */
+    public UserPreferenceCache(MeterRegistry meterRegistry,
+                               @Value("${user.preference-cache.max-size:10000}") long maxSize,
+                               @Value("${user.preference-cache.ttl:PT5M}") Duration ttl) {
+        this.preferences = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, preferences, "user.preferences");
+    }
+
+    /**
+     * Returns the resolved preferences of a user, resolving them if they are not cached.
+     *
+     * @param userId the id of the user
+     * @param appId the id of the application, or null for the user's own preferences
+     * @param resolver resolves the preferences on a miss
+     * @return a copy of the preferences
+     */
+    public UserPreferenceDTO get(UUID userId, UUID appId, Supplier<UserPreferenceDTO> resolver) {
+        return copy(preferences.get(new PreferenceKey(userId, appId), key -> copy(resolver.get())));
+    }
+
+    /**
+     * Drops the cached preferences of a user, for the user alone and for every application, e.g. after the
+     * user's own preferences have changed or the user has been deleted.
+     *
+     * @param userId the id of the user
+     */
+    public void invalidate(UUID userId) {
+        Runnable invalidation = () -> preferences.asMap().keySet()
+                .removeIf(key -> Objects.equals(key.userId, userId));
+        AfterCommit.runNowAndAgain(invalidation);
+    }
+
+    /**
+     * Drops the cached preferences of a user for one application, e.g. after they have changed.
+     *
+     * @param userId the id of the user
+     * @param appId the id of the application
+     */
+    public void invalidate(UUID userId, UUID appId) {
+        PreferenceKey key = new PreferenceKey(userId, appId);
+        AfterCommit.runNowAndAgain(() -> preferences.invalidate(key));
+    }
+
+    /**
+     * Drops all cached preferences, e.g. after the preferences of many users have changed.
+     */
+    public void invalidateAll() {
+        AfterCommit.runNowAndAgain(preferences::invalidateAll);
+    }
+
+    private static UserPreferenceDTO copy(UserPreferenceDTO preferences) {
+        if (preferences == null) {
+            return null;
+        }
+        UserPreferenceDTO copy = new UserPreferenceDTO();
+        copy.putAll(preferences);
+        copy.setUserId(preferences.getUserId());
+        copy.setApplicationId(preferences.getApplicationId());
+        return copy;
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static final class PreferenceKey {
+        private final UUID userId;
+        private final UUID appId;
+    }
+}
@@ -0,0 +1,161 @@
+package io.nuvalence.user.management.api.service.service;
+
+import io.nuvalence.user.management.api.service.entity.UserPreferenceOptionEntity;
+import io.nuvalence.user.management.api.service.entity.UserPreferenceTypeEntity;
+import io.nuvalence.user.management.api.service.generated.models.UserPreferenceTypeDTO;
+import io.nuvalence.user.management.api.service.mapper.MapperUtils;
+import io.nuvalence.user.management.api.service.repository.UserPreferenceTypeRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Holds the preference types and their options in memory, as an immutable snapshot. The snapshot is loaded at
+ * startup and re-read on a fixed schedule by the {@link UserPreferenceCatalogRefresher}; a new version is only
+ * published when the catalog has changed.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserPreferenceCatalog {
+    private final UserPreferenceTypeRepository userPreferenceTypeRepository;
+    private volatile Snapshot snapshot;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        refresh();
+    }
+
+    /**
+     * Re-reads the catalog, and publishes it as a new version if it has changed.
+     */
+    public synchronized void refresh() {
+        Snapshot current = snapshot;
+        long version = current == null ? 1 : current.getVersion() + 1;
+        Snapshot latest = Snapshot.build(version, userPreferenceTypeRepository.findAllWithOptions());
+        if (current == null || !current.hasSameContent(latest)) {
+            snapshot = latest;
+            log.info("Loaded version {} of the preference catalog, with {} types", version,
+                    latest.getTypes().size());
+        }
+    }
+
+    /**
+     * Returns the current snapshot, loading it if it hasn't been loaded yet.
+     *
+     * @return the current snapshot
+     */
+    public Snapshot getSnapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            refresh();
+            current = snapshot;
+        }
+        return current;
+    }
+
+    /**
+     * A version of the catalog. Names and values are looked up case-insensitively. The types are shared and
+     * must not be modified.
+     */
+    public static final class Snapshot {
+        private final long version;
+        private final Map<String, PreferenceType> typesByName;
+        private final List<UserPreferenceTypeDTO> types;
+
+        private Snapshot(long version, Map<String, PreferenceType> typesByName, List<UserPreferenceTypeDTO> types) {
+            this.version = version;
+            this.typesByName = typesByName;
+            this.types = types;
+        }
+
+        /**
+         * Builds a snapshot of preference types, with their options loaded.
+         *
+         * @param version the version of the snapshot
+         * @param types the preference types
+         * @return the snapshot
+         */
+        static Snapshot build(long version, Collection<UserPreferenceTypeEntity> types) {
+            Map<String, PreferenceType> typesByName = new HashMap<>();
+            for (UserPreferenceTypeEntity type : types) {
+                Map<String, UUID> optionIdsByValue = new HashMap<>();
+                if (type.getUserPreferenceOptionEntities() != null) {
+                    for (UserPreferenceOptionEntity option : type.getUserPreferenceOptionEntities()) {
+                        optionIdsByValue.putIfAbsent(fold(option.getValue()), option.getId());
+                    }
+                }
+                typesByName.put(fold(type.getName()),
+                        new PreferenceType(type.getId(), type.getName(), Map.copyOf(optionIdsByValue)));
+            }
+
+            List<UserPreferenceTypeDTO> typeDtos = types.stream()
+                    .map(MapperUtils::mapUserPreferenceTypeEntityToDto)
+                    .collect(Collectors.toUnmodifiableList());
+            return new Snapshot(version, Map.copyOf(typesByName), typeDtos);
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        /**
+         * Returns all the preference types, as served by the API.
+         *
+         * @return the preference types
+         */
+        public List<UserPreferenceTypeDTO> getTypes() {
+            return types;
+        }
+
+        /**
+         * Finds a preference type by name.
+         *
+         * @param name the name of the type, in any case
+         * @return the type, if there is one
+         */
+        public Optional<PreferenceType> findType(String name) {
+            return name == null ? Optional.empty() : Optional.ofNullable(typesByName.get(fold(name)));
+        }
+
+        private boolean hasSameContent(Snapshot other) {
+            return typesByName.equals(other.typesByName) && types.equals(other.types);
+        }
+    }
+
+    /**
+     * A preference type, and the ids of its options by case-folded value.
+     */
+    @Value
+    public static class PreferenceType {
+        UUID id;
+        String name;
+        Map<String, UUID> optionIdsByValue;
+
+        /**
+         * Finds the id of an option of this type by value.
+         *
+         * @param value the value of the option, in any case
+         * @return the id of the option, if there is one
+         */
+        public Optional<UUID> findOptionId(String value) {
+            return value == null ? Optional.empty() : Optional.ofNullable(optionIdsByValue.get(fold(value)));
+        }
+    }
+
+    private static String fold(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,22 @@
+package io.nuvalence.user.management.api.service.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Re-reads the {@link UserPreferenceCatalog} on a fixed schedule, to pick up changes made by other instances.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(value = "user.preference-catalog.refresh.enabled", havingValue = "true", matchIfMissing = true)
+public class UserPreferenceCatalogRefresher {
+    private final UserPreferenceCatalog userPreferenceCatalog;
+
+    @Scheduled(initialDelayString = "${user.preference-catalog.refresh.interval:PT1M}",
+            fixedDelayString = "${user.preference-catalog.refresh.interval:PT1M}")
+    public void refreshCatalog() {
+        userPreferenceCatalog.refresh();
+    }
+}
@@ -5,61 +5,78 @@ import io.nuvalence.user.management.api.service.config.exception.ResourceNotFoun
 import io.nuvalence.user.management.api.service.entity.ApplicationEntity;
 import io.nuvalence.user.management.api.service.entity.UserEntity;
 import io.nuvalence.user.management.api.service.entity.UserPreferenceEntity;
-import io.nuvalence.user.management.api.service.entity.UserPreferenceOptionEntity;
-import io.nuvalence.user.management.api.service.entity.UserPreferenceTypeEntity;
+import io.nuvalence.user.management.api.service.generated.models.UserPreferenceBatchUpdateRequest;
+import io.nuvalence.user.management.api.service.generated.models.UserPreferenceBatchUpdateResult;
 import io.nuvalence.user.management.api.service.generated.models.UserPreferenceDTO;
-import io.nuvalence.user.management.api.service.mapper.MapperUtils;
 import io.nuvalence.user.management.api.service.repository.ApplicationRepository;
+import io.nuvalence.user.management.api.service.repository.RoleRepository;
+import io.nuvalence.user.management.api.service.repository.UserPreferenceOptionRepository;
 import io.nuvalence.user.management.api.service.repository.UserPreferenceTypeRepository;
 import io.nuvalence.user.management.api.service.repository.UserPreferencesRepository;
 import io.nuvalence.user.management.api.service.repository.UserRepository;
+import io.nuvalence.user.management.api.service.repository.UserRoleRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 /**
  * Service for User Preferences.
  */
 @Component
 @Transactional
+@SuppressWarnings("checkstyle:ClassFanOutComplexity")
 @RequiredArgsConstructor
 @Slf4j
 public class UserPreferenceService {
+    static final int MAX_BATCH_UPDATE_USERS = 10000;
+    static final int BATCH_UPDATE_CHUNK_SIZE = 1000;
 
     private final UserRepository userRepository;
     private final UserPreferencesRepository userPreferencesRepository;
     private final UserPreferenceTypeRepository userPreferenceTypeRepository;
+    private final UserPreferenceOptionRepository userPreferenceOptionRepository;
     private final ApplicationRepository applicationRepository;
+    private final UserPreferenceCache userPreferenceCache;
+    private final UserPreferenceCatalog userPreferenceCatalog;
+    private final RoleRepository roleRepository;
+    private final UserRoleRepository userRoleRepository;
 
     /**
-     * Returns user preferences, optionally by application.
+     * Returns user preferences, optionally by application. The resolved preferences are cached per user and
+     * application until they are updated.
      * 
      * @param userId user's id.
      * @param appId app id.
      * @return User Preferences.
      */
     public UserPreferenceDTO getUserPreferences(UUID userId, UUID appId) {
-        List<UserPreferenceEntity> userPreferences =
-                userPreferencesRepository.findPreferencesByUserId(userId);
-        List<UserPreferenceEntity> applicationPreferences = new ArrayList<>();
+        return userPreferenceCache.get(userId, appId, () -> resolveUserPreferences(userId, appId));
+    }
 
-        if (userId != null && appId != null) {
-            applicationPreferences = userPreferencesRepository.findUserApplicationPreferences(userId, appId);
-        }
+    private UserPreferenceDTO resolveUserPreferences(UUID userId, UUID appId) {
+        // application preferences take precedence over the user's own in the query
+        List<UserPreferencesRepository.EffectivePreference> preferences = appId == null
+                ? userPreferencesRepository.findEffectivePreferences(userId)
+                : userPreferencesRepository.findEffectiveApplicationPreferences(userId, appId);
 
-        if (userPreferences.isEmpty() && applicationPreferences.isEmpty()) {
+        if (preferences.isEmpty()) {
             throw new ResourceNotFoundException("Preferences not found for given user!");
         }
 
-        return MapperUtils.overlapPreferences(userPreferences, applicationPreferences, userId, appId);
+        UserPreferenceDTO preferenceDto = new UserPreferenceDTO();
+        preferences.forEach(preference -> preferenceDto.put(preference.getTypeName(), preference.getOptionValue()));
+        preferenceDto.setUserId(userId);
+        preferenceDto.setApplicationId(appId);
+        return preferenceDto;
     }
 
     /**
@@ -78,6 +95,7 @@ public class UserPreferenceService {
                 .findPreferencesByUserId(user.get().getId());
 
         persistPreferences(updatedPreferences, initialPreferences, user.get(), null);
+        userPreferenceCache.invalidate(userId);
     }
 
     /**
@@ -101,68 +119,141 @@ public class UserPreferenceService {
                 .findUserApplicationPreferences(user.get().getId(), application.get().getId());
 
         persistPreferences(updatedPreferences, initialPreferences, user.get(), application.get());
+        userPreferenceCache.invalidate(userId, appId);
     }
 
-    private void persistPreferences(Map<String, String> updatedPreferences,
-                                    List<UserPreferenceEntity> initialPreferences,
-                                    UserEntity user, ApplicationEntity application) {
-        List<UserPreferenceEntity> persistedPreferences = new ArrayList<>();
-
-        if (updatedPreferences == null || updatedPreferences.isEmpty()) {
-            throw new BusinessLogicException("You must pass in at least one preference to update.");
+    /**
+     * Sets the same preferences, for the users themselves or for one application, for a list of users or for
+     * every member of a role. The preferences are validated once, and then applied a chunk of users at a time
+     * with one update and one insert per preference. Ids that aren't users are ignored.
+     *
+     * @param request the users, either by id or by role, and the preferences to set
+     * @return how many users were selected, and how many of their preferences were inserted, updated and left
+     *     unchanged
+     */
+    public UserPreferenceBatchUpdateResult batchUpdatePreferences(UserPreferenceBatchUpdateRequest request) {
+        boolean byUserIds = isSelectedByUserIds(request);
+        Map<UserPreferenceCatalog.PreferenceType, UUID> optionIds = validatePreferences(request.getPreferences());
+        UUID appId = request.getApplicationId();
+        if (appId != null && !applicationRepository.existsById(appId)) {
+            throw new ResourceNotFoundException("Cannot find application with given ID!");
         }
 
-        // get all preference types by their names
-        Map<String, UserPreferenceTypeEntity> foundPreferenceTypes = userPreferenceTypeRepository
-                .findAllByNames(new ArrayList<>(updatedPreferences.keySet()))
-                .stream().collect(Collectors.toMap(t -> t.getName().toLowerCase(), t -> t));
+        List<UUID> userIds = byUserIds
+                ? new ArrayList<>(new LinkedHashSet<>(request.getUserIds()))
+                : findRoleMemberIds(request.getRoleId());
+        long users = 0;
+        long inserted = 0;
+        long updated = 0;
+        for (int from = 0; from < userIds.size(); from += BATCH_UPDATE_CHUNK_SIZE) {
+            List<UUID> chunk = userIds.subList(from, Math.min(from + BATCH_UPDATE_CHUNK_SIZE, userIds.size()));
+            if (byUserIds) {
+                chunk = userRepository.findIdsByIdIn(chunk);
+            }
+            if (chunk.isEmpty()) {
+                continue;
+            }
+            users += chunk.size();
 
-        for (Map.Entry<String, String> entry : updatedPreferences.entrySet()) {
-            if (!foundPreferenceTypes.containsKey(entry.getKey().toLowerCase())) {
-                throw new ResourceNotFoundException(
-                        String.format("Preference with name '%s' is not valid.", entry.getKey())
-                );
+            for (Map.Entry<UserPreferenceCatalog.PreferenceType, UUID> entry : optionIds.entrySet()) {
+                UUID typeId = entry.getKey().getId();
+                updated += userPreferencesRepository.updateOption(chunk, appId, typeId, entry.getValue());
+                inserted += userPreferencesRepository.insertMissing(chunk, appId, typeId, entry.getValue());
             }
+        }
 
-            UserPreferenceTypeEntity preferenceType = foundPreferenceTypes.get(entry.getKey().toLowerCase());
+        userPreferenceCache.invalidateAll();
 
-            Optional<UserPreferenceEntity> existingUserPreference = initialPreferences.stream().filter(p ->
-                    p.getType().getId().compareTo(preferenceType.getId()) == 0).findFirst();
+        UserPreferenceBatchUpdateResult result = new UserPreferenceBatchUpdateResult();
+        result.setUsers(users);
+        result.setInserted(inserted);
+        result.setUpdated(updated);
+        result.setUnchanged(users * optionIds.size() - inserted - updated);
+        return result;
+    }
 
-            Optional<UserPreferenceOptionEntity> foundOption = Optional.empty();
-            List<UserPreferenceOptionEntity> options = preferenceType.getUserPreferenceOptionEntities();
-            if (options != null && !options.isEmpty()) {
-                foundOption = options.stream()
-                        .filter(o -> o.getValue().equalsIgnoreCase(entry.getValue())).findFirst();
-            }
+    private static boolean isSelectedByUserIds(UserPreferenceBatchUpdateRequest request) {
+        boolean byUserIds = request.getUserIds() != null && !request.getUserIds().isEmpty();
+        if (byUserIds == (request.getRoleId() != null)) {
+            throw new BusinessLogicException("Select the users with either user ids or a role id.");
+        }
+        if (byUserIds && request.getUserIds().size() > MAX_BATCH_UPDATE_USERS) {
+            throw new BusinessLogicException(
+                    String.format("A batch update can select at most %d user ids.", MAX_BATCH_UPDATE_USERS));
+        }
+        return byUserIds;
+    }
 
-            // the value passed in was a valid option for the preference type, so allow it to go through
-            if (foundOption.isPresent()) {
-                // an existing preference for the user has already been set, so update the value for it
-                if (existingUserPreference.isPresent()) {
-                    // only update if the value is actually different
-                    if (foundOption.get().getId().compareTo(
-                            existingUserPreference.get().getOption().getId()) != 0) {
-                        existingUserPreference.get().setOption(foundOption.get());
-                        persistedPreferences.add(existingUserPreference.get());
-                    }
-                } else {
-                    UserPreferenceEntity newUserPreference = new UserPreferenceEntity();
-                    newUserPreference.setUser(user);
-                    newUserPreference.setApplication(application);
-                    newUserPreference.setType(preferenceType);
-                    newUserPreference.setOption(foundOption.get());
-                    persistedPreferences.add(newUserPreference);
+    private List<UUID> findRoleMemberIds(UUID roleId) {
+        if (!roleRepository.existsById(roleId)) {
+            throw new ResourceNotFoundException("There is no role with this id");
+        }
+        return userRoleRepository.findUserIdsByRoleId(roleId);
+    }
+
+    private void persistPreferences(Map<String, String> updatedPreferences,
+                                    List<UserPreferenceEntity> initialPreferences,
+                                    UserEntity user, ApplicationEntity application) {
+        List<UserPreferenceEntity> persistedPreferences = new ArrayList<>();
+
+        for (Map.Entry<UserPreferenceCatalog.PreferenceType, UUID> entry
+                : validatePreferences(updatedPreferences).entrySet()) {
+            UserPreferenceCatalog.PreferenceType preferenceType = entry.getKey();
+            UUID optionId = entry.getValue();
+
+            Optional<UserPreferenceEntity> existingUserPreference = initialPreferences.stream().filter(p ->
+                    p.getType().getId().equals(preferenceType.getId())).findFirst();
+
+            // an existing preference for the user has already been set, so update the value for it
+            if (existingUserPreference.isPresent()) {
+                // only update if the value is actually different
+                if (!optionId.equals(existingUserPreference.get().getOption().getId())) {
+                    existingUserPreference.get().setOption(userPreferenceOptionRepository.getById(optionId));
+                    persistedPreferences.add(existingUserPreference.get());
                 }
             } else {
-                throw new ResourceNotFoundException(
-                        String.format("No valid option value found for type %s and value %s.",
-                                preferenceType.getName(),
-                                entry.getValue())
-                );
+                UserPreferenceEntity newUserPreference = new UserPreferenceEntity();
+                newUserPreference.setUser(user);
+                newUserPreference.setApplication(application);
+                newUserPreference.setType(userPreferenceTypeRepository.getById(preferenceType.getId()));
+                newUserPreference.setOption(userPreferenceOptionRepository.getById(optionId));
+                persistedPreferences.add(newUserPreference);
             }
         }
 
         userPreferencesRepository.saveAll(persistedPreferences);
     }
+
+    /**
+     * Resolves preference names and values to their types and options, against the catalog.
+     *
+     * @param preferences the values to set, by preference name
+     * @return the ids of the options to set, by type
+     * @throws BusinessLogicException if there are no preferences
+     * @throws ResourceNotFoundException if a name or a value isn't in the catalog
+     */
+    private Map<UserPreferenceCatalog.PreferenceType, UUID> validatePreferences(Map<String, String> preferences) {
+        if (preferences == null || preferences.isEmpty()) {
+            throw new BusinessLogicException("You must pass in at least one preference to update.");
+        }
+
+        UserPreferenceCatalog.Snapshot catalog = userPreferenceCatalog.getSnapshot();
+        Map<UserPreferenceCatalog.PreferenceType, UUID> optionIds = new LinkedHashMap<>();
+        for (Map.Entry<String, String> entry : preferences.entrySet()) {
+            UserPreferenceCatalog.PreferenceType preferenceType = catalog.findType(entry.getKey())
+                    .orElseThrow(() -> new ResourceNotFoundException(
+                            String.format("Preference with name '%s' is not valid.", entry.getKey())
+                    ));
+
+            // the value passed in must be a valid option for the preference type
+            UUID optionId = preferenceType.findOptionId(entry.getValue())
+                    .orElseThrow(() -> new ResourceNotFoundException(
+                            String.format("No valid option value found for type %s and value %s.",
+                                    preferenceType.getName(),
+                                    entry.getValue())
+                    ));
+            optionIds.put(preferenceType, optionId);
+        }
+        return optionIds;
+    }
 }
@@ -1,9 +1,6 @@
 package io.nuvalence.user.management.api.service.service;
 
-import io.nuvalence.user.management.api.service.entity.UserPreferenceTypeEntity;
 import io.nuvalence.user.management.api.service.generated.models.UserPreferenceTypeDTO;
-import io.nuvalence.user.management.api.service.mapper.MapperUtils;
-import io.nuvalence.user.management.api.service.repository.UserPreferenceTypeRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.MediaType;
@@ -11,7 +8,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
-import java.util.stream.Collectors;
 import javax.transaction.Transactional;
 
 /**
@@ -23,18 +19,14 @@ import javax.transaction.Transactional;
 @Slf4j
 public class UserPreferenceTypeService {
 
-    private final UserPreferenceTypeRepository userPreferenceTypeRepository;
+    private final UserPreferenceCatalog userPreferenceCatalog;
 
     /**
-     * Gets a list of all the User Preference types.
+     * Gets a list of all the User Preference types, from the in-memory catalog.
      * @return User Preference Types.
      */
     public ResponseEntity<List<UserPreferenceTypeDTO>> getAllUserPreferenceTypes() {
-        List<UserPreferenceTypeEntity> allUserPreferenceTypes = userPreferenceTypeRepository.findAll();
-
-        List<UserPreferenceTypeDTO> userPreferenceTypes = allUserPreferenceTypes
-                .stream().map(MapperUtils::mapUserPreferenceTypeEntityToDto)
-                .collect(Collectors.toList());
+        List<UserPreferenceTypeDTO> userPreferenceTypes = userPreferenceCatalog.getSnapshot().getTypes();
 
         return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(userPreferenceTypes);
     }
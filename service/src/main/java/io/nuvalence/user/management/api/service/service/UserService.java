@@ -3,28 +3,34 @@ package io.nuvalence.user.management.api.service.service;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.nuvalence.user.management.api.service.config.exception.BusinessLogicException;
 import io.nuvalence.user.management.api.service.config.exception.ResourceNotFoundException;
-import io.nuvalence.user.management.api.service.entity.CustomFieldEntity;
 import io.nuvalence.user.management.api.service.entity.RoleEntity;
 import io.nuvalence.user.management.api.service.entity.UserCustomFieldEntity;
 import io.nuvalence.user.management.api.service.entity.UserEntity;
 import io.nuvalence.user.management.api.service.entity.UserRoleEntity;
-import io.nuvalence.user.management.api.service.enums.CustomFieldDataType;
 import io.nuvalence.user.management.api.service.generated.models.CreateOrUpdateUserCustomFieldDTO;
+import io.nuvalence.user.management.api.service.generated.models.CustomFieldDTO;
 import io.nuvalence.user.management.api.service.generated.models.RoleDTO;
+import io.nuvalence.user.management.api.service.generated.models.UserBatchGetRequest;
+import io.nuvalence.user.management.api.service.generated.models.UserBatchGetResult;
 import io.nuvalence.user.management.api.service.generated.models.UserCreationRequest;
+import io.nuvalence.user.management.api.service.generated.models.UserCreationResult;
 import io.nuvalence.user.management.api.service.generated.models.UserDTO;
 import io.nuvalence.user.management.api.service.generated.models.UserRoleDTO;
 import io.nuvalence.user.management.api.service.generated.models.UserUpdateRequest;
+import io.nuvalence.user.management.api.service.generated.models.UserUpsertResult;
 import io.nuvalence.user.management.api.service.mapper.MapperUtils;
 import io.nuvalence.user.management.api.service.mapper.UserEntityMapper;
 import io.nuvalence.user.management.api.service.repository.CustomFieldRepository;
 import io.nuvalence.user.management.api.service.repository.RoleRepository;
 import io.nuvalence.user.management.api.service.repository.UserCustomFieldRepository;
+import io.nuvalence.user.management.api.service.repository.UserPreferencesRepository;
 import io.nuvalence.user.management.api.service.repository.UserRepository;
 import io.nuvalence.user.management.api.service.repository.UserRoleRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -36,10 +42,18 @@ import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -50,8 +64,12 @@ import java.util.stream.Collectors;
 @Transactional
 @RequiredArgsConstructor
 @Slf4j
-@SuppressWarnings("checkstyle:ClassFanOutComplexity")
+@SuppressWarnings({"checkstyle:ClassFanOutComplexity", "checkstyle:ClassDataAbstractionCoupling"})
 public class UserService {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final int DEFAULT_USER_PAGE_SIZE = 100;
+    static final int MAX_USER_PAGE_SIZE = 1000;
+    static final int MAX_USER_BATCH_SIZE = 1000;
 
     private final RoleService roleService;
     private final UserRepository userRepository;
@@ -59,6 +77,10 @@ public class UserService {
     private final CustomFieldRepository customFieldRepository;
     private final UserCustomFieldRepository userCustomFieldRepository;
     private final RoleRepository roleRepository;
+    private final UserPreferencesRepository userPreferencesRepository;
+    private final PrincipalRoleCache principalRoleCache;
+    private final UserPreferenceCache userPreferenceCache;
+    private final CustomFieldCatalog customFieldCatalog;
 
     /**
      * Creates a User Entity from a user model.
@@ -66,15 +88,8 @@ public class UserService {
      * @param user represents a user model
      * @return a response code
      */
-    @SuppressWarnings("checkstyle:CyclomaticComplexity")
     public ResponseEntity<Void> createUser(UserCreationRequest user) {
-        if (StringUtils.isBlank(user.getExternalId())) {
-            throw new BusinessLogicException("Missing identifier for user: " + user.getEmail());
-        }
-
-        if (user.getEmail() == null) {
-            throw new BusinessLogicException("Missing email for user");
-        }
+        checkRequiredFields(user);
         Optional<UserEntity> checkEmail = userRepository.findUserEntityByEmail(user.getEmail());
         if (checkEmail.isPresent()) {
             throw new BusinessLogicException("This Email is already assigned to a user.");
@@ -85,72 +100,125 @@ public class UserService {
             throw new BusinessLogicException("This ExternalId is already assigned to a user.");
         }
 
-        if (user.getDisplayName() == null) {
-            throw new BusinessLogicException("Missing display name for user: " + user.getEmail());
-        }
-
         UserEntity userEntity = UserEntityMapper.INSTANCE.convertUserCreationRequestToUserEntity(user);
-        // Setting the created at time to America NY to prevent any EST / EDT conversion errors.
-        LocalDateTime currentDateAndTime = LocalDateTime.from(Instant.now().atZone(ZoneId.of("America/New_York")));
-        userEntity.setCreatedAt(currentDateAndTime);
+        userEntity.setCreatedAt(getCreationTime());
         UserEntity savedUser = userRepository.save(userEntity);
+        saveInitialRolesAndCustomFields(savedUser, user);
 
-        // If roles are provided we want to initialize them here.
-        if (user.getInitialRoles() != null && !user.getInitialRoles().isEmpty()) {
-            List<UserRoleEntity> userRoleEntities = roleRepository.findAllById(user.getInitialRoles()
-                    .stream().map(RoleDTO::getId).collect(Collectors.toList()))
-                    .stream().map(r -> {
-                        UserRoleEntity userRoleEntity = new UserRoleEntity();
-                        userRoleEntity.setUser(savedUser);
-                        userRoleEntity.setRole(r);
-                        return userRoleEntity;
-                    }).collect(Collectors.toList());
-            Optional<RoleDTO> notFoundRole = user.getInitialRoles()
-                    .stream().filter(r -> userRoleEntities.stream().noneMatch(re ->
-                            re.getRole().getId().compareTo(r.getId()) == 0))
-                    .findFirst();
-            if (notFoundRole.isPresent()) {
-                throw new BusinessLogicException(
-                        String.format("No role found for %s.", notFoundRole.get().getRoleName())
-                );
-            }
-            userRoleRepository.saveAll(userRoleEntities);
+        return ResponseEntity.status(200).build();
+    }
+
+    /**
+     * Creates a user unless its email or external id is taken, without checking first: the user is inserted
+     * with one statement that relies on the unique constraints. Only if nothing was inserted are the existing
+     * users read, to tell a retry of the same request from a conflict.
+     *
+     * @param user represents a user model
+     * @return whether the user was created, already existed or conflicts with another user
+     */
+    public ResponseEntity<UserUpsertResult> upsertUser(UserCreationRequest user) {
+        checkRequiredFields(user);
+        UserEntity userEntity = UserEntityMapper.INSTANCE.convertUserCreationRequestToUserEntity(user);
+        userEntity.setCreatedAt(getCreationTime());
+
+        UserUpsertResult result;
+        if (userRepository.insertIfAbsent(userEntity)) {
+            saveInitialRolesAndCustomFields(userRepository.getById(userEntity.getId()), user);
+            result = new UserUpsertResult().status(UserUpsertResult.StatusEnum.CREATED).id(userEntity.getId());
+        } else {
+            result = getUpsertConflict(user);
         }
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(result);
+    }
 
-        if (user.getCustomFields() != null && !user.getCustomFields().isEmpty()) {
-            Map<UUID, CreateOrUpdateUserCustomFieldDTO> userCustomFields = user.getCustomFields()
-                    .stream().collect(Collectors.toMap(CreateOrUpdateUserCustomFieldDTO::getCustomFieldId, c -> c));
-            List<UserCustomFieldEntity> userCustomFieldEntities = customFieldRepository
-                    .findAllById(user.getCustomFields()
-                    .stream().map(CreateOrUpdateUserCustomFieldDTO::getCustomFieldId).collect(Collectors.toList()))
-                    .stream().map(c -> {
-                        UserCustomFieldEntity userCustomField = UserCustomFieldEntity.builder()
-                                .user(savedUser)
-                                .customField(c)
-                                .build();
-                        try {
-                            setUserCustomFieldValueFromCustomFieldDto(c, userCustomField,
-                                    userCustomFields.get(c.getId()));
-                        } catch (Exception e) {
-                            log.error("Exception occurred at UserService.createUser: {}", e.getMessage());
-                        }
-                        return userCustomField;
-                    }).collect(Collectors.toList());
-            Optional<CreateOrUpdateUserCustomFieldDTO> notFoundCustomField = user.getCustomFields()
-                    .stream().filter(c -> userCustomFieldEntities.stream()
-                            .noneMatch(cf -> cf.getCustomField().getId().compareTo(c.getCustomFieldId()) == 0)
-                    )
-                    .findFirst();
-            if (notFoundCustomField.isPresent()) {
-                throw new BusinessLogicException(
-                        String.format("No custom field found with id: %s.",
-                                notFoundCustomField.get().getCustomFieldId())
-                );
+    private UserUpsertResult getUpsertConflict(UserCreationRequest user) {
+        List<UserEntity> existingUsers = userRepository.findAllByEmailOrExternalId(user.getEmail(),
+                user.getExternalId());
+        Optional<UserEntity> sameUser = existingUsers.stream()
+                .filter(existing -> existing.getEmail().equals(user.getEmail())
+                        && user.getExternalId().equals(existing.getExternalId()))
+                .findFirst();
+        if (sameUser.isPresent()) {
+            return new UserUpsertResult().status(UserUpsertResult.StatusEnum.UNCHANGED).id(sameUser.get().getId());
+        }
+
+        String error = existingUsers.stream().anyMatch(existing -> existing.getEmail().equals(user.getEmail()))
+                ? "This Email is already assigned to a user."
+                : "This ExternalId is already assigned to a user.";
+        return new UserUpsertResult().status(UserUpsertResult.StatusEnum.CONFLICT).error(error);
+    }
+
+    /**
+     * Creates a batch of users. Uniqueness of emails and external ids, roles and custom fields are checked
+     * for the whole batch with one query each, and the users, their roles and their custom fields are
+     * inserted in JDBC batches when the transaction commits. A user that fails validation, e.g. because
+     * its email is taken by an existing user or by an earlier created user of the batch, is skipped and reported.
+     *
+     * @param users the users to create, at most {@value MAX_USER_BATCH_SIZE}
+     * @return one result per user, in request order
+     */
+    public ResponseEntity<List<UserCreationResult>> createUsers(List<UserCreationRequest> users) {
+        if (users == null || users.isEmpty() || users.size() > MAX_USER_BATCH_SIZE) {
+            throw new BusinessLogicException(
+                    String.format("A batch must have between 1 and %d users.", MAX_USER_BATCH_SIZE));
+        }
+
+        Set<String> takenEmails = findTaken(users, UserCreationRequest::getEmail,
+                userRepository::findAllByEmailIn, UserEntity::getEmail);
+        Set<String> takenExternalIds = findTaken(users, UserCreationRequest::getExternalId,
+                userRepository::findAllByExternalIdIn, UserEntity::getExternalId);
+        Map<UUID, RoleEntity> rolesById = roleRepository.findAllById(users.stream()
+                .filter(user -> user.getInitialRoles() != null)
+                .flatMap(user -> user.getInitialRoles().stream())
+                .map(RoleDTO::getId)
+                .collect(Collectors.toSet())
+        ).stream().collect(Collectors.toMap(RoleEntity::getId, role -> role));
+        CustomFieldCatalog.Snapshot catalog = customFieldCatalog.getSnapshot();
+
+        LocalDateTime createdAt = getCreationTime();
+        List<UserEntity> userEntities = new ArrayList<>();
+        List<UserRoleEntity> userRoleEntities = new ArrayList<>();
+        List<UserCustomFieldEntity> userCustomFieldEntities = new ArrayList<>();
+        List<UserCreationResult> results = new ArrayList<>();
+        for (UserCreationRequest user : users) {
+            try {
+                checkRequiredFields(user);
+                if (takenEmails.contains(user.getEmail())) {
+                    throw new BusinessLogicException("This Email is already assigned to a user.");
+                }
+                if (takenExternalIds.contains(user.getExternalId())) {
+                    throw new BusinessLogicException("This ExternalId is already assigned to a user.");
+                }
+
+                UserEntity userEntity = UserEntityMapper.INSTANCE.convertUserCreationRequestToUserEntity(user);
+                userEntity.setCreatedAt(createdAt);
+                List<UserRoleEntity> roles = createUserRoleEntities(userEntity, user, rolesById);
+                List<UserCustomFieldEntity> customFields =
+                        createUserCustomFieldEntities(userEntity, user, catalog);
+
+                userEntities.add(userEntity);
+                userRoleEntities.addAll(roles);
+                userCustomFieldEntities.addAll(customFields);
+                // only an accepted user takes its email and external id from the later ones
+                takenEmails.add(user.getEmail());
+                takenExternalIds.add(user.getExternalId());
+                results.add(new UserCreationResult().status(UserCreationResult.StatusEnum.CREATED));
+            } catch (BusinessLogicException e) {
+                results.add(new UserCreationResult().status(UserCreationResult.StatusEnum.FAILED)
+                        .error(e.getMessage()));
             }
-            userCustomFieldRepository.saveAll(userCustomFieldEntities);
         }
 
-        return ResponseEntity.status(200).build();
+        // ids are generated in memory on persist, so all inserts are left for the batched flush
+        userRepository.saveAll(userEntities);
+        userRoleRepository.saveAll(userRoleEntities);
+        userCustomFieldRepository.saveAll(userCustomFieldEntities);
+
+        // the created users are in the same order as their results
+        Iterator<UserEntity> createdUsers = userEntities.iterator();
+        results.stream().filter(result -> result.getStatus() == UserCreationResult.StatusEnum.CREATED)
+                .forEach(result -> result.setId(createdUsers.next().getId()));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(results);
     }
 
     /**
@@ -173,6 +241,7 @@ public class UserService {
 
         // Update displayName if provided
         if (updateRequest.getDisplayName() != null) {
+            principalRoleCache.invalidate(userEntity.getDisplayName(), updateRequest.getDisplayName());
             userEntity.setDisplayName(updateRequest.getDisplayName());
         }
 
@@ -205,21 +274,23 @@ public class UserService {
     }
 
     /**
-     * Deletes a user entity from the DB.
+     * Deletes a user entity from the DB, along with its roles, custom fields and preferences. Each of those
+     * is deleted with a single statement, without loading them.
      * @param userId is a user's id
      * @return a response code
      */
     public ResponseEntity<Void> deleteUser(UUID userId) {
-        List<UserRoleEntity> userRoleEntities = userRoleRepository.findAllByUserId(userId);
-        List<UserCustomFieldEntity> userCustomFieldEntities = userCustomFieldRepository.findAllByUserId(userId);
         Optional<UserEntity> userEntity = userRepository.findById(userId);
 
         if (userEntity.isEmpty()) {
             throw new ResourceNotFoundException("User not found.");
         }
-        userCustomFieldRepository.deleteAll(userCustomFieldEntities);
-        userRoleRepository.deleteAll(userRoleEntities);
+        userCustomFieldRepository.deleteAllByUserId(userId);
+        userRoleRepository.deleteAllByUserId(userId);
+        userPreferencesRepository.deleteAllByUserId(userId);
         userRepository.delete(userEntity.get());
+        principalRoleCache.invalidate(userEntity.get().getDisplayName());
+        userPreferenceCache.invalidate(userId);
 
         return ResponseEntity.status(200).build();
     }
@@ -243,6 +314,7 @@ public class UserService {
         userRoleEntity.setUser(userEntity.get());
         userRoleEntity.setRole(roleEntity.get());
         userRoleRepository.save(userRoleEntity);
+        principalRoleCache.invalidate(userEntity.get().getDisplayName());
 
         return ResponseEntity.status(200).build();
     }
@@ -267,6 +339,7 @@ public class UserService {
                     userEntity.get().getDisplayName()));
         }
         userRoleRepository.delete(userRoleEntity);
+        principalRoleCache.invalidate(userEntity.get().getDisplayName());
 
         return ResponseEntity.status(200).build();
     }
@@ -280,7 +353,7 @@ public class UserService {
      * @return a ResponseEntity containing a list of RoleDTOs
      */
     public ResponseEntity<List<RoleDTO>> getUserRolesById(UUID userId, String resourceName) {
-        Optional<UserEntity> userEntity = userRepository.findById(userId);
+        Optional<UserEntity> userEntity = userRepository.findWithRolesById(userId);
         if (userEntity.isEmpty()) {
             throw new ResourceNotFoundException("User not found!");
         }
@@ -291,23 +364,61 @@ public class UserService {
     }
 
     /**
-     * Gets a list of all users.
+     * Gets a page of users, ordered by creation time, with their roles. Reads the page with two queries
+     * however many users there are.
      *
-     * @return a list of UserDTOs
+     * @param limit the maximum number of users to return; defaults to {@value DEFAULT_USER_PAGE_SIZE}
+     * @param cursor the cursor returned with the previous page, or null for the first page
+     * @return a list of UserDTOs, with the cursor of the next page in the {@value NEXT_CURSOR_HEADER} header
+     *     unless this is the last page
      */
-    public ResponseEntity<List<UserDTO>> getUserList() {
-        List<UserEntity> allUsers = userRepository.findAll();
-        if (allUsers.isEmpty()) {
+    public ResponseEntity<List<UserDTO>> getUserList(Integer limit, String cursor) {
+        int pageSize = limit != null ? limit : DEFAULT_USER_PAGE_SIZE;
+        if (pageSize < 1 || pageSize > MAX_USER_PAGE_SIZE) {
+            throw new IllegalArgumentException(
+                    String.format("The limit must be between 1 and %d.", MAX_USER_PAGE_SIZE));
+        }
+
+        // read one extra user to know whether there is a next page
+        Pageable pageable = PageRequest.of(0, pageSize + 1);
+        List<UserEntity> users;
+        if (cursor == null) {
+            users = userRepository.findFirstPage(pageable);
+        } else {
+            UserPageCursor position = UserPageCursor.decode(cursor);
+            users = userRepository.findPageAfter(position.getCreatedAt(), position.getId(), pageable);
+        }
+        if (users.isEmpty() && cursor == null) {
             throw new ResourceNotFoundException("No users found.");
         }
 
-        List<UserDTO> users = allUsers.stream().map(u -> {
+        boolean hasNextPage = users.size() > pageSize;
+        List<UserEntity> page = hasNextPage ? users.subList(0, pageSize) : users;
+        Map<UUID, List<RoleEntity>> rolesByUserId = getRolesByUserId(page);
+
+        List<UserDTO> userDtos = page.stream().map(u -> {
             UserDTO user = UserEntityMapper.INSTANCE.convertUserEntityToUserModel(u);
-            user.setAssignedRoles(MapperUtils.mapUserEntityToAssignedRoleList(u));
+            user.setAssignedRoles(MapperUtils.mapRoleEntitiesToAssignedRoleList(
+                    rolesByUserId.getOrDefault(u.getId(), List.of())));
             return user;
         }).collect(Collectors.toList());
 
-        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(users);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON);
+        if (hasNextPage) {
+            response.header(NEXT_CURSOR_HEADER, UserPageCursor.after(page.get(page.size() - 1)).encode());
+        }
+        return response.body(userDtos);
+    }
+
+    private Map<UUID, List<RoleEntity>> getRolesByUserId(List<UserEntity> users) {
+        if (users.isEmpty()) {
+            return Map.of();
+        }
+
+        return userRoleRepository.findAllWithRoleByUserIdIn(
+                users.stream().map(UserEntity::getId).collect(Collectors.toList())
+        ).stream().collect(Collectors.groupingBy(userRole -> userRole.getUser().getId(),
+                Collectors.mapping(UserRoleEntity::getRole, Collectors.toList())));
     }
 
     /**
@@ -317,7 +428,7 @@ public class UserService {
      * @return a ResponseEntity with a UserDTO.
      */
     public ResponseEntity<UserDTO> getUserById(UUID userId) {
-        return getUserInternal(userRepository.findById(userId));
+        return getUserInternal(userRepository.findWithRolesById(userId));
     }
 
     /**
@@ -327,7 +438,53 @@ public class UserService {
      * @return a ResponseEntity with a UserDTO.
      */
     public ResponseEntity<UserDTO> getUserByEmail(String email) {
-        return getUserInternal(userRepository.findUserEntityByEmail(email));
+        return getUserInternal(userRepository.findWithRolesByEmail(email));
+    }
+
+    /**
+     * Gets a batch of users by id, email or external id, with their roles. Reads the users with one query per
+     * kind of key and their roles with one more, however many keys there are.
+     *
+     * @param request the ids, emails and external ids to look up, at most {@value MAX_USER_BATCH_SIZE} in total
+     * @return one result per requested key, in request order: the ids, then the emails, then the external ids
+     */
+    public ResponseEntity<List<UserBatchGetResult>> batchGetUsers(UserBatchGetRequest request) {
+        List<UUID> ids = Objects.requireNonNullElse(request.getIds(), List.of());
+        List<String> emails = Objects.requireNonNullElse(request.getEmails(), List.of());
+        List<String> externalIds = Objects.requireNonNullElse(request.getExternalIds(), List.of());
+        int keyCount = ids.size() + emails.size() + externalIds.size();
+        if (keyCount == 0 || keyCount > MAX_USER_BATCH_SIZE) {
+            throw new IllegalArgumentException(
+                    String.format("A batch must have between 1 and %d keys.", MAX_USER_BATCH_SIZE));
+        }
+
+        Map<UUID, UserEntity> usersById = findUsers(ids, userRepository::findAllById, UserEntity::getId);
+        Map<String, UserEntity> usersByEmail = findUsers(emails, userRepository::findAllByEmailIn,
+                UserEntity::getEmail);
+        Map<String, UserEntity> usersByExternalId = findUsers(externalIds, userRepository::findAllByExternalIdIn,
+                UserEntity::getExternalId);
+
+        // a user found by several keys is mapped once
+        Map<UUID, UserEntity> users = new LinkedHashMap<>();
+        List.of(usersById, usersByEmail, usersByExternalId)
+                .forEach(found -> found.values().forEach(user -> users.putIfAbsent(user.getId(), user)));
+        Map<UUID, List<RoleEntity>> rolesByUserId = getRolesByUserId(new ArrayList<>(users.values()));
+        Map<UUID, UserDTO> userDtos = new HashMap<>();
+        users.values().forEach(userEntity -> {
+            UserDTO user = UserEntityMapper.INSTANCE.convertUserEntityToUserModel(userEntity);
+            user.setAssignedRoles(MapperUtils.mapRoleEntitiesToAssignedRoleList(
+                    rolesByUserId.getOrDefault(userEntity.getId(), List.of())));
+            userDtos.put(userEntity.getId(), user);
+        });
+
+        List<UserBatchGetResult> results = new ArrayList<>(keyCount);
+        ids.forEach(id -> results.add(createBatchGetResult(UserBatchGetResult.KeyTypeEnum.ID,
+                Objects.toString(id, null), usersById.get(id), userDtos)));
+        emails.forEach(email -> results.add(createBatchGetResult(UserBatchGetResult.KeyTypeEnum.EMAIL,
+                email, usersByEmail.get(email), userDtos)));
+        externalIds.forEach(externalId -> results.add(createBatchGetResult(UserBatchGetResult.KeyTypeEnum.EXTERNAL_ID,
+                externalId, usersByExternalId.get(externalId), userDtos)));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(results);
     }
 
     /**
@@ -344,10 +501,9 @@ public class UserService {
             throw new ResourceNotFoundException("User not found!");
         }
 
-        Optional<CustomFieldEntity> customField = customFieldRepository.findById(userCustomField.getCustomFieldId());
-        if (customField.isEmpty()) {
-            throw new ResourceNotFoundException("Custom field not found!");
-        }
+        CustomFieldDTO customField = customFieldCatalog.getSnapshot()
+                .findCustomField(userCustomField.getCustomFieldId())
+                .orElseThrow(() -> new ResourceNotFoundException("Custom field not found!"));
 
         Optional<UserCustomFieldEntity> userCustomFieldEntity = userCustomFieldRepository
                 .findFirstByUserAndCustomField(userId, userCustomField.getCustomFieldId());
@@ -355,12 +511,12 @@ public class UserService {
         if (userCustomFieldEntity.isEmpty()) {
             userCustomFieldEntity = Optional.of(UserCustomFieldEntity.builder()
                             .user(user.get())
-                            .customField(customField.get())
+                            .customField(customFieldRepository.getById(customField.getId()))
                             .build());
         }
 
         try {
-            setUserCustomFieldValueFromCustomFieldDto(customField.get(), userCustomFieldEntity.get(), userCustomField);
+            setUserCustomFieldValueFromCustomFieldDto(customField, userCustomFieldEntity.get(), userCustomField);
             userCustomFieldRepository.save(userCustomFieldEntity.get());
             return ResponseEntity.ok().build();
         } catch (Exception ex) {
@@ -369,11 +525,145 @@ public class UserService {
         }
     }
 
-    private void setUserCustomFieldValueFromCustomFieldDto(CustomFieldEntity customField,
+    private void saveInitialRolesAndCustomFields(UserEntity savedUser, UserCreationRequest user) {
+        // If roles are provided we want to initialize them here.
+        if (user.getInitialRoles() != null && !user.getInitialRoles().isEmpty()) {
+            List<UserRoleEntity> userRoleEntities = roleRepository.findAllById(user.getInitialRoles()
+                    .stream().map(RoleDTO::getId).collect(Collectors.toList()))
+                    .stream().map(r -> {
+                        UserRoleEntity userRoleEntity = new UserRoleEntity();
+                        userRoleEntity.setUser(savedUser);
+                        userRoleEntity.setRole(r);
+                        return userRoleEntity;
+                    }).collect(Collectors.toList());
+            Optional<RoleDTO> notFoundRole = user.getInitialRoles()
+                    .stream().filter(r -> userRoleEntities.stream().noneMatch(re ->
+                            re.getRole().getId().compareTo(r.getId()) == 0))
+                    .findFirst();
+            if (notFoundRole.isPresent()) {
+                throw new BusinessLogicException(
+                        String.format("No role found for %s.", notFoundRole.get().getRoleName())
+                );
+            }
+            userRoleRepository.saveAll(userRoleEntities);
+        }
+
+        if (user.getCustomFields() != null && !user.getCustomFields().isEmpty()) {
+            List<UserCustomFieldEntity> userCustomFieldEntities =
+                    createUserCustomFieldEntities(savedUser, user, customFieldCatalog.getSnapshot());
+            userCustomFieldRepository.saveAll(userCustomFieldEntities);
+        }
+    }
+
+    private static void checkRequiredFields(UserCreationRequest user) {
+        if (StringUtils.isBlank(user.getExternalId())) {
+            throw new BusinessLogicException("Missing identifier for user: " + user.getEmail());
+        }
+
+        if (user.getEmail() == null) {
+            throw new BusinessLogicException("Missing email for user");
+        }
+
+        if (user.getDisplayName() == null) {
+            throw new BusinessLogicException("Missing display name for user: " + user.getEmail());
+        }
+    }
+
+    private static LocalDateTime getCreationTime() {
+        // Setting the created at time to America NY to prevent any EST / EDT conversion errors.
+        return LocalDateTime.from(Instant.now().atZone(ZoneId.of("America/New_York")));
+    }
+
+    /**
+     * Returns the values of a unique user attribute that are already taken by existing users.
+     */
+    private static Set<String> findTaken(List<UserCreationRequest> users,
+                                         Function<UserCreationRequest, String> requestedValue,
+                                         Function<Set<String>, List<UserEntity>> findExisting,
+                                         Function<UserEntity, String> existingValue) {
+        Set<String> values = users.stream().map(requestedValue).filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (values.isEmpty()) {
+            return new HashSet<>();
+        }
+
+        return findExisting.apply(values).stream().map(existingValue).collect(Collectors.toCollection(HashSet::new));
+    }
+
+    /**
+     * Reads the users matching any of the keys with one query, indexed by key.
+     */
+    private static <K> Map<K, UserEntity> findUsers(List<K> keys, Function<Set<K>, List<UserEntity>> findAll,
+                                                    Function<UserEntity, K> key) {
+        Set<K> distinctKeys = keys.stream().filter(Objects::nonNull).collect(Collectors.toSet());
+        if (distinctKeys.isEmpty()) {
+            return Map.of();
+        }
+
+        return findAll.apply(distinctKeys).stream().collect(Collectors.toMap(key, user -> user));
+    }
+
+    private static UserBatchGetResult createBatchGetResult(UserBatchGetResult.KeyTypeEnum keyType, String key,
+                                                           UserEntity user, Map<UUID, UserDTO> userDtos) {
+        UserBatchGetResult result = new UserBatchGetResult().keyType(keyType).key(key);
+        if (user == null) {
+            return result.status(UserBatchGetResult.StatusEnum.NOT_FOUND);
+        }
+        return result.status(UserBatchGetResult.StatusEnum.FOUND).user(userDtos.get(user.getId()));
+    }
+
+    private static List<UserRoleEntity> createUserRoleEntities(UserEntity userEntity, UserCreationRequest user,
+                                                               Map<UUID, RoleEntity> rolesById) {
+        if (user.getInitialRoles() == null) {
+            return List.of();
+        }
+
+        List<UserRoleEntity> userRoleEntities = new ArrayList<>();
+        for (RoleDTO role : user.getInitialRoles()) {
+            RoleEntity roleEntity = rolesById.get(role.getId());
+            if (roleEntity == null) {
+                throw new BusinessLogicException(String.format("No role found for %s.", role.getRoleName()));
+            }
+            UserRoleEntity userRoleEntity = new UserRoleEntity();
+            userRoleEntity.setUser(userEntity);
+            userRoleEntity.setRole(roleEntity);
+            userRoleEntities.add(userRoleEntity);
+        }
+        return userRoleEntities;
+    }
+
+    private List<UserCustomFieldEntity> createUserCustomFieldEntities(UserEntity userEntity,
+                                                                      UserCreationRequest user,
+                                                                      CustomFieldCatalog.Snapshot customFields) {
+        if (user.getCustomFields() == null) {
+            return List.of();
+        }
+
+        List<UserCustomFieldEntity> userCustomFieldEntities = new ArrayList<>();
+        for (CreateOrUpdateUserCustomFieldDTO customField : user.getCustomFields()) {
+            CustomFieldDTO definition = customFields.findCustomField(customField.getCustomFieldId())
+                    .orElseThrow(() -> new BusinessLogicException(
+                            String.format("No custom field found with id: %s.", customField.getCustomFieldId())));
+            UserCustomFieldEntity userCustomField = UserCustomFieldEntity.builder()
+                    .user(userEntity)
+                    .customField(customFieldRepository.getById(definition.getId()))
+                    .build();
+            try {
+                setUserCustomFieldValueFromCustomFieldDto(definition, userCustomField, customField);
+            } catch (Exception e) {
+                throw new BusinessLogicException(String.format("Invalid value for custom field %s: %s",
+                        definition.getName(), e.getMessage()));
+            }
+            userCustomFieldEntities.add(userCustomField);
+        }
+        return userCustomFieldEntities;
+    }
+
+    private void setUserCustomFieldValueFromCustomFieldDto(CustomFieldDTO customField,
                                                            UserCustomFieldEntity userCustomFieldEntity,
                                                            CreateOrUpdateUserCustomFieldDTO userCustomField)
             throws Exception {
-        switch (CustomFieldDataType.fromText(customField.getDataType().getType())) {
+        switch (CustomFieldCatalog.getDataType(customField)) {
             case INT:
                 userCustomFieldEntity.setCustomFieldValueInt((Integer)userCustomField.getValue());
                 break;
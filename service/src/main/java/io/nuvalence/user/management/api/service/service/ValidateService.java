@@ -1,18 +1,31 @@
 package io.nuvalence.user.management.api.service.service;
 
 import io.nuvalence.user.management.api.service.cerbos.CerbosClient;
+import io.nuvalence.user.management.api.service.config.exception.BusinessLogicException;
 import io.nuvalence.user.management.api.service.config.exception.ResourceNotFoundException;
-import io.nuvalence.user.management.api.service.entity.UserEntity;
+import io.nuvalence.user.management.api.service.generated.models.ValidatePermissionBatchRequest;
+import io.nuvalence.user.management.api.service.generated.models.ValidatePermissionBatchResponse;
+import io.nuvalence.user.management.api.service.generated.models.ValidatePermissionCheckDTO;
 import io.nuvalence.user.management.api.service.generated.models.ValidatePermissionDTO;
-import io.nuvalence.user.management.api.service.repository.UserRepository;
+import io.nuvalence.user.management.api.service.generated.models.ValidatePermissionResultDTO;
+import io.nuvalence.user.management.api.service.interfaces.Permissionable;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Service for validation.
@@ -23,8 +36,11 @@ import java.util.Optional;
 @RequiredArgsConstructor
 @Slf4j
 public class ValidateService {
-    private final UserRepository userRepository;
-    private final CerbosClient client;
+    private final PrincipalRoleCache principalRoleCache;
+    private final Permissionable client;
+
+    @Value("${validate.batch.max-size:100}")
+    private int maxBatchSize;
 
     /**
      * Validates the user with the provided userName has the provided role.
@@ -39,13 +55,76 @@ public class ValidateService {
                                                                         String resourceName) {
         ValidatePermissionDTO validateResult = new ValidatePermissionDTO();
 
-        Optional<UserEntity> userEntity = userRepository.findUserEntityByDisplayName(userName);
-        if (userEntity.isEmpty()) {
+        Optional<List<String>> roleNames = principalRoleCache.getRoleNames(userName);
+        if (roleNames.isEmpty()) {
             throw new ResourceNotFoundException("User not found!");
         }
 
-        Boolean userHasRole = client.check(resourceName, userEntity.get(), permission);
+        Boolean userHasRole = client.checkPrincipal(resourceName, userName, roleNames.get(), permission);
         validateResult.setAllow(userHasRole);
         return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(validateResult);
     }
+
+    /**
+     * Validates a batch of user / permission / resource checks. All users are loaded at once and the
+     * checks are sent to Cerbos with one request per resource and role set. Checks for unknown users are denied.
+     *
+     * @param batchRequest the checks to validate
+     * @return a status code and the validation results, in request order
+     */
+    public ResponseEntity<ValidatePermissionBatchResponse> validateUserPermissions(
+            ValidatePermissionBatchRequest batchRequest) {
+        List<ValidatePermissionCheckDTO> checks = batchRequest.getChecks();
+        if (checks == null || checks.isEmpty()) {
+            throw new BusinessLogicException("You must pass in at least one permission check.");
+        }
+        if (checks.size() > maxBatchSize) {
+            throw new BusinessLogicException(
+                    String.format("No more than %d permission checks can be validated at once.", maxBatchSize)
+            );
+        }
+
+        Map<String, List<String>> roleNamesByUserName = principalRoleCache.getRoleNames(checks.stream()
+                .map(ValidatePermissionCheckDTO::getUserName).collect(Collectors.toSet()));
+
+        // group the checks by resource kind and principal (role set), keeping the order they were requested in;
+        // names that differ only in case or punctuation are the same kind, so they share a request
+        Map<String, Map<List<String>, List<ValidatePermissionCheckDTO>>> groupedChecks = new LinkedHashMap<>();
+        for (ValidatePermissionCheckDTO check : checks) {
+            List<String> roleNames = roleNamesByUserName.get(check.getUserName());
+            if (roleNames != null) {
+                String resourceKind = CerbosClient.ensureResourceNameIsInitialized(check.getResource());
+                groupedChecks.computeIfAbsent(resourceKind, r -> new LinkedHashMap<>())
+                        .computeIfAbsent(roleNames, r -> new ArrayList<>())
+                        .add(check);
+            }
+        }
+
+        Map<ValidatePermissionCheckDTO, Boolean> decisions = new HashMap<>();
+        groupedChecks.forEach((resourceName, checksByPrincipal) ->
+                checksByPrincipal.forEach((roleNames, principalChecks) -> {
+                    Set<String> userNames = principalChecks.stream().map(ValidatePermissionCheckDTO::getUserName)
+                            .collect(Collectors.toCollection(LinkedHashSet::new));
+                    Set<String> permissions = principalChecks.stream().map(check -> check.getPermission().toLowerCase())
+                            .collect(Collectors.toCollection(LinkedHashSet::new));
+
+                    Map<String, Map<String, Boolean>> resourceDecisions =
+                            client.checkResourceSet(resourceName, roleNames, userNames, permissions);
+                    principalChecks.forEach(check -> decisions.put(check, resourceDecisions
+                            .getOrDefault(check.getUserName(), Map.of())
+                            .getOrDefault(check.getPermission().toLowerCase(), false)));
+                }));
+
+        ValidatePermissionBatchResponse response = new ValidatePermissionBatchResponse();
+        response.setResults(checks.stream().map(check -> {
+            ValidatePermissionResultDTO result = new ValidatePermissionResultDTO();
+            result.setUserName(check.getUserName());
+            result.setPermission(check.getPermission());
+            result.setResource(check.getResource());
+            result.setAllow(decisions.getOrDefault(check, false));
+            return result;
+        }).collect(Collectors.toList()));
+
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(response);
+    }
 }
@@ -0,0 +1,117 @@
+package io.nuvalence.user.management.api.service.cerbos;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class CerbosPolicyWriteCoalescerTest {
+    @Mock
+    private CerbosClient client;
+
+    @Captor
+    private ArgumentCaptor<Map<String, String[]>> changesCaptor;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CerbosPolicyWriteCoalescer coalescer;
+
+    @BeforeEach
+    void initTests() {
+        meterRegistry = new SimpleMeterRegistry();
+        coalescer = new CerbosPolicyWriteCoalescer(client, meterRegistry, Duration.ofMillis(200), 2);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        coalescer.shutdown();
+    }
+
+    @Test
+    public void submit_mergesChangesWithinWindowIntoOneWritePerResource() throws Exception {
+        when(client.writeRolePermissionMappings(anyString(), ArgumentMatchers.<Map<String, String[]>>any()))
+                .thenReturn(true);
+
+        List<CompletableFuture<Boolean>> results = List.of(
+                coalescer.submit("app01", "ROLE_1", new String[] { "read" }),
+                coalescer.submit("app01", "ROLE_2", new String[] { "write" }),
+                coalescer.submit("app01", "ROLE_1", new String[] { "read", "write" }),
+                coalescer.submit("app02", "ROLE_1", new String[] { }));
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+
+        results.forEach(result -> assertEquals(true, result.join()));
+        verify(client).writeRolePermissionMappings(eq("app01"), changesCaptor.capture());
+        assertEquals(2, changesCaptor.getValue().size());
+        assertArrayEquals(new String[] { "read", "write" }, changesCaptor.getValue().get("ROLE_1"));
+        assertArrayEquals(new String[] { "write" }, changesCaptor.getValue().get("ROLE_2"));
+        verify(client).writeRolePermissionMappings(eq("app02"), ArgumentMatchers.<Map<String, String[]>>any());
+        assertEquals(2, meterRegistry.get("cerbos.policy.writes.batch.size").summary().count());
+    }
+
+    @Test
+    public void submit_neverOverlapsWritesToTheSameResource() throws Exception {
+        AtomicInteger concurrentWrites = new AtomicInteger();
+        AtomicInteger maxConcurrentWrites = new AtomicInteger();
+        CountDownLatch firstWriteStarted = new CountDownLatch(1);
+        when(client.writeRolePermissionMappings(eq("app01"), ArgumentMatchers.<Map<String, String[]>>any()))
+                .thenAnswer(invocation -> {
+                    maxConcurrentWrites.accumulateAndGet(concurrentWrites.incrementAndGet(), Math::max);
+                    firstWriteStarted.countDown();
+                    Thread.sleep(300);
+                    concurrentWrites.decrementAndGet();
+                    return true;
+                });
+
+        CompletableFuture<Boolean> first = coalescer.submit("app01", "ROLE_1", new String[] { "read" });
+        firstWriteStarted.await(10, TimeUnit.SECONDS);
+        CompletableFuture<Boolean> second = coalescer.submit("app01", "ROLE_2", new String[] { "read" });
+        CompletableFuture.allOf(first, second).get(10, TimeUnit.SECONDS);
+
+        assertEquals(1, maxConcurrentWrites.get());
+        verify(client, times(2)).writeRolePermissionMappings(eq("app01"), any());
+    }
+
+    @Test
+    public void submit_writesSeveralRolesOfOneSubmitTogether() throws Exception {
+        when(client.writeRolePermissionMappings(anyString(), ArgumentMatchers.<Map<String, String[]>>any()))
+                .thenReturn(true);
+
+        assertEquals(true, coalescer.submit("app01", Map.of("ROLE_1", new String[] { "read" },
+                "ROLE_2", new String[] { })).get(10, TimeUnit.SECONDS));
+
+        verify(client).writeRolePermissionMappings(eq("app01"), changesCaptor.capture());
+        assertEquals(2, changesCaptor.getValue().size());
+    }
+
+    @Test
+    public void submit_completesWithFalseIfWriteFails() throws Exception {
+        when(client.writeRolePermissionMappings(anyString(), ArgumentMatchers.<Map<String, String[]>>any()))
+                .thenThrow(new RuntimeException("Cerbos unavailable"));
+
+        assertEquals(false, coalescer.submit("app01", "ROLE_1", new String[] { "read" })
+                .get(10, TimeUnit.SECONDS));
+    }
+}
@@ -3,8 +3,10 @@ package io.nuvalence.user.management.api.service.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.nuvalence.user.management.api.service.entity.UserEntity;
 import io.nuvalence.user.management.api.service.generated.models.UserCreationRequest;
+import io.nuvalence.user.management.api.service.generated.models.UserCreationResult;
 import io.nuvalence.user.management.api.service.generated.models.UserDTO;
 import io.nuvalence.user.management.api.service.generated.models.UserUpdateRequest;
+import io.nuvalence.user.management.api.service.generated.models.UserUpsertResult;
 import io.nuvalence.user.management.api.service.mapper.UserEntityMapper;
 import io.nuvalence.user.management.api.service.repository.UserRepository;
 import io.nuvalence.user.management.api.service.service.UserService;
@@ -22,6 +24,7 @@ import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -61,6 +64,45 @@ public class CloudTaskApiDelegateImplTest {
         ).andExpect(status().isOk());
     }
 
+    @Test
+    @WithMockUser
+    public void addUser_upsert() throws Exception {
+        UserCreationRequest user = createNewUserModel();
+        UUID id = UUID.randomUUID();
+        ResponseEntity<UserUpsertResult> res = ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON)
+                .body(new UserUpsertResult().status(UserUpsertResult.StatusEnum.UNCHANGED).id(id));
+        when(userService.upsertUser(user)).thenReturn(res);
+
+        mockMvc.perform(
+            post("/api/v2/cloud-task/user")
+                .param("upsert", "true")
+                .content(new ObjectMapper().writeValueAsString(user))
+                .contentType(MediaType.APPLICATION_JSON)
+            )
+            .andExpect(status().isOk())
+            .andExpect(MockMvcResultMatchers.jsonPath("$.status").value("UNCHANGED"))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.id").value(id.toString()));
+    }
+
+    @Test
+    @WithMockUser
+    public void addUsers() throws Exception {
+        List<UserCreationRequest> users = List.of(createNewUserModel());
+        UUID id = UUID.randomUUID();
+        ResponseEntity<List<UserCreationResult>> res = ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON)
+                .body(List.of(new UserCreationResult().status(UserCreationResult.StatusEnum.CREATED).id(id)));
+        when(userService.createUsers(users)).thenReturn(res);
+
+        mockMvc.perform(
+            post("/api/v2/cloud-task/users:batch")
+                .content(new ObjectMapper().writeValueAsString(users))
+                .contentType(MediaType.APPLICATION_JSON)
+            )
+            .andExpect(status().isOk())
+            .andExpect(MockMvcResultMatchers.jsonPath("$[0].status").value("CREATED"))
+            .andExpect(MockMvcResultMatchers.jsonPath("$[0].id").value(id.toString()));
+    }
+
     @Test
     @WithMockUser
     public void updateUserById() throws Exception {
@@ -1,6 +1,7 @@
 package io.nuvalence.user.management.api.service.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.nuvalence.user.management.api.service.generated.models.BackgroundJobDTO;
 import io.nuvalence.user.management.api.service.generated.models.CreateCustomFieldDTO;
 import io.nuvalence.user.management.api.service.generated.models.CreateOrUpdateCustomFieldOptionDTO;
 import io.nuvalence.user.management.api.service.generated.models.CustomFieldDTO;
@@ -20,6 +21,7 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.net.URI;
 import java.util.List;
 import java.util.UUID;
 
@@ -29,6 +31,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -105,12 +108,18 @@ public class CustomFieldsApiDelegateImplTest {
     @Test
     @WithMockUser
     public void deleteCustomField() throws Exception {
-        ResponseEntity<Void> res = ResponseEntity.ok().build();
+        BackgroundJobDTO job = new BackgroundJobDTO().id(UUID.randomUUID())
+                .status(BackgroundJobDTO.StatusEnum.PENDING);
+        ResponseEntity<BackgroundJobDTO> res = ResponseEntity.accepted()
+                .location(URI.create("/api/v2/jobs/" + job.getId())).contentType(MediaType.APPLICATION_JSON)
+                .body(job);
         when(customFieldService.deleteCustomField(any())).thenReturn(res);
 
         mockMvc.perform(
                 delete("/api/v2/custom-fields/" + UUID.randomUUID()))
-                .andExpect(status().isOk());
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/v2/jobs/" + job.getId()))
+                .andExpect(jsonPath("$.status").value("PENDING"));
     }
 
     @Test
@@ -5,6 +5,8 @@ import io.nuvalence.user.management.api.service.entity.RoleEntity;
 import io.nuvalence.user.management.api.service.entity.UserEntity;
 import io.nuvalence.user.management.api.service.generated.models.CreateOrUpdateUserCustomFieldDTO;
 import io.nuvalence.user.management.api.service.generated.models.RoleDTO;
+import io.nuvalence.user.management.api.service.generated.models.UserBatchGetRequest;
+import io.nuvalence.user.management.api.service.generated.models.UserBatchGetResult;
 import io.nuvalence.user.management.api.service.generated.models.UserCreationRequest;
 import io.nuvalence.user.management.api.service.generated.models.UserDTO;
 import io.nuvalence.user.management.api.service.generated.models.UserRoleDTO;
@@ -12,6 +14,7 @@ import io.nuvalence.user.management.api.service.mapper.MapperUtils;
 import io.nuvalence.user.management.api.service.mapper.RoleEntityMapper;
 import io.nuvalence.user.management.api.service.mapper.UserEntityMapper;
 import io.nuvalence.user.management.api.service.repository.UserRepository;
+import io.nuvalence.user.management.api.service.service.UserExportService;
 import io.nuvalence.user.management.api.service.service.UserService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -27,6 +30,8 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Optional;
@@ -36,7 +41,9 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(SpringExtension.class)
@@ -53,6 +60,9 @@ public class UserApiDelegateImplTest {
     @MockBean
     private UserService userService;
 
+    @MockBean
+    private UserExportService userExportService;
+
     @Test
     @WithMockUser
     public void getUserById() throws Exception {
@@ -83,9 +93,11 @@ public class UserApiDelegateImplTest {
                 .convertUserEntityToUserModel(userEntity);
         ResponseEntity<List<UserDTO>> res = ResponseEntity.ok()
                 .contentType(MediaType.APPLICATION_JSON).body(List.of(userModel));
-        when(userService.getUserList()).thenReturn(res);
+        when(userService.getUserList(25, "cursor")).thenReturn(res);
 
         mockMvc.perform(get("/api/v2/user")
+                        .param("limit", "25")
+                        .param("cursor", "cursor")
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].id")
@@ -94,6 +106,47 @@ public class UserApiDelegateImplTest {
                         .value(userEntity.getDisplayName()));
     }
 
+    @Test
+    @WithMockUser
+    public void batchGetUsers() throws Exception {
+        UserEntity userEntity = createMockUser();
+        UserBatchGetRequest request = new UserBatchGetRequest().emails(List.of(userEntity.getEmail(), "missing"));
+        ResponseEntity<List<UserBatchGetResult>> res = ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON)
+                .body(List.of(
+                        new UserBatchGetResult().keyType(UserBatchGetResult.KeyTypeEnum.EMAIL)
+                                .key(userEntity.getEmail()).status(UserBatchGetResult.StatusEnum.FOUND)
+                                .user(UserEntityMapper.INSTANCE.convertUserEntityToUserModel(userEntity)),
+                        new UserBatchGetResult().keyType(UserBatchGetResult.KeyTypeEnum.EMAIL).key("missing")
+                                .status(UserBatchGetResult.StatusEnum.NOT_FOUND)));
+        when(userService.batchGetUsers(request)).thenReturn(res);
+
+        mockMvc.perform(post("/api/v2/user:batchGet")
+                        .content(new ObjectMapper().writeValueAsString(request))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("FOUND"))
+                .andExpect(jsonPath("$[0].user.id").value(userEntity.getId().toString()))
+                .andExpect(jsonPath("$[1].status").value("NOT_FOUND"))
+                .andExpect(jsonPath("$[1].user").doesNotExist());
+    }
+
+    @Test
+    @WithMockUser
+    public void exportUsers() throws Exception {
+        StreamingResponseBody body = outputStream -> outputStream.write("{\"id\":1}\n{\"id\":2}\n".getBytes());
+        when(userExportService.exportUsers())
+                .thenReturn(ResponseEntity.ok().contentType(UserExportService.NDJSON).body(body));
+
+        MvcResult result = mockMvc.perform(get("/api/v2/user/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(UserExportService.NDJSON))
+                .andExpect(content().string("{\"id\":1}\n{\"id\":2}\n"));
+    }
+
     @Test
     @WithMockUser
     public void getUserRolesById() throws Exception {
@@ -3,6 +3,8 @@ package io.nuvalence.user.management.api.service.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.nuvalence.user.management.api.service.entity.ApplicationEntity;
 import io.nuvalence.user.management.api.service.entity.UserEntity;
+import io.nuvalence.user.management.api.service.generated.models.UserPreferenceBatchUpdateRequest;
+import io.nuvalence.user.management.api.service.generated.models.UserPreferenceBatchUpdateResult;
 import io.nuvalence.user.management.api.service.generated.models.UserPreferenceDTO;
 import io.nuvalence.user.management.api.service.service.UserPreferenceService;
 import org.junit.jupiter.api.Test;
@@ -17,11 +19,13 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.Map;
 import java.util.UUID;
 
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -111,6 +115,27 @@ public class UserPreferenceApiDelegateImplTest {
         ).andExpect(status().isOk());
     }
 
+    @Test
+    public void batchUpdatePreferences() throws Exception {
+        UserPreferenceBatchUpdateRequest request = new UserPreferenceBatchUpdateRequest();
+        request.setRoleId(UUID.randomUUID());
+        request.setPreferences(Map.of("language", "es"));
+        UserPreferenceBatchUpdateResult result = new UserPreferenceBatchUpdateResult();
+        result.setUsers(3L);
+        result.setInserted(1L);
+        result.setUpdated(1L);
+        result.setUnchanged(1L);
+        when(userPreferenceService.batchUpdatePreferences(request)).thenReturn(result);
+
+        mockMvc.perform(
+                post("/api/v2/user/preferences:batchUpdate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(new ObjectMapper().writeValueAsString(request))
+        ).andExpect(status().isOk())
+                .andExpect(jsonPath("users").value(3))
+                .andExpect(jsonPath("inserted").value(1));
+    }
+
     private UserEntity createMockUser() {
         UserEntity user = new UserEntity();
         user.setId(UUID.randomUUID());
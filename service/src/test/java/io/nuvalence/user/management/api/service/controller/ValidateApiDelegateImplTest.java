@@ -1,6 +1,11 @@
 package io.nuvalence.user.management.api.service.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.nuvalence.user.management.api.service.generated.models.ValidatePermissionBatchRequest;
+import io.nuvalence.user.management.api.service.generated.models.ValidatePermissionBatchResponse;
+import io.nuvalence.user.management.api.service.generated.models.ValidatePermissionCheckDTO;
 import io.nuvalence.user.management.api.service.generated.models.ValidatePermissionDTO;
+import io.nuvalence.user.management.api.service.generated.models.ValidatePermissionResultDTO;
 import io.nuvalence.user.management.api.service.service.ValidateService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -16,8 +21,11 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.List;
+
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -54,4 +62,34 @@ public class ValidateApiDelegateImplTest {
                         .andExpect(status().isOk())
                         .andExpect(jsonPath("$.allow").value(validateRole.getAllow()));
     }
+
+    @Test
+    @WithMockUser
+    public void validateUserPermissions() throws Exception {
+        ValidatePermissionCheckDTO check = new ValidatePermissionCheckDTO();
+        check.setUserName("allow");
+        check.setPermission("permissionToTest");
+        check.setResource("default_resource");
+        ValidatePermissionBatchRequest request = new ValidatePermissionBatchRequest();
+        request.setChecks(List.of(check));
+
+        ValidatePermissionResultDTO result = new ValidatePermissionResultDTO();
+        result.setUserName("allow");
+        result.setPermission("permissionToTest");
+        result.setResource("default_resource");
+        result.setAllow(true);
+        ValidatePermissionBatchResponse batchResponse = new ValidatePermissionBatchResponse();
+        batchResponse.setResults(List.of(result));
+
+        when(validateService.validateUserPermissions(ArgumentMatchers.any()))
+                .thenReturn(ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(batchResponse));
+
+        mockMvc.perform(
+                post("/api/v2/validate/user-permissions")
+                        .content(new ObjectMapper().writeValueAsString(request))
+                        .contentType(MediaType.APPLICATION_JSON))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.results[0].userName").value("allow"))
+                        .andExpect(jsonPath("$.results[0].allow").value(true));
+    }
 }
@@ -0,0 +1,31 @@
+package io.nuvalence.user.management.api.service.repository;
+
+import org.hibernate.type.PostgresUUIDType;
+import org.hibernate.type.Type;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Runs the uuid binding checks against Postgres, whose dialect binds uuids as {@code pg-uuid}. Needs a
+ * database to migrate, e.g. {@code -Dtest.postgres.url=jdbc:postgresql://localhost:5432/user_management}
+ * with {@code test.postgres.username} and {@code test.postgres.password}; skipped otherwise.
+ */
+@EnabledIfSystemProperty(named = "test.postgres.url", matches = ".+")
+@SpringBootTest(properties = {
+    "spring.datasource.url=${test.postgres.url}",
+    "spring.datasource.driver-class-name=org.postgresql.Driver",
+    "spring.datasource.username=${test.postgres.username:postgres}",
+    "spring.datasource.password=${test.postgres.password:postgres}",
+    "spring.liquibase.url=${test.postgres.url}",
+    "spring.liquibase.driver-class-name=org.postgresql.Driver",
+    "spring.liquibase.user=${test.postgres.username:postgres}",
+    "spring.liquibase.password=${test.postgres.password:postgres}",
+    "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect"
+})
+public class PostgresUuidBindingCompatibilityTest extends UuidBindingCompatibilityTest {
+
+    @Override
+    protected Class<? extends Type> getExpectedUuidType() {
+        return PostgresUUIDType.class;
+    }
+}
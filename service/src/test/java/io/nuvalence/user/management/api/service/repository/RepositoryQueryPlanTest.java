@@ -0,0 +1,183 @@
+package io.nuvalence.user.management.api.service.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+import javax.persistence.Entity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Calls every query method declared on a repository, captures the SQL that Hibernate sends for it, and fails if
+ * EXPLAIN against the embedded database shows that any of those statements scans a table instead of using an
+ * index.
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "io.nuvalence.user.management.api.service.repository.RepositoryQueryPlanTest$CapturingStatementInspector")
+@ActiveProfiles("test")
+public class RepositoryQueryPlanTest {
+    private static final UUID SAMPLE_ID = new UUID(0, 0);
+    private static final Map<Class<?>, Object> SAMPLE_VALUES = Map.of(
+            UUID.class, SAMPLE_ID,
+            String.class, SAMPLE_ID.toString(),
+            int.class, 1000,
+            LocalDateTime.class, LocalDateTime.of(2022, 1, 1, 0, 0),
+            OffsetDateTime.class, OffsetDateTime.of(2022, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC),
+            Pageable.class, PageRequest.of(0, 101));
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    public void repositoryQueries_useIndexes() {
+        Map<String, List<String>> statements = captureRepositoryStatements();
+
+        List<String> tableScans = new ArrayList<>();
+        statements.forEach((name, sqls) -> {
+            for (String sql : sqls) {
+                String plan = explain(sql);
+                if (plan.contains(".tableScan")) {
+                    tableScans.add(name + ": " + plan);
+                }
+            }
+        });
+
+        assertFalse(statements.isEmpty());
+        assertEquals(List.of(), tableScans, "Queries scanning a table instead of using an index");
+    }
+
+    private Map<String, List<String>> captureRepositoryStatements() {
+        Map<String, List<String>> statements = new LinkedHashMap<>();
+        Repositories repositories = new Repositories(applicationContext);
+        repositories.forEach(domainType -> {
+            Class<?> repositoryInterface = repositories.getRepositoryInformationFor(domainType)
+                    .orElseThrow().getRepositoryInterface();
+            Object repository = repositories.getRepositoryFor(domainType).orElseThrow();
+            for (Method method : repositoryInterface.getDeclaredMethods()) {
+                if (isInheritedFromJpaRepository(method)) {
+                    continue;
+                }
+
+                String name = repositoryInterface.getSimpleName() + "." + method.getName();
+                List<String> sqls = capture(repository, method);
+                assertFalse(sqls.isEmpty(), name + " did not run any statement");
+                statements.put(name, sqls);
+            }
+        });
+        return statements;
+    }
+
+    private static boolean isInheritedFromJpaRepository(Method method) {
+        // compare by name and arity, since overrides narrow the generic id and entity types
+        return method.isSynthetic() || Arrays.stream(JpaRepository.class.getMethods()).anyMatch(jpaMethod ->
+                jpaMethod.getName().equals(method.getName())
+                        && jpaMethod.getParameterCount() == method.getParameterCount());
+    }
+
+    /**
+     * Calls a repository method with sample arguments, in a transaction that is rolled back, and returns the
+     * statements it ran.
+     */
+    private List<String> capture(Object repository, Method method) {
+        Object[] arguments = Arrays.stream(method.getGenericParameterTypes())
+                .map(RepositoryQueryPlanTest::sampleArgument)
+                .toArray();
+
+        STATEMENTS.clear();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            try {
+                Object result = method.invoke(repository, arguments);
+                if (result instanceof Stream) {
+                    try (Stream<?> stream = (Stream<?>) result) {
+                        stream.forEach(ignored -> { });
+                    }
+                }
+            } catch (IllegalAccessException | InvocationTargetException e) {
+                throw new IllegalStateException("Could not call " + method, e);
+            } finally {
+                status.setRollbackOnly();
+            }
+        });
+        return List.copyOf(STATEMENTS);
+    }
+
+    private static Object sampleArgument(Type type) {
+        Class<?> rawType = (Class<?>) (type instanceof ParameterizedType
+                ? ((ParameterizedType) type).getRawType() : type);
+        if (Collection.class.isAssignableFrom(rawType)) {
+            Object element = sampleArgument(((ParameterizedType) type).getActualTypeArguments()[0]);
+            return Set.class.isAssignableFrom(rawType) ? Set.of(element) : List.of(element);
+        } else if (SAMPLE_VALUES.containsKey(rawType)) {
+            return SAMPLE_VALUES.get(rawType);
+        } else if (rawType.isEnum()) {
+            return rawType.getEnumConstants()[0];
+        } else if (rawType.isAnnotationPresent(Entity.class)) {
+            Object entity = BeanUtils.instantiateClass(rawType);
+            new BeanWrapperImpl(entity).setPropertyValue("id", SAMPLE_ID);
+            return entity;
+        }
+        throw new IllegalArgumentException("Add a sample argument of type " + type);
+    }
+
+    private String explain(String sql) {
+        // bind every parameter to NULL; the plan is chosen when the statement is prepared, before the values are
+        // known, so it is the same as for real values
+        return String.join("\n", jdbcTemplate.query("EXPLAIN " + sql, statement -> {
+            for (int i = 1; i <= statement.getParameterMetaData().getParameterCount(); i++) {
+                statement.setObject(i, null);
+            }
+        }, (resultSet, rowNumber) -> resultSet.getString(1)));
+    }
+
+    /**
+     * Records every statement Hibernate prepares, unchanged.
+     */
+    public static class CapturingStatementInspector implements StatementInspector {
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
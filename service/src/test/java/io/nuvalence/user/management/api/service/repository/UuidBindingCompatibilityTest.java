@@ -0,0 +1,107 @@
+package io.nuvalence.user.management.api.service.repository;
+
+import io.nuvalence.user.management.api.service.entity.RoleEntity;
+import io.nuvalence.user.management.api.service.entity.UserEntity;
+import io.nuvalence.user.management.api.service.service.QueryBudgetDataset;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.type.Type;
+import org.hibernate.type.UUIDBinaryType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that ids and foreign keys are bound and read as the database's native uuid type, through entity
+ * mappings, JPQL and native queries. Runs on H2, which binds them as 16 bytes;
+ * {@link PostgresUuidBindingCompatibilityTest} runs the same checks on Postgres.
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+@ActiveProfiles("test")
+public class UuidBindingCompatibilityTest {
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserRoleRepository userRoleRepository;
+
+    protected Class<? extends Type> getExpectedUuidType() {
+        return UUIDBinaryType.class;
+    }
+
+    @Test
+    public void uuidAttributes_useTheNativeUuidType() {
+        List<String> otherTypes = new ArrayList<>();
+        for (EntityPersister persister : entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getMetamodel().entityPersisters().values()) {
+            checkUuidType(persister.getEntityName() + "." + persister.getIdentifierPropertyName(),
+                    persister.getIdentifierType(), otherTypes);
+            for (int i = 0; i < persister.getPropertyTypes().length; i++) {
+                checkUuidType(persister.getEntityName() + "." + persister.getPropertyNames()[i],
+                        persister.getPropertyTypes()[i], otherTypes);
+            }
+        }
+
+        assertEquals(List.of(), otherTypes, "UUID attributes not mapped to " + getExpectedUuidType());
+    }
+
+    @Test
+    public void uuids_roundTripThroughEntitiesAndQueries() {
+        QueryBudgetDataset dataset = new QueryBudgetDataset(applicationContext).seed(0, 0);
+        RoleEntity role = dataset.getRoles().get(0);
+        UserEntity user = dataset.addUser(List.of(role));
+
+        try {
+            // the stored values are the same uuids, not their text or bytes
+            assertEquals(1, jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM user_role WHERE user_id = CAST(? AS uuid) AND role_id = CAST(? AS uuid)",
+                    Integer.class, user.getId().toString(), role.getId().toString()));
+
+            assertEquals(user.getId(), userRepository.findById(user.getId()).orElseThrow().getId());
+            assertEquals(user.getId(), userRepository.findUserEntityByEmail(user.getEmail()).orElseThrow().getId());
+            assertEquals(List.of(user.getId()), userRepository.findAllByRoleId(role.getId()).stream()
+                    .map(UserEntity::getId).collect(Collectors.toList()));
+            assertEquals(role.getId(), userRoleRepository.findAllWithRoleByUserIdIn(List.of(user.getId())).get(0)
+                    .getRole().getId());
+            new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                    assertEquals(1, userRoleRepository.deleteAllByUserId(user.getId())));
+        } finally {
+            dataset.delete();
+        }
+    }
+
+    private void checkUuidType(String attribute, Type type, List<String> otherTypes) {
+        if (UUID.class.equals(type.getReturnedClass()) && !getExpectedUuidType().equals(type.getClass())) {
+            otherTypes.add(attribute + ": " + type.getName());
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package io.nuvalence.user.management.api.service.service;
+
+import io.nuvalence.user.management.api.service.interfaces.AsyncPermissionable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Runs service calls against the embedded database, with Hibernate statistics on, and holds them to a
+ * {@link QueryBudget}. Each test starts with an empty {@link QueryBudgetDataset}, which is deleted afterwards.
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+public abstract class AbstractQueryBudgetTest {
+
+    @MockBean
+    protected AsyncPermissionable asyncClient;
+
+    protected QueryBudgetDataset dataset;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private QueryCounter queryCounter;
+
+    @BeforeEach
+    public void setUpDataset() {
+        queryCounter = new QueryCounter(entityManagerFactory);
+        dataset = new QueryBudgetDataset(applicationContext);
+    }
+
+    @AfterEach
+    public void deleteDataset() {
+        dataset.delete();
+    }
+
+    protected void assertWithinBudget(QueryBudget budget, String call, Runnable serviceCall) {
+        budget.check(call, queryCounter.measure(serviceCall));
+    }
+}
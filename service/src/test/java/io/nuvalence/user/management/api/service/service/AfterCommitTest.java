@@ -0,0 +1,62 @@
+package io.nuvalence.user.management.api.service.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class AfterCommitTest {
+    private final List<String> runs = new ArrayList<>();
+
+    @AfterEach
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void run_runsNow_withoutATransaction() {
+        AfterCommit.run(() -> runs.add("run"));
+
+        assertEquals(List.of("run"), runs);
+    }
+
+    @Test
+    public void run_waitsForTheCommit_inATransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        AfterCommit.run(() -> runs.add("run"));
+        assertEquals(List.of(), runs);
+
+        commit();
+        assertEquals(List.of("run"), runs);
+    }
+
+    @Test
+    public void runNowAndAgain_runsOnce_withoutATransaction() {
+        AfterCommit.runNowAndAgain(() -> runs.add("run"));
+
+        assertEquals(List.of("run"), runs);
+    }
+
+    @Test
+    public void runNowAndAgain_runsNowAndAfterTheCommit_inATransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        AfterCommit.runNowAndAgain(() -> runs.add("run"));
+        assertEquals(List.of("run"), runs);
+
+        commit();
+        assertEquals(List.of("run", "run"), runs);
+    }
+
+    private static void commit() {
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+    }
+}
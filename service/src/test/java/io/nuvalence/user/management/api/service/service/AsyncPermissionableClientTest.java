@@ -0,0 +1,69 @@
+package io.nuvalence.user.management.api.service.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.nuvalence.user.management.api.service.cerbos.AsyncPermissionableClient;
+import io.nuvalence.user.management.api.service.cerbos.CerbosPolicyWriteCoalescer;
+import io.nuvalence.user.management.api.service.interfaces.Permissionable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class AsyncPermissionableClientTest {
+    @Mock
+    private Permissionable client;
+
+    @Mock
+    private CerbosPolicyWriteCoalescer writeCoalescer;
+
+    private AsyncPermissionableClient asyncClient;
+
+    @BeforeEach
+    void initTests() {
+        asyncClient = new AsyncPermissionableClient(client, writeCoalescer, new SimpleMeterRegistry(), 2, 2, 10);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        asyncClient.shutdown();
+    }
+
+    @Test
+    public void getRolePermissionMappingsAsync_runsCallsConcurrently() throws Exception {
+        // each call waits for the other one, so this only completes if both run at the same time
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        when(client.getRolePermissionMappings(anyString())).thenAnswer(invocation -> {
+            barrier.await(5, TimeUnit.SECONDS);
+            assertTrue(Thread.currentThread().getName().startsWith("cerbos-"));
+            return Map.of(invocation.getArgument(0, String.class), new String[] { "read" });
+        });
+
+        CompletableFuture<Map<String, String[]>> app01 = asyncClient.getRolePermissionMappingsAsync("app01");
+        CompletableFuture<Map<String, String[]>> app02 = asyncClient.getRolePermissionMappingsAsync("app02");
+
+        assertTrue(app01.get(10, TimeUnit.SECONDS).containsKey("app01"));
+        assertTrue(app02.get(10, TimeUnit.SECONDS).containsKey("app02"));
+    }
+
+    @Test
+    public void updateRolePermissionMappingsAsync_queuesChangeOnCoalescer() throws Exception {
+        String[] permissions = { "read" };
+        when(writeCoalescer.submit("app01", "ROLE_1", permissions)).thenReturn(CompletableFuture.completedFuture(true));
+
+        assertEquals(true, asyncClient.updateRolePermissionMappingsAsync("app01", "ROLE_1", permissions)
+                .get(10, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,276 @@
+package io.nuvalence.user.management.api.service.service;
+
+import io.nuvalence.user.management.api.service.config.exception.ResourceNotFoundException;
+import io.nuvalence.user.management.api.service.entity.BackgroundJobEntity;
+import io.nuvalence.user.management.api.service.enums.BackgroundJobStatus;
+import io.nuvalence.user.management.api.service.generated.models.BackgroundJobDTO;
+import io.nuvalence.user.management.api.service.interfaces.BackgroundJobHandler;
+import io.nuvalence.user.management.api.service.repository.BackgroundJobRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntUnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class BackgroundJobServiceTest {
+
+    @Mock
+    private BackgroundJobRepository backgroundJobRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    private final List<UUID> completed = new ArrayList<>();
+
+    private IntUnaryOperator chunk;
+
+    private BackgroundJobService backgroundJobService;
+
+    private BackgroundJobEntity savedJob;
+
+    @BeforeEach
+    public void setUp() {
+        backgroundJobService = new BackgroundJobService(backgroundJobRepository, List.of(new TestJob()),
+                transactionManager, executor, 2, Duration.ofMinutes(5));
+    }
+
+    @Test
+    public void submit_processesChunksUntilNoneAreLeft_thenCompletes() throws Exception {
+        List<Integer> remaining = new ArrayList<>(List.of(2, 2, 1, 0));
+        chunk = chunkSize -> remaining.remove(0);
+        UUID targetId = UUID.randomUUID();
+        stubJobRepository();
+
+        BackgroundJobDTO job = backgroundJobService.submit("test", targetId, 5L);
+
+        assertEquals(BackgroundJobDTO.StatusEnum.PENDING, job.getStatus());
+        assertEquals(5L, job.getTotal());
+        awaitJobs();
+        assertTrue(remaining.isEmpty());
+        assertEquals(List.of(targetId), completed);
+        assertEquals(BackgroundJobStatus.COMPLETED, savedJob.getStatus());
+        assertEquals(5, savedJob.getProcessed());
+    }
+
+    @Test
+    public void submit_recordsTheFailure_ifAChunkFails() throws Exception {
+        chunk = chunkSize -> {
+            if (savedJob.getProcessed() > 0) {
+                throw new IllegalStateException("Chunk failed");
+            }
+            return chunkSize;
+        };
+        stubJobRepository();
+
+        backgroundJobService.submit("test", UUID.randomUUID(), null);
+
+        awaitJobs();
+        assertEquals(List.of(), completed);
+        assertEquals(BackgroundJobStatus.FAILED, savedJob.getStatus());
+        assertEquals(2, savedJob.getProcessed());
+        assertEquals("Chunk failed", savedJob.getError());
+    }
+
+    @Test
+    public void submit_stops_ifAnotherInstanceClaimedTheJob() throws Exception {
+        chunk = chunkSize -> {
+            savedJob.setOwner("other-instance");
+            return chunkSize;
+        };
+        stubJobRepository();
+
+        backgroundJobService.submit("test", UUID.randomUUID(), null);
+
+        awaitJobs();
+        assertEquals(List.of(), completed);
+        assertEquals(BackgroundJobStatus.RUNNING, savedJob.getStatus());
+        assertEquals(0, savedJob.getProcessed());
+    }
+
+    @Test
+    public void submit_returnsTheActiveJob_ifTheTargetAlreadyHasOne() throws Exception {
+        BackgroundJobEntity activeJob = createJob(BackgroundJobStatus.RUNNING, 4);
+        when(backgroundJobRepository.findAllByTypeAndTargetIdAndStatusIn(
+                "test", activeJob.getTargetId(), List.of(BackgroundJobStatus.PENDING, BackgroundJobStatus.RUNNING)))
+                .thenReturn(List.of(activeJob));
+
+        BackgroundJobDTO job = backgroundJobService.submit("test", activeJob.getTargetId(), 5L);
+
+        awaitJobs();
+        assertEquals(activeJob.getId(), job.getId());
+        assertEquals(BackgroundJobDTO.StatusEnum.RUNNING, job.getStatus());
+        verify(backgroundJobRepository, never()).saveAndFlush(any());
+        assertEquals(List.of(), completed);
+    }
+
+    @Test
+    public void submit_returnsTheActiveJob_ifAnotherSubmitRecordedItFirst() throws Exception {
+        BackgroundJobEntity activeJob = createJob(BackgroundJobStatus.PENDING, 0);
+        when(backgroundJobRepository.findAllByTypeAndTargetIdAndStatusIn(eq("test"), eq(activeJob.getTargetId()),
+                anyList())).thenReturn(List.of(), List.of(activeJob));
+        when(backgroundJobRepository.saveAndFlush(any()))
+                .thenThrow(new DataIntegrityViolationException("UX_background_job_active_target"));
+
+        BackgroundJobDTO job = backgroundJobService.submit("test", activeJob.getTargetId(), 5L);
+
+        awaitJobs();
+        assertEquals(activeJob.getId(), job.getId());
+        assertEquals(List.of(), completed);
+    }
+
+    @Test
+    public void submit_fails_ifTheTypeIsUnknown() {
+        Exception exception = assertThrows(IllegalArgumentException.class, () ->
+                backgroundJobService.submit("unknown", UUID.randomUUID(), null));
+        assertEquals("Unknown job type: unknown", exception.getMessage());
+    }
+
+    @Test
+    public void resumeInterruptedJobs_carriesOnFromWhereTheJobsStopped() throws Exception {
+        savedJob = createJob(BackgroundJobStatus.RUNNING, 4);
+        List<Integer> remaining = new ArrayList<>(List.of(1, 0));
+        chunk = chunkSize -> remaining.remove(0);
+        stubClaimableJob(1);
+
+        backgroundJobService.resumeInterruptedJobs();
+
+        awaitJobs();
+        assertEquals(List.of(savedJob.getTargetId()), completed);
+        assertEquals(BackgroundJobStatus.COMPLETED, savedJob.getStatus());
+        assertEquals(5, savedJob.getProcessed());
+    }
+
+    @Test
+    public void resumeInterruptedJobs_leavesJobsThatAnotherInstanceClaimedFirst() throws Exception {
+        savedJob = createJob(BackgroundJobStatus.RUNNING, 4);
+        stubClaimableJob(0);
+
+        backgroundJobService.resumeInterruptedJobs();
+
+        awaitJobs();
+        assertEquals(List.of(), completed);
+        assertEquals(BackgroundJobStatus.RUNNING, savedJob.getStatus());
+        verify(backgroundJobRepository, never()).findByIdForUpdate(any());
+    }
+
+    @Test
+    public void resumeInterruptedJobs_failsJobsOfAnUnknownType() throws Exception {
+        savedJob = createJob(BackgroundJobStatus.PENDING, 0);
+        savedJob.setType("unknown");
+        stubClaimableJob(1);
+
+        backgroundJobService.resumeInterruptedJobs();
+
+        awaitJobs();
+        assertEquals(BackgroundJobStatus.FAILED, savedJob.getStatus());
+        assertEquals("Unknown job type: unknown", savedJob.getError());
+    }
+
+    @Test
+    public void getJob_returnsTheJob() {
+        BackgroundJobEntity job = new BackgroundJobEntity();
+        job.setId(UUID.randomUUID());
+        job.setStatus(BackgroundJobStatus.RUNNING);
+        job.setProcessed(10);
+        when(backgroundJobRepository.findById(job.getId())).thenReturn(Optional.of(job));
+
+        ResponseEntity<BackgroundJobDTO> res = backgroundJobService.getJob(job.getId());
+
+        assertEquals(HttpStatus.OK, res.getStatusCode());
+        assertEquals(BackgroundJobDTO.StatusEnum.RUNNING, res.getBody().getStatus());
+        assertEquals(10L, res.getBody().getProcessed());
+    }
+
+    @Test
+    public void getJob_fails_ifJobDoesNotExist() {
+        when(backgroundJobRepository.findById(any())).thenReturn(Optional.empty());
+
+        Exception exception = assertThrows(ResourceNotFoundException.class, () ->
+                backgroundJobService.getJob(UUID.randomUUID()));
+        assertEquals("Job not found!", exception.getMessage());
+    }
+
+    private BackgroundJobEntity createJob(BackgroundJobStatus status, long processed) {
+        BackgroundJobEntity job = new BackgroundJobEntity();
+        job.setId(UUID.randomUUID());
+        job.setType("test");
+        job.setTargetId(UUID.randomUUID());
+        job.setStatus(status);
+        job.setProcessed(processed);
+        job.setTotal(5L);
+        return job;
+    }
+
+    private void stubJobRepository() {
+        when(backgroundJobRepository.saveAndFlush(any())).thenAnswer(invocation -> {
+            savedJob = invocation.getArgument(0);
+            savedJob.setId(UUID.randomUUID());
+            return savedJob;
+        });
+        when(backgroundJobRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(backgroundJobRepository.findByIdForUpdate(any())).thenAnswer(invocation -> Optional.of(savedJob));
+    }
+
+    private void stubClaimableJob(int claimed) {
+        when(backgroundJobRepository.findAllClaimable(anyList(), any())).thenReturn(List.of(savedJob));
+        when(backgroundJobRepository.claim(eq(savedJob.getId()), any(), any(), any(), anyList()))
+                .thenAnswer(invocation -> {
+                    if (claimed == 1) {
+                        savedJob.setOwner(invocation.getArgument(1));
+                    }
+                    return claimed;
+                });
+        lenient().when(backgroundJobRepository.findByIdForUpdate(savedJob.getId()))
+                .thenReturn(Optional.of(savedJob));
+    }
+
+    private void awaitJobs() throws InterruptedException {
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    private class TestJob implements BackgroundJobHandler {
+        @Override
+        public String getType() {
+            return "test";
+        }
+
+        @Override
+        public int processChunk(UUID targetId, int chunkSize) {
+            return chunk.applyAsInt(chunkSize);
+        }
+
+        @Override
+        public void complete(UUID targetId) {
+            completed.add(targetId);
+        }
+    }
+}
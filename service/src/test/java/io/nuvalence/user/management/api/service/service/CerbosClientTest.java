@@ -1,7 +1,14 @@
 package io.nuvalence.user.management.api.service.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.nuvalence.user.management.api.service.cerbos.CerbosClient;
+import io.nuvalence.user.management.api.service.cerbos.CerbosDecisionCache;
+import io.nuvalence.user.management.api.service.cerbos.CerbosFallback;
+import io.nuvalence.user.management.api.service.cerbos.CerbosPolicyMirror;
+import io.nuvalence.user.management.api.service.cerbos.CerbosPolicyWriteCoalescer;
+import io.nuvalence.user.management.api.service.cerbos.CerbosResilience;
 import io.nuvalence.user.management.api.service.cerbos.models.AddOrUpdatePolicyResponse;
+import io.nuvalence.user.management.api.service.cerbos.models.CheckResourceSetRequest;
 import io.nuvalence.user.management.api.service.cerbos.models.CheckResourceSetResponse;
 import io.nuvalence.user.management.api.service.cerbos.models.CheckResourceSetResponseActionEffectMap;
 import io.nuvalence.user.management.api.service.cerbos.models.Effect;
@@ -12,24 +19,34 @@ import io.nuvalence.user.management.api.service.cerbos.models.ResourceRule;
 import io.nuvalence.user.management.api.service.entity.RoleEntity;
 import io.nuvalence.user.management.api.service.entity.UserEntity;
 import io.nuvalence.user.management.api.service.entity.UserRoleEntity;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -37,6 +54,26 @@ public class CerbosClientTest {
     @Mock
     private RestTemplate restTemplate;
 
+    @Spy
+    private CerbosDecisionCache decisionCache = new CerbosDecisionCache(new SimpleMeterRegistry(), 100,
+            Duration.ofMinutes(1), Duration.ofMinutes(15));
+
+    @Spy
+    private CerbosPolicyMirror policyMirror = new CerbosPolicyMirror(new SimpleMeterRegistry(),
+            Duration.ofMinutes(5));
+
+    @Spy
+    private CerbosResilience resilience = new CerbosResilience(new SimpleMeterRegistry(), 50, 50,
+            Duration.ofSeconds(1), 20, 10, Duration.ofSeconds(30), 3, 50, Duration.ZERO);
+
+    @Mock
+    private CerbosFallback fallback;
+
+    @Mock
+    private ObjectProvider<CerbosPolicyWriteCoalescer> writeCoalescer;
+
+    private CerbosPolicyWriteCoalescer coalescer;
+
     @InjectMocks
     private CerbosClient client;
 
@@ -45,6 +82,13 @@ public class CerbosClientTest {
         ReflectionTestUtils.setField(client, "username", "user");
         ReflectionTestUtils.setField(client, "password", "password");
         client.setHttpClient(restTemplate);
+        coalescer = new CerbosPolicyWriteCoalescer(client, new SimpleMeterRegistry(), Duration.ZERO, 1);
+        lenient().when(writeCoalescer.getObject()).thenReturn(coalescer);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        coalescer.shutdown();
     }
 
     // check
@@ -84,6 +128,122 @@ public class CerbosClientTest {
         assertEquals(allowed, false);
     }
 
+    @Test
+    public void check_servesRepeatedChecksFromCache() {
+        when(restTemplate.postForEntity(
+                ArgumentMatchers.anyString(),
+                ArgumentMatchers.<HttpEntity<?>>any(),
+                eq(CheckResourceSetResponse.class))
+        ).thenReturn(getCheckResourceResponse(Effect.EFFECT_ALLOW));
+
+        assertEquals(client.check("default_resource", getUserEntity(), "allow"), true);
+        assertEquals(client.check("Default Resource", getUserEntity(), "ALLOW"), true);
+
+        verify(restTemplate, times(1)).postForEntity(
+                ArgumentMatchers.anyString(),
+                ArgumentMatchers.<HttpEntity<?>>any(),
+                eq(CheckResourceSetResponse.class));
+    }
+
+    @Test
+    public void check_doesNotCacheFailedChecks() {
+        when(restTemplate.postForEntity(
+                ArgumentMatchers.anyString(),
+                ArgumentMatchers.<HttpEntity<?>>any(),
+                eq(CheckResourceSetResponse.class))
+        ).thenThrow(new RuntimeException("Cerbos unavailable"))
+                .thenReturn(getCheckResourceResponse(Effect.EFFECT_ALLOW));
+
+        assertEquals(client.check("default_resource", getUserEntity(), "allow"), false);
+        assertEquals(client.check("default_resource", getUserEntity(), "allow"), true);
+    }
+
+    @Test
+    public void updateRolePermissionMappings_invalidatesCachedDecisions() {
+        when(restTemplate.postForEntity(
+                ArgumentMatchers.anyString(),
+                ArgumentMatchers.<HttpEntity<?>>any(),
+                eq(CheckResourceSetResponse.class))
+        ).thenReturn(getCheckResourceResponse(Effect.EFFECT_DENY));
+        when(restTemplate.exchange(ArgumentMatchers.anyString(), eq(HttpMethod.GET),
+                ArgumentMatchers.<HttpEntity<Void>>any(),
+                eq(GetPolicyResponse.class))
+        ).thenReturn(getPolicyResponse());
+        when(restTemplate.postForEntity(
+                ArgumentMatchers.anyString(),
+                ArgumentMatchers.<HttpEntity<?>>any(),
+                eq(AddOrUpdatePolicyResponse.class))
+        ).thenReturn(ResponseEntity.ok(new AddOrUpdatePolicyResponse()));
+
+        client.check("default_resource", getUserEntity(), "allow");
+        client.updateRolePermissionMappings("default_resource", "allow", new String[] { "allow" });
+        client.check("default_resource", getUserEntity(), "allow");
+
+        verify(restTemplate, times(2)).postForEntity(
+                ArgumentMatchers.anyString(),
+                ArgumentMatchers.<HttpEntity<?>>any(),
+                eq(CheckResourceSetResponse.class));
+    }
+
+    @Test
+    public void check_usesFallbackIfCerbosFails() {
+        when(restTemplate.postForEntity(
+                ArgumentMatchers.anyString(),
+                ArgumentMatchers.<HttpEntity<?>>any(),
+                eq(CheckResourceSetResponse.class))
+        ).thenThrow(new RuntimeException("Cerbos unavailable"));
+        when(fallback.decide("default_resource", List.of("allow"), "allow")).thenReturn(true);
+
+        assertEquals(true, client.check("default_resource", getUserEntity(), "allow"));
+    }
+
+    // checkResourceSet
+    @Test
+    public void checkResourceSet_sendsOneRequestForAllInstancesAndActions() {
+        CheckResourceSetResponse response = CheckResourceSetResponse.builder()
+                .resourceInstances(Map.of(
+                        "alice", CheckResourceSetResponseActionEffectMap.builder()
+                                .actions(Map.of("read", Effect.EFFECT_ALLOW, "write", Effect.EFFECT_DENY)).build(),
+                        "bob", CheckResourceSetResponseActionEffectMap.builder()
+                                .actions(Map.of("read", Effect.EFFECT_ALLOW, "write", Effect.EFFECT_ALLOW)).build()))
+                .build();
+        when(restTemplate.postForEntity(
+                ArgumentMatchers.anyString(),
+                ArgumentMatchers.<HttpEntity<CheckResourceSetRequest>>argThat(request ->
+                        request.getBody().getResource().getInstances().keySet().equals(Set.of("alice", "bob"))
+                                && Set.of(request.getBody().getActions()).equals(Set.of("read", "write"))),
+                eq(CheckResourceSetResponse.class))
+        ).thenReturn(ResponseEntity.ok(response));
+
+        Map<String, Map<String, Boolean>> decisions = client.checkResourceSet("default_resource",
+                List.of("ROLE_1"), Set.of("alice", "bob"), Set.of("READ", "write"));
+
+        assertEquals(Map.of("read", true, "write", false), decisions.get("alice"));
+        assertEquals(Map.of("read", true, "write", true), decisions.get("bob"));
+        // the read decision is the same for every instance, so it is now cached
+        assertEquals(true, client.check("default_resource", getUserEntity("ROLE_1"), "read"));
+        verify(restTemplate, times(1)).postForEntity(
+                ArgumentMatchers.anyString(),
+                ArgumentMatchers.<HttpEntity<?>>any(),
+                eq(CheckResourceSetResponse.class));
+    }
+
+    @Test
+    public void checkResourceSet_usesFallbackIfCerbosFails() {
+        when(restTemplate.postForEntity(
+                ArgumentMatchers.anyString(),
+                ArgumentMatchers.<HttpEntity<?>>any(),
+                eq(CheckResourceSetResponse.class))
+        ).thenThrow(new RuntimeException("Cerbos unavailable"));
+        when(fallback.decide("default_resource", List.of("ROLE_1"), "read")).thenReturn(true);
+        when(fallback.decide("default_resource", List.of("ROLE_1"), "write")).thenReturn(false);
+
+        Map<String, Map<String, Boolean>> decisions = client.checkResourceSet("default_resource",
+                List.of("ROLE_1"), Set.of("alice"), Set.of("read", "write"));
+
+        assertEquals(Map.of("alice", Map.of("read", true, "write", false)), decisions);
+    }
+
     // updateRolePermissionMappings
     @Test
     public void updateRolePermissionMappings_returnsTrueIfValid() {
@@ -151,11 +311,91 @@ public class CerbosClientTest {
         assertEquals(rolePermissionMappings.isEmpty(), true);
     }
 
+    @Test
+    public void getRolePermissionMappings_servesRepeatedReadsFromMirror() {
+        when(restTemplate.exchange(ArgumentMatchers.anyString(), eq(HttpMethod.GET),
+                ArgumentMatchers.<HttpEntity<Void>>any(),
+                eq(GetPolicyResponse.class))
+        ).thenReturn(getPolicyResponse());
+
+        client.getRolePermissionMappings("default_resource");
+        Map<String, String[]> rolePermissionMappings = client.getRolePermissionMappings("default_resource");
+
+        assertArrayEquals(new String[] { "actiontotest" }, rolePermissionMappings.get("ROLE_TO_TEST"));
+        verify(restTemplate, times(1)).exchange(ArgumentMatchers.anyString(), eq(HttpMethod.GET),
+                ArgumentMatchers.<HttpEntity<Void>>any(), eq(GetPolicyResponse.class));
+    }
+
+    @Test
+    public void getRolePermissionMappings_reflectsOwnWritesWithoutRefetching() {
+        when(restTemplate.exchange(ArgumentMatchers.anyString(), eq(HttpMethod.GET),
+                ArgumentMatchers.<HttpEntity<Void>>any(),
+                eq(GetPolicyResponse.class))
+        ).thenReturn(getPolicyResponse());
+        when(restTemplate.postForEntity(
+                ArgumentMatchers.anyString(),
+                ArgumentMatchers.<HttpEntity<?>>any(),
+                eq(AddOrUpdatePolicyResponse.class))
+        ).thenReturn(ResponseEntity.ok(new AddOrUpdatePolicyResponse()));
+
+        client.updateRolePermissionMappings("default_resource", "ROLE_NEW", new String[] { "Read" });
+        Map<String, String[]> rolePermissionMappings = client.getRolePermissionMappings("default_resource");
+
+        assertArrayEquals(new String[] { "actiontotest" }, rolePermissionMappings.get("ROLE_TO_TEST"));
+        assertArrayEquals(new String[] { "read" }, rolePermissionMappings.get("ROLE_NEW"));
+        verify(restTemplate, times(1)).exchange(ArgumentMatchers.anyString(), eq(HttpMethod.GET),
+                ArgumentMatchers.<HttpEntity<Void>>any(), eq(GetPolicyResponse.class));
+    }
+
+    // refreshPolicy
+    @Test
+    public void refreshPolicy_keepsMirroredPolicyIfCerbosFails() {
+        when(restTemplate.exchange(ArgumentMatchers.anyString(), eq(HttpMethod.GET),
+                ArgumentMatchers.<HttpEntity<Void>>any(),
+                eq(GetPolicyResponse.class))
+        ).thenReturn(getPolicyResponse()).thenThrow(new RuntimeException("Cerbos unavailable"));
+
+        assertEquals(true, client.refreshPolicy("default_resource"));
+        assertEquals(false, client.refreshPolicy("default_resource"));
+
+        assertEquals(true, client.getRolePermissionMappings("default_resource").containsKey("ROLE_TO_TEST"));
+    }
+
+    @Test
+    public void refreshPolicy_keepsAPolicyWrittenWhileItWasRead() {
+        when(restTemplate.postForEntity(
+                ArgumentMatchers.anyString(),
+                ArgumentMatchers.<HttpEntity<?>>any(),
+                eq(AddOrUpdatePolicyResponse.class))
+        ).thenReturn(ResponseEntity.ok(new AddOrUpdatePolicyResponse()));
+        // the refresh reads the old policy, and the role is added before the read returns
+        when(restTemplate.exchange(ArgumentMatchers.anyString(), eq(HttpMethod.GET),
+                ArgumentMatchers.<HttpEntity<Void>>any(),
+                eq(GetPolicyResponse.class))
+        ).thenAnswer(invocation -> {
+            when(restTemplate.exchange(ArgumentMatchers.anyString(), eq(HttpMethod.GET),
+                    ArgumentMatchers.<HttpEntity<Void>>any(),
+                    eq(GetPolicyResponse.class))
+            ).thenReturn(getPolicyResponse());
+            client.updateRolePermissionMappings("default_resource", "ROLE_NEW", new String[] { "Read" });
+            return getPolicyResponse();
+        });
+
+        assertEquals(true, client.refreshPolicy("default_resource"));
+
+        assertArrayEquals(new String[] { "read" },
+                client.getRolePermissionMappings("default_resource").get("ROLE_NEW"));
+    }
+
     private UserEntity getUserEntity() {
+        return getUserEntity("allow");
+    }
+
+    private UserEntity getUserEntity(String roleName) {
         var userEntity = new UserEntity();
         UserRoleEntity userRole = new UserRoleEntity();
         RoleEntity role = new RoleEntity();
-        role.setRoleName("allow");
+        role.setRoleName(roleName);
         userRole.setRole(role);
         userEntity.setDisplayName("allow");
         userEntity.setUserRoleEntities(Arrays.asList(userRole));
@@ -0,0 +1,43 @@
+package io.nuvalence.user.management.api.service.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.nuvalence.user.management.api.service.cerbos.CerbosDecisionCache;
+import io.nuvalence.user.management.api.service.cerbos.CerbosDecisionCache.DecisionKey;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class CerbosDecisionCacheTest {
+
+    @Test
+    public void key_isIndependentOfRoleOrderAndActionCase() {
+        DecisionKey first = CerbosDecisionCache.key("app01", List.of("ROLE_2", "ROLE_1"), "Read", "write");
+        DecisionKey second = CerbosDecisionCache.key("app01", List.of("ROLE_1", "ROLE_2"), "WRITE", "read");
+
+        assertEquals(first, second);
+    }
+
+    @Test
+    public void invalidateResource_onlyDropsDecisionsForThatResource() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        CerbosDecisionCache cache = new CerbosDecisionCache(meterRegistry, 100, Duration.ofMinutes(1),
+                Duration.ofMinutes(15));
+        DecisionKey app01 = CerbosDecisionCache.key("app01", List.of("ROLE_1"), "read");
+        DecisionKey app02 = CerbosDecisionCache.key("app02", List.of("ROLE_1"), "read");
+        cache.put(app01, true);
+        cache.put(app02, false);
+
+        cache.invalidateResource("app01");
+
+        assertEquals(Optional.empty(), cache.get(app01));
+        assertEquals(Optional.of(false), cache.get(app02));
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "cerbos.decisions")
+                .tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "cerbos.decisions")
+                .tag("result", "miss").functionCounter().count());
+    }
+}
@@ -0,0 +1,71 @@
+package io.nuvalence.user.management.api.service.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.nuvalence.user.management.api.service.cerbos.CerbosDecisionCache;
+import io.nuvalence.user.management.api.service.cerbos.CerbosFallback;
+import io.nuvalence.user.management.api.service.cerbos.CerbosPolicyMirror;
+import io.nuvalence.user.management.api.service.cerbos.models.Effect;
+import io.nuvalence.user.management.api.service.cerbos.models.Policy;
+import io.nuvalence.user.management.api.service.cerbos.models.ResourcePolicy;
+import io.nuvalence.user.management.api.service.cerbos.models.ResourceRule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CerbosFallbackTest {
+    private SimpleMeterRegistry meterRegistry;
+    private CerbosDecisionCache decisionCache;
+    private CerbosPolicyMirror policyMirror;
+
+    @BeforeEach
+    void initTests() {
+        meterRegistry = new SimpleMeterRegistry();
+        decisionCache = new CerbosDecisionCache(meterRegistry, 100, Duration.ofMinutes(1), Duration.ofMinutes(15));
+        policyMirror = new CerbosPolicyMirror(meterRegistry, Duration.ofMinutes(5));
+    }
+
+    @Test
+    public void decide_deniesInDenyMode() {
+        CerbosFallback fallback = new CerbosFallback(decisionCache, policyMirror, meterRegistry, "deny",
+                Duration.ofMinutes(15));
+        decisionCache.put(CerbosDecisionCache.key("app01", List.of("ROLE_1"), "read"), true);
+
+        assertEquals(false, fallback.decide("app01", List.of("ROLE_1"), "read"));
+        assertTrue(fallback.getPolicy("app01").isEmpty());
+        assertEquals(1.0, meterRegistry.get("cerbos.fallbacks").tag("source", "deny").counter().count());
+    }
+
+    @Test
+    public void decide_servesLastKnownDecisionThenMirroredPolicyInStaleMode() {
+        CerbosFallback fallback = new CerbosFallback(decisionCache, policyMirror, meterRegistry, "STALE",
+                Duration.ofMinutes(15));
+        decisionCache.put(CerbosDecisionCache.key("app01", List.of("ROLE_1"), "read"), true);
+        policyMirror.put("app02", Optional.of(Policy.builder()
+                .resourcePolicy(ResourcePolicy.builder().resource("app02").rules(new ResourceRule[] {
+                    ResourceRule.builder().roles(new String[] { "ROLE_1" }).actions(new String[] { "write" })
+                            .effect(Effect.EFFECT_ALLOW).build()
+                }).build())
+                .build()));
+
+        assertEquals(true, fallback.decide("app01", List.of("ROLE_1"), "read"));
+        assertEquals(true, fallback.decide("app02", List.of("ROLE_1"), "Write"));
+        assertEquals(false, fallback.decide("app03", List.of("ROLE_1"), "read"));
+        assertTrue(fallback.getPolicy("app02").isPresent());
+        assertEquals(1.0, meterRegistry.get("cerbos.fallbacks").tag("source", "decision").counter().count());
+        assertEquals(1.0, meterRegistry.get("cerbos.fallbacks").tag("source", "policy").counter().count());
+        assertEquals(1.0, meterRegistry.get("cerbos.fallbacks").tag("source", "deny").counter().count());
+    }
+
+    @Test
+    public void constructor_rejectsUnknownMode() {
+        assertThrows(IllegalArgumentException.class, () -> new CerbosFallback(decisionCache, policyMirror,
+                meterRegistry, "allow", Duration.ofMinutes(15)));
+    }
+}
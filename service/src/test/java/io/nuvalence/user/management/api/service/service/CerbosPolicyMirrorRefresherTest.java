@@ -0,0 +1,46 @@
+package io.nuvalence.user.management.api.service.service;
+
+import io.nuvalence.user.management.api.service.cerbos.CerbosClient;
+import io.nuvalence.user.management.api.service.cerbos.CerbosPolicyMirrorRefresher;
+import io.nuvalence.user.management.api.service.entity.ApplicationEntity;
+import io.nuvalence.user.management.api.service.repository.ApplicationRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class CerbosPolicyMirrorRefresherTest {
+    @Mock
+    private CerbosClient client;
+
+    @Mock
+    private ApplicationRepository applicationRepository;
+
+    @InjectMocks
+    private CerbosPolicyMirrorRefresher refresher;
+
+    @Test
+    public void refreshPolicies_refreshesEveryApplicationEvenIfOneFails() {
+        when(applicationRepository.findAll()).thenReturn(List.of(getApplication("app01"), getApplication("app02")));
+        when(client.refreshPolicy("app01")).thenReturn(false);
+        when(client.refreshPolicy("app02")).thenReturn(true);
+
+        refresher.refreshPolicies();
+
+        verify(client).refreshPolicy("app01");
+        verify(client).refreshPolicy("app02");
+    }
+
+    private ApplicationEntity getApplication(String name) {
+        ApplicationEntity application = new ApplicationEntity();
+        application.setName(name);
+        return application;
+    }
+}
@@ -0,0 +1,81 @@
+package io.nuvalence.user.management.api.service.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.nuvalence.user.management.api.service.cerbos.CerbosPolicyMirror;
+import io.nuvalence.user.management.api.service.cerbos.models.Policy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class CerbosPolicyMirrorTest {
+    private final Instant start = Instant.parse("2022-01-01T00:00:00Z");
+    private SimpleMeterRegistry meterRegistry;
+    private Clock clock;
+    private CerbosPolicyMirror mirror;
+
+    @BeforeEach
+    void initTests() {
+        meterRegistry = new SimpleMeterRegistry();
+        clock = mock(Clock.class);
+        mirror = new CerbosPolicyMirror(meterRegistry, Duration.ofMinutes(5), clock);
+    }
+
+    @Test
+    public void get_servesPoliciesUntilTheyAreOlderThanMaxAge() {
+        Policy policy = Policy.builder().apiVersion("api.cerbos.dev/v1").build();
+        when(clock.instant()).thenReturn(start);
+        mirror.put("app01", Optional.of(policy));
+        mirror.put("app02", Optional.empty());
+
+        when(clock.instant()).thenReturn(start.plus(Duration.ofMinutes(5)));
+        assertEquals(Optional.of(policy), mirror.get("app01").flatMap(CerbosPolicyMirror.MirroredPolicy::getPolicy));
+        assertTrue(mirror.get("app02").isPresent());
+        assertTrue(mirror.get("app02").get().getPolicy().isEmpty());
+
+        when(clock.instant()).thenReturn(start.plus(Duration.ofMinutes(6)));
+        assertTrue(mirror.get("app01").isEmpty());
+    }
+
+    @Test
+    public void putIfUnchanged_keepsAPolicyWrittenSinceTheReadStarted() {
+        Policy read = Policy.builder().apiVersion("read").build();
+        Policy written = Policy.builder().apiVersion("written").build();
+        when(clock.instant()).thenReturn(start);
+        long version = mirror.getVersion("app01");
+        mirror.put("app01", Optional.of(written));
+
+        assertEquals(Optional.of(written), mirror.putIfUnchanged("app01", version, Optional.of(read)));
+        assertEquals(Optional.of(written), mirror.get("app01").flatMap(CerbosPolicyMirror.MirroredPolicy::getPolicy));
+
+        version = mirror.getVersion("app01");
+        assertEquals(Optional.of(read), mirror.putIfUnchanged("app01", version, Optional.of(read)));
+        assertEquals(Optional.of(read), mirror.get("app01").flatMap(CerbosPolicyMirror.MirroredPolicy::getPolicy));
+    }
+
+    @Test
+    public void metrics_reportSizeStalenessAndRefreshes() {
+        when(clock.instant()).thenReturn(start);
+        mirror.put("app01", Optional.empty());
+        when(clock.instant()).thenReturn(start.plusSeconds(30));
+        mirror.put("app02", Optional.empty());
+        mirror.recordRefresh(true);
+        mirror.recordRefresh(false);
+        when(clock.instant()).thenReturn(start.plusSeconds(45));
+
+        assertEquals(2.0, meterRegistry.get("cerbos.policy.mirror.size").gauge().value());
+        assertEquals(45.0, meterRegistry.get("cerbos.policy.mirror.staleness").gauge().value());
+        assertEquals(1.0, meterRegistry.get("cerbos.policy.mirror.refreshes").tag("result", "success")
+                .counter().count());
+        assertEquals(1.0, meterRegistry.get("cerbos.policy.mirror.refreshes").tag("result", "failure")
+                .counter().count());
+    }
+}
@@ -0,0 +1,71 @@
+package io.nuvalence.user.management.api.service.service;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.nuvalence.user.management.api.service.cerbos.CerbosRequestMetricsInterceptor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+public class CerbosRequestMetricsInterceptorTest {
+    private SimpleMeterRegistry meterRegistry;
+    private RestTemplate restTemplate;
+    private MockRestServiceServer server;
+
+    @BeforeEach
+    void initTests() {
+        meterRegistry = new SimpleMeterRegistry();
+        restTemplate = new RestTemplate();
+        restTemplate.getInterceptors().add(new CerbosRequestMetricsInterceptor(meterRegistry));
+        server = MockRestServiceServer.bindTo(restTemplate).build();
+    }
+
+    @Test
+    public void intercept_recordsLatencyPerEndpointWithoutQueryString() {
+        server.expect(requestTo("https://cerbos/admin/policy?id=resource.app01.vdefault"))
+                .andExpect(method(HttpMethod.GET))
+                .andRespond(withSuccess("{}", MediaType.APPLICATION_JSON));
+        server.expect(requestTo("https://cerbos/admin/policy?id=resource.app02.vdefault"))
+                .andExpect(method(HttpMethod.GET))
+                .andRespond(withSuccess("{}", MediaType.APPLICATION_JSON));
+
+        restTemplate.getForEntity("https://cerbos/admin/policy?id=resource.app01.vdefault", String.class);
+        restTemplate.getForEntity("https://cerbos/admin/policy?id=resource.app02.vdefault", String.class);
+
+        Timer timer = meterRegistry.get("cerbos.client.requests")
+                .tag("endpoint", "/admin/policy")
+                .tag("method", "GET")
+                .tag("status", "200")
+                .timer();
+        assertEquals(2, timer.count());
+        assertEquals(1, meterRegistry.find("cerbos.client.requests").timers().size());
+    }
+
+    @Test
+    public void intercept_recordsFailedRequests() {
+        server.expect(requestTo("https://cerbos/api/check"))
+                .andRespond(withStatus(HttpStatus.SERVICE_UNAVAILABLE));
+
+        assertThrows(HttpServerErrorException.class, () ->
+                restTemplate.postForEntity("https://cerbos/api/check", "{}", String.class));
+
+        assertEquals(1, meterRegistry.get("cerbos.client.requests")
+                .tag("endpoint", "/api/check")
+                .tag("method", "POST")
+                .tag("status", "503")
+                .timer()
+                .count());
+    }
+}
@@ -0,0 +1,85 @@
+package io.nuvalence.user.management.api.service.service;
+
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.nuvalence.user.management.api.service.cerbos.CerbosHealthIndicator;
+import io.nuvalence.user.management.api.service.cerbos.CerbosResilience;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CerbosResilienceTest {
+    private SimpleMeterRegistry meterRegistry;
+    private CerbosResilience resilience;
+    private CerbosHealthIndicator healthIndicator;
+
+    @BeforeEach
+    void initTests() {
+        meterRegistry = new SimpleMeterRegistry();
+        resilience = new CerbosResilience(meterRegistry, 50, 100, Duration.ofSeconds(1), 4, 4,
+                Duration.ofMinutes(1), 1, 1, Duration.ZERO);
+        healthIndicator = new CerbosHealthIndicator(resilience);
+    }
+
+    @Test
+    public void execute_opensCircuitAfterFailuresAndRejectsCalls() {
+        assertEquals(Status.UP, healthIndicator.health().getStatus());
+
+        for (int i = 0; i < 4; i++) {
+            assertThrows(ResourceAccessException.class, () -> resilience.execute(() -> {
+                throw new ResourceAccessException("timed out");
+            }));
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, resilience.getCircuitBreaker().getState());
+        assertThrows(CallNotPermittedException.class, () -> resilience.execute(() -> "not called"));
+        assertEquals(Status.DOWN, healthIndicator.health().getStatus());
+        assertEquals(1.0, meterRegistry.get("resilience4j.circuitbreaker.not.permitted.calls")
+                .tag("name", "cerbos").counter().count());
+    }
+
+    @Test
+    public void execute_doesNotCountClientErrorsAsFailures() {
+        for (int i = 0; i < 4; i++) {
+            assertThrows(HttpClientErrorException.class, () -> resilience.execute(() -> {
+                throw new HttpClientErrorException(HttpStatus.NOT_FOUND);
+            }));
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, resilience.getCircuitBreaker().getState());
+    }
+
+    @Test
+    public void execute_rejectsCallsOverConcurrencyLimit() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        final CompletableFuture<String> inFlight = CompletableFuture.supplyAsync(() -> resilience.execute(() -> {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "done";
+        }));
+        started.await(5, TimeUnit.SECONDS);
+
+        assertThrows(BulkheadFullException.class, () -> resilience.execute(() -> "rejected"));
+
+        release.countDown();
+        assertEquals("done", inFlight.get(5, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,116 @@
+package io.nuvalence.user.management.api.service.service;
+
+import io.nuvalence.user.management.api.service.entity.CustomFieldDataTypeEntity;
+import io.nuvalence.user.management.api.service.entity.CustomFieldEntity;
+import io.nuvalence.user.management.api.service.entity.CustomFieldOptionEntity;
+import io.nuvalence.user.management.api.service.entity.CustomFieldTypeEntity;
+import io.nuvalence.user.management.api.service.generated.models.CustomFieldDTO;
+import io.nuvalence.user.management.api.service.generated.models.CustomFieldOptionDTO;
+import io.nuvalence.user.management.api.service.repository.CustomFieldRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class CustomFieldCatalogTest {
+
+    @Mock
+    CustomFieldRepository customFieldRepository;
+
+    @InjectMocks
+    CustomFieldCatalog customFieldCatalog;
+
+    @Test
+    public void getSnapshot_loadsOnce_withTheOptionsMapped() {
+        CustomFieldEntity shirtSize = createCustomField("Shirt Size", "small", "large");
+        CustomFieldEntity nickname = createCustomField("Nickname");
+        when(customFieldRepository.findAllWithOptions()).thenReturn(List.of(shirtSize, nickname));
+
+        CustomFieldCatalog.Snapshot snapshot = customFieldCatalog.getSnapshot();
+
+        assertSame(snapshot, customFieldCatalog.getSnapshot());
+        verify(customFieldRepository, times(1)).findAllWithOptions();
+        assertEquals(List.of("Nickname", "Shirt Size"), snapshot.getCustomFields().stream()
+                .map(CustomFieldDTO::getDisplayText).collect(Collectors.toList()));
+        CustomFieldDTO customField = snapshot.findCustomField(shirtSize.getId()).orElseThrow();
+        assertEquals(List.of("small", "large"), customField.getOptions().stream()
+                .map(CustomFieldOptionDTO::getOptionValue).collect(Collectors.toList()));
+        assertEquals(List.of(), snapshot.findCustomField(nickname.getId()).orElseThrow().getOptions());
+        assertEquals(Optional.empty(), snapshot.findCustomField(UUID.randomUUID()));
+    }
+
+    @Test
+    public void invalidate_reloadsOnTheNextRead_asANewVersion() {
+        CustomFieldEntity shirtSize = createCustomField("Shirt Size", "small", "large");
+        when(customFieldRepository.findAllWithOptions()).thenReturn(List.of(shirtSize));
+        CustomFieldCatalog.Snapshot loaded = customFieldCatalog.getSnapshot();
+
+        customFieldCatalog.refresh();
+        assertSame(loaded, customFieldCatalog.getSnapshot());
+
+        CustomFieldEntity changedShirtSize = createCustomField("Shirt Size", "small", "medium", "large");
+        changedShirtSize.setId(shirtSize.getId());
+        when(customFieldRepository.findAllWithOptions()).thenReturn(List.of(changedShirtSize));
+        customFieldCatalog.invalidate();
+
+        CustomFieldCatalog.Snapshot reloaded = customFieldCatalog.getSnapshot();
+        assertEquals(loaded.getVersion() + 1, reloaded.getVersion());
+        assertEquals(2, loaded.findCustomField(shirtSize.getId()).orElseThrow().getOptions().size());
+        assertEquals(3, reloaded.findCustomField(shirtSize.getId()).orElseThrow().getOptions().size());
+    }
+
+    @Test
+    public void getSnapshot_doesNotKeepASnapshotLoadedWhileACustomFieldChanged() {
+        CustomFieldEntity shirtSize = createCustomField("Shirt Size", "small", "large");
+        when(customFieldRepository.findAllWithOptions())
+                .thenAnswer(invocation -> {
+                    customFieldCatalog.invalidate();
+                    return List.of(shirtSize);
+                })
+                .thenReturn(List.of(shirtSize));
+
+        CustomFieldCatalog.Snapshot loadedDuringChange = customFieldCatalog.getSnapshot();
+        CustomFieldCatalog.Snapshot loadedAfterChange = customFieldCatalog.getSnapshot();
+
+        assertNotSame(loadedDuringChange, loadedAfterChange);
+        assertSame(loadedAfterChange, customFieldCatalog.getSnapshot());
+        verify(customFieldRepository, times(2)).findAllWithOptions();
+    }
+
+    private CustomFieldEntity createCustomField(String displayText, String... optionValues) {
+        CustomFieldTypeEntity type = new CustomFieldTypeEntity();
+        type.setType(optionValues.length == 0 ? "text_field" : "drop_down_list");
+        CustomFieldDataTypeEntity dataType = new CustomFieldDataTypeEntity();
+        dataType.setType("string");
+
+        CustomFieldEntity customField = new CustomFieldEntity();
+        customField.setId(UUID.randomUUID());
+        customField.setName(displayText.toLowerCase().replace(' ', '_'));
+        customField.setDisplayText(displayText);
+        customField.setType(type);
+        customField.setDataType(dataType);
+
+        List<CustomFieldOptionEntity> options = new ArrayList<>();
+        for (String optionValue : optionValues) {
+            options.add(new CustomFieldOptionEntity(UUID.nameUUIDFromBytes((displayText + "/" + optionValue)
+                    .getBytes()), customField, optionValue, optionValue));
+        }
+        customField.setOptions(options);
+        return customField;
+    }
+}
@@ -7,6 +7,7 @@ import io.nuvalence.user.management.api.service.entity.CustomFieldEntity;
 import io.nuvalence.user.management.api.service.entity.CustomFieldOptionEntity;
 import io.nuvalence.user.management.api.service.entity.CustomFieldTypeEntity;
 import io.nuvalence.user.management.api.service.entity.UserCustomFieldEntity;
+import io.nuvalence.user.management.api.service.generated.models.BackgroundJobDTO;
 import io.nuvalence.user.management.api.service.generated.models.CreateCustomFieldDTO;
 import io.nuvalence.user.management.api.service.generated.models.CreateOrUpdateCustomFieldOptionDTO;
 import io.nuvalence.user.management.api.service.generated.models.CustomFieldDTO;
@@ -25,10 +26,11 @@ import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.net.URI;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
@@ -38,6 +40,7 @@ import java.util.UUID;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -60,6 +63,15 @@ public class CustomFieldServiceTest {
     @Mock
     private CustomFieldOptionRepository customFieldOptionRepository;
 
+    @Mock
+    private BackgroundJobService backgroundJobService;
+
+    @Mock
+    private DeleteCustomFieldJob deleteCustomFieldJob;
+
+    @Mock
+    private CustomFieldCatalog customFieldCatalog;
+
     @InjectMocks
     private CustomFieldService customFieldService;
 
@@ -75,8 +87,7 @@ public class CustomFieldServiceTest {
     @Test
     public void getAllCustomFields_succeeds_if_valid() {
         List<CustomFieldEntity> customFields = List.of(getCustomFieldEntity());
-        when(customFieldRepository.findAll(Sort.by(Sort.Direction.ASC, "displayText")))
-                .thenReturn(customFields);
+        createCatalog(customFields);
 
         ResponseEntity<List<CustomFieldDTO>> res = customFieldService.getAllCustomFields();
         assertEquals(res.getStatusCode(), HttpStatus.OK);
@@ -87,8 +98,7 @@ public class CustomFieldServiceTest {
 
     @Test
     public void getAllCustomField_fails_if_empty_list() {
-        when(customFieldRepository.findAll(Sort.by(Sort.Direction.ASC, "displayText")))
-                .thenReturn(Collections.emptyList());
+        createCatalog(Collections.emptyList());
 
         Exception exception = assertThrows(ResourceNotFoundException.class, () ->
                 customFieldService.getAllCustomFields());
@@ -98,9 +108,9 @@ public class CustomFieldServiceTest {
     @Test
     public void getCustomFieldById_succeeds_if_field_exists() {
         CustomFieldEntity customField = getCustomFieldEntity();
-        when(customFieldRepository.findById(any())).thenReturn(Optional.of(customField));
+        createCatalog(List.of(customField));
 
-        ResponseEntity<CustomFieldDTO> res = customFieldService.getCustomFieldById(UUID.randomUUID());
+        ResponseEntity<CustomFieldDTO> res = customFieldService.getCustomFieldById(customField.getId());
 
         assertEquals(res.getStatusCode(), HttpStatus.OK);
         assertEquals(Objects.requireNonNull(res.getBody()).getName(), customField.getName());
@@ -108,7 +118,7 @@ public class CustomFieldServiceTest {
 
     @Test
     public void getCustomFieldById_fails_if_field_does_not_exist() {
-        when(customFieldRepository.findById(any())).thenReturn(Optional.empty());
+        createCatalog(List.of(getCustomFieldEntity()));
 
         Exception exception = assertThrows(ResourceNotFoundException.class, () ->
                 customFieldService.getCustomFieldById(UUID.randomUUID()));
@@ -118,9 +128,10 @@ public class CustomFieldServiceTest {
     @Test
     public void getOptionsForCustomField_succeeds_if_field_is_dropDown() {
         CustomFieldEntity customField = getCustomFieldEntity();
-        when(customFieldRepository.findById(any())).thenReturn(Optional.of(customField));
+        createCatalog(List.of(customField));
 
-        ResponseEntity<List<CustomFieldOptionDTO>> res = customFieldService.getOptionsForCustomField(UUID.randomUUID());
+        ResponseEntity<List<CustomFieldOptionDTO>> res =
+                customFieldService.getOptionsForCustomField(customField.getId());
 
         assertEquals(res.getStatusCode(), HttpStatus.OK);
         assertEquals(Objects.requireNonNull(res.getBody()).size(), customField.getOptions().size());
@@ -129,7 +140,7 @@ public class CustomFieldServiceTest {
 
     @Test
     public void getOptionsForCustomField_fails_if_field_does_not_exist() {
-        when(customFieldRepository.findById(any())).thenReturn(Optional.empty());
+        createCatalog(Collections.emptyList());
 
         Exception exception = assertThrows(ResourceNotFoundException.class, () ->
                 customFieldService.getOptionsForCustomField(UUID.randomUUID()));
@@ -140,10 +151,10 @@ public class CustomFieldServiceTest {
     public void getOptionsForCustomField_fails_if_field_is_not_dropdown() {
         CustomFieldEntity customField = getCustomFieldEntity();
         customField.setType(getTextFieldTypeEntity());
-        when(customFieldRepository.findById(any())).thenReturn(Optional.of(customField));
+        createCatalog(List.of(customField));
 
         Exception exception = assertThrows(BusinessLogicException.class, () ->
-                customFieldService.getOptionsForCustomField(UUID.randomUUID())
+                customFieldService.getOptionsForCustomField(customField.getId())
         );
         assertEquals(exception.getMessage(), "The custom field is not a drop-down type.");
     }
@@ -166,6 +177,7 @@ public class CustomFieldServiceTest {
         verify(customFieldOptionRepository).saveAll(customFieldOptionListCaptor.capture());
         Iterable<CustomFieldOptionEntity> savedCustomFieldOptions = customFieldOptionListCaptor.getValue();
         assertEquals(IterableUtil.sizeOf(savedCustomFieldOptions), customField.getOptions().size());
+        verify(customFieldCatalog).invalidate();
     }
 
     @Test
@@ -294,6 +306,7 @@ public class CustomFieldServiceTest {
         verify(customFieldOptionRepository).saveAll(customFieldOptionListCaptor.capture());
         Iterable<CustomFieldOptionEntity> savedOptions = customFieldOptionListCaptor.getValue();
         assertEquals(IterableUtil.sizeOf(savedOptions), customField.getOptions().size());
+        verify(customFieldCatalog).invalidate();
     }
 
     @Test
@@ -340,37 +353,36 @@ public class CustomFieldServiceTest {
     }
 
     @Test
-    public void deleteCustomField_succeeds_if_field_exists_non_dropdown() {
+    public void deleteCustomField_submitsJob_if_field_exists() {
         CustomFieldEntity customFieldEntity = getCustomFieldEntity();
-        customFieldEntity.setType(getTextFieldTypeEntity());
-        customFieldEntity.setOptions(Collections.emptyList());
-        when(customFieldRepository.findById(any())).thenReturn(Optional.of(customFieldEntity));
-        when(userCustomFieldRepository.findAllByCustomField(any())).thenReturn(List.of(getUserCustomFieldEntity()));
+        UUID id = customFieldEntity.getId();
+        BackgroundJobDTO job = new BackgroundJobDTO().id(UUID.randomUUID());
+        when(customFieldRepository.findById(id)).thenReturn(Optional.of(customFieldEntity));
+        when(userCustomFieldRepository.countByCustomField(id)).thenReturn(3L);
+        when(backgroundJobService.submit(DeleteCustomFieldJob.TYPE, id, 3L)).thenReturn(job);
+        ReflectionTestUtils.setField(customFieldService, "inlineDeleteLimit", 2L);
 
-        ResponseEntity<Void> res = customFieldService.deleteCustomField(customFieldEntity.getId());
+        ResponseEntity<BackgroundJobDTO> res = customFieldService.deleteCustomField(id);
 
-        assertEquals(res.getStatusCode(), HttpStatus.OK);
-        verify(userCustomFieldRepository).deleteAll(any());
-        verify(customFieldOptionRepository).deleteAll(any());
-        verify(customFieldRepository).delete(customFieldCaptor.capture());
-        CustomFieldEntity customField = customFieldCaptor.getValue();
-        assertEquals(customField.getId(), customFieldEntity.getId());
+        assertEquals(HttpStatus.ACCEPTED, res.getStatusCode());
+        assertEquals(URI.create("/api/v2/jobs/" + job.getId()), res.getHeaders().getLocation());
+        assertEquals(job, res.getBody());
+        verify(deleteCustomFieldJob, never()).complete(any());
     }
 
     @Test
-    public void deleteCustomField_succeeds_if_field_exists_dropdown() {
+    public void deleteCustomField_deletesInline_if_field_has_few_values() {
         CustomFieldEntity customFieldEntity = getCustomFieldEntity();
-        when(customFieldRepository.findById(any())).thenReturn(Optional.of(customFieldEntity));
-        when(userCustomFieldRepository.findAllByCustomField(any())).thenReturn(List.of(getUserCustomFieldEntity()));
+        UUID id = customFieldEntity.getId();
+        when(customFieldRepository.findById(id)).thenReturn(Optional.of(customFieldEntity));
+        when(userCustomFieldRepository.countByCustomField(id)).thenReturn(3L);
+        ReflectionTestUtils.setField(customFieldService, "inlineDeleteLimit", 3L);
 
-        ResponseEntity<Void> res = customFieldService.deleteCustomField(customFieldEntity.getId());
+        ResponseEntity<BackgroundJobDTO> res = customFieldService.deleteCustomField(id);
 
-        assertEquals(res.getStatusCode(), HttpStatus.OK);
-        verify(userCustomFieldRepository).deleteAll(any());
-        verify(customFieldOptionRepository).deleteAll(any());
-        verify(customFieldRepository).delete(customFieldCaptor.capture());
-        CustomFieldEntity customField = customFieldCaptor.getValue();
-        assertEquals(customField.getId(), customFieldEntity.getId());
+        assertEquals(HttpStatus.OK, res.getStatusCode());
+        verify(deleteCustomFieldJob).complete(id);
+        verify(backgroundJobService, never()).submit(any(), any(), anyLong());
     }
 
     @Test
@@ -396,6 +408,7 @@ public class CustomFieldServiceTest {
         verify(customFieldOptionRepository).saveAll(customFieldOptionListCaptor.capture());
         Iterable<CustomFieldOptionEntity> savedCustomFieldOptions = customFieldOptionListCaptor.getValue();
         assertEquals(IterableUtil.sizeOf(savedCustomFieldOptions), options.size());
+        verify(customFieldCatalog).invalidate();
     }
 
     @Test
@@ -518,6 +531,10 @@ public class CustomFieldServiceTest {
         return customFieldDataTypeEntity;
     }
 
+    private void createCatalog(List<CustomFieldEntity> customFields) {
+        when(customFieldCatalog.getSnapshot()).thenReturn(CustomFieldCatalog.Snapshot.build(1, customFields));
+    }
+
     private CustomFieldEntity getCustomFieldEntity() {
         UserCustomFieldEntity userCustomFieldEntity = getUserCustomFieldEntity();
         return userCustomFieldEntity.getCustomField();
@@ -0,0 +1,69 @@
+package io.nuvalence.user.management.api.service.service;
+
+import io.nuvalence.user.management.api.service.repository.CustomFieldOptionRepository;
+import io.nuvalence.user.management.api.service.repository.CustomFieldRepository;
+import io.nuvalence.user.management.api.service.repository.UserCustomFieldRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class DeleteCustomFieldJobTest {
+
+    @Mock
+    private UserCustomFieldRepository userCustomFieldRepository;
+
+    @Mock
+    private CustomFieldRepository customFieldRepository;
+
+    @Mock
+    private CustomFieldOptionRepository customFieldOptionRepository;
+
+    @Mock
+    private CustomFieldCatalog customFieldCatalog;
+
+    @InjectMocks
+    private DeleteCustomFieldJob deleteCustomFieldJob;
+
+    @Test
+    public void processChunk_deletesAChunkOfValues() {
+        UUID id = UUID.randomUUID();
+        when(userCustomFieldRepository.deleteChunkByCustomField(id, 2)).thenReturn(2);
+
+        assertEquals(2, deleteCustomFieldJob.processChunk(id, 2));
+    }
+
+    @Test
+    public void complete_deletesTheRemainingValuesTheOptionsAndTheField() {
+        UUID id = UUID.randomUUID();
+        when(customFieldRepository.existsById(id)).thenReturn(true);
+
+        deleteCustomFieldJob.complete(id);
+
+        verify(userCustomFieldRepository).deleteAllByCustomField(id);
+        verify(customFieldOptionRepository).deleteAllByCustomField(id);
+        verify(customFieldRepository).deleteById(id);
+        verify(customFieldCatalog).invalidate();
+    }
+
+    @Test
+    public void complete_succeeds_ifTheFieldIsAlreadyDeleted() {
+        UUID id = UUID.randomUUID();
+        when(customFieldRepository.existsById(id)).thenReturn(false);
+
+        deleteCustomFieldJob.complete(id);
+
+        verify(customFieldRepository, never()).deleteById(any());
+        verify(customFieldCatalog).invalidate();
+    }
+}
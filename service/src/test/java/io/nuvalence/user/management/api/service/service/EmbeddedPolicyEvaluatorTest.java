@@ -0,0 +1,141 @@
+package io.nuvalence.user.management.api.service.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.nuvalence.user.management.api.service.cerbos.CerbosClient;
+import io.nuvalence.user.management.api.service.cerbos.CerbosPolicyMirror;
+import io.nuvalence.user.management.api.service.cerbos.EmbeddedPolicyEvaluator;
+import io.nuvalence.user.management.api.service.cerbos.models.Condition;
+import io.nuvalence.user.management.api.service.cerbos.models.Effect;
+import io.nuvalence.user.management.api.service.cerbos.models.Policy;
+import io.nuvalence.user.management.api.service.cerbos.models.ResourcePolicy;
+import io.nuvalence.user.management.api.service.cerbos.models.ResourceRule;
+import io.nuvalence.user.management.api.service.entity.RoleEntity;
+import io.nuvalence.user.management.api.service.entity.UserEntity;
+import io.nuvalence.user.management.api.service.entity.UserRoleEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class EmbeddedPolicyEvaluatorTest {
+    @Mock
+    private CerbosClient client;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CerbosPolicyMirror policyMirror;
+    private EmbeddedPolicyEvaluator evaluator;
+
+    @BeforeEach
+    void initTests() {
+        meterRegistry = new SimpleMeterRegistry();
+        policyMirror = new CerbosPolicyMirror(meterRegistry, Duration.ofMinutes(5));
+        evaluator = new EmbeddedPolicyEvaluator(client, policyMirror, meterRegistry);
+    }
+
+    @Test
+    public void check_evaluatesRoleActionRulesInProcess() {
+        policyMirror.put("app01", Optional.of(getPolicy(
+                getRule(new String[] { "ROLE_1" }, new String[] { "read", "write" }),
+                getRule(new String[] { "ROLE_ADMIN" }, new String[] { "*" }),
+                getRule(new String[] { "*" }, new String[] { "ping" }))));
+
+        assertEquals(true, evaluator.check("app01", getUserEntity("ROLE_1"), "Read"));
+        assertEquals(false, evaluator.check("app01", getUserEntity("ROLE_1"), "delete"));
+        assertEquals(true, evaluator.check("app01", getUserEntity("ROLE_2", "ROLE_ADMIN"), "delete"));
+        assertEquals(true, evaluator.check("app01", getUserEntity("ROLE_2"), "ping"));
+        assertEquals(false, evaluator.check("app01", getUserEntity("role_1"), "read"));
+
+        verify(client, never()).check(any(), any(), any());
+        assertEquals(5.0, meterRegistry.get("cerbos.evaluations").tag("evaluator", "embedded").counter().count());
+    }
+
+    @Test
+    public void check_deniesEverythingForResourcesWithoutPolicy() {
+        policyMirror.put("app01", Optional.empty());
+
+        assertEquals(false, evaluator.check("app01", getUserEntity("ROLE_1"), "read"));
+
+        verify(client, never()).check(any(), any(), any());
+    }
+
+    @Test
+    public void check_readsPolicyIntoMirrorIfMissing() {
+        when(client.refreshPolicy("app_01")).thenAnswer(invocation -> {
+            policyMirror.put("app_01", Optional.of(getPolicy(
+                    getRule(new String[] { "ROLE_1" }, new String[] { "read" }))));
+            return true;
+        });
+
+        assertEquals(true, evaluator.check("app-01", getUserEntity("ROLE_1"), "read"));
+    }
+
+    @Test
+    public void check_fallsBackToCerbosForConditionsAndDenyRules() {
+        ResourceRule conditional = getRule(new String[] { "ROLE_1" }, new String[] { "read" });
+        conditional.setCondition(new Condition());
+        policyMirror.put("app01", Optional.of(getPolicy(conditional)));
+        ResourceRule deny = getRule(new String[] { "ROLE_1" }, new String[] { "read" });
+        deny.setEffect(Effect.EFFECT_DENY);
+        policyMirror.put("app02", Optional.of(getPolicy(deny)));
+        UserEntity user = getUserEntity("ROLE_1");
+        when(client.check("app01", user, "read")).thenReturn(true);
+        when(client.check("app02", user, "read")).thenReturn(false);
+
+        assertEquals(true, evaluator.check("app01", user, "read"));
+        assertEquals(false, evaluator.check("app02", user, "read"));
+
+        assertEquals(2.0, meterRegistry.get("cerbos.evaluations").tag("evaluator", "remote").counter().count());
+    }
+
+    @Test
+    public void checkResourceSet_appliesDecisionsToEveryInstance() {
+        policyMirror.put("app01", Optional.of(getPolicy(
+                getRule(new String[] { "ROLE_1" }, new String[] { "read" }))));
+
+        Map<String, Map<String, Boolean>> decisions = evaluator.checkResourceSet("app01", List.of("ROLE_1"),
+                Set.of("alice", "bob"), Set.of("READ", "write"));
+
+        assertEquals(Map.of(
+                "alice", Map.of("read", true, "write", false),
+                "bob", Map.of("read", true, "write", false)), decisions);
+    }
+
+    private Policy getPolicy(ResourceRule... rules) {
+        return Policy.builder()
+                .apiVersion("api.cerbos.dev/v1")
+                .resourcePolicy(ResourcePolicy.builder().resource("app01").rules(rules).build())
+                .build();
+    }
+
+    private ResourceRule getRule(String[] roles, String[] actions) {
+        return ResourceRule.builder().roles(roles).actions(actions).effect(Effect.EFFECT_ALLOW).build();
+    }
+
+    private UserEntity getUserEntity(String... roleNames) {
+        UserEntity userEntity = new UserEntity();
+        userEntity.setUserRoleEntities(Arrays.stream(roleNames).map(roleName -> {
+            RoleEntity role = new RoleEntity();
+            role.setRoleName(roleName);
+            UserRoleEntity userRole = new UserRoleEntity();
+            userRole.setRole(role);
+            return userRole;
+        }).collect(Collectors.toList()));
+        return userEntity;
+    }
+}
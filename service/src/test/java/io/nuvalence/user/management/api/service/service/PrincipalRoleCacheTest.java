@@ -0,0 +1,93 @@
+package io.nuvalence.user.management.api.service.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.nuvalence.user.management.api.service.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class PrincipalRoleCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private PrincipalRoleCache principalRoleCache;
+
+    @BeforeEach
+    void initTests() {
+        principalRoleCache = new PrincipalRoleCache(userRepository, new SimpleMeterRegistry(), 100,
+                Duration.ofMinutes(5));
+    }
+
+    @Test
+    public void getRoleNames_groupsAndSortsRolesWithOneQuery() {
+        when(userRepository.findPrincipalRolesByDisplayNameIn(any())).thenReturn(List.of(
+                row("alice", "ROLE_2"), row("alice", "ROLE_1"), row("bob", null)));
+
+        Map<String, List<String>> roleNames = principalRoleCache.getRoleNames(Set.of("alice", "bob", "carol"));
+
+        assertEquals(Map.of("alice", List.of("ROLE_1", "ROLE_2"), "bob", List.of()), roleNames);
+        verify(userRepository, times(1)).findPrincipalRolesByDisplayNameIn(any());
+    }
+
+    @Test
+    public void getRoleNames_cachesKnownUsersOnly() {
+        List<Collection<String>> lookups = new ArrayList<>();
+        when(userRepository.findPrincipalRolesByDisplayNameIn(any())).thenAnswer(invocation -> {
+            lookups.add(List.copyOf(invocation.getArgument(0)));
+            return List.of(row("alice", "ROLE_1"));
+        });
+
+        assertEquals(Optional.of(List.of("ROLE_1")), principalRoleCache.getRoleNames("alice"));
+        assertEquals(Optional.of(List.of("ROLE_1")), principalRoleCache.getRoleNames("alice"));
+        assertEquals(Optional.empty(), principalRoleCache.getRoleNames("unknown"));
+        assertEquals(Optional.empty(), principalRoleCache.getRoleNames("unknown"));
+
+        assertEquals(List.of(List.of("alice"), List.of("unknown"), List.of("unknown")), lookups);
+    }
+
+    @Test
+    public void invalidate_dropsCachedRoleNames() {
+        when(userRepository.findPrincipalRolesByDisplayNameIn(any()))
+                .thenReturn(List.of(row("alice", "ROLE_1")))
+                .thenReturn(List.of(row("alice", "ROLE_2")))
+                .thenReturn(List.of(row("alice", "ROLE_3")));
+
+        assertEquals(Optional.of(List.of("ROLE_1")), principalRoleCache.getRoleNames("alice"));
+        principalRoleCache.invalidate("alice");
+        assertEquals(Optional.of(List.of("ROLE_2")), principalRoleCache.getRoleNames("alice"));
+        principalRoleCache.invalidateAll();
+        assertEquals(Optional.of(List.of("ROLE_3")), principalRoleCache.getRoleNames("alice"));
+    }
+
+    private UserRepository.PrincipalRole row(String userName, String roleName) {
+        return new UserRepository.PrincipalRole() {
+            @Override
+            public String getUserName() {
+                return userName;
+            }
+
+            @Override
+            public String getRoleName() {
+                return roleName;
+            }
+        };
+    }
+}
@@ -0,0 +1,60 @@
+package io.nuvalence.user.management.api.service.service;
+
+import io.nuvalence.user.management.api.service.service.QueryCounter.QueryCount;
+import org.opentest4j.AssertionFailedError;
+
+/**
+ * The most SQL a service call may issue. Statements are always limited; rows and entities only when set.
+ */
+public final class QueryBudget {
+    private final long statements;
+    private final Long rowsFetched;
+    private final Long entitiesLoaded;
+
+    private QueryBudget(long statements, Long rowsFetched, Long entitiesLoaded) {
+        this.statements = statements;
+        this.rowsFetched = rowsFetched;
+        this.entitiesLoaded = entitiesLoaded;
+    }
+
+    public static QueryBudget statements(long statements) {
+        return new QueryBudget(statements, null, null);
+    }
+
+    public QueryBudget rows(long maxRowsFetched) {
+        return new QueryBudget(statements, maxRowsFetched, entitiesLoaded);
+    }
+
+    public QueryBudget entities(long maxEntitiesLoaded) {
+        return new QueryBudget(statements, rowsFetched, maxEntitiesLoaded);
+    }
+
+    /**
+     * Fails, with a report of everything the call read, if the call went over the budget.
+     *
+     * @param call the name of the call, for the report
+     * @param count what the call read
+     */
+    public void check(String call, QueryCount count) {
+        boolean exceeded = count.getStatements() > statements
+                || rowsFetched != null && count.getRowsFetched() > rowsFetched
+                || entitiesLoaded != null && count.getEntitiesLoaded() > entitiesLoaded;
+        if (exceeded) {
+            throw new AssertionFailedError(report(call, count));
+        }
+    }
+
+    private String report(String call, QueryCount count) {
+        StringBuilder report = new StringBuilder(call).append(" exceeded its query budget\n");
+        report.append(String.format("  statements:         %d (budget %d)%n", count.getStatements(), statements));
+        report.append(String.format("  rows fetched:       %d (budget %s)%n", count.getRowsFetched(),
+                rowsFetched != null ? rowsFetched : "none"));
+        report.append(String.format("  entities loaded:    %d (budget %s)%n", count.getEntitiesLoaded(),
+                entitiesLoaded != null ? entitiesLoaded : "none"));
+        report.append(String.format("  collections loaded: %d%n", count.getCollectionsLoaded()));
+        report.append(count.getQueries().isEmpty() ? "  queries: none, only loads by id\n" : "  queries:\n");
+        count.getQueries().forEach((query, executions) ->
+                report.append(String.format("    %dx %s%n", executions, query)));
+        return report.toString();
+    }
+}
@@ -0,0 +1,162 @@
+package io.nuvalence.user.management.api.service.service;
+
+import io.nuvalence.user.management.api.service.entity.ApplicationEntity;
+import io.nuvalence.user.management.api.service.entity.CustomFieldEntity;
+import io.nuvalence.user.management.api.service.entity.CustomFieldOptionEntity;
+import io.nuvalence.user.management.api.service.entity.RoleEntity;
+import io.nuvalence.user.management.api.service.entity.UserCustomFieldEntity;
+import io.nuvalence.user.management.api.service.entity.UserEntity;
+import io.nuvalence.user.management.api.service.entity.UserPreferenceEntity;
+import io.nuvalence.user.management.api.service.entity.UserPreferenceOptionEntity;
+import io.nuvalence.user.management.api.service.entity.UserRoleEntity;
+import io.nuvalence.user.management.api.service.repository.ApplicationRepository;
+import io.nuvalence.user.management.api.service.repository.CustomFieldDataTypeRepository;
+import io.nuvalence.user.management.api.service.repository.CustomFieldOptionRepository;
+import io.nuvalence.user.management.api.service.repository.CustomFieldRepository;
+import io.nuvalence.user.management.api.service.repository.CustomFieldTypeRepository;
+import io.nuvalence.user.management.api.service.repository.RoleRepository;
+import io.nuvalence.user.management.api.service.repository.UserCustomFieldRepository;
+import io.nuvalence.user.management.api.service.repository.UserPreferenceOptionRepository;
+import io.nuvalence.user.management.api.service.repository.UserPreferencesRepository;
+import io.nuvalence.user.management.api.service.repository.UserRepository;
+import io.nuvalence.user.management.api.service.repository.UserRoleRepository;
+import lombok.Getter;
+import org.springframework.context.ApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Seeds users, with roles, custom field values and preferences, and custom fields, with options, on top of the
+ * reference data of the changelog, and deletes them again. Every seeded user has every seeded role, a value for
+ * every custom field, and user and application preferences, so the rows read per call grow with the size.
+ */
+@Getter
+@SuppressWarnings("checkstyle:ClassFanOutComplexity")
+public class QueryBudgetDataset {
+    static final int OPTIONS_PER_FIELD = 3;
+    private static final int ROLES = 3;
+
+    private final ApplicationContext applicationContext;
+    private final List<RoleEntity> roles = new ArrayList<>();
+    private final List<UserEntity> users = new ArrayList<>();
+    private final List<CustomFieldEntity> customFields = new ArrayList<>();
+    private final List<CustomFieldOptionEntity> customFieldOptions = new ArrayList<>();
+    private final List<UserRoleEntity> userRoles = new ArrayList<>();
+    private final List<UserCustomFieldEntity> userCustomFields = new ArrayList<>();
+    private ApplicationEntity application;
+
+    public QueryBudgetDataset(ApplicationContext applicationContext) {
+        this.applicationContext = applicationContext;
+    }
+
+    /**
+     * Seeds the dataset.
+     *
+     * @param users how many users to create
+     * @param customFields how many drop-down custom fields to create
+     * @return this dataset
+     */
+    public QueryBudgetDataset seed(int users, int customFields) {
+        String suffix = UUID.randomUUID().toString();
+        for (int i = 0; i < ROLES; i++) {
+            RoleEntity role = new RoleEntity();
+            role.setRoleName("QUERY_BUDGET_" + i + "_" + suffix);
+            role.setDisplayName("Query Budget " + i + " " + suffix);
+            roles.add(repository(RoleRepository.class).save(role));
+        }
+
+        for (int i = 0; i < customFields; i++) {
+            CustomFieldEntity customField = CustomFieldEntity.builder()
+                    .name("query_budget_" + i + "_" + suffix)
+                    .displayText("Query Budget " + i)
+                    .type(repository(CustomFieldTypeRepository.class).findFirstByType("drop_down_list")
+                            .orElseThrow())
+                    .dataType(repository(CustomFieldDataTypeRepository.class).findFirstByType("string")
+                            .orElseThrow())
+                    .build();
+            this.customFields.add(repository(CustomFieldRepository.class).save(customField));
+            for (int j = 0; j < OPTIONS_PER_FIELD; j++) {
+                customFieldOptions.add(repository(CustomFieldOptionRepository.class).save(
+                        new CustomFieldOptionEntity(null, customField, "option_" + j, "Option " + j)));
+            }
+        }
+
+        application = repository(ApplicationRepository.class).getApplicationByName("app01").orElseThrow();
+        Map<String, UserPreferenceOptionEntity> preferenceOptions = repository(UserPreferenceOptionRepository.class)
+                .findAll().stream().collect(Collectors.toMap(UserPreferenceOptionEntity::getValue, option -> option));
+
+        for (int i = 0; i < users; i++) {
+            UserEntity user = addUser(roles);
+            for (CustomFieldEntity customField : this.customFields) {
+                userCustomFields.add(repository(UserCustomFieldRepository.class).save(UserCustomFieldEntity.builder()
+                        .user(user).customField(customField).customFieldValueString("option_0").build()));
+            }
+            createPreference(user, preferenceOptions.get("email"), null);
+            createPreference(user, preferenceOptions.get("en"), null);
+            createPreference(user, preferenceOptions.get("es"), application);
+        }
+        // the custom fields were saved without going through the service, which would have done this
+        applicationContext.getBean(CustomFieldCatalog.class).invalidate();
+        return this;
+    }
+
+    /**
+     * Adds a user with the given roles, and no custom field values or preferences.
+     *
+     * @param userRoleList the roles to give the user, e.g. some of {@link #getRoles()}
+     * @return the user
+     */
+    public UserEntity addUser(List<RoleEntity> userRoleList) {
+        UserEntity user = new UserEntity();
+        user.setDisplayName("query-budget-" + UUID.randomUUID());
+        user.setEmail(user.getDisplayName() + "@example.com");
+        user.setCreatedAt(LocalDateTime.now());
+        users.add(repository(UserRepository.class).save(user));
+
+        for (RoleEntity role : userRoleList) {
+            userRoles.add(repository(UserRoleRepository.class).save(new UserRoleEntity(null, user, role)));
+        }
+        return user;
+    }
+
+    /**
+     * Takes on a user created by the call under test, so that it is deleted with the dataset.
+     *
+     * @param userId the user's id
+     */
+    public void adoptUser(UUID userId) {
+        users.add(repository(UserRepository.class).findById(userId).orElseThrow());
+    }
+
+    /**
+     * Deletes everything the dataset created, and the preferences its users were given since.
+     */
+    public void delete() {
+        new TransactionTemplate(applicationContext.getBean(PlatformTransactionManager.class))
+                .executeWithoutResult(status -> users.forEach(user ->
+                        repository(UserPreferencesRepository.class).deleteAllByUserId(user.getId())));
+        repository(UserCustomFieldRepository.class).deleteAll(userCustomFields);
+        repository(UserRoleRepository.class).deleteAll(userRoles);
+        repository(UserRepository.class).deleteAll(users);
+        repository(CustomFieldOptionRepository.class).deleteAll(customFieldOptions);
+        repository(CustomFieldRepository.class).deleteAll(customFields);
+        applicationContext.getBean(CustomFieldCatalog.class).invalidate();
+        repository(RoleRepository.class).deleteAll(roles);
+    }
+
+    private void createPreference(UserEntity user, UserPreferenceOptionEntity option, ApplicationEntity application) {
+        repository(UserPreferencesRepository.class).save(new UserPreferenceEntity(null, user,
+                option.getUserPreferenceType(), option, application));
+    }
+
+    private <T> T repository(Class<T> repositoryType) {
+        return applicationContext.getBean(repositoryType);
+    }
+}
@@ -0,0 +1,95 @@
+package io.nuvalence.user.management.api.service.service;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Measures the SQL a service call issues, with Hibernate statistics. The session factory must be built with
+ * {@code hibernate.generate_statistics} enabled, and calls must not run concurrently with other database work.
+ */
+public class QueryCounter {
+    private final Statistics statistics;
+
+    /**
+     * Creates a counter reading the statistics of an entity manager factory.
+     *
+     * @param entityManagerFactory the factory the services use
+     */
+    public QueryCounter(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        if (!statistics.isStatisticsEnabled()) {
+            throw new IllegalStateException("Enable spring.jpa.properties.hibernate.generate_statistics");
+        }
+    }
+
+    /**
+     * Runs a call and measures what it read.
+     *
+     * @param call the call to measure
+     * @return what the call read
+     */
+    public QueryCount measure(Runnable call) {
+        statistics.clear();
+        call.run();
+
+        Map<String, Long> queries = new LinkedHashMap<>();
+        long rowsFetched = 0;
+        for (String query : statistics.getQueries()) {
+            QueryStatistics queryStatistics = statistics.getQueryStatistics(query);
+            // queries with expanded list parameters are also recorded unexpanded, without executions
+            if (queryStatistics.getExecutionCount() > 0) {
+                queries.put(query, queryStatistics.getExecutionCount());
+                rowsFetched += queryStatistics.getExecutionRowCount();
+            }
+        }
+        return new QueryCount(statistics.getPrepareStatementCount(), rowsFetched,
+                statistics.getEntityLoadCount(), statistics.getCollectionLoadCount(), queries);
+    }
+
+    /**
+     * What a call read: the statements it prepared, the rows its queries returned, the entities and
+     * collections it loaded, and how many times each query ran. Loads by id and lazy loads are counted as
+     * statements and entities but are not listed as queries.
+     */
+    public static final class QueryCount {
+        private final long statements;
+        private final long rowsFetched;
+        private final long entitiesLoaded;
+        private final long collectionsLoaded;
+        private final Map<String, Long> queries;
+
+        QueryCount(long statements, long rowsFetched, long entitiesLoaded, long collectionsLoaded,
+                   Map<String, Long> queries) {
+            this.statements = statements;
+            this.rowsFetched = rowsFetched;
+            this.entitiesLoaded = entitiesLoaded;
+            this.collectionsLoaded = collectionsLoaded;
+            this.queries = queries;
+        }
+
+        public long getStatements() {
+            return statements;
+        }
+
+        public long getRowsFetched() {
+            return rowsFetched;
+        }
+
+        public long getEntitiesLoaded() {
+            return entitiesLoaded;
+        }
+
+        public long getCollectionsLoaded() {
+            return collectionsLoaded;
+        }
+
+        public Map<String, Long> getQueries() {
+            return queries;
+        }
+    }
+}
@@ -1,6 +1,5 @@
 package io.nuvalence.user.management.api.service.service;
 
-import io.nuvalence.user.management.api.service.cerbos.CerbosClient;
 import io.nuvalence.user.management.api.service.config.exception.BusinessLogicException;
 import io.nuvalence.user.management.api.service.config.exception.ResourceNotFoundException;
 import io.nuvalence.user.management.api.service.entity.ApplicationEntity;
@@ -9,15 +8,18 @@ import io.nuvalence.user.management.api.service.entity.PermissionEntity;
 import io.nuvalence.user.management.api.service.entity.RoleEntity;
 import io.nuvalence.user.management.api.service.entity.UserEntity;
 import io.nuvalence.user.management.api.service.entity.UserRoleEntity;
+import io.nuvalence.user.management.api.service.generated.models.AssignedRoleDTO;
 import io.nuvalence.user.management.api.service.generated.models.RoleApplicationDTO;
 import io.nuvalence.user.management.api.service.generated.models.RoleCreationRequest;
 import io.nuvalence.user.management.api.service.generated.models.RoleDTO;
 import io.nuvalence.user.management.api.service.generated.models.RoleUpdateRequest;
 import io.nuvalence.user.management.api.service.generated.models.UserDTO;
+import io.nuvalence.user.management.api.service.interfaces.AsyncPermissionable;
 import io.nuvalence.user.management.api.service.repository.ApplicationPermissionRepository;
 import io.nuvalence.user.management.api.service.repository.ApplicationRepository;
 import io.nuvalence.user.management.api.service.repository.PermissionRepository;
 import io.nuvalence.user.management.api.service.repository.RoleRepository;
+import io.nuvalence.user.management.api.service.repository.UserRepository;
 import io.nuvalence.user.management.api.service.repository.UserRoleRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -37,6 +39,8 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -64,7 +68,13 @@ public class RoleServiceTest {
     private UserRoleRepository userRoleRepository;
 
     @Mock
-    private CerbosClient client;
+    private UserRepository userRepository;
+
+    @Mock
+    private AsyncPermissionable asyncClient;
+
+    @Mock
+    private PrincipalRoleCache principalRoleCache;
 
     @InjectMocks
     private RoleService roleService;
@@ -76,11 +86,11 @@ public class RoleServiceTest {
     @Test
     public void addRole_addsRoleIfValid() {
         RoleCreationRequest roleCreationRequest = createRoleCreationRequest();
-        when(client.updateRolePermissionMappings(
+        when(asyncClient.updateRolePermissionMappingsAsync(
             ArgumentMatchers.anyString(),
             ArgumentMatchers.anyString(),
             any()))
-            .thenReturn(true);
+            .thenReturn(CompletableFuture.completedFuture(true));
 
         RoleApplicationDTO roleApplicationDTO = createRoleApplicationDTO();
         roleCreationRequest.setApplications(List.of(roleApplicationDTO));
@@ -125,11 +135,11 @@ public class RoleServiceTest {
     @Test
     public void updateRole_updatesRoleIfValid() {
         RoleEntity roleEntity = createRoleEntity();
-        when(client.updateRolePermissionMappings(
+        when(asyncClient.updateRolePermissionMappingsAsync(
             ArgumentMatchers.anyString(),
             ArgumentMatchers.anyString(),
             any()))
-            .thenReturn(true);
+            .thenReturn(CompletableFuture.completedFuture(true));
         when(roleRepository.findById(roleEntity.getId())).thenReturn(Optional.of(createRoleEntity()));
 
         RoleApplicationDTO roleApplicationDTO = new RoleApplicationDTO();
@@ -235,7 +245,8 @@ public class RoleServiceTest {
         Map<String, String[]> app1PermissionMappings = new HashMap<>();
         String[] app1PermissionMappingsValue = {a1.getPermissions().get(0).getPermission().getName()};
         app1PermissionMappings.put(roleEntities.get(0).getRoleName(), app1PermissionMappingsValue);
-        when(client.getRolePermissionMappings(a1.getName())).thenReturn(app1PermissionMappings);
+        when(asyncClient.getRolePermissionMappingsAsync(a1.getName()))
+            .thenReturn(CompletableFuture.completedFuture(app1PermissionMappings));
 
         Map<String, String[]> app2PermissionMappings = new HashMap<>();
         String[] app2PermissionMappingsValue = {
@@ -243,7 +254,8 @@ public class RoleServiceTest {
             a2.getPermissions().get(1).getPermission().getName()
         };
         app2PermissionMappings.put(roleEntities.get(1).getRoleName(), app2PermissionMappingsValue);
-        when(client.getRolePermissionMappings(a2.getName())).thenReturn(app2PermissionMappings);
+        when(asyncClient.getRolePermissionMappingsAsync(a2.getName()))
+            .thenReturn(CompletableFuture.completedFuture(app2PermissionMappings));
 
         // Make the request
         ResponseEntity<List<RoleDTO>> rawRes = roleService.getAllRolesByResource(null);
@@ -302,7 +314,8 @@ public class RoleServiceTest {
         Map<String, String[]> app1PermissionMappings = new HashMap<>();
         String[] app1PermissionMappingsValue = {a1.getPermissions().get(0).getPermission().getName()};
         app1PermissionMappings.put(roleEntities.get(0).getRoleName(), app1PermissionMappingsValue);
-        when(client.getRolePermissionMappings(a1.getName())).thenReturn(app1PermissionMappings);
+        when(asyncClient.getRolePermissionMappingsAsync(a1.getName()))
+            .thenReturn(CompletableFuture.completedFuture(app1PermissionMappings));
 
         // Make the request
         ResponseEntity<List<RoleDTO>> rawRes = roleService.getAllRolesByResource(a1.getName());
@@ -337,12 +350,13 @@ public class RoleServiceTest {
         RoleEntity role = createRoleEntity();
 
         when(roleRepository.findById(role.getId())).thenReturn(Optional.of(role));
-        when(client.removeRole(ArgumentMatchers.anyString(), ArgumentMatchers.anyString()))
-                .thenReturn(true);
+        when(asyncClient.removeRoleAsync(ArgumentMatchers.anyString(), ArgumentMatchers.anyString()))
+                .thenReturn(CompletableFuture.completedFuture(true));
 
         ResponseEntity<Void> res = roleService.deleteRoleById(role.getId(), "default_resource");
         assertEquals(res.getStatusCode(), HttpStatus.OK);
         verify(roleRepository).delete(role);
+        verify(principalRoleCache).invalidateAll();
     }
 
     @Test
@@ -362,8 +376,14 @@ public class RoleServiceTest {
         RoleEntity role = createRoleEntity();
         List<UserRoleEntity> userRoleEntities = createUserRoleList();
 
+        UserRoleEntity otherRole = createUserRoleEntity(userRoleEntities.get(1).getUser());
+        otherRole.getRole().setRoleName("OTHER_ROLE");
+        List<UserEntity> members = List.of(userRoleEntities.get(0).getUser(), userRoleEntities.get(1).getUser());
+
         when(roleRepository.findById(role.getId())).thenReturn(Optional.of(role));
-        when(userRoleRepository.findAllByRoleId(role.getId())).thenReturn(userRoleEntities);
+        when(userRepository.findAllByRoleId(role.getId())).thenReturn(members);
+        when(userRoleRepository.findAllWithRoleOfRoleMembers(role.getId()))
+                .thenReturn(List.of(userRoleEntities.get(0), userRoleEntities.get(1), otherRole));
 
         ResponseEntity<List<UserDTO>> res = roleService.getUsersByRoleId(role.getId());
         assertEquals(res.getStatusCode(), HttpStatus.OK);
@@ -377,6 +397,9 @@ public class RoleServiceTest {
             assertEquals(userRes.getDisplayName(), userReq.getDisplayName());
             assertEquals(userRes.getEmail(), userReq.getEmail());
         }
+        assertEquals(1, res.getBody().get(0).getAssignedRoles().size());
+        assertEquals(List.of(role.getRoleName(), "OTHER_ROLE"), res.getBody().get(1).getAssignedRoles().stream()
+                .map(AssignedRoleDTO::getRoleName).collect(Collectors.toList()));
     }
 
     @Test
@@ -0,0 +1,133 @@
+package io.nuvalence.user.management.api.service.service;
+
+import io.nuvalence.user.management.api.service.entity.CustomFieldEntity;
+import io.nuvalence.user.management.api.service.entity.UserEntity;
+import io.nuvalence.user.management.api.service.generated.models.UserBatchGetRequest;
+import io.nuvalence.user.management.api.service.generated.models.UserDTO;
+import io.nuvalence.user.management.api.service.generated.models.UserPreferenceDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Holds the read paths of the services to a query budget against a seeded dataset. The dataset size can be
+ * raised with {@code -Dquery-budget.dataset-size=<users>}; the budgets must hold whatever the size.
+ */
+public class ServiceQueryBudgetTest extends AbstractQueryBudgetTest {
+
+    @Value("${query-budget.dataset-size:20}")
+    private int datasetSize;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private RoleService roleService;
+
+    @Autowired
+    private UserPreferenceService userPreferenceService;
+
+    @Autowired
+    private CustomFieldService customFieldService;
+
+    @BeforeEach
+    public void setUp() {
+        dataset.seed(datasetSize, Math.max(3, datasetSize / 5));
+    }
+
+    @Test
+    public void userService_readsWithinBudget() {
+        when(asyncClient.getRolePermissionMappingsAsync(any()))
+                .thenReturn(CompletableFuture.completedFuture(Map.of()));
+        UserEntity user = dataset.getUsers().get(0);
+
+        assertWithinBudget(QueryBudget.statements(1).rows(3), "UserService.getUserById", () ->
+                userService.getUserById(user.getId()));
+        assertWithinBudget(QueryBudget.statements(1), "UserService.getUserByEmail", () ->
+                userService.getUserByEmail(user.getEmail()));
+        assertWithinBudget(QueryBudget.statements(2), "UserService.getUserRolesById", () ->
+                userService.getUserRolesById(user.getId(), "app01"));
+        assertWithinBudget(QueryBudget.statements(2), "UserService.getUserList", () ->
+                userService.getUserList(10, null));
+        assertWithinBudget(QueryBudget.statements(4), "UserService.batchGetUsers", () ->
+                userService.batchGetUsers(new UserBatchGetRequest()
+                        .ids(dataset.getUsers().stream().map(UserEntity::getId).collect(Collectors.toList()))
+                        .emails(List.of(user.getEmail(), "missing@example.com"))
+                        .externalIds(List.of("missing"))));
+    }
+
+    @Test
+    public void userService_readsWithinBudget_forAUserWithOneRole() {
+        when(asyncClient.getRolePermissionMappingsAsync(any()))
+                .thenReturn(CompletableFuture.completedFuture(Map.of()));
+        UserEntity user = dataset.addUser(dataset.getRoles().subList(0, 1));
+
+        // the same budgets as for a user with every role
+        assertWithinBudget(QueryBudget.statements(1).rows(1), "UserService.getUserById", () ->
+                userService.getUserById(user.getId()));
+        assertWithinBudget(QueryBudget.statements(1), "UserService.getUserByEmail", () ->
+                userService.getUserByEmail(user.getEmail()));
+        assertWithinBudget(QueryBudget.statements(2), "UserService.getUserRolesById", () ->
+                userService.getUserRolesById(user.getId(), "app01"));
+    }
+
+    @Test
+    public void roleService_readsWithinBudget() {
+        // every seeded user has every seeded role; this one only has the last two
+        final UserEntity partialMember = dataset.addUser(dataset.getRoles().subList(1, 3));
+        long assignments = (long) datasetSize * dataset.getRoles().size();
+        assertWithinBudget(QueryBudget.statements(3).rows(datasetSize + assignments)
+                        .entities(datasetSize + assignments + dataset.getRoles().size()),
+                "RoleService.getUsersByRoleId", () ->
+                roleService.getUsersByRoleId(dataset.getRoles().get(0).getId()));
+        assertWithinBudget(QueryBudget.statements(3), "RoleService.getUsersByRoleId", () ->
+                roleService.getUsersByRoleId(dataset.getRoles().get(2).getId()));
+
+        List<UserDTO> members = roleService.getUsersByRoleId(dataset.getRoles().get(0).getId()).getBody();
+        assertEquals(datasetSize, members.size());
+        assertEquals(dataset.getRoles().size(), members.get(0).getAssignedRoles().size());
+        members = roleService.getUsersByRoleId(dataset.getRoles().get(2).getId()).getBody();
+        assertEquals(datasetSize + 1, members.size());
+        assertEquals(2, members.stream().filter(member -> member.getId().equals(partialMember.getId()))
+                .findFirst().orElseThrow().getAssignedRoles().size());
+    }
+
+    @Test
+    public void userPreferenceService_readsWithinBudget() {
+        UserEntity user = dataset.getUsers().get(0);
+
+        // the application's language replaces the user's own
+        assertWithinBudget(QueryBudget.statements(1).rows(2).entities(0),
+                "UserPreferenceService.getUserPreferences", () ->
+                userPreferenceService.getUserPreferences(user.getId(), dataset.getApplication().getId()));
+        UserPreferenceDTO preferences = userPreferenceService.getUserPreferences(user.getId(),
+                dataset.getApplication().getId());
+        assertEquals("email", preferences.get("communication"));
+        assertEquals("es", preferences.get("language"));
+    }
+
+    @Test
+    public void customFieldService_readsWithinBudget() {
+        CustomFieldEntity customField = dataset.getCustomFields().get(0);
+
+        // the first read loads the catalog, with every field and its options; the others are served from it
+        assertWithinBudget(QueryBudget.statements(1), "CustomFieldService.getAllCustomFields", () ->
+                customFieldService.getAllCustomFields());
+        assertWithinBudget(QueryBudget.statements(0), "CustomFieldService.getCustomFieldById", () ->
+                customFieldService.getCustomFieldById(customField.getId()));
+        assertWithinBudget(QueryBudget.statements(0), "CustomFieldService.getOptionsForCustomField", () ->
+                customFieldService.getOptionsForCustomField(customField.getId()));
+        assertEquals(QueryBudgetDataset.OPTIONS_PER_FIELD,
+                customFieldService.getOptionsForCustomField(customField.getId()).getBody().size());
+    }
+}
@@ -0,0 +1,182 @@
+package io.nuvalence.user.management.api.service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.nuvalence.user.management.api.service.entity.CustomFieldDataTypeEntity;
+import io.nuvalence.user.management.api.service.entity.CustomFieldEntity;
+import io.nuvalence.user.management.api.service.entity.CustomFieldTypeEntity;
+import io.nuvalence.user.management.api.service.entity.RoleEntity;
+import io.nuvalence.user.management.api.service.entity.UserCustomFieldEntity;
+import io.nuvalence.user.management.api.service.entity.UserEntity;
+import io.nuvalence.user.management.api.service.entity.UserRoleEntity;
+import io.nuvalence.user.management.api.service.generated.models.UserDTO;
+import io.nuvalence.user.management.api.service.repository.UserCustomFieldRepository;
+import io.nuvalence.user.management.api.service.repository.UserRepository;
+import io.nuvalence.user.management.api.service.repository.UserRoleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@SuppressWarnings("checkstyle:ClassFanOutComplexity")
+public class UserExportServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserRoleRepository userRoleRepository;
+
+    @Mock
+    private UserCustomFieldRepository userCustomFieldRepository;
+
+    @Mock
+    private CustomFieldCatalog customFieldCatalog;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private UserExportService userExportService;
+
+    @BeforeEach
+    public void setUp() {
+        userExportService = new UserExportService(userRepository, userRoleRepository, userCustomFieldRepository,
+                customFieldCatalog, entityManager, transactionManager, objectMapper, 2);
+    }
+
+    @Test
+    public void exportUsers_doesNotReadUntilWritten() {
+        ResponseEntity<StreamingResponseBody> res = userExportService.exportUsers();
+
+        assertEquals(HttpStatus.OK, res.getStatusCode());
+        assertEquals(UserExportService.NDJSON, res.getHeaders().getContentType());
+        verifyNoInteractions(userRepository, transactionManager);
+    }
+
+    @Test
+    public void exportUsers_writesOneLinePerUser_inBatches() throws Exception {
+        UserEntity first = createUserEntity("First");
+        UserEntity second = createUserEntity("Second");
+        UserEntity third = createUserEntity("Third");
+        when(userRepository.streamAll()).thenReturn(Stream.of(first, second, third));
+        when(userRoleRepository.findAllWithRoleByUserIdIn(List.of(first.getId(), second.getId())))
+                .thenReturn(List.of(createUserRoleEntity(first)));
+        when(userRoleRepository.findAllWithRoleByUserIdIn(List.of(third.getId()))).thenReturn(List.of());
+        UserCustomFieldEntity customField = createUserCustomFieldEntity(third);
+        when(customFieldCatalog.getSnapshot())
+                .thenReturn(CustomFieldCatalog.Snapshot.build(1, List.of(customField.getCustomField())));
+        when(userCustomFieldRepository.findAllByUserIdIn(List.of(first.getId(), second.getId())))
+                .thenReturn(List.of());
+        when(userCustomFieldRepository.findAllByUserIdIn(List.of(third.getId())))
+                .thenReturn(List.of(customField));
+
+        List<UserDTO> users = export();
+
+        assertEquals(3, users.size());
+        assertEquals(first.getId(), users.get(0).getId());
+        assertEquals("ROLE_TO_TEST", users.get(0).getAssignedRoles().get(0).getRoleName());
+        assertEquals(List.of(), users.get(0).getCustomFields());
+        assertEquals(second.getId(), users.get(1).getId());
+        assertEquals(List.of(), users.get(1).getAssignedRoles());
+        assertEquals(third.getId(), users.get(2).getId());
+        assertEquals("TEST1", users.get(2).getCustomFields().get(0).getValue());
+        assertEquals("Custom Field 1", users.get(2).getCustomFields().get(0).getDisplayText());
+
+        InOrder inOrder = inOrder(userRoleRepository, entityManager);
+        inOrder.verify(userRoleRepository).findAllWithRoleByUserIdIn(List.of(first.getId(), second.getId()));
+        inOrder.verify(entityManager).clear();
+        inOrder.verify(userRoleRepository).findAllWithRoleByUserIdIn(List.of(third.getId()));
+        inOrder.verify(entityManager).clear();
+        verify(transactionManager, times(1)).getTransaction(any());
+    }
+
+    @Test
+    public void exportUsers_writesNothing_ifNoUsersExist() throws Exception {
+        when(userRepository.streamAll()).thenReturn(Stream.empty());
+
+        assertTrue(export().isEmpty());
+        verifyNoInteractions(userRoleRepository, userCustomFieldRepository);
+    }
+
+    private List<UserDTO> export() throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        userExportService.exportUsers().getBody().writeTo(outputStream);
+
+        List<UserDTO> users = new ArrayList<>();
+        for (String line : outputStream.toString(StandardCharsets.UTF_8).split("\n")) {
+            if (!line.isEmpty()) {
+                users.add(objectMapper.readValue(line, UserDTO.class));
+            }
+        }
+        return users;
+    }
+
+    private UserEntity createUserEntity(String displayName) {
+        UserEntity userEntity = new UserEntity();
+        userEntity.setId(UUID.randomUUID());
+        userEntity.setDisplayName(displayName);
+        userEntity.setEmail(displayName + "@theIsland.com");
+        return userEntity;
+    }
+
+    private UserRoleEntity createUserRoleEntity(UserEntity user) {
+        RoleEntity roleEntity = new RoleEntity();
+        roleEntity.setId(UUID.randomUUID());
+        roleEntity.setRoleName("ROLE_TO_TEST");
+        roleEntity.setDisplayName("Role To Test");
+
+        UserRoleEntity userRoleEntity = new UserRoleEntity();
+        userRoleEntity.setUser(user);
+        userRoleEntity.setRole(roleEntity);
+        return userRoleEntity;
+    }
+
+    private UserCustomFieldEntity createUserCustomFieldEntity(UserEntity user) {
+        CustomFieldTypeEntity type = new CustomFieldTypeEntity();
+        type.setType("text_field");
+        CustomFieldDataTypeEntity dataType = new CustomFieldDataTypeEntity();
+        dataType.setType("string");
+
+        CustomFieldEntity customFieldEntity = new CustomFieldEntity();
+        customFieldEntity.setId(UUID.randomUUID());
+        customFieldEntity.setName("CUSTOM_FIELD_1");
+        customFieldEntity.setType(type);
+        customFieldEntity.setDataType(dataType);
+        customFieldEntity.setDisplayText("Custom Field 1");
+
+        UserCustomFieldEntity userCustomFieldEntity = new UserCustomFieldEntity();
+        userCustomFieldEntity.setId(UUID.randomUUID());
+        userCustomFieldEntity.setUser(user);
+        userCustomFieldEntity.setCustomField(customFieldEntity);
+        userCustomFieldEntity.setCustomFieldValueString("TEST1");
+        return userCustomFieldEntity;
+    }
+}
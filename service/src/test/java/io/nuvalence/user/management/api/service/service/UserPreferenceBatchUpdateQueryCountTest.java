@@ -0,0 +1,67 @@
+package io.nuvalence.user.management.api.service.service;
+
+import io.nuvalence.user.management.api.service.entity.UserEntity;
+import io.nuvalence.user.management.api.service.generated.models.UserPreferenceBatchUpdateRequest;
+import io.nuvalence.user.management.api.service.generated.models.UserPreferenceBatchUpdateResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs the batch preference update against the embedded database and holds it to a query budget: one statement
+ * to find the users, and one update and one insert per preference, whatever the number of users.
+ */
+public class UserPreferenceBatchUpdateQueryCountTest extends AbstractQueryBudgetTest {
+
+    @Autowired
+    private UserPreferenceService userPreferenceService;
+
+    @Test
+    public void batchUpdatePreferences_insertsAndUpdatesWithOneStatementEach() {
+        // the seeded users' own language is en; the added user has no preferences
+        dataset.seed(2, 0);
+        UUID english = dataset.getUsers().get(0).getId();
+        UUID spanish = dataset.getUsers().get(1).getId();
+        UUID unset = dataset.addUser(List.of()).getId();
+        userPreferenceService.updateUserPreferences(spanish, Map.of("language", "es"));
+        userPreferenceService.getUserPreferences(english, null);
+
+        UserPreferenceBatchUpdateRequest request = new UserPreferenceBatchUpdateRequest();
+        request.setUserIds(List.of(english, spanish, unset, UUID.randomUUID()));
+        request.setPreferences(Map.of("language", "es"));
+        List<UserPreferenceBatchUpdateResult> results = new ArrayList<>();
+        assertWithinBudget(QueryBudget.statements(3), "UserPreferenceService.batchUpdatePreferences", () ->
+                results.add(userPreferenceService.batchUpdatePreferences(request)));
+
+        assertEquals(new UserPreferenceBatchUpdateResult().users(3L).inserted(1L).updated(1L).unchanged(1L),
+                results.get(0));
+        for (UUID userId : List.of(english, spanish, unset)) {
+            assertEquals("es", userPreferenceService.getUserPreferences(userId, null).get("language"));
+        }
+    }
+
+    @Test
+    public void batchUpdatePreferences_forAnApplication_leavesTheUsersOwnPreferences() {
+        // the seeded user's own communication is email, and it has none for the application
+        dataset.seed(1, 0);
+        UserEntity user = dataset.getUsers().get(0);
+        UUID applicationId = dataset.getApplication().getId();
+
+        UserPreferenceBatchUpdateRequest request = new UserPreferenceBatchUpdateRequest();
+        request.setUserIds(List.of(user.getId()));
+        request.setApplicationId(applicationId);
+        request.setPreferences(Map.of("communication", "phone"));
+        UserPreferenceBatchUpdateResult result = userPreferenceService.batchUpdatePreferences(request);
+
+        assertEquals(1L, result.getInserted());
+        assertEquals("email", userPreferenceService.getUserPreferences(user.getId(), null).get("communication"));
+        assertEquals("phone", userPreferenceService.getUserPreferences(user.getId(), applicationId)
+                .get("communication"));
+    }
+}
@@ -0,0 +1,114 @@
+package io.nuvalence.user.management.api.service.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.nuvalence.user.management.api.service.config.exception.ResourceNotFoundException;
+import io.nuvalence.user.management.api.service.generated.models.UserPreferenceDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class UserPreferenceCacheTest {
+    private static final UUID USER_ID = UUID.randomUUID();
+    private static final UUID OTHER_USER_ID = UUID.randomUUID();
+    private static final UUID APP_ID = UUID.randomUUID();
+
+    private SimpleMeterRegistry meterRegistry;
+    private UserPreferenceCache userPreferenceCache;
+    private AtomicInteger resolutions;
+
+    @BeforeEach
+    void initTests() {
+        meterRegistry = new SimpleMeterRegistry();
+        userPreferenceCache = new UserPreferenceCache(meterRegistry, 100, Duration.ofMinutes(5));
+        resolutions = new AtomicInteger();
+    }
+
+    @Test
+    public void get_resolvesOncePerUserAndApplication() {
+        UserPreferenceDTO preferences = userPreferenceCache.get(USER_ID, null, resolver(USER_ID, null));
+
+        assertEquals(preferences, userPreferenceCache.get(USER_ID, null, resolver(USER_ID, null)));
+        userPreferenceCache.get(USER_ID, APP_ID, resolver(USER_ID, APP_ID));
+        userPreferenceCache.get(USER_ID, APP_ID, resolver(USER_ID, APP_ID));
+
+        assertEquals(2, resolutions.get());
+        assertEquals(2.0, meterRegistry.get("cache.gets").tag("cache", "user.preferences")
+                .tag("result", "hit").functionCounter().count());
+        assertEquals(2.0, meterRegistry.get("cache.gets").tag("cache", "user.preferences")
+                .tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    public void get_keepsTheCachedPreferencesFromChangesOfItsCallers() {
+        UserPreferenceDTO resolved = new UserPreferenceDTO().userId(USER_ID);
+        resolved.put("language", "en");
+
+        UserPreferenceDTO first = userPreferenceCache.get(USER_ID, null, () -> resolved);
+        resolved.put("language", "fr");
+        first.put("language", "es");
+        first.put("communication", "sms");
+        UserPreferenceDTO second = userPreferenceCache.get(USER_ID, null, resolver(USER_ID, null));
+
+        assertNotSame(first, second);
+        assertEquals(Map.of("language", "en"), second);
+        assertEquals(USER_ID, second.getUserId());
+        assertEquals(0, resolutions.get());
+    }
+
+    @Test
+    public void get_doesNotCacheMissingPreferences() {
+        Supplier<UserPreferenceDTO> notFound = () -> {
+            resolutions.incrementAndGet();
+            throw new ResourceNotFoundException("Preferences not found for given user!");
+        };
+
+        assertThrows(ResourceNotFoundException.class, () -> userPreferenceCache.get(USER_ID, null, notFound));
+        assertThrows(ResourceNotFoundException.class, () -> userPreferenceCache.get(USER_ID, null, notFound));
+        assertEquals(2, resolutions.get());
+    }
+
+    @Test
+    public void invalidate_dropsEveryApplicationOfTheUser() {
+        userPreferenceCache.get(USER_ID, null, resolver(USER_ID, null));
+        userPreferenceCache.get(USER_ID, APP_ID, resolver(USER_ID, APP_ID));
+        userPreferenceCache.get(OTHER_USER_ID, APP_ID, resolver(OTHER_USER_ID, APP_ID));
+
+        userPreferenceCache.invalidate(USER_ID);
+        userPreferenceCache.get(USER_ID, null, resolver(USER_ID, null));
+        userPreferenceCache.get(USER_ID, APP_ID, resolver(USER_ID, APP_ID));
+        userPreferenceCache.get(OTHER_USER_ID, APP_ID, resolver(OTHER_USER_ID, APP_ID));
+
+        assertEquals(5, resolutions.get());
+    }
+
+    @Test
+    public void invalidate_withApplication_dropsOnlyThatApplication() {
+        userPreferenceCache.get(USER_ID, null, resolver(USER_ID, null));
+        userPreferenceCache.get(USER_ID, APP_ID, resolver(USER_ID, APP_ID));
+
+        userPreferenceCache.invalidate(USER_ID, APP_ID);
+        userPreferenceCache.get(USER_ID, null, resolver(USER_ID, null));
+        userPreferenceCache.get(USER_ID, APP_ID, resolver(USER_ID, APP_ID));
+
+        assertEquals(3, resolutions.get());
+    }
+
+    private Supplier<UserPreferenceDTO> resolver(UUID userId, UUID appId) {
+        return () -> {
+            resolutions.incrementAndGet();
+            UserPreferenceDTO preferences = new UserPreferenceDTO();
+            preferences.setUserId(userId);
+            preferences.setApplicationId(appId);
+            return preferences;
+        };
+    }
+}
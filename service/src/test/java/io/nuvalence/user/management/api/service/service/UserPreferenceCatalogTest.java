@@ -0,0 +1,87 @@
+package io.nuvalence.user.management.api.service.service;
+
+import io.nuvalence.user.management.api.service.entity.UserPreferenceOptionEntity;
+import io.nuvalence.user.management.api.service.entity.UserPreferenceTypeEntity;
+import io.nuvalence.user.management.api.service.repository.UserPreferenceTypeRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class UserPreferenceCatalogTest {
+
+    @Mock
+    UserPreferenceTypeRepository userPreferenceTypeRepository;
+
+    @InjectMocks
+    UserPreferenceCatalog userPreferenceCatalog;
+
+    @Test
+    public void getSnapshot_loadsOnce_andLooksUpNamesAndValuesInAnyCase() {
+        UserPreferenceTypeEntity language = createType("language", "en", "es");
+        when(userPreferenceTypeRepository.findAllWithOptions()).thenReturn(List.of(language));
+
+        UserPreferenceCatalog.Snapshot snapshot = userPreferenceCatalog.getSnapshot();
+
+        assertSame(snapshot, userPreferenceCatalog.getSnapshot());
+        verify(userPreferenceTypeRepository, times(1)).findAllWithOptions();
+        UserPreferenceCatalog.PreferenceType type = snapshot.findType("LANGUAGE").orElseThrow();
+        assertEquals(language.getId(), type.getId());
+        assertEquals(Optional.of(language.getUserPreferenceOptionEntities().get(1).getId()),
+                type.findOptionId("ES"));
+        assertEquals(Optional.empty(), type.findOptionId("fr"));
+        assertEquals(Optional.empty(), snapshot.findType("timezone"));
+        assertEquals(List.of("en", "es"), snapshot.getTypes().get(0).getOptions());
+    }
+
+    @Test
+    public void refresh_publishesANewVersionOnlyWhenTheCatalogChanged() {
+        UserPreferenceTypeEntity language = createType("language", "en", "es");
+        when(userPreferenceTypeRepository.findAllWithOptions()).thenReturn(List.of(language));
+        UserPreferenceCatalog.Snapshot loaded = userPreferenceCatalog.getSnapshot();
+
+        userPreferenceCatalog.refresh();
+        assertSame(loaded, userPreferenceCatalog.getSnapshot());
+
+        UserPreferenceTypeEntity changedLanguage = createType("language", "en", "es", "fr");
+        changedLanguage.setId(language.getId());
+        when(userPreferenceTypeRepository.findAllWithOptions()).thenReturn(List.of(changedLanguage));
+        userPreferenceCatalog.refresh();
+
+        UserPreferenceCatalog.Snapshot refreshed = userPreferenceCatalog.getSnapshot();
+        assertEquals(loaded.getVersion() + 1, refreshed.getVersion());
+        assertEquals(Optional.empty(), loaded.findType("language").orElseThrow().findOptionId("fr"));
+        assertEquals(Optional.of(changedLanguage.getUserPreferenceOptionEntities().get(2).getId()),
+                refreshed.findType("language").orElseThrow().findOptionId("FR"));
+    }
+
+    private UserPreferenceTypeEntity createType(String name, String... values) {
+        UserPreferenceTypeEntity type = new UserPreferenceTypeEntity();
+        type.setId(UUID.randomUUID());
+        type.setName(name);
+
+        List<UserPreferenceOptionEntity> options = new ArrayList<>();
+        for (String value : values) {
+            UserPreferenceOptionEntity option = new UserPreferenceOptionEntity();
+            option.setId(UUID.nameUUIDFromBytes((name + "/" + value).getBytes()));
+            option.setValue(value);
+            option.setUserPreferenceType(type);
+            options.add(option);
+        }
+        type.setUserPreferenceOptionEntities(options);
+        return type;
+    }
+}
@@ -1,5 +1,6 @@
 package io.nuvalence.user.management.api.service.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.nuvalence.user.management.api.service.config.exception.BusinessLogicException;
 import io.nuvalence.user.management.api.service.config.exception.ResourceNotFoundException;
 import io.nuvalence.user.management.api.service.entity.ApplicationEntity;
@@ -7,11 +8,16 @@ import io.nuvalence.user.management.api.service.entity.UserEntity;
 import io.nuvalence.user.management.api.service.entity.UserPreferenceEntity;
 import io.nuvalence.user.management.api.service.entity.UserPreferenceOptionEntity;
 import io.nuvalence.user.management.api.service.entity.UserPreferenceTypeEntity;
+import io.nuvalence.user.management.api.service.generated.models.UserPreferenceBatchUpdateRequest;
+import io.nuvalence.user.management.api.service.generated.models.UserPreferenceBatchUpdateResult;
 import io.nuvalence.user.management.api.service.generated.models.UserPreferenceDTO;
 import io.nuvalence.user.management.api.service.repository.ApplicationRepository;
+import io.nuvalence.user.management.api.service.repository.RoleRepository;
+import io.nuvalence.user.management.api.service.repository.UserPreferenceOptionRepository;
 import io.nuvalence.user.management.api.service.repository.UserPreferenceTypeRepository;
 import io.nuvalence.user.management.api.service.repository.UserPreferencesRepository;
 import io.nuvalence.user.management.api.service.repository.UserRepository;
+import io.nuvalence.user.management.api.service.repository.UserRoleRepository;
 import org.assertj.core.util.IterableUtil;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -19,10 +25,14 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -31,7 +41,9 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -50,6 +62,22 @@ public class UserPreferenceServiceTest {
     @Mock
     UserPreferenceTypeRepository userPreferenceTypeRepository;
 
+    @Mock
+    UserPreferenceOptionRepository userPreferenceOptionRepository;
+
+    @Mock
+    UserPreferenceCatalog userPreferenceCatalog;
+
+    @Mock
+    RoleRepository roleRepository;
+
+    @Mock
+    UserRoleRepository userRoleRepository;
+
+    @Spy
+    UserPreferenceCache userPreferenceCache = new UserPreferenceCache(new SimpleMeterRegistry(), 100,
+            Duration.ofMinutes(5));
+
     @InjectMocks
     UserPreferenceService userPreferenceService;
 
@@ -61,27 +89,50 @@ public class UserPreferenceServiceTest {
         UserEntity user = createUserEntity();
         List<UserPreferenceEntity> userPreferences = createUserPreferences(user);
         UserPreferenceDTO preferences = createUserPreferenceDto(user.getId());
-        when(userPreferencesRepository.findPreferencesByUserId(user.getId())).thenReturn(userPreferences);
+        when(userPreferencesRepository.findEffectivePreferences(user.getId()))
+                .thenReturn(toEffectivePreferences(userPreferences));
 
         UserPreferenceDTO result = userPreferenceService.getUserPreferences(user.getId(), null);
 
-        verify(userPreferencesRepository, never()).findUserApplicationPreferences(any(), any());
+        verify(userPreferencesRepository, never()).findEffectiveApplicationPreferences(any(), any());
         assertEquals(preferences, result);
     }
 
+    @Test
+    public void getUserPreferences_isCachedUntilUpdated() {
+        UserEntity user = createUserEntity();
+        List<UserPreferenceEntity> userPreferences = createUserPreferences(user);
+        when(userPreferencesRepository.findEffectivePreferences(user.getId()))
+                .thenReturn(toEffectivePreferences(userPreferences));
+        when(userPreferencesRepository.findPreferencesByUserId(user.getId())).thenReturn(userPreferences);
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(userPreferenceCatalog.getSnapshot()).thenReturn(createCatalog(userPreferences));
+
+        UserPreferenceDTO result = userPreferenceService.getUserPreferences(user.getId(), null);
+        assertEquals(result, userPreferenceService.getUserPreferences(user.getId(), null));
+        verify(userPreferencesRepository, times(1)).findEffectivePreferences(user.getId());
+
+        UserPreferenceDTO updatedPreferences = createUserPreferenceDto(user.getId());
+        updatedPreferences.put("language", "es");
+        userPreferenceService.updateUserPreferences(user.getId(), updatedPreferences);
+        userPreferenceService.getUserPreferences(user.getId(), null);
+
+        verify(userPreferencesRepository, times(2)).findEffectivePreferences(user.getId());
+    }
+
     /**
      * Tests if an error is thrown when an invalid user ID is passed to the service.
      */
     @Test
     public void getUserPreferences_invalidUserIdNoAppId() {
         UserEntity user = createUserEntity();
-        when(userPreferencesRepository.findPreferencesByUserId(user.getId())).thenReturn(Collections.emptyList());
+        when(userPreferencesRepository.findEffectivePreferences(user.getId())).thenReturn(Collections.emptyList());
 
         Exception exception = assertThrows(ResourceNotFoundException.class, () ->
                 userPreferenceService.getUserPreferences(user.getId(), null));
 
         assertTrue(exception.getMessage().contains("Preferences not found for given user!"));
-        verify(userPreferencesRepository, never()).findUserApplicationPreferences(any(), any());
+        verify(userPreferencesRepository, never()).findEffectiveApplicationPreferences(any(), any());
     }
 
     /**
@@ -93,15 +144,14 @@ public class UserPreferenceServiceTest {
         UserEntity user = createUserEntity();
         ApplicationEntity application = createApplicationEntity();
 
-        List<UserPreferenceEntity> userPreferences = createUserPreferences(user);
         List<UserPreferenceEntity> applicationPreferences = createUserApplicationPreferences(user, application);
 
-        when(userPreferencesRepository.findPreferencesByUserId(user.getId())).thenReturn(userPreferences);
-        when(userPreferencesRepository.findUserApplicationPreferences(user.getId(),
-                application.getId())).thenReturn(applicationPreferences);
+        when(userPreferencesRepository.findEffectiveApplicationPreferences(user.getId(), application.getId()))
+                .thenReturn(toEffectivePreferences(applicationPreferences));
 
         UserPreferenceDTO expected = createUserApplicationPreferenceDto(user.getId(), application.getId());
         assertEquals(expected, userPreferenceService.getUserPreferences(user.getId(), application.getId()));
+        verify(userPreferencesRepository, never()).findEffectivePreferences(any());
     }
 
     /**
@@ -115,9 +165,8 @@ public class UserPreferenceServiceTest {
 
         List<UserPreferenceEntity> userPreferences = createUserPreferences(user);
 
-        when(userPreferencesRepository.findPreferencesByUserId(user.getId())).thenReturn(userPreferences);
-        when(userPreferencesRepository.findUserApplicationPreferences(user.getId(),
-                application.getId())).thenReturn(Collections.emptyList());
+        when(userPreferencesRepository.findEffectiveApplicationPreferences(user.getId(), application.getId()))
+                .thenReturn(toEffectivePreferences(userPreferences));
 
         UserPreferenceDTO expected = createUserPreferenceDto(user.getId());
         expected.setApplicationId(application.getId());
@@ -131,8 +180,7 @@ public class UserPreferenceServiceTest {
     public void getUserApplicationPreferences_noApplicationPreferences() {
         UserEntity user = createUserEntity();
         ApplicationEntity application = createApplicationEntity();
-        when(userPreferencesRepository.findPreferencesByUserId(user.getId())).thenReturn(Collections.emptyList());
-        when(userPreferencesRepository.findUserApplicationPreferences(user.getId(), application.getId()))
+        when(userPreferencesRepository.findEffectiveApplicationPreferences(user.getId(), application.getId()))
                 .thenReturn(Collections.emptyList());
 
         Exception exception = assertThrows(ResourceNotFoundException.class, () ->
@@ -152,9 +200,7 @@ public class UserPreferenceServiceTest {
         UserPreferenceDTO updatedPreferencesDto = createUserPreferenceDto(user.getId());
         List<UserPreferenceEntity> preferences = createUserPreferences(user);
         when(userPreferencesRepository.findPreferencesByUserId(user.getId())).thenReturn(preferences);
-        when(userPreferenceTypeRepository.findAllByNames(any())).thenReturn(
-                preferences.stream().map(UserPreferenceEntity::getType).collect(Collectors.toList())
-        );
+        when(userPreferenceCatalog.getSnapshot()).thenReturn(createCatalog(preferences));
 
         // setting preferences to something other than what's already set
         updatedPreferencesDto.put("communication", "email");
@@ -162,6 +208,7 @@ public class UserPreferenceServiceTest {
 
         userPreferenceService.updateUserPreferences(user.getId(), updatedPreferencesDto);
 
+        verify(userPreferenceCache).invalidate(user.getId());
         verify(userPreferencesRepository).saveAll(userPreferencesCaptor.capture());
         Iterable<UserPreferenceEntity> preferenceCaptured = userPreferencesCaptor.getValue();
         assertEquals(IterableUtil.sizeOf(preferenceCaptured), updatedPreferencesDto.entrySet().size());
@@ -177,9 +224,7 @@ public class UserPreferenceServiceTest {
         UserPreferenceDTO updatedPreferencesDto = createUserPreferenceDto(user.getId());
         List<UserPreferenceEntity> preferences = createUserPreferences(user);
         when(userPreferencesRepository.findPreferencesByUserId(user.getId())).thenReturn(Collections.emptyList());
-        when(userPreferenceTypeRepository.findAllByNames(any())).thenReturn(
-                preferences.stream().map(UserPreferenceEntity::getType).collect(Collectors.toList())
-        );
+        when(userPreferenceCatalog.getSnapshot()).thenReturn(createCatalog(preferences));
 
         // setting preferences to something other than what's already set
         updatedPreferencesDto.put("communication", "email");
@@ -202,9 +247,7 @@ public class UserPreferenceServiceTest {
         UserPreferenceDTO updatedPreferencesDto = createUserPreferenceDto(user.getId());
         List<UserPreferenceEntity> preferences = createUserPreferences(user);
         when(userPreferencesRepository.findPreferencesByUserId(user.getId())).thenReturn(preferences);
-        when(userPreferenceTypeRepository.findAllByNames(any())).thenReturn(
-                preferences.stream().map(UserPreferenceEntity::getType).collect(Collectors.toList())
-        );
+        when(userPreferenceCatalog.getSnapshot()).thenReturn(createCatalog(preferences));
 
         // setting preferences to something other than what's already set
         updatedPreferencesDto.put("communication", "email");
@@ -254,14 +297,13 @@ public class UserPreferenceServiceTest {
         applicationPreferences.put("communication", "phone");
         applicationPreferences.put("language", "en");
 
-        when(userPreferenceTypeRepository.findAllByNames(any())).thenReturn(
-                preferences.stream().map(UserPreferenceEntity::getType).collect(Collectors.toList())
-        );
+        when(userPreferenceCatalog.getSnapshot()).thenReturn(createCatalog(preferences));
 
         userPreferenceService.updateUserApplicationPreferences(
                 user.getId(), application.getId(), applicationPreferences
         );
 
+        verify(userPreferenceCache).invalidate(user.getId(), application.getId());
         verify(userPreferencesRepository).saveAll(userPreferencesCaptor.capture());
         Iterable<UserPreferenceEntity> preferenceCaptured = userPreferencesCaptor.getValue();
         assertEquals(IterableUtil.sizeOf(preferenceCaptured), preferences.size());
@@ -345,9 +387,7 @@ public class UserPreferenceServiceTest {
         // setting a preference that will be invalid
         applicationPreferences.put("invalid_preference", "value");
 
-        when(userPreferenceTypeRepository.findAllByNames(any())).thenReturn(
-                preferences.stream().map(UserPreferenceEntity::getType).collect(Collectors.toList())
-        );
+        when(userPreferenceCatalog.getSnapshot()).thenReturn(createCatalog(preferences));
 
         Exception exception = assertThrows(ResourceNotFoundException.class, () ->
                 userPreferenceService.updateUserApplicationPreferences(user.getId(), application.getId(),
@@ -358,6 +398,96 @@ public class UserPreferenceServiceTest {
         ));
     }
 
+    /**
+     * Tests if a preference can be set for every member of a role, a chunk of members at a time.
+     */
+    @Test
+    public void batchUpdatePreferences_byRole() {
+        UserEntity user = createUserEntity();
+        List<UserPreferenceEntity> preferences = createUserPreferences(user);
+        UUID roleId = UUID.randomUUID();
+        List<UUID> memberIds = new ArrayList<>();
+        for (int i = 0; i < UserPreferenceService.BATCH_UPDATE_CHUNK_SIZE + 1; i++) {
+            memberIds.add(UUID.randomUUID());
+        }
+        when(userPreferenceCatalog.getSnapshot()).thenReturn(createCatalog(preferences));
+        when(roleRepository.existsById(roleId)).thenReturn(true);
+        when(userRoleRepository.findUserIdsByRoleId(roleId)).thenReturn(memberIds);
+        UUID typeId = preferences.get(0).getType().getId();
+        UUID optionId = preferences.get(0).getType().getUserPreferenceOptionEntities().get(1).getId();
+        when(userPreferencesRepository.updateOption(any(), eq(null), eq(typeId), eq(optionId))).thenReturn(300);
+        when(userPreferencesRepository.insertMissing(any(), eq(null), eq(typeId), eq(optionId))).thenReturn(200);
+
+        UserPreferenceBatchUpdateRequest request = new UserPreferenceBatchUpdateRequest();
+        request.setRoleId(roleId);
+        request.setPreferences(Map.of("Language", "ES"));
+        final UserPreferenceBatchUpdateResult result = userPreferenceService.batchUpdatePreferences(request);
+
+        verify(userPreferencesRepository).updateOption(memberIds.subList(0, 1000), null, typeId, optionId);
+        verify(userPreferencesRepository).insertMissing(memberIds.subList(1000, 1001), null, typeId, optionId);
+        verify(userPreferenceCache).invalidateAll();
+        assertEquals(1001L, result.getUsers());
+        assertEquals(400L, result.getInserted());
+        assertEquals(600L, result.getUpdated());
+        assertEquals(1L, result.getUnchanged());
+    }
+
+    /**
+     * Tests if only the user ids that are users are updated.
+     */
+    @Test
+    public void batchUpdatePreferences_byUserIds_skipsUnknownUsers() {
+        UserEntity user = createUserEntity();
+        ApplicationEntity application = createApplicationEntity();
+        List<UserPreferenceEntity> preferences = createUserPreferences(user);
+        UUID unknownId = UUID.randomUUID();
+        when(userPreferenceCatalog.getSnapshot()).thenReturn(createCatalog(preferences));
+        when(applicationRepository.existsById(application.getId())).thenReturn(true);
+        when(userRepository.findIdsByIdIn(List.of(user.getId(), unknownId))).thenReturn(List.of(user.getId()));
+
+        UserPreferenceBatchUpdateRequest request = new UserPreferenceBatchUpdateRequest();
+        request.setUserIds(List.of(user.getId(), unknownId, user.getId()));
+        request.setApplicationId(application.getId());
+        request.setPreferences(Map.of("communication", "email"));
+        UserPreferenceBatchUpdateResult result = userPreferenceService.batchUpdatePreferences(request);
+
+        UUID typeId = preferences.get(1).getType().getId();
+        UUID optionId = preferences.get(1).getType().getUserPreferenceOptionEntities().get(0).getId();
+        verify(userPreferencesRepository).updateOption(List.of(user.getId()), application.getId(), typeId,
+                optionId);
+        verify(userPreferencesRepository).insertMissing(List.of(user.getId()), application.getId(), typeId,
+                optionId);
+        assertEquals(1L, result.getUsers());
+        assertEquals(1L, result.getUnchanged());
+    }
+
+    /**
+     * Tests if the users must be selected with either user ids or a role, and the preferences validated,
+     * before anything is updated.
+     */
+    @Test
+    public void batchUpdatePreferences_invalidRequest() {
+        UserEntity user = createUserEntity();
+        UserPreferenceBatchUpdateRequest neither = new UserPreferenceBatchUpdateRequest();
+        neither.setPreferences(Map.of("language", "es"));
+        assertThrows(BusinessLogicException.class, () -> userPreferenceService.batchUpdatePreferences(neither));
+
+        UserPreferenceBatchUpdateRequest both = new UserPreferenceBatchUpdateRequest();
+        both.setUserIds(List.of(user.getId()));
+        both.setRoleId(UUID.randomUUID());
+        both.setPreferences(Map.of("language", "es"));
+        assertThrows(BusinessLogicException.class, () -> userPreferenceService.batchUpdatePreferences(both));
+
+        when(userPreferenceCatalog.getSnapshot()).thenReturn(createCatalog(createUserPreferences(user)));
+        UserPreferenceBatchUpdateRequest invalidOption = new UserPreferenceBatchUpdateRequest();
+        invalidOption.setUserIds(List.of(user.getId()));
+        invalidOption.setPreferences(Map.of("language", "ABC123"));
+        assertThrows(ResourceNotFoundException.class, () ->
+                userPreferenceService.batchUpdatePreferences(invalidOption));
+
+        verify(userPreferencesRepository, never()).updateOption(any(), any(), any(), any());
+    }
+
     /**
      * Helper method for creating a list of user preferences.
      * @param user User.
@@ -467,6 +597,40 @@ public class UserPreferenceServiceTest {
         return List.of(languagePreference, communicationPreference);
     }
 
+    /**
+     * Helper method for creating a catalog of the types of the given preferences.
+     * @param preferences Preferences.
+     * @return Preference catalog.
+     */
+    private UserPreferenceCatalog.Snapshot createCatalog(List<UserPreferenceEntity> preferences) {
+        return UserPreferenceCatalog.Snapshot.build(1,
+                preferences.stream().map(UserPreferenceEntity::getType).collect(Collectors.toList()));
+    }
+
+    /**
+     * Helper method for reading preferences as the rows of the effective preference queries.
+     * @param preferences Preferences.
+     * @return Preference names and values.
+     */
+    private List<UserPreferencesRepository.EffectivePreference> toEffectivePreferences(
+            List<UserPreferenceEntity> preferences) {
+        return preferences.stream().map(preference -> {
+            String typeName = preference.getType().getName();
+            String optionValue = preference.getOption().getValue();
+            return new UserPreferencesRepository.EffectivePreference() {
+                @Override
+                public String getTypeName() {
+                    return typeName;
+                }
+
+                @Override
+                public String getOptionValue() {
+                    return optionValue;
+                }
+            };
+        }).collect(Collectors.toList());
+    }
+
     /**
      * Helper method for creating a new user preference dto.
      * @param userId User id.
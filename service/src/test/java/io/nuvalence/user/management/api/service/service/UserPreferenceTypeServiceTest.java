@@ -3,7 +3,6 @@ package io.nuvalence.user.management.api.service.service;
 import io.nuvalence.user.management.api.service.entity.UserPreferenceOptionEntity;
 import io.nuvalence.user.management.api.service.entity.UserPreferenceTypeEntity;
 import io.nuvalence.user.management.api.service.generated.models.UserPreferenceTypeDTO;
-import io.nuvalence.user.management.api.service.repository.UserPreferenceTypeRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -22,7 +21,7 @@ import static org.mockito.Mockito.when;
 public class UserPreferenceTypeServiceTest {
 
     @Mock
-    UserPreferenceTypeRepository userPreferenceTypeRepository;
+    UserPreferenceCatalog userPreferenceCatalog;
     
     @InjectMocks
     UserPreferenceTypeService userPreferenceTypeService;
@@ -33,7 +32,8 @@ public class UserPreferenceTypeServiceTest {
         UserPreferenceTypeDTO typeDto = createUserPreferenceTypeDto();
         typeDto.setId(userPreferenceTypeEntities.get(0).getId());
 
-        when(userPreferenceTypeRepository.findAll()).thenReturn(userPreferenceTypeEntities);
+        when(userPreferenceCatalog.getSnapshot())
+                .thenReturn(UserPreferenceCatalog.Snapshot.build(1, userPreferenceTypeEntities));
         ResponseEntity<List<UserPreferenceTypeDTO>> res = userPreferenceTypeService.getAllUserPreferenceTypes();
         assertEquals(res.getStatusCode(), HttpStatus.OK);
         assertEquals(res.getBody(), List.of(typeDto));
@@ -15,14 +15,19 @@ import io.nuvalence.user.management.api.service.enums.CustomFieldDataType;
 import io.nuvalence.user.management.api.service.generated.models.AssignedRoleDTO;
 import io.nuvalence.user.management.api.service.generated.models.CreateOrUpdateUserCustomFieldDTO;
 import io.nuvalence.user.management.api.service.generated.models.RoleDTO;
+import io.nuvalence.user.management.api.service.generated.models.UserBatchGetRequest;
+import io.nuvalence.user.management.api.service.generated.models.UserBatchGetResult;
 import io.nuvalence.user.management.api.service.generated.models.UserCreationRequest;
+import io.nuvalence.user.management.api.service.generated.models.UserCreationResult;
 import io.nuvalence.user.management.api.service.generated.models.UserCustomFieldDTO;
 import io.nuvalence.user.management.api.service.generated.models.UserDTO;
 import io.nuvalence.user.management.api.service.generated.models.UserRoleDTO;
 import io.nuvalence.user.management.api.service.generated.models.UserUpdateRequest;
+import io.nuvalence.user.management.api.service.generated.models.UserUpsertResult;
 import io.nuvalence.user.management.api.service.repository.CustomFieldRepository;
 import io.nuvalence.user.management.api.service.repository.RoleRepository;
 import io.nuvalence.user.management.api.service.repository.UserCustomFieldRepository;
+import io.nuvalence.user.management.api.service.repository.UserPreferencesRepository;
 import io.nuvalence.user.management.api.service.repository.UserRepository;
 import io.nuvalence.user.management.api.service.repository.UserRoleRepository;
 import org.assertj.core.util.IterableUtil;
@@ -33,14 +38,17 @@ import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
 import java.time.Clock;
+import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -77,6 +85,18 @@ public class UserServiceTest {
     @Mock
     private CustomFieldRepository customFieldRepository;
 
+    @Mock
+    private UserPreferencesRepository userPreferencesRepository;
+
+    @Mock
+    private PrincipalRoleCache principalRoleCache;
+
+    @Mock
+    private UserPreferenceCache userPreferenceCache;
+
+    @Mock
+    private CustomFieldCatalog customFieldCatalog;
+
     @InjectMocks
     private UserService userService;
 
@@ -89,6 +109,9 @@ public class UserServiceTest {
     @Captor
     private ArgumentCaptor<Iterable<UserCustomFieldEntity>> userCustomFieldListCaptor;
 
+    @Captor
+    private ArgumentCaptor<Iterable<UserEntity>> userListCaptor;
+
     @Captor
     private ArgumentCaptor<Iterable<UserRoleEntity>> userRoleListCaptor;
 
@@ -109,7 +132,7 @@ public class UserServiceTest {
                 .stream().map(UserCustomFieldEntity::getCustomField)
                 .collect(Collectors.toList());
         when(roleRepository.findAllById(any())).thenReturn(List.of(roleEntity));
-        when(customFieldRepository.findAllById(any())).thenReturn(customFieldList);
+        createCatalog(customFieldList);
 
         ResponseEntity<Void> res = userService.createUser(userModel);
         assertEquals(res.getStatusCode(), HttpStatus.OK);
@@ -183,6 +206,153 @@ public class UserServiceTest {
 
     }
 
+    @Test
+    public void upsertUser_createsUser_withoutCheckingFirst() {
+        UserCreationRequest userModel = createUserCreationRequest();
+        userModel.setInitialRoles(List.of(createRoleDto()));
+        RoleEntity roleEntity = createRoleEntity();
+        UserEntity userReference = createUserEntity();
+        when(userRepository.insertIfAbsent(any())).thenAnswer(invocation -> {
+            invocation.<UserEntity>getArgument(0).setId(userReference.getId());
+            return true;
+        });
+        when(userRepository.getById(userReference.getId())).thenReturn(userReference);
+        when(roleRepository.findAllById(List.of(roleEntity.getId()))).thenReturn(List.of(roleEntity));
+
+        ResponseEntity<UserUpsertResult> res = userService.upsertUser(userModel);
+        assertEquals(new UserUpsertResult().status(UserUpsertResult.StatusEnum.CREATED).id(userReference.getId()),
+                res.getBody());
+        verify(userRepository).insertIfAbsent(userCaptor.capture());
+        assertEquals(userModel.getEmail(), userCaptor.getValue().getEmail());
+        assertEquals(userModel.getExternalId(), userCaptor.getValue().getExternalId());
+        verify(userRoleRepository).saveAll(userRoleListCaptor.capture());
+        assertEquals(userReference, userRoleListCaptor.getValue().iterator().next().getUser());
+        verify(userRepository, never()).findAllByEmailOrExternalId(any(), any());
+    }
+
+    @Test
+    public void upsertUser_reportsUnchanged_ifTheSameUserExists() {
+        UserCreationRequest userModel = createUserCreationRequest();
+        userModel.setInitialRoles(List.of(createRoleDto()));
+        UserEntity existing = createUserEntity();
+        when(userRepository.insertIfAbsent(any())).thenReturn(false);
+        when(userRepository.findAllByEmailOrExternalId(userModel.getEmail(), userModel.getExternalId()))
+                .thenReturn(List.of(existing));
+
+        ResponseEntity<UserUpsertResult> res = userService.upsertUser(userModel);
+        assertEquals(new UserUpsertResult().status(UserUpsertResult.StatusEnum.UNCHANGED).id(existing.getId()),
+                res.getBody());
+        verifyNoInteractions(roleRepository, userRoleRepository, userCustomFieldRepository);
+    }
+
+    @Test
+    public void upsertUser_reportsConflict_ifEmailOrExternalIdBelongsToAnotherUser() {
+        final UserCreationRequest userModel = createUserCreationRequest();
+        UserEntity sameEmail = createUserEntity();
+        sameEmail.setExternalId("AnotherExternalId");
+        UserEntity sameExternalId = createUserEntity();
+        sameExternalId.setEmail("Another@theIsland.com");
+        when(userRepository.insertIfAbsent(any())).thenReturn(false);
+        when(userRepository.findAllByEmailOrExternalId(userModel.getEmail(), userModel.getExternalId()))
+                .thenReturn(List.of(sameEmail), List.of(sameExternalId));
+
+        assertEquals(new UserUpsertResult().status(UserUpsertResult.StatusEnum.CONFLICT)
+                .error("This Email is already assigned to a user."), userService.upsertUser(userModel).getBody());
+        assertEquals(new UserUpsertResult().status(UserUpsertResult.StatusEnum.CONFLICT)
+                .error("This ExternalId is already assigned to a user."), userService.upsertUser(userModel).getBody());
+    }
+
+    @Test
+    public void createUsers_createsValidUsers_andReportsTheOthers() {
+        UserCreationRequest valid = createUserCreationRequest();
+        valid.setInitialRoles(List.of(createRoleDto()));
+        List<UserCustomFieldEntity> userCustomFieldEntities = List.of(createStringTextFieldUserCustomFieldEntity());
+        valid.setCustomFields(getCreateUserCustomFieldList(userCustomFieldEntities));
+        final UserCreationRequest emailTaken = createUserCreationRequest("taken@theIsland.com", "ExternalId2");
+        final UserCreationRequest externalIdInBatch = createUserCreationRequest("other@theIsland.com",
+                valid.getExternalId());
+        UserCreationRequest unknownRole = createUserCreationRequest("unknown@theIsland.com", "ExternalId4");
+        RoleDTO missingRole = createRoleDto();
+        missingRole.setId(UUID.randomUUID());
+        missingRole.setRoleName("MISSING_ROLE");
+        unknownRole.setInitialRoles(List.of(missingRole));
+        UserCreationRequest missingName = createUserCreationRequest("nameless@theIsland.com", "ExternalId5");
+        missingName.setDisplayName(null);
+        UserCustomFieldEntity dateTimeCustomField = createDateTimeTextFieldUserCustomFieldEntity();
+        CreateOrUpdateUserCustomFieldDTO unparsableDateTime = new CreateOrUpdateUserCustomFieldDTO();
+        unparsableDateTime.setCustomFieldId(dateTimeCustomField.getCustomField().getId());
+        unparsableDateTime.setValue("yesterday");
+        UserCreationRequest invalidCustomField = createUserCreationRequest("invalid@theIsland.com", "ExternalId6");
+        invalidCustomField.setCustomFields(List.of(unparsableDateTime));
+
+        UserEntity existingUser = createUserEntity();
+        existingUser.setEmail(emailTaken.getEmail());
+        when(userRepository.findAllByEmailIn(any())).thenReturn(List.of(existingUser));
+        when(userRepository.findAllByExternalIdIn(any())).thenReturn(List.of());
+        when(roleRepository.findAllById(any())).thenReturn(List.of(createRoleEntity()));
+        createCatalog(List.of(userCustomFieldEntities.get(0).getCustomField(), dateTimeCustomField.getCustomField()));
+        UUID createdId = UUID.randomUUID();
+        when(userRepository.saveAll(any())).thenAnswer(invocation -> {
+            List<UserEntity> users = invocation.getArgument(0);
+            users.forEach(user -> user.setId(createdId));
+            return users;
+        });
+
+        ResponseEntity<List<UserCreationResult>> res = userService.createUsers(
+                List.of(valid, emailTaken, externalIdInBatch, unknownRole, missingName, invalidCustomField));
+
+        assertEquals(HttpStatus.OK, res.getStatusCode());
+        List<UserCreationResult> results = res.getBody();
+        assertEquals(new UserCreationResult().status(UserCreationResult.StatusEnum.CREATED).id(createdId),
+                results.get(0));
+        assertEquals("This Email is already assigned to a user.", results.get(1).getError());
+        assertEquals("This ExternalId is already assigned to a user.", results.get(2).getError());
+        assertEquals("No role found for MISSING_ROLE.", results.get(3).getError());
+        assertEquals("Missing display name for user: nameless@theIsland.com", results.get(4).getError());
+        assertEquals("Invalid value for custom field CUSTOM_FIELD_5: Text 'yesterday' could not be parsed at index 0",
+                results.get(5).getError());
+        assertTrue(results.subList(1, 6).stream()
+                .allMatch(result -> result.getStatus() == UserCreationResult.StatusEnum.FAILED));
+
+        verify(userRepository).findAllByEmailIn(Set.of(valid.getEmail(), emailTaken.getEmail(),
+                externalIdInBatch.getEmail(), unknownRole.getEmail(), missingName.getEmail(),
+                invalidCustomField.getEmail()));
+        verify(userRoleRepository).saveAll(userRoleListCaptor.capture());
+        assertEquals(1, IterableUtil.sizeOf(userRoleListCaptor.getValue()));
+        verify(userCustomFieldRepository).saveAll(userCustomFieldListCaptor.capture());
+        assertEquals("TEST1", userCustomFieldListCaptor.getValue().iterator().next().getCustomFieldValueString());
+        verify(userRepository, never()).save(any());
+    }
+
+    @Test
+    public void createUsers_createsAUser_whoseEmailAndExternalIdWereOnlyUsedByAFailedUser() {
+        UserCreationRequest unknownRole = createUserCreationRequest();
+        RoleDTO missingRole = createRoleDto();
+        missingRole.setId(UUID.randomUUID());
+        missingRole.setRoleName("MISSING_ROLE");
+        unknownRole.setInitialRoles(List.of(missingRole));
+        final UserCreationRequest valid = createUserCreationRequest();
+        when(userRepository.findAllByEmailIn(any())).thenReturn(List.of());
+        when(userRepository.findAllByExternalIdIn(any())).thenReturn(List.of());
+        when(roleRepository.findAllById(any())).thenReturn(List.of());
+        createCatalog(List.of());
+
+        List<UserCreationResult> results = userService.createUsers(List.of(unknownRole, valid)).getBody();
+
+        assertEquals(UserCreationResult.StatusEnum.FAILED, results.get(0).getStatus());
+        assertEquals(UserCreationResult.StatusEnum.CREATED, results.get(1).getStatus());
+        verify(userRepository).saveAll(userListCaptor.capture());
+        assertEquals(1, IterableUtil.sizeOf(userListCaptor.getValue()));
+    }
+
+    @Test
+    public void createUsers_fails_ifBatchIsEmptyOrTooLarge() {
+        assertThrows(BusinessLogicException.class, () -> userService.createUsers(List.of()));
+        List<UserCreationRequest> users = Collections.nCopies(1001, createUserCreationRequest());
+        assertThrows(BusinessLogicException.class, () -> userService.createUsers(users));
+        verifyNoInteractions(userRepository);
+    }
+
     @Test
     public void createUser_fails_ifPassedANonExistentRole() {
         UserCreationRequest userModel = createUserCreationRequest();
@@ -204,7 +374,7 @@ public class UserServiceTest {
         userModel.setCustomFields(List.of(customField));
         when(userRepository.findUserEntityByEmail(any())).thenReturn(Optional.empty());
         when(userRepository.findUserEntityByExternalId(any())).thenReturn(Optional.empty());
-        when(customFieldRepository.findAllById(any())).thenReturn(Collections.emptyList());
+        createCatalog(Collections.emptyList());
 
         Exception exception = assertThrows(BusinessLogicException.class, () -> {
             userService.createUser(userModel);
@@ -436,19 +606,17 @@ public class UserServiceTest {
     // Delete User Tests.
     @Test
     public void deleteUser_deletesUserCorrectly() {
-        List<UserRoleEntity> userRoleEntities = List.of(createUserRoleEntity());
         UserEntity userEntity = createUserEntity();
-        UserCustomFieldEntity userCustomFieldEntity = createDropDownUserCustomFieldEntity();
-        userCustomFieldEntity.setUser(userEntity);
-        List<UserCustomFieldEntity> userCustomFieldEntities = List.of(userCustomFieldEntity);
 
-        when(userRoleRepository.findAllByUserId(userEntity.getId())).thenReturn(userRoleEntities);
-        when(userCustomFieldRepository.findAllByUserId(userEntity.getId())).thenReturn(userCustomFieldEntities);
         when(userRepository.findById(userEntity.getId())).thenReturn(Optional.of(userEntity));
 
         ResponseEntity<Void> res = userService.deleteUser(userEntity.getId());
         assertEquals(res.getStatusCode(), HttpStatus.OK);
+        verify(userCustomFieldRepository).deleteAllByUserId(userEntity.getId());
+        verify(userRoleRepository).deleteAllByUserId(userEntity.getId());
+        verify(userPreferencesRepository).deleteAllByUserId(userEntity.getId());
         verify(userRepository).delete(userEntity);
+        verify(userPreferenceCache).invalidate(userEntity.getId());
     }
 
     @Test
@@ -478,6 +646,7 @@ public class UserServiceTest {
         UserRoleEntity capturedUserRole = userRoleCaptor.getValue();
         assertEquals(capturedUserRole.getRole(), roleEntity.get());
         assertEquals(capturedUserRole.getUser(), userEntity.get());
+        verify(principalRoleCache).invalidate(userEntity.get().getDisplayName());
     }
 
     @Test
@@ -523,6 +692,7 @@ public class UserServiceTest {
         ResponseEntity<Void> res = userService.removeRoleFromUser(userRole);
         assertEquals(res.getStatusCode(), HttpStatus.OK);
         verify(userRoleRepository).delete(userRoleEntity);
+        verify(principalRoleCache).invalidate(userEntity.get().getDisplayName());
     }
 
     @Test
@@ -575,7 +745,7 @@ public class UserServiceTest {
         userEntity.get().setUserRoleEntities(List.of(userRoleEntity));
 
         String resourceName = "default_resource";
-        when(userRepository.findById(userEntity.get().getId())).thenReturn(userEntity);
+        when(userRepository.findWithRolesById(userEntity.get().getId())).thenReturn(userEntity);
         when(roleService.getAllRolesInternal(eq(resourceName), anyList())).thenReturn(List.of(createRoleDto()));
 
         ResponseEntity<List<RoleDTO>> res = userService.getUserRolesById(userEntity.get().getId(), resourceName);
@@ -596,20 +766,87 @@ public class UserServiceTest {
     @Test
     public void getUserList_returnsUserListIfValid() {
         List<UserEntity> userEntities = List.of(createUserEntity());
-        userEntities.get(0).setUserRoleEntities(List.of(createUserRoleEntity()));
 
-        when(userRepository.findAll()).thenReturn(userEntities);
+        when(userRepository.findFirstPage(PageRequest.of(0, 101))).thenReturn(userEntities);
+        when(userRoleRepository.findAllWithRoleByUserIdIn(List.of(userEntities.get(0).getId())))
+                .thenReturn(List.of(createUserRoleEntity()));
 
-        ResponseEntity<List<UserDTO>> res = userService.getUserList();
+        ResponseEntity<List<UserDTO>> res = userService.getUserList(null, null);
         assertEquals(res.getStatusCode(), HttpStatus.OK);
         UserDTO userDTO = createUserDto();
         userDTO.setAssignedRoles(List.of(createAssignedRoleDto()));
         assertEquals(res.getBody(), List.of(userDTO));
+        assertNull(res.getHeaders().getFirst(UserService.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    public void getUserList_returnsNextCursor_ifMoreUsersExist() {
+        UserEntity first = createUserEntity();
+        first.setCreatedAt(LocalDateTime.of(2022, 1, 1, 0, 0));
+        UserEntity second = createUserEntity();
+        second.setId(UUID.randomUUID());
+        second.setCreatedAt(LocalDateTime.of(2022, 1, 2, 0, 0));
+
+        when(userRepository.findFirstPage(PageRequest.of(0, 2))).thenReturn(List.of(first, second));
+        when(userRoleRepository.findAllWithRoleByUserIdIn(List.of(first.getId()))).thenReturn(List.of());
+
+        ResponseEntity<List<UserDTO>> res = userService.getUserList(1, null);
+        assertEquals(1, res.getBody().size());
+        assertEquals(first.getId(), res.getBody().get(0).getId());
+        assertEquals(List.of(), res.getBody().get(0).getAssignedRoles());
+
+        UserPageCursor cursor = UserPageCursor.decode(res.getHeaders().getFirst(UserService.NEXT_CURSOR_HEADER));
+        assertEquals(first.getCreatedAt(), cursor.getCreatedAt());
+        assertEquals(first.getId(), cursor.getId());
+    }
+
+    @Test
+    public void getUserList_readsPageAfterCursor() {
+        UserEntity previous = createUserEntity();
+        previous.setCreatedAt(LocalDateTime.of(2022, 1, 1, 0, 0));
+        final String cursor = UserPageCursor.after(previous).encode();
+        UserEntity next = createUserEntity();
+        next.setId(UUID.randomUUID());
+
+        when(userRepository.findPageAfter(previous.getCreatedAt(), previous.getId(), PageRequest.of(0, 11)))
+                .thenReturn(List.of(next));
+        when(userRoleRepository.findAllWithRoleByUserIdIn(List.of(next.getId()))).thenReturn(List.of());
+
+        ResponseEntity<List<UserDTO>> res = userService.getUserList(10, cursor);
+        assertEquals(List.of(next.getId()), res.getBody().stream().map(UserDTO::getId).collect(Collectors.toList()));
+        assertNull(res.getHeaders().getFirst(UserService.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    public void getUserList_returnsEmptyList_ifCursorIsPastLastUser() {
+        UserEntity previous = createUserEntity();
+        previous.setCreatedAt(LocalDateTime.of(2022, 1, 1, 0, 0));
+
+        when(userRepository.findPageAfter(any(), any(), any())).thenReturn(List.of());
+
+        ResponseEntity<List<UserDTO>> res = userService.getUserList(null, UserPageCursor.after(previous).encode());
+        assertEquals(List.of(), res.getBody());
+        verifyNoInteractions(userRoleRepository);
+    }
+
+    @Test
+    public void getUserList_fails_ifLimitIsOutOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> userService.getUserList(0, null));
+        assertThrows(IllegalArgumentException.class, () -> userService.getUserList(1001, null));
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    public void getUserList_fails_ifCursorIsInvalid() {
+        Exception exception = assertThrows(IllegalArgumentException.class, () ->
+                userService.getUserList(null, "not-a-cursor"));
+        assertEquals("Invalid cursor.", exception.getMessage());
     }
 
     @Test
     public void getUserList_fails_ifNoUsersExist() {
-        Exception exception = assertThrows(ResourceNotFoundException.class, () -> userService.getUserList());
+        Exception exception = assertThrows(ResourceNotFoundException.class, () ->
+                userService.getUserList(null, null));
         assertEquals(exception.getMessage(), "No users found.");
     }
 
@@ -618,7 +855,7 @@ public class UserServiceTest {
     public void getUserById_returnsUserIfValid() {
         Optional<UserEntity> userEntity = Optional.of(createUserEntity());
         userEntity.get().setUserRoleEntities(List.of(createUserRoleEntity()));
-        when(userRepository.findById(userEntity.get().getId())).thenReturn(userEntity);
+        when(userRepository.findWithRolesById(userEntity.get().getId())).thenReturn(userEntity);
         UserDTO user = createUserDto();
         user.setAssignedRoles(List.of(createAssignedRoleDto()));
 
@@ -639,7 +876,7 @@ public class UserServiceTest {
     public void getUserByEmail_returnsUserIfValid() {
         Optional<UserEntity> userEntity = Optional.of(createUserEntity());
         userEntity.get().setUserRoleEntities(List.of(createUserRoleEntity()));
-        when(userRepository.findUserEntityByEmail(userEntity.get().getEmail())).thenReturn(userEntity);
+        when(userRepository.findWithRolesByEmail(userEntity.get().getEmail())).thenReturn(userEntity);
         UserDTO user = createUserDto();
         user.setAssignedRoles(List.of(createAssignedRoleDto()));
 
@@ -656,6 +893,43 @@ public class UserServiceTest {
         assertEquals("User not found!", exception.getMessage());
     }
 
+    @Test
+    public void batchGetUsers_returnsResultsInRequestOrder_withNotFoundMarkers() {
+        UserEntity user = createUserEntity();
+        UUID missingId = UUID.randomUUID();
+        when(userRepository.findAllById(Set.of(missingId, user.getId()))).thenReturn(List.of(user));
+        when(userRepository.findAllByEmailIn(Set.of(user.getEmail()))).thenReturn(List.of(user));
+        when(userRepository.findAllByExternalIdIn(Set.of("missing"))).thenReturn(List.of());
+        when(userRoleRepository.findAllWithRoleByUserIdIn(List.of(user.getId())))
+                .thenReturn(List.of(createUserRoleEntity()));
+        UserDTO userDto = createUserDto();
+        userDto.setAssignedRoles(List.of(createAssignedRoleDto()));
+
+        ResponseEntity<List<UserBatchGetResult>> res = userService.batchGetUsers(new UserBatchGetRequest()
+                .ids(List.of(missingId, user.getId())).emails(List.of(user.getEmail()))
+                .externalIds(List.of("missing")));
+        assertEquals(HttpStatus.OK, res.getStatusCode());
+        assertEquals(List.of(
+                new UserBatchGetResult().keyType(UserBatchGetResult.KeyTypeEnum.ID).key(missingId.toString())
+                        .status(UserBatchGetResult.StatusEnum.NOT_FOUND),
+                new UserBatchGetResult().keyType(UserBatchGetResult.KeyTypeEnum.ID).key(user.getId().toString())
+                        .status(UserBatchGetResult.StatusEnum.FOUND).user(userDto),
+                new UserBatchGetResult().keyType(UserBatchGetResult.KeyTypeEnum.EMAIL).key(user.getEmail())
+                        .status(UserBatchGetResult.StatusEnum.FOUND).user(userDto),
+                new UserBatchGetResult().keyType(UserBatchGetResult.KeyTypeEnum.EXTERNAL_ID).key("missing")
+                        .status(UserBatchGetResult.StatusEnum.NOT_FOUND)
+        ), res.getBody());
+    }
+
+    @Test
+    public void batchGetUsers_fails_ifBatchIsEmptyOrTooLarge() {
+        assertThrows(IllegalArgumentException.class, () -> userService.batchGetUsers(new UserBatchGetRequest()));
+        UserBatchGetRequest tooLarge = new UserBatchGetRequest().ids(List.of(UUID.randomUUID()))
+                .emails(Collections.nCopies(1000, "Skipper@theIsland.com"));
+        assertThrows(IllegalArgumentException.class, () -> userService.batchGetUsers(tooLarge));
+        verifyNoInteractions(userRepository, userRoleRepository);
+    }
+
     @Test
     public void updateCustomField_succeeds_if_valid() {
         UserEntity user = createUserEntity();
@@ -664,7 +938,8 @@ public class UserServiceTest {
         dto.setCustomFieldId(customFieldEntity.getId());
         dto.setValue("VALUE_1");
         when(userRepository.findById(any())).thenReturn(Optional.of(user));
-        when(customFieldRepository.findById(any())).thenReturn(Optional.of(customFieldEntity));
+        createCatalog(List.of(customFieldEntity));
+        when(customFieldRepository.getById(customFieldEntity.getId())).thenReturn(customFieldEntity);
         when(userCustomFieldRepository.findFirstByUserAndCustomField(any(), any())).thenReturn(Optional.empty());
 
         ResponseEntity<Void> res = userService.updateCustomField(user.getId(), dto);
@@ -694,7 +969,7 @@ public class UserServiceTest {
     public void updateCustomField_fails_if_field_does_not_exist() {
         UserEntity user = createUserEntity();
         when(userRepository.findById(any())).thenReturn(Optional.of(user));
-        when(customFieldRepository.findById(any())).thenReturn(Optional.empty());
+        createCatalog(Collections.emptyList());
         CreateOrUpdateUserCustomFieldDTO customField = new CreateOrUpdateUserCustomFieldDTO();
         customField.setCustomFieldId(UUID.randomUUID());
         customField.setValue("VALUE_1");
@@ -707,10 +982,14 @@ public class UserServiceTest {
     // Helper methods
 
     private UserCreationRequest createUserCreationRequest() {
+        return createUserCreationRequest("Skipper@theIsland.com", "TestExternalId1234");
+    }
+
+    private UserCreationRequest createUserCreationRequest(String email, String externalId) {
         UserCreationRequest userModel = new UserCreationRequest();
         userModel.setDisplayName("John Locke");
-        userModel.setEmail("Skipper@theIsland.com");
-        userModel.setExternalId("TestExternalId1234");
+        userModel.setEmail(email);
+        userModel.setExternalId(externalId);
         return userModel;
     }
 
@@ -739,6 +1018,10 @@ public class UserServiceTest {
         return roleEntity;
     }
 
+    private void createCatalog(List<CustomFieldEntity> customFields) {
+        when(customFieldCatalog.getSnapshot()).thenReturn(CustomFieldCatalog.Snapshot.build(1, customFields));
+    }
+
     private List<UserCustomFieldEntity> createUserCustomFieldEntityList() {
         return List.of(
                 createDropDownUserCustomFieldEntity(),
@@ -0,0 +1,60 @@
+package io.nuvalence.user.management.api.service.service;
+
+import io.nuvalence.user.management.api.service.generated.models.UserCreationRequest;
+import io.nuvalence.user.management.api.service.generated.models.UserUpsertResult;
+import io.nuvalence.user.management.api.service.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs the user upsert against the embedded database and holds it to a query budget: one statement for a new
+ * user, one more to classify a retry or a conflict.
+ */
+public class UserUpsertQueryCountTest extends AbstractQueryBudgetTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    public void upsertUser_insertsWithOneStatement_andReportsRetriesAndConflicts() {
+        UserCreationRequest user = createUserCreationRequest("upsert-" + UUID.randomUUID());
+        List<UserUpsertResult> results = new ArrayList<>();
+
+        assertWithinBudget(QueryBudget.statements(1), "UserService.upsertUser, new user", () ->
+                results.add(userService.upsertUser(user).getBody()));
+        assertEquals(UserUpsertResult.StatusEnum.CREATED, results.get(0).getStatus());
+        dataset.adoptUser(results.get(0).getId());
+
+        assertWithinBudget(QueryBudget.statements(2), "UserService.upsertUser, retry", () ->
+                results.add(userService.upsertUser(user).getBody()));
+        assertEquals(new UserUpsertResult().status(UserUpsertResult.StatusEnum.UNCHANGED).id(results.get(0).getId()),
+                results.get(1));
+
+        UserCreationRequest sameEmail = createUserCreationRequest("upsert-" + UUID.randomUUID())
+                .email(user.getEmail());
+        assertWithinBudget(QueryBudget.statements(2), "UserService.upsertUser, conflict", () ->
+                results.add(userService.upsertUser(sameEmail).getBody()));
+        assertEquals(new UserUpsertResult().status(UserUpsertResult.StatusEnum.CONFLICT)
+                .error("This Email is already assigned to a user."), results.get(2));
+        UserCreationRequest sameExternalId = createUserCreationRequest("upsert-" + UUID.randomUUID())
+                .externalId(user.getExternalId());
+        assertEquals(new UserUpsertResult().status(UserUpsertResult.StatusEnum.CONFLICT)
+                .error("This ExternalId is already assigned to a user."),
+                userService.upsertUser(sameExternalId).getBody());
+        assertEquals(1, userRepository.findAllByEmailOrExternalId(user.getEmail(), user.getExternalId()).size());
+    }
+
+    private static UserCreationRequest createUserCreationRequest(String name) {
+        return new UserCreationRequest().displayName(name).email(name + "@example.com").externalId(name)
+                .initialRoles(List.of());
+    }
+}
@@ -4,11 +4,14 @@ import io.nuvalence.user.management.api.service.cerbos.CerbosClient;
 import io.nuvalence.user.management.api.service.cerbos.models.CheckResourceSetResponse;
 import io.nuvalence.user.management.api.service.cerbos.models.CheckResourceSetResponseActionEffectMap;
 import io.nuvalence.user.management.api.service.cerbos.models.Effect;
-import io.nuvalence.user.management.api.service.entity.RoleEntity;
-import io.nuvalence.user.management.api.service.entity.UserEntity;
-import io.nuvalence.user.management.api.service.entity.UserRoleEntity;
+import io.nuvalence.user.management.api.service.config.exception.BusinessLogicException;
+import io.nuvalence.user.management.api.service.config.exception.ResourceNotFoundException;
+import io.nuvalence.user.management.api.service.generated.models.ValidatePermissionBatchRequest;
+import io.nuvalence.user.management.api.service.generated.models.ValidatePermissionBatchResponse;
+import io.nuvalence.user.management.api.service.generated.models.ValidatePermissionCheckDTO;
 import io.nuvalence.user.management.api.service.generated.models.ValidatePermissionDTO;
-import io.nuvalence.user.management.api.service.repository.UserRepository;
+import io.nuvalence.user.management.api.service.generated.models.ValidatePermissionResultDTO;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentMatchers;
@@ -17,20 +20,28 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
 
-import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 public class ValidateServiceTest {
 
     @Mock
-    private UserRepository userRepository;
+    private PrincipalRoleCache principalRoleCache;
 
     @Mock
     private CerbosClient client;
@@ -38,10 +49,15 @@ public class ValidateServiceTest {
     @InjectMocks
     private ValidateService validateService;
 
+    @BeforeEach
+    void initTests() {
+        ReflectionTestUtils.setField(validateService, "maxBatchSize", 10);
+    }
+
     @Test
     public void validateUserPermission_returnsAllowTrue() {
-        when(userRepository.findUserEntityByDisplayName("allow")).thenReturn(Optional.of(getUserEntity()));
-        when(client.check(ArgumentMatchers.anyString(), ArgumentMatchers.<UserEntity>any(), any()))
+        when(principalRoleCache.getRoleNames("allow")).thenReturn(Optional.of(List.of("allow")));
+        when(client.checkPrincipal("default_resource", "allow", List.of("allow"), "permissionToTest"))
                 .thenReturn(true);
 
         ResponseEntity<ValidatePermissionDTO> response = validateService
@@ -52,8 +68,8 @@ public class ValidateServiceTest {
 
     @Test
     public void validateUserPermission_returnsAllowFalse() {
-        when(userRepository.findUserEntityByDisplayName("allow")).thenReturn(Optional.of(getUserEntity()));
-        when(client.check(ArgumentMatchers.anyString(), ArgumentMatchers.<UserEntity>any(), any()))
+        when(principalRoleCache.getRoleNames("allow")).thenReturn(Optional.of(List.of("allow")));
+        when(client.checkPrincipal("default_resource", "allow", List.of("allow"), "permissionToTest"))
                 .thenReturn(false);
 
         ResponseEntity<ValidatePermissionDTO> response = validateService
@@ -62,15 +78,98 @@ public class ValidateServiceTest {
         assertEquals(response.getBody().getAllow(), false);
     }
 
-    private UserEntity getUserEntity() {
-        var userEntity = new UserEntity();
-        UserRoleEntity userRole = new UserRoleEntity();
-        RoleEntity role = new RoleEntity();
-        role.setRoleName("allow");
-        userRole.setRole(role);
-        userEntity.setDisplayName("allow");
-        userEntity.setUserRoleEntities(Arrays.asList(userRole));
-        return userEntity;
+    @Test
+    public void validateUserPermission_throwsIfUserDoesNotExist() {
+        when(principalRoleCache.getRoleNames("unknown")).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> validateService
+                .validateUserPermission("unknown", "permissionToTest", "default_resource"));
+        verify(client, never()).checkPrincipal(any(), any(), any(), any());
+    }
+
+    @Test
+    public void validateUserPermissions_groupsChecksByResourceAndRoles() {
+        when(principalRoleCache.getRoleNames(Set.of("alice", "bob", "carol", "unknown")))
+                .thenReturn(Map.of("alice", List.of("ROLE_1"), "bob", List.of("ROLE_1"), "carol", List.of("ROLE_2")));
+        when(client.checkResourceSet("app01", List.of("ROLE_1"), Set.of("alice", "bob"), Set.of("read", "write")))
+                .thenReturn(Map.of("alice", Map.of("read", true, "write", false),
+                        "bob", Map.of("read", true, "write", false)));
+        when(client.checkResourceSet("app01", List.of("ROLE_2"), Set.of("carol"), Set.of("read")))
+                .thenReturn(Map.of("carol", Map.of("read", false)));
+
+        ValidatePermissionBatchRequest request = new ValidatePermissionBatchRequest();
+        request.setChecks(List.of(
+                getCheck("alice", "read", "app01"),
+                getCheck("bob", "WRITE", "app01"),
+                getCheck("carol", "read", "app01"),
+                getCheck("unknown", "read", "app01"),
+                getCheck("alice", "write", "app01")
+        ));
+
+        ResponseEntity<ValidatePermissionBatchResponse> response = validateService.validateUserPermissions(request);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of(true, false, false, false, false), response.getBody().getResults().stream()
+                .map(ValidatePermissionResultDTO::getAllow).collect(Collectors.toList()));
+        assertEquals("bob", response.getBody().getResults().get(1).getUserName());
+        verify(client, times(2)).checkResourceSet(ArgumentMatchers.anyString(), ArgumentMatchers.any(),
+                ArgumentMatchers.any(), ArgumentMatchers.any());
+    }
+
+    @Test
+    public void validateUserPermissions_groupsChecksOfDifferentlySpelledResourceNames() {
+        when(principalRoleCache.getRoleNames(Set.of("alice")))
+                .thenReturn(Map.of("alice", List.of("ROLE_1")));
+        when(client.checkResourceSet("app_01", List.of("ROLE_1"), Set.of("alice"), Set.of("read", "write")))
+                .thenReturn(Map.of("alice", Map.of("read", true, "write", false)));
+
+        ValidatePermissionBatchRequest request = new ValidatePermissionBatchRequest();
+        request.setChecks(List.of(
+                getCheck("alice", "read", "App-01"),
+                getCheck("alice", "write", "app_01")
+        ));
+
+        ResponseEntity<ValidatePermissionBatchResponse> response = validateService.validateUserPermissions(request);
+
+        assertEquals(List.of(true, false), response.getBody().getResults().stream()
+                .map(ValidatePermissionResultDTO::getAllow).collect(Collectors.toList()));
+        assertEquals(List.of("App-01", "app_01"), response.getBody().getResults().stream()
+                .map(ValidatePermissionResultDTO::getResource).collect(Collectors.toList()));
+        verify(client, times(1)).checkResourceSet(ArgumentMatchers.anyString(), ArgumentMatchers.any(),
+                ArgumentMatchers.any(), ArgumentMatchers.any());
+    }
+
+    @Test
+    public void validateUserPermissions_deniesUnknownUsersWithoutCallingCerbos() {
+        when(principalRoleCache.getRoleNames(Set.of("unknown"))).thenReturn(Collections.emptyMap());
+
+        ValidatePermissionBatchRequest request = new ValidatePermissionBatchRequest();
+        request.setChecks(List.of(getCheck("unknown", "read", "app01")));
+
+        ResponseEntity<ValidatePermissionBatchResponse> response = validateService.validateUserPermissions(request);
+
+        assertEquals(false, response.getBody().getResults().get(0).getAllow());
+        verify(client, times(0)).checkResourceSet(ArgumentMatchers.anyString(), ArgumentMatchers.any(),
+                ArgumentMatchers.any(), ArgumentMatchers.any());
+    }
+
+    @Test
+    public void validateUserPermissions_throwsIfBatchIsEmptyOrTooLarge() {
+        ValidatePermissionBatchRequest emptyRequest = new ValidatePermissionBatchRequest();
+        emptyRequest.setChecks(Collections.emptyList());
+        assertThrows(BusinessLogicException.class, () -> validateService.validateUserPermissions(emptyRequest));
+
+        ValidatePermissionBatchRequest largeRequest = new ValidatePermissionBatchRequest();
+        largeRequest.setChecks(Collections.nCopies(11, getCheck("alice", "read", "app01")));
+        assertThrows(BusinessLogicException.class, () -> validateService.validateUserPermissions(largeRequest));
+    }
+
+    private ValidatePermissionCheckDTO getCheck(String userName, String permission, String resource) {
+        ValidatePermissionCheckDTO check = new ValidatePermissionCheckDTO();
+        check.setUserName(userName);
+        check.setPermission(permission);
+        check.setResource(resource);
+        return check;
     }
 
     private CheckResourceSetResponse getCheckResponse(Boolean allow) {